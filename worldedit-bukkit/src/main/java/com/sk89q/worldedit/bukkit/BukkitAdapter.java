@@ -21,7 +21,6 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.base.Function;
 import com.sk89q.worldedit.NotABlockException;
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.WorldEdit;
@@ -42,17 +41,15 @@
 import com.sk89q.worldedit.world.gamemode.GameModes;
 import com.sk89q.worldedit.world.item.ItemType;
 import com.sk89q.worldedit.world.item.ItemTypes;
+import com.sk89q.worldedit.world.registry.BlockStateTranslationTable;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
-
-import javax.annotation.Nullable;
+import java.util.logging.Level;
 
 /**
  * Adapts between Bukkit and WorldEdit equivalent objects.
@@ -321,7 +318,27 @@ public static ItemType asItemType(Material material) {
         return ItemTypes.get(material.getKey().toString());
     }
 
-    private static Map<String, BlockState> blockStateCache = new HashMap<>();
+    private static final BlockStateTranslationTable<BlockData> blockStateTable = new BlockStateTranslationTable<>(
+            state -> Bukkit.createBlockData(state.getAsString()),
+            blockData -> {
+                try {
+                    return WorldEdit.getInstance().getBlockFactory().parseFromInput(blockData.getAsString(), TO_BLOCK_CONTEXT).toImmutableState();
+                } catch (InputParseException e) {
+                    WorldEditPlugin.getInstance().getLogger().log(Level.WARNING, "Failed to translate Bukkit block data " + blockData.getAsString(), e);
+                    return null;
+                }
+            },
+            // Callers may keep changing the block data that they pass in
+            BlockData::clone);
+
+    /**
+     * Translate every known block state ahead of time, so that
+     * {@link #adapt(BlockData)} and {@link #adapt(BlockStateHolder)} do not
+     * have to parse or build state strings later.
+     */
+    static void loadBlockStateTable() {
+        blockStateTable.populate();
+    }
 
     /**
      * Create a WorldEdit BlockState from a Bukkit BlockData
@@ -331,22 +348,9 @@ public static ItemType asItemType(Material material) {
      */
     public static BlockState adapt(BlockData blockData) {
         checkNotNull(blockData);
-        return blockStateCache.computeIfAbsent(blockData.getAsString(), new Function<String, BlockState>() {
-            @Nullable
-            @Override
-            public BlockState apply(@Nullable String input) {
-                try {
-                    return WorldEdit.getInstance().getBlockFactory().parseFromInput(input, TO_BLOCK_CONTEXT).toImmutableState();
-                } catch (InputParseException e) {
-                    e.printStackTrace();
-                    return null;
-                }
-            }
-        });
+        return blockStateTable.fromPlatform(blockData);
     }
 
-    private static Map<String, BlockData> blockDataCache = new HashMap<>();
-
     /**
      * Create a Bukkit BlockData from a WorldEdit BlockStateHolder
      *
@@ -355,13 +359,18 @@ public BlockState apply(@Nullable String input) {
      */
     public static BlockData adapt(BlockStateHolder block) {
         checkNotNull(block);
-        return blockDataCache.computeIfAbsent(block.getAsString(), new Function<String, BlockData>() {
-            @Nullable
-            @Override
-            public BlockData apply(@Nullable String input) {
-                return Bukkit.createBlockData(block.getAsString());
-            }
-        }).clone();
+        return adaptShared(block).clone();
+    }
+
+    /**
+     * Get the shared Bukkit BlockData for a WorldEdit BlockStateHolder,
+     * which must not be modified.
+     *
+     * @param block The WorldEdit BlockStateHolder
+     * @return The Bukkit BlockData
+     */
+    static BlockData adaptShared(BlockStateHolder block) {
+        return blockStateTable.toPlatform(block);
     }
 
     /**
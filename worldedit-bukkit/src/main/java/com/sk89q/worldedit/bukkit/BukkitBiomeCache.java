@@ -0,0 +1,87 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.bukkit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.bukkit.adapter.BukkitImplAdapter;
+import org.bukkit.block.Biome;
+
+import java.util.Arrays;
+
+/**
+ * Remembers how the adapter translates between biome IDs and Bukkit
+ * {@link Biome}s, so that edits over many columns look each biome up once.
+ */
+class BukkitBiomeCache {
+
+    private static final int MAX_CACHED_ID = 255;
+
+    private final BukkitImplAdapter adapter;
+    private final int[] ids;
+    private final Biome[] biomes = new Biome[MAX_CACHED_ID + 1];
+
+    /**
+     * Create a new cache.
+     *
+     * @param adapter the adapter to ask about biomes that are not cached
+     */
+    BukkitBiomeCache(BukkitImplAdapter adapter) {
+        checkNotNull(adapter);
+        this.adapter = adapter;
+        this.ids = new int[Biome.values().length];
+        Arrays.fill(ids, -1);
+    }
+
+    /**
+     * Get the biome ID of a Bukkit biome.
+     *
+     * @param biome the biome
+     * @return the biome ID
+     */
+    int getBiomeId(Biome biome) {
+        // Racing threads store the same answer, so no locking is needed
+        int id = ids[biome.ordinal()];
+        if (id == -1) {
+            id = adapter.getBiomeId(biome);
+            ids[biome.ordinal()] = id;
+        }
+        return id;
+    }
+
+    /**
+     * Get the Bukkit biome of a biome ID.
+     *
+     * @param id the biome ID
+     * @return the biome
+     */
+    Biome getBiome(int id) {
+        if (id < 0 || id > MAX_CACHED_ID) {
+            return adapter.getBiome(id);
+        }
+        Biome biome = biomes[id];
+        if (biome == null) {
+            biome = adapter.getBiome(id);
+            biomes[id] = biome;
+        }
+        return biome;
+    }
+
+}
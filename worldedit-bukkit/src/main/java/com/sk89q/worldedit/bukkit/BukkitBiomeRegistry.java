@@ -19,7 +19,6 @@
 
 package com.sk89q.worldedit.bukkit;
 
-import com.sk89q.worldedit.bukkit.adapter.BukkitImplAdapter;
 import com.sk89q.worldedit.world.biome.BaseBiome;
 import com.sk89q.worldedit.world.biome.BiomeData;
 import com.sk89q.worldedit.world.registry.BiomeRegistry;
@@ -47,11 +46,11 @@ public BaseBiome createFromId(int id) {
 
     @Override
     public List<BaseBiome> getBiomes() {
-        BukkitImplAdapter adapter = WorldEditPlugin.getInstance().getBukkitImplAdapter();
-        if (adapter != null) {
+        BukkitBiomeCache cache = WorldEditPlugin.getInstance().getBiomeCache();
+        if (cache != null) {
             List<BaseBiome> biomes = new ArrayList<>();
             for (Biome biome : Biome.values()) {
-                int biomeId = adapter.getBiomeId(biome);
+                int biomeId = cache.getBiomeId(biome);
                 biomes.add(new BaseBiome(biomeId));
             }
             return biomes;
@@ -63,9 +62,9 @@ public List<BaseBiome> getBiomes() {
     @Nullable
     @Override
     public BiomeData getData(BaseBiome biome) {
-        BukkitImplAdapter adapter = WorldEditPlugin.getInstance().getBukkitImplAdapter();
-        if (adapter != null) {
-            final Biome bukkitBiome = adapter.getBiome(biome.getId());
+        BukkitBiomeCache cache = WorldEditPlugin.getInstance().getBiomeCache();
+        if (cache != null) {
+            final Biome bukkitBiome = cache.getBiome(biome.getId());
             return bukkitBiome::name;
         } else {
             return null;
@@ -19,6 +19,7 @@
 
 package com.sk89q.worldedit.bukkit;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.sk89q.worldedit.BlockVector2D;
@@ -34,11 +35,13 @@
 import com.sk89q.worldedit.regions.Region;
 import com.sk89q.worldedit.util.TreeGenerator;
 import com.sk89q.worldedit.world.AbstractWorld;
+import com.sk89q.worldedit.world.ChunkPrefetch;
 import com.sk89q.worldedit.world.biome.BaseBiome;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 import com.sk89q.worldedit.world.weather.WeatherType;
 import com.sk89q.worldedit.world.weather.WeatherTypes;
+import org.bukkit.Chunk;
 import org.bukkit.Effect;
 import org.bukkit.TreeType;
 import org.bukkit.World;
@@ -56,6 +59,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -72,6 +76,12 @@ public class BukkitWorld extends AbstractWorld {
         }
     }
 
+    /**
+     * The number of chunk columns above which region entity queries walk
+     * the loaded chunks instead of the columns of the region.
+     */
+    private static final int CHUNK_SCAN_LIMIT = 1024;
+
     private final WeakReference<World> worldRef;
 
     /**
@@ -87,14 +97,43 @@ public BukkitWorld(World world) {
     public List<com.sk89q.worldedit.entity.Entity> getEntities(Region region) {
         World world = getWorld();
 
-        List<Entity> ents = world.getEntities();
+        // Region.contains() rounds positions, so pad the box by a block to
+        // catch entities standing just outside of its bounds
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        int minChunkX = (min.getBlockX() - 1) >> 4;
+        int minChunkZ = (min.getBlockZ() - 1) >> 4;
+        int maxChunkX = (max.getBlockX() + 1) >> 4;
+        int maxChunkZ = (max.getBlockZ() + 1) >> 4;
+        long columns = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+
         List<com.sk89q.worldedit.entity.Entity> entities = new ArrayList<>();
-        for (Entity ent : ents) {
+        if (columns > CHUNK_SCAN_LIMIT) {
+            // Cheaper to walk the loaded chunks than every column of a huge region
+            for (Chunk chunk : world.getLoadedChunks()) {
+                if (chunk.getX() >= minChunkX && chunk.getX() <= maxChunkX
+                        && chunk.getZ() >= minChunkZ && chunk.getZ() <= maxChunkZ) {
+                    addEntities(chunk, region, entities);
+                }
+            }
+        } else {
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    if (world.isChunkLoaded(chunkX, chunkZ)) {
+                        addEntities(world.getChunkAt(chunkX, chunkZ), region, entities);
+                    }
+                }
+            }
+        }
+        return entities;
+    }
+
+    private static void addEntities(Chunk chunk, Region region, List<com.sk89q.worldedit.entity.Entity> entities) {
+        for (Entity ent : chunk.getEntities()) {
             if (region.contains(BukkitAdapter.asVector(ent.getLocation()))) {
                 entities.add(BukkitAdapter.adapt(ent));
             }
         }
-        return entities;
     }
 
     @Override
@@ -313,6 +352,25 @@ public void checkLoadedChunk(Vector pt) {
         }
     }
 
+    @Override
+    public ChunkPrefetch prefetchChunks(Set<BlockVector2D> chunks) {
+        World world = getWorld();
+        ChunkHoldListener holds = WorldEditPlugin.getInstance().getChunkHolds();
+        holds.hold(world, chunks);
+        ChunkPrefetch prefetch = new ChunkPrefetch(chunks, () -> holds.release(world, chunks));
+
+        // The Bukkit API has no asynchronous chunk loading, so load the
+        // chunks in one batch before the edit rather than as it reaches them
+        for (BlockVector2D chunk : chunks) {
+            boolean loaded = world.isChunkLoaded(chunk.getBlockX(), chunk.getBlockZ());
+            if (!loaded) {
+                world.loadChunk(chunk.getBlockX(), chunk.getBlockZ());
+            }
+            prefetch.markLoaded(chunk, loaded);
+        }
+        return prefetch;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == null) {
@@ -427,12 +485,12 @@ public boolean setBlock(Vector position, BlockStateHolder block, boolean notifyA
                 }
                 e.printStackTrace();
                 Block bukkitBlock = getWorld().getBlockAt(position.getBlockX(), position.getBlockY(), position.getBlockZ());
-                bukkitBlock.setBlockData(BukkitAdapter.adapt(block), notifyAndLight);
+                bukkitBlock.setBlockData(BukkitAdapter.adaptShared(block), notifyAndLight);
                 return true;
             }
         } else {
             Block bukkitBlock = getWorld().getBlockAt(position.getBlockX(), position.getBlockY(), position.getBlockZ());
-            bukkitBlock.setBlockData(BukkitAdapter.adapt(block), notifyAndLight);
+            bukkitBlock.setBlockData(BukkitAdapter.adaptShared(block), notifyAndLight);
             return true;
         }
     }
@@ -449,24 +507,66 @@ public BaseBlock getFullBlock(Vector position) {
 
     @Override
     public BaseBiome getBiome(Vector2D position) {
-        BukkitImplAdapter adapter = WorldEditPlugin.getInstance().getBukkitImplAdapter();
-        if (adapter != null) {
-            int id = adapter.getBiomeId(getWorld().getBiome(position.getBlockX(), position.getBlockZ()));
+        BukkitBiomeCache biomes = WorldEditPlugin.getInstance().getBiomeCache();
+        if (biomes != null) {
+            int id = biomes.getBiomeId(getWorld().getBiome(position.getBlockX(), position.getBlockZ()));
             return new BaseBiome(id);
         } else {
             return new BaseBiome(0);
         }
     }
 
+    @Override
+    public void getBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        checkNotNull(biomes);
+        checkArgument(biomes.length >= width * length, "biomes is too small");
+
+        BukkitBiomeCache cache = WorldEditPlugin.getInstance().getBiomeCache();
+        World world = getWorld();
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                int id = cache != null ? cache.getBiomeId(world.getBiome(x + dx, z + dz)) : 0;
+                // BaseBiome is mutable, so every column gets its own
+                biomes[index++] = new BaseBiome(id);
+            }
+        }
+    }
+
     @Override
     public boolean setBiome(Vector2D position, BaseBiome biome) {
-        BukkitImplAdapter adapter = WorldEditPlugin.getInstance().getBukkitImplAdapter();
-        if (adapter != null) {
-            Biome bukkitBiome = adapter.getBiome(biome.getId());
+        BukkitBiomeCache biomes = WorldEditPlugin.getInstance().getBiomeCache();
+        if (biomes != null) {
+            Biome bukkitBiome = biomes.getBiome(biome.getId());
             getWorld().setBiome(position.getBlockX(), position.getBlockZ(), bukkitBiome);
             return true;
         } else {
             return false;
         }
     }
+
+    @Override
+    public int setBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        checkNotNull(biomes);
+        checkArgument(biomes.length >= width * length, "biomes is too small");
+
+        BukkitBiomeCache cache = WorldEditPlugin.getInstance().getBiomeCache();
+        if (cache == null) {
+            return 0;
+        }
+
+        World world = getWorld();
+        int changed = 0;
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                BaseBiome biome = biomes[index++];
+                if (biome != null) {
+                    world.setBiome(x + dx, z + dz, cache.getBiome(biome.getId()));
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
 }
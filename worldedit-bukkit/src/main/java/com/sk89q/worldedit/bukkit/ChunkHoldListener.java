@@ -0,0 +1,78 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.bukkit;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+import com.sk89q.worldedit.BlockVector2D;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps chunks that were prefetched for an edit from being unloaded until
+ * the edit releases them.
+ */
+public class ChunkHoldListener implements Listener {
+
+    private final Map<UUID, Multiset<BlockVector2D>> held = new ConcurrentHashMap<>();
+
+    /**
+     * Hold the given chunks. Chunks may be held more than once, and stay
+     * held until each hold is released.
+     *
+     * @param world the world
+     * @param chunks the chunk coordinates
+     */
+    public void hold(World world, Collection<BlockVector2D> chunks) {
+        held.computeIfAbsent(world.getUID(), k -> ConcurrentHashMultiset.create()).addAll(chunks);
+    }
+
+    /**
+     * Release chunks that were held with {@link #hold(World, Collection)}.
+     *
+     * @param world the world
+     * @param chunks the chunk coordinates
+     */
+    public void release(World world, Collection<BlockVector2D> chunks) {
+        Multiset<BlockVector2D> chunksHeld = held.get(world.getUID());
+        if (chunksHeld != null) {
+            for (BlockVector2D chunk : chunks) {
+                chunksHeld.remove(chunk);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Multiset<BlockVector2D> chunksHeld = held.get(event.getWorld().getUID());
+        if (chunksHeld != null && chunksHeld.contains(new BlockVector2D(event.getChunk().getX(), event.getChunk().getZ()))) {
+            event.setCancelled(true);
+        }
+    }
+
+}
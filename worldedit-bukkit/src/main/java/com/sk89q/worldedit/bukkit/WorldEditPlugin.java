@@ -67,8 +67,10 @@ public class WorldEditPlugin extends JavaPlugin implements TabCompleter {
     private static WorldEditPlugin INSTANCE;
 
     private BukkitImplAdapter bukkitAdapter;
+    private BukkitBiomeCache biomeCache;
     private BukkitServerInterface server;
     private BukkitConfiguration config;
+    private final ChunkHoldListener chunkHolds = new ChunkHoldListener();
 
     /**
      * Called on plugin enable.
@@ -98,12 +100,16 @@ public void onEnable() {
 
         // Now we can register events
         getServer().getPluginManager().registerEvents(new WorldEditListener(this), this);
+        getServer().getPluginManager().registerEvents(chunkHolds, this);
 
         // If we are on MCPC+/Cauldron, then Forge will have already loaded
         // Forge WorldEdit and there's (probably) not going to be any other
         // platforms to be worried about... at the current time of writing
         WorldEdit.getInstance().getEventBus().post(new PlatformReadyEvent());
 
+        // Block types are registered now, so translate their states once up front
+        BukkitAdapter.loadBlockStateTable();
+
         // Setup the BukkitImplementationTester.
         BukkitImplementationTester.getImplementation();
 
@@ -137,6 +143,7 @@ private void loadAdapter() {
         }
         try {
             bukkitAdapter = adapterLoader.loadAdapter();
+            biomeCache = new BukkitBiomeCache(bukkitAdapter);
             log.log(Level.INFO, "Using " + bukkitAdapter.getClass().getCanonicalName() + " as the Bukkit adapter");
         } catch (AdapterLoadException e) {
             Platform platform = worldEdit.getPlatformManager().queryCapability(Capability.WORLD_EDITING);
@@ -302,6 +309,15 @@ public BukkitConfiguration getLocalConfiguration() {
         return config;
     }
 
+    /**
+     * Get the listener that keeps prefetched chunks loaded.
+     *
+     * @return the chunk hold listener
+     */
+    ChunkHoldListener getChunkHolds() {
+        return chunkHolds;
+    }
+
     /**
      * Get the permissions resolver in use.
      *
@@ -362,4 +378,14 @@ BukkitImplAdapter getBukkitImplAdapter() {
         return bukkitAdapter;
     }
 
+    /**
+     * Get the cached biome translation of the Bukkit implementation adapter.
+     *
+     * @return the biome cache, or null if there is no adapter
+     */
+    @Nullable
+    BukkitBiomeCache getBiomeCache() {
+        return biomeCache;
+    }
+
 }
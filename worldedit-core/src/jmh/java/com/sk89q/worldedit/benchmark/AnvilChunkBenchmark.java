@@ -0,0 +1,131 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.jnbt.ByteTag;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.IntTag;
+import com.sk89q.jnbt.ListTag;
+import com.sk89q.jnbt.LongArrayTag;
+import com.sk89q.jnbt.StringTag;
+import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.world.DataException;
+import com.sk89q.worldedit.world.block.BlockType;
+import com.sk89q.worldedit.world.chunk.AnvilChunk13;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding a 1.13 chunk, with a growing number of sections and
+ * palette entries per section.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AnvilChunkBenchmark {
+
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+
+    @Param({ "1", "8", "16" })
+    public int sections;
+
+    @Param({ "2", "16", "200" })
+    public int paletteSize;
+
+    private CompoundTag tag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkPlatform.setUp();
+
+        // Blocks without properties, so that the palette needs no states
+        List<Tag> palette = new ArrayList<>();
+        for (BlockType type : BlockType.REGISTRY) {
+            if (palette.size() == paletteSize) {
+                break;
+            }
+            if (type.getPropertyMap().isEmpty()) {
+                Map<String, Tag> entry = new HashMap<>();
+                entry.put("Name", new StringTag(type.getId()));
+                palette.add(new CompoundTag(entry));
+            }
+        }
+
+        int bits = 4;
+        while ((1 << bits) < palette.size()) {
+            bits++;
+        }
+
+        Random random = new Random(0);
+        List<Tag> sectionTags = new ArrayList<>();
+        for (int y = 0; y < sections; y++) {
+            long[] states = new long[(SECTION_VOLUME * bits + 63) / 64];
+            for (int i = 0; i < SECTION_VOLUME; i++) {
+                long value = random.nextInt(palette.size());
+                int bit = i * bits;
+                int offset = bit & 63;
+                states[bit >>> 6] |= value << offset;
+                if (offset + bits > 64) {
+                    states[(bit >>> 6) + 1] |= value >>> (64 - offset);
+                }
+            }
+
+            Map<String, Tag> section = new HashMap<>();
+            section.put("Y", new ByteTag((byte) y));
+            section.put("Palette", new ListTag(CompoundTag.class, palette));
+            section.put("BlockStates", new LongArrayTag(states));
+            sectionTags.add(new CompoundTag(section));
+        }
+
+        Map<String, Tag> root = new HashMap<>();
+        root.put("xPos", new IntTag(0));
+        root.put("zPos", new IntTag(0));
+        root.put("Sections", new ListTag(CompoundTag.class, sectionTags));
+        root.put("TileEntities", new ListTag(CompoundTag.class, Collections.<Tag>emptyList()));
+        tag = new CompoundTag(root);
+    }
+
+    @Benchmark
+    public AnvilChunk13 decode() throws DataException {
+        return new AnvilChunk13(tag);
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.worldedit.LocalConfiguration;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.entity.Player;
+import com.sk89q.worldedit.event.platform.PlatformReadyEvent;
+import com.sk89q.worldedit.extension.platform.AbstractPlatform;
+import com.sk89q.worldedit.extension.platform.Capability;
+import com.sk89q.worldedit.extension.platform.Preference;
+import com.sk89q.worldedit.util.command.Dispatcher;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.registry.BundledRegistries;
+import com.sk89q.worldedit.world.registry.Registries;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A platform without a game, which serves the bundled block and item data
+ * so that benchmarks can run outside of a server.
+ */
+public class BenchmarkPlatform extends AbstractPlatform {
+
+    private static BenchmarkPlatform instance;
+
+    private LocalConfiguration configuration;
+
+    private BenchmarkPlatform() {
+    }
+
+    /**
+     * Register the benchmark platform with WorldEdit, if that has not
+     * happened yet.
+     *
+     * @return the platform
+     */
+    public static synchronized BenchmarkPlatform setUp() {
+        if (instance == null) {
+            instance = new BenchmarkPlatform();
+            WorldEdit.getInstance().getPlatformManager().register(instance);
+            WorldEdit.getInstance().getEventBus().post(new PlatformReadyEvent());
+        }
+        return instance;
+    }
+
+    @Override
+    public Registries getRegistries() {
+        return BundledRegistries.getInstance();
+    }
+
+    @Override
+    public boolean isValidMobType(String type) {
+        return false;
+    }
+
+    @Override
+    public void reload() {
+    }
+
+    @Nullable
+    @Override
+    public Player matchPlayer(Player player) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public World matchWorld(World world) {
+        return world;
+    }
+
+    @Override
+    public void registerCommands(Dispatcher dispatcher) {
+    }
+
+    @Override
+    public void registerGameHooks() {
+    }
+
+    @Override
+    public synchronized LocalConfiguration getConfiguration() {
+        // LocalConfiguration pulls in the block types, which need this
+        // platform to be registered first
+        if (configuration == null) {
+            configuration = new LocalConfiguration() {
+                @Override
+                public void load() {
+                }
+            };
+        }
+        return configuration;
+    }
+
+    @Override
+    public String getVersion() {
+        return WorldEdit.getVersion();
+    }
+
+    @Override
+    public String getPlatformName() {
+        return "Benchmark";
+    }
+
+    @Override
+    public String getPlatformVersion() {
+        return WorldEdit.getVersion();
+    }
+
+    @Override
+    public Map<Capability, Preference> getCapabilities() {
+        Map<Capability, Preference> capabilities = new EnumMap<>(Capability.class);
+        capabilities.put(Capability.CONFIGURATION, Preference.NORMAL);
+        capabilities.put(Capability.GAME_HOOKS, Preference.NORMAL);
+        capabilities.put(Capability.WORLD_EDITING, Preference.NORMAL);
+        return capabilities;
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import com.sk89q.worldedit.world.registry.BlockStateTranslationTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares translating states through {@link BlockStateTranslationTable}
+ * against the string-keyed cache that platform adapters used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BlockStateTranslationBenchmark {
+
+    private List<BlockState> states;
+    private BlockStateTranslationTable<Object> table;
+    private Map<String, Object> stringCache;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkPlatform.setUp();
+        states = BlockTypes.LEVER.getAllStates();
+        table = new BlockStateTranslationTable<>(state -> new Object(), platformState -> null);
+        table.populate();
+        stringCache = new HashMap<>();
+    }
+
+    private BlockState nextState() {
+        BlockState state = states.get(next);
+        next = (next + 1) % states.size();
+        return state;
+    }
+
+    @Benchmark
+    public Object stringCache() {
+        return stringCache.computeIfAbsent(buildString(nextState()), key -> new Object());
+    }
+
+    @Benchmark
+    public Object table() {
+        return table.toPlatform(nextState());
+    }
+
+    /**
+     * The state string as {@link BlockStateHolder#getAsString()} builds it
+     * when it is not cached.
+     */
+    private static String buildString(BlockState state) {
+        return state.getBlockType().getId() + "[" + state.getStates().entrySet().stream()
+                .map(entry -> entry.getKey().getName() + "=" + entry.getValue().toString().toLowerCase())
+                .collect(Collectors.joining(",")) + "]";
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.worldedit.math.convolution.ConvolutionEngine;
+import com.sk89q.worldedit.math.convolution.GaussianKernel;
+import com.sk89q.worldedit.math.convolution.Kernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures smoothing a 512x512 height map with a full 2D kernel, a
+ * separable kernel on one tile and a separable kernel on the default tiling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ConvolutionBenchmark {
+
+    private static final int SIZE = 512;
+
+    private float[] data;
+    private GaussianKernel separable;
+    private Kernel full;
+    private ConvolutionEngine serial;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        data = new float[SIZE * SIZE];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = 64 + random.nextInt(32);
+        }
+        separable = new GaussianKernel(5, 1.0);
+        full = new Kernel(separable.getWidth(), separable.getHeight(), separable.getKernelData(null));
+        serial = new ConvolutionEngine(ForkJoinPool.commonPool(), SIZE);
+    }
+
+    @Benchmark
+    public float[] fullSerial() {
+        return serial.convolve(data, SIZE, SIZE, full);
+    }
+
+    @Benchmark
+    public float[] separableSerial() {
+        return serial.convolve(data, SIZE, SIZE, separable);
+    }
+
+    @Benchmark
+    public float[] separableTiled() {
+        return ConvolutionEngine.getDefault().convolve(data, SIZE, SIZE, separable);
+    }
+
+}
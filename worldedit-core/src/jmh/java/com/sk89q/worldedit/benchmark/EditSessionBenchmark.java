@@ -0,0 +1,110 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.function.mask.BlockTypeMask;
+import com.sk89q.worldedit.function.pattern.BlockPattern;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures filling and replacing cuboids through a full {@link EditSession}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EditSessionBenchmark {
+
+    @Param({ "16", "64", "128" })
+    public int size;
+
+    private MemoryWorld world;
+    private CuboidRegion region;
+    private BlockState from;
+    private BlockState to;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws MaxChangedBlocksException {
+        BenchmarkPlatform.setUp();
+        world = new MemoryWorld("benchmark");
+        region = new CuboidRegion(world, new Vector(0, 0, 0), new Vector(size - 1, size - 1, size - 1));
+        from = BlockTypes.STONE.getDefaultState();
+        to = BlockTypes.DIRT.getDefaultState();
+
+        EditSession editSession = createEditSession();
+        editSession.setBlocks(region, from);
+        editSession.flushQueue();
+    }
+
+    private EditSession createEditSession() {
+        return WorldEdit.getInstance().getEditSessionFactory().getEditSession(world, -1);
+    }
+
+    /**
+     * Swap the blocks that are written, so that every invocation changes
+     * every block in the region.
+     */
+    private void swap() {
+        BlockState from = this.from;
+        this.from = to;
+        this.to = from;
+    }
+
+    @Benchmark
+    public int setBlocks() throws MaxChangedBlocksException {
+        swap();
+        EditSession editSession = createEditSession();
+        int changed = editSession.setBlocks(region, new BlockPattern(from));
+        editSession.flushQueue();
+        return changed;
+    }
+
+    @Benchmark
+    public int replaceBlocks() throws MaxChangedBlocksException {
+        EditSession editSession = createEditSession();
+        int changed = editSession.replaceBlocks(region, new BlockTypeMask(editSession, from.getBlockType()), new BlockPattern(to));
+        editSession.flushQueue();
+        swap();
+        return changed;
+    }
+
+}
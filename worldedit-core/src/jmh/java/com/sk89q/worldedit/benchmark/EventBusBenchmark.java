@@ -0,0 +1,97 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.worldedit.util.eventbus.EventBus;
+import com.sk89q.worldedit.util.eventbus.EventHandler.Priority;
+import com.sk89q.worldedit.util.eventbus.MethodEventHandler;
+import com.sk89q.worldedit.util.eventbus.Subscribe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EventBus#post(Object)} with handlers that call their
+ * method through reflection and with handlers bound by
+ * {@link EventBus#register(Object)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EventBusBenchmark {
+
+    @Param({ "1", "8" })
+    public int subscribers;
+
+    private EventBus reflective;
+    private EventBus bound;
+    private final Event event = new Event();
+
+    public static class Event {
+    }
+
+    public static class Listener {
+        private long count;
+
+        @Subscribe
+        public void onEvent(Event event) {
+            count++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        reflective = new EventBus();
+        bound = new EventBus();
+        Method method = Listener.class.getMethod("onEvent", Event.class);
+        for (int i = 0; i < subscribers; i++) {
+            reflective.subscribe(Event.class, new MethodEventHandler(Priority.NORMAL, new Listener(), method));
+            bound.register(new Listener());
+        }
+    }
+
+    @Benchmark
+    public Event postReflective() {
+        reflective.post(event);
+        return event;
+    }
+
+    @Benchmark
+    public Event postBound() {
+        bound.post(event);
+        return event;
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.worldedit.internal.expression.Expression;
+import com.sk89q.worldedit.internal.expression.ExpressionException;
+import com.sk89q.worldedit.internal.expression.runtime.EvaluationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures evaluating expressions over a cube of normalized coordinates,
+ * the way that shape generation does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExpressionBenchmark {
+
+    @Param({ "16", "64" })
+    public int size;
+
+    @Param({
+            "x*x+y*y+z*z<1",
+            "sin(x*5)*cos(z*5)>y",
+            "a=abs(x);b=abs(z);max(a,b)<0.5&&y<0",
+    })
+    public String input;
+
+    private Expression expression;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ExpressionException {
+        expression = Expression.compile(input, "x", "y", "z");
+        expression.optimize();
+    }
+
+    @Benchmark
+    public int evaluate() throws EvaluationException {
+        int matched = 0;
+        double scale = 2.0 / (size - 1);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                for (int z = 0; z < size; z++) {
+                    if (expression.evaluate(x * scale - 1, y * scale - 1, z * scale - 1) > 0) {
+                        matched++;
+                    }
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public Expression compile() throws ExpressionException {
+        return Expression.compile(input, "x", "y", "z");
+    }
+
+}
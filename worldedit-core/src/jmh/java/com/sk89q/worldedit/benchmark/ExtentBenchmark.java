@@ -0,0 +1,124 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.reorder.MultiStageReorder;
+import com.sk89q.worldedit.function.mask.BlockTypeMask;
+import com.sk89q.worldedit.function.operation.ForwardExtentCopy;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.function.visitor.RecursiveVisitor;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures operations that work directly on extents: copying, flood
+ * searches and reordered placement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExtentBenchmark {
+
+    @Param({ "16", "64", "128" })
+    public int size;
+
+    private MemoryWorld world;
+    private CuboidRegion region;
+    private BlockState[] reorderBlocks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws MaxChangedBlocksException {
+        BenchmarkPlatform.setUp();
+        world = new MemoryWorld("benchmark");
+        region = new CuboidRegion(world, new Vector(0, 0, 0), new Vector(size - 1, size - 1, size - 1));
+
+        EditSession editSession = WorldEdit.getInstance().getEditSessionFactory().getEditSession(world, -1);
+        editSession.setBlocks(region, BlockTypes.STONE.getDefaultState());
+        editSession.flushQueue();
+
+        // A mix of blocks that are placed immediately, last and final
+        reorderBlocks = new BlockState[] {
+                BlockTypes.STONE.getDefaultState(),
+                BlockTypes.BLACK_BED.getDefaultState(),
+                BlockTypes.STONE.getDefaultState(),
+                BlockTypes.CACTUS.getDefaultState(),
+        };
+    }
+
+    @Benchmark
+    public BlockArrayClipboard forwardExtentCopy() throws WorldEditException {
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(region);
+        ForwardExtentCopy copy = new ForwardExtentCopy(world, region, clipboard, region.getMinimumPoint());
+        Operations.complete(copy);
+        return clipboard;
+    }
+
+    @Benchmark
+    public int breadthFirstSearch() throws WorldEditException {
+        int[] visited = new int[1];
+        RecursiveVisitor visitor = new RecursiveVisitor(new BlockTypeMask(world, BlockTypes.STONE), position -> {
+            visited[0]++;
+            return true;
+        });
+        visitor.visit(region.getMinimumPoint());
+        Operations.complete(visitor);
+        return visited[0];
+    }
+
+    @Benchmark
+    public MultiStageReorder multiStageReorderCommit() throws WorldEditException {
+        MultiStageReorder reorder = new MultiStageReorder(new MemoryWorld("reorder"), true);
+        int i = 0;
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                for (int y = 0; y < 4; y++) {
+                    reorder.setBlock(new Vector(x, y, z), reorderBlocks[i++ & 3]);
+                }
+            }
+        }
+        Operations.complete(reorder.commit());
+        return reorder;
+    }
+
+}
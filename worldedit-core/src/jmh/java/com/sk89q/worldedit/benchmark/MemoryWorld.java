@@ -0,0 +1,263 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.blocks.BaseItemStack;
+import com.sk89q.worldedit.entity.BaseEntity;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.util.Location;
+import com.sk89q.worldedit.util.TreeGenerator.TreeType;
+import com.sk89q.worldedit.world.AbstractWorld;
+import com.sk89q.worldedit.world.biome.BaseBiome;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockType;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import com.sk89q.worldedit.world.weather.WeatherType;
+import com.sk89q.worldedit.world.weather.WeatherTypes;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A world that keeps its blocks in memory, in one array of block state IDs
+ * per chunk.
+ *
+ * <p>Block entities and entities are not stored. The world is not thread
+ * safe.</p>
+ */
+public class MemoryWorld extends AbstractWorld {
+
+    private static final int HEIGHT = 256;
+
+    private final String name;
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+    private BlockState[] states = new BlockState[0];
+    @Nullable private Chunk lastChunk;
+    private long lastKey;
+
+    /**
+     * Create a new, empty world.
+     *
+     * @param name the name of the world
+     */
+    public MemoryWorld(String name) {
+        checkNotNull(name);
+        this.name = name;
+    }
+
+    /**
+     * Get the number of chunks that have been written to.
+     *
+     * @return the number of chunks
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    @Nullable
+    private Chunk getChunk(int x, int z, boolean create) {
+        long key = ((long) (x >> 4) << 32) | ((z >> 4) & 0xFFFFFFFFL);
+        Chunk chunk = lastChunk;
+        if (chunk != null && key == lastKey) {
+            return chunk;
+        }
+        chunk = chunks.get(key);
+        if (chunk == null) {
+            if (!create) {
+                return null;
+            }
+            chunk = new Chunk();
+            chunks.put(key, chunk);
+        }
+        lastChunk = chunk;
+        lastKey = key;
+        return chunk;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    private BlockState getState(int id) {
+        if (id >= states.length) {
+            // Block states are only created with their types, so the table
+            // only needs rebuilding when new types have been registered
+            BlockState[] states = new BlockState[BlockState.getInternalIdCount()];
+            for (BlockType type : BlockType.REGISTRY) {
+                for (BlockState state : type.getAllStates()) {
+                    if (state.getInternalId() >= 0) {
+                        states[state.getInternalId()] = state;
+                    }
+                }
+            }
+            this.states = states;
+        }
+        return states[id];
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BlockState getBlock(Vector position) {
+        int y = position.getBlockY();
+        if (y >= 0 && y < HEIGHT) {
+            int x = position.getBlockX();
+            int z = position.getBlockZ();
+            Chunk chunk = getChunk(x, z, false);
+            if (chunk != null) {
+                int id = chunk.blocks[index(x, y, z)];
+                if (id != 0) {
+                    return getState(id - 1);
+                }
+            }
+        }
+        return BlockTypes.AIR.getDefaultState();
+    }
+
+    @Override
+    public BaseBlock getFullBlock(Vector position) {
+        return getBlock(position).toBaseBlock();
+    }
+
+    @Override
+    public boolean setBlock(Vector position, BlockStateHolder block, boolean notifyAndLight) {
+        int y = position.getBlockY();
+        if (y < 0 || y >= HEIGHT) {
+            return false;
+        }
+        int id = block.toImmutableState().getInternalId();
+        checkArgument(id >= 0 && id < Character.MAX_VALUE, "A concrete block state is required");
+        int x = position.getBlockX();
+        int z = position.getBlockZ();
+        Chunk chunk = getChunk(x, z, true);
+        int index = index(x, y, z);
+        char stored = (char) (id + 1);
+        if (chunk.blocks[index] == stored) {
+            return false;
+        }
+        chunk.blocks[index] = stored;
+        return true;
+    }
+
+    @Override
+    public BaseBiome getBiome(Vector2D position) {
+        Chunk chunk = getChunk(position.getBlockX(), position.getBlockZ(), false);
+        return new BaseBiome(chunk != null ? chunk.biomes[((position.getBlockZ() & 15) << 4) | (position.getBlockX() & 15)] : 0);
+    }
+
+    @Override
+    public boolean setBiome(Vector2D position, BaseBiome biome) {
+        Chunk chunk = getChunk(position.getBlockX(), position.getBlockZ(), true);
+        chunk.biomes[((position.getBlockZ() & 15) << 4) | (position.getBlockX() & 15)] = biome.getId();
+        return true;
+    }
+
+    @Override
+    public int getMaxY() {
+        return HEIGHT - 1;
+    }
+
+    @Override
+    public int getBlockLightLevel(Vector position) {
+        return 15;
+    }
+
+    @Override
+    public boolean clearContainerBlockContents(Vector position) {
+        return false;
+    }
+
+    @Override
+    public void dropItem(Vector position, BaseItemStack item) {
+    }
+
+    @Override
+    public void simulateBlockMine(Vector position) {
+        setBlock(position, BlockTypes.AIR.getDefaultState(), false);
+    }
+
+    @Override
+    public boolean regenerate(Region region, EditSession editSession) {
+        return false;
+    }
+
+    @Override
+    public boolean generateTree(TreeType type, EditSession editSession, Vector position) throws MaxChangedBlocksException {
+        return false;
+    }
+
+    @Override
+    public WeatherType getWeather() {
+        return WeatherTypes.CLEAR;
+    }
+
+    @Override
+    public long getRemainingWeatherDuration() {
+        return 0;
+    }
+
+    @Override
+    public void setWeather(WeatherType weatherType) {
+    }
+
+    @Override
+    public void setWeather(WeatherType weatherType, long duration) {
+    }
+
+    @Override
+    public List<? extends Entity> getEntities(Region region) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<? extends Entity> getEntities() {
+        return Collections.emptyList();
+    }
+
+    @Nullable
+    @Override
+    public Entity createEntity(Location location, BaseEntity entity) {
+        return null;
+    }
+
+    private static final class Chunk {
+        // State ID + 1, so that a new chunk is filled with air
+        private final char[] blocks = new char[16 * 16 * HEIGHT];
+        private final int[] biomes = new int[16 * 16];
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.benchmark;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.io.BuiltInClipboardFormat;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardWriter;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing and reading schematics of a clipboard with a mix of
+ * block states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SchematicBenchmark {
+
+    @Param({ "16", "64", "128" })
+    public int size;
+
+    @Param({ "SPONGE_SCHEMATIC", "SECTIONED_SCHEMATIC" })
+    public String format;
+
+    private Clipboard clipboard;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, WorldEditException {
+        BenchmarkPlatform.setUp();
+        CuboidRegion region = new CuboidRegion(new Vector(0, 0, 0), new Vector(size - 1, size - 1, size - 1));
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(region);
+        BlockState[] states = {
+                BlockTypes.STONE.getDefaultState(),
+                BlockTypes.DIRT.getDefaultState(),
+                BlockTypes.OAK_PLANKS.getDefaultState(),
+                BlockTypes.GLASS.getDefaultState(),
+        };
+        for (Vector position : region) {
+            int x = position.getBlockX();
+            int y = position.getBlockY();
+            int z = position.getBlockZ();
+            clipboard.setBlock(position, states[(x * 31 + y * 17 + z) & 3]);
+        }
+        this.clipboard = clipboard;
+        this.data = write();
+    }
+
+    private ClipboardFormat getFormat() {
+        return BuiltInClipboardFormat.valueOf(format);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ClipboardWriter writer = getFormat().getWriter(out)) {
+            writer.write(clipboard);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Clipboard read() throws IOException {
+        try (ClipboardReader reader = getFormat().getReader(new ByteArrayInputStream(data))) {
+            Clipboard clipboard = reader.read();
+            // Formats may load lazily, so touch every block
+            for (Vector position : clipboard.getRegion()) {
+                clipboard.getBlock(position);
+            }
+            return clipboard;
+        }
+    }
+
+}
@@ -82,6 +82,95 @@ public void writeNamedTag(String name, Tag tag) throws IOException {
         writeTagPayload(tag);
     }
 
+    /**
+     * Writes the type and name of a tag without its payload, so that large
+     * tags can be written incrementally. The payload must follow, written
+     * with the other incremental methods of this class.
+     * 
+     * @param name
+     *            The name of the tag.
+     * @param type
+     *            The type code of the tag, from {@link NBTConstants}.
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    public void writeNamedTagHeader(String name, int type) throws IOException {
+        checkNotNull(name);
+        if (type == NBTConstants.TYPE_END) {
+            throw new IOException("Named TAG_End not permitted.");
+        }
+
+        byte[] nameBytes = name.getBytes(NBTConstants.CHARSET);
+
+        os.writeByte(type);
+        os.writeShort(nameBytes.length);
+        os.write(nameBytes);
+    }
+
+    /**
+     * Writes the header of a byte array tag, which must be followed by
+     * exactly {@code length} bytes written with
+     * {@link #writeRawBytes(byte[], int, int)}.
+     * 
+     * @param name
+     *            The name of the tag.
+     * @param length
+     *            The number of bytes in the array.
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    public void writeByteArrayTagHeader(String name, int length) throws IOException {
+        writeNamedTagHeader(name, NBTConstants.TYPE_BYTE_ARRAY);
+        os.writeInt(length);
+    }
+
+    /**
+     * Writes the header of a list tag, which must be followed by exactly
+     * {@code size} payloads written with {@link #writeTagPayload(Tag)}.
+     * 
+     * @param name
+     *            The name of the tag.
+     * @param type
+     *            The type of the elements.
+     * @param size
+     *            The number of elements.
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    public void writeListTagHeader(String name, Class<? extends Tag> type, int size) throws IOException {
+        writeNamedTagHeader(name, NBTConstants.TYPE_LIST);
+        os.writeByte(NBTUtils.getTypeCode(type));
+        os.writeInt(size);
+    }
+
+    /**
+     * Writes raw bytes as part of a payload started with
+     * {@link #writeByteArrayTagHeader(String, int)}.
+     * 
+     * @param bytes
+     *            The bytes.
+     * @param offset
+     *            The offset of the first byte.
+     * @param length
+     *            The number of bytes.
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    public void writeRawBytes(byte[] bytes, int offset, int length) throws IOException {
+        os.write(bytes, offset, length);
+    }
+
+    /**
+     * Writes the end of a compound tag started with
+     * {@link #writeNamedTagHeader(String, int)}.
+     * 
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    public void writeEndTag() throws IOException {
+        os.writeByte(NBTConstants.TYPE_END);
+    }
+
     /**
      * Writes tag payload.
      * 
@@ -90,7 +179,7 @@ public void writeNamedTag(String name, Tag tag) throws IOException {
      * @throws IOException
      *             if an I/O error occurs.
      */
-    private void writeTagPayload(Tag tag) throws IOException {
+    public void writeTagPayload(Tag tag) throws IOException {
         int type = NBTUtils.getTypeCode(tag.getClass());
         switch (type) {
         case NBTConstants.TYPE_END:
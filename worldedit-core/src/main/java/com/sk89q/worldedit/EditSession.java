@@ -36,6 +36,7 @@
 import com.sk89q.worldedit.extent.cache.LastAccessExtentCache;
 import com.sk89q.worldedit.extent.inventory.BlockBag;
 import com.sk89q.worldedit.extent.inventory.BlockBagExtent;
+import com.sk89q.worldedit.extent.metrics.MetricsExtent;
 import com.sk89q.worldedit.extent.reorder.MultiStageReorder;
 import com.sk89q.worldedit.extent.validation.BlockChangeLimiter;
 import com.sk89q.worldedit.extent.validation.DataValidatorExtent;
@@ -55,6 +56,7 @@
 import com.sk89q.worldedit.function.mask.ExistingBlockMask;
 import com.sk89q.worldedit.function.mask.Mask;
 import com.sk89q.worldedit.function.mask.MaskIntersection;
+import com.sk89q.worldedit.function.mask.MaskOptimizer;
 import com.sk89q.worldedit.function.mask.MaskUnion;
 import com.sk89q.worldedit.function.mask.Masks;
 import com.sk89q.worldedit.function.mask.NoiseFilter2D;
@@ -91,13 +93,17 @@
 import com.sk89q.worldedit.regions.Regions;
 import com.sk89q.worldedit.regions.shape.ArbitraryBiomeShape;
 import com.sk89q.worldedit.regions.shape.ArbitraryShape;
+import com.sk89q.worldedit.regions.shape.HollowRegionSearch;
 import com.sk89q.worldedit.regions.shape.RegionShape;
 import com.sk89q.worldedit.regions.shape.WorldEditExpressionEnvironment;
 import com.sk89q.worldedit.util.Countable;
-import com.sk89q.worldedit.util.Direction;
 import com.sk89q.worldedit.util.TreeGenerator;
 import com.sk89q.worldedit.util.collection.DoubleArrayList;
 import com.sk89q.worldedit.util.eventbus.EventBus;
+import com.sk89q.worldedit.util.metrics.EditMetrics;
+import com.sk89q.worldedit.util.metrics.LatencyHistogram;
+import com.sk89q.worldedit.util.metrics.StageMetrics;
+import com.sk89q.worldedit.world.ChunkPrefetch;
 import com.sk89q.worldedit.world.NullWorld;
 import com.sk89q.worldedit.world.World;
 import com.sk89q.worldedit.world.biome.BaseBiome;
@@ -110,10 +116,10 @@
 import com.sk89q.worldedit.world.registry.LegacyMapper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -166,6 +172,7 @@ public enum Stage {
     private final Extent bypassNone;
 
     private Mask oldMask;
+    @Nullable private final EditMetrics metrics;
 
     /**
      * Construct the object with a maximum number of blocks and a block bag.
@@ -177,34 +184,67 @@ public enum Stage {
      * @param event the event to call with the extent
      */
     EditSession(EventBus eventBus, World world, int maxBlocks, @Nullable BlockBag blockBag, EditSessionEvent event) {
+        this(eventBus, world, maxBlocks, blockBag, event, null);
+    }
+
+    /**
+     * Construct the object with a maximum number of blocks and a block bag.
+     *
+     * @param eventBus the event bus
+     * @param world the world
+     * @param maxBlocks the maximum number of blocks that can be changed, or -1 to use no limit
+     * @param blockBag an optional {@link BlockBag} to use, otherwise null
+     * @param event the event to call with the extent
+     * @param metrics metrics to record the stages of the extent chain to, or null
+     */
+    EditSession(EventBus eventBus, World world, int maxBlocks, @Nullable BlockBag blockBag, EditSessionEvent event, @Nullable EditMetrics metrics) {
         checkNotNull(eventBus);
         checkArgument(maxBlocks >= -1, "maxBlocks >= -1 required");
         checkNotNull(event);
 
         this.world = world;
+        this.metrics = metrics;
 
         if (world != null) {
             Extent extent;
+            // Stages are listed from the top of the chain down, but the
+            // chain is built from the bottom up
+            StageMetrics[] stages = new StageMetrics[4];
+            if (metrics != null) {
+                stages[3] = metrics.addStage(Stage.BEFORE_HISTORY.name().toLowerCase());
+                stages[2] = metrics.addStage(Stage.BEFORE_REORDER.name().toLowerCase());
+                stages[1] = metrics.addStage(Stage.BEFORE_CHANGE.name().toLowerCase());
+                stages[0] = metrics.addStage("world");
+            }
 
             // These extents are ALWAYS used
             extent = fastModeExtent = new FastModeExtent(world, false);
+            extent = probe(extent, stages[0], metrics != null ? metrics.getWorldWrites() : null);
             extent = survivalExtent = new SurvivalModeExtent(extent, world);
             extent = quirkExtent = new BlockQuirkExtent(extent, world);
             extent = chunkLoadingExtent = new ChunkLoadingExtent(extent, world);
             extent = cacheExtent = new LastAccessExtentCache(extent);
             extent = wrapExtent(extent, eventBus, event, Stage.BEFORE_CHANGE);
+            extent = probe(extent, stages[1], null);
             extent = validator = new DataValidatorExtent(extent, world);
             extent = blockBagExtent = new BlockBagExtent(extent, blockBag);
 
             // This extent can be skipped by calling rawSetBlock()
             extent = reorderExtent = new MultiStageReorder(extent, false);
             extent = wrapExtent(extent, eventBus, event, Stage.BEFORE_REORDER);
+            extent = probe(extent, stages[2], null);
 
             // These extents can be skipped by calling smartSetBlock()
             extent = changeSetExtent = new ChangeSetExtent(extent, changeSet);
             extent = maskingExtent = new MaskingExtent(extent, Masks.alwaysTrue());
             extent = changeLimiter = new BlockChangeLimiter(extent, maxBlocks);
             extent = wrapExtent(extent, eventBus, event, Stage.BEFORE_HISTORY);
+            extent = probe(extent, stages[3], null);
+
+            if (metrics != null) {
+                chunkLoadingExtent.setLoadTimer(metrics.getChunkChecks());
+                chunkLoadingExtent.setMetrics(metrics);
+            }
 
             this.bypassReorderHistory = blockBagExtent;
             this.bypassHistory = reorderExtent;
@@ -222,6 +262,10 @@ public enum Stage {
         }
     }
 
+    private Extent probe(Extent extent, @Nullable StageMetrics stage, @Nullable LatencyHistogram writes) {
+        return stage != null ? new MetricsExtent(extent, stage, writes) : extent;
+    }
+
     private Extent wrapExtent(Extent extent, EventBus eventBus, EditSessionEvent event, Stage stage) {
         event = event.clone(stage);
         event.setExtent(extent);
@@ -247,6 +291,17 @@ public ChangeSet getChangeSet() {
         return changeSet;
     }
 
+    /**
+     * Get the metrics that this edit session records, which are only
+     * collected if profiling is enabled in the configuration.
+     *
+     * @return the metrics, or null
+     */
+    @Nullable
+    public EditMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Get the maximum number of blocks that can be changed. -1 will be returned
      * if it the limit disabled.
@@ -304,6 +359,10 @@ public Mask getMask() {
     /**
      * Set a mask.
      *
+     * <p>The mask is tested through an optimized copy (see
+     * {@link MaskOptimizer}), so changes made to the mask after it has
+     * been set are not seen by this edit session.</p>
+     *
      * @param mask mask or null
      */
     public void setMask(Mask mask) {
@@ -311,7 +370,7 @@ public void setMask(Mask mask) {
         if (mask == null) {
             maskingExtent.setMask(Masks.alwaysTrue());
         } else {
-            maskingExtent.setMask(mask);
+            maskingExtent.setMask(MaskOptimizer.optimize(mask, true));
         }
     }
 
@@ -399,14 +458,25 @@ public boolean setBiome(Vector2D position, BaseBiome biome) {
         return bypassNone.setBiome(position, biome);
     }
 
+    @Override
+    public void getBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        bypassNone.getBiomes(x, z, width, length, biomes);
+    }
+
+    @Override
+    public int setBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        return bypassNone.setBiomes(x, z, width, length, biomes);
+    }
+
     @Override
     public BlockState getBlock(Vector position) {
-        return world.getBlock(position);
+        // Fast mode changes that have not been written yet are read back
+        return fastModeExtent != null ? fastModeExtent.getBlock(position) : world.getBlock(position);
     }
 
     @Override
     public BaseBlock getFullBlock(Vector position) {
-        return world.getFullBlock(position);
+        return fastModeExtent != null ? fastModeExtent.getFullBlock(position) : world.getFullBlock(position);
     }
 
     /**
@@ -430,6 +500,62 @@ public int getHighestTerrainBlock(int x, int z, int minY, int maxY) {
         return minY;
     }
 
+    /**
+     * Returns the highest solid 'terrain' block for every column in a
+     * rectangular area.
+     *
+     * <p>The area is read one chunk at a time, a layer at a time from the
+     * top down, so that each layer of a chunk is read together and a chunk
+     * is finished as soon as all of its columns have found their top.</p>
+     *
+     * @param originX the X coordinate of the first column
+     * @param originZ the Z coordinate of the first column
+     * @param width the number of columns along the X axis
+     * @param length the number of columns along the Z axis
+     * @param minY minimal height
+     * @param maxY maximal height
+     * @return heights indexed by {@code z * width + x}, relative to the origin
+     */
+    public int[] getHighestTerrainBlocks(int originX, int originZ, int width, int length, int minY, int maxY) {
+        checkArgument(width >= 0 && length >= 0, "dimensions must not be negative");
+
+        int[] heights = new int[width * length];
+        Arrays.fill(heights, minY);
+        int maxX = originX + width - 1;
+        int maxZ = originZ + length - 1;
+        boolean[] found = new boolean[16 * 16];
+
+        for (int chunkZ = originZ >> 4; chunkZ <= maxZ >> 4; ++chunkZ) {
+            int startZ = Math.max(originZ, chunkZ << 4);
+            int endZ = Math.min(maxZ, (chunkZ << 4) + 15);
+            for (int chunkX = originX >> 4; chunkX <= maxX >> 4; ++chunkX) {
+                int startX = Math.max(originX, chunkX << 4);
+                int endX = Math.min(maxX, (chunkX << 4) + 15);
+                int remaining = (endX - startX + 1) * (endZ - startZ + 1);
+                Arrays.fill(found, false);
+
+                for (int y = maxY; y >= minY && remaining > 0; --y) {
+                    for (int z = startZ; z <= endZ; ++z) {
+                        for (int x = startX; x <= endX; ++x) {
+                            int column = (z - startZ) * 16 + (x - startX);
+                            if (found[column]) {
+                                continue;
+                            }
+                            BlockState block = getBlock(new Vector(x, y, z));
+                            if (block.getBlockType().getMaterial().isMovementBlocker()) {
+                                heights[(z - originZ) * width + (x - originX)] = y;
+                                found[column] = true;
+                                remaining--;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return heights;
+    }
+
     /**
      * Set a block, bypassing both history and block re-ordering.
      *
@@ -585,7 +711,79 @@ public List<? extends Entity> getEntities() {
      * Finish off the queue.
      */
     public void flushQueue() {
-        Operations.completeBlindly(commit());
+        try {
+            if (metrics != null) {
+                long start = System.nanoTime();
+                Operations.completeBlindly(commit());
+                metrics.recordFlush(System.nanoTime() - start);
+            } else {
+                Operations.completeBlindly(commit());
+            }
+        } finally {
+            releasePrefetchedChunks();
+        }
+    }
+
+    /**
+     * Load the chunks of a region that is about to be edited ahead of time,
+     * and keep them loaded until the queue is flushed.
+     *
+     * <p>The chunks stay held until {@link #flushQueue()} or
+     * {@link #releasePrefetchedChunks()} is called, so callers that do not
+     * flush this session must release them. The operations of this session
+     * prefetch their own chunks, and release them once done unless the
+     * queue is enabled, in which case the chunks are held until the queue
+     * is flushed.</p>
+     *
+     * @param region the region
+     */
+    public void prefetchChunks(Region region) {
+        checkNotNull(region);
+        if (chunkLoadingExtent != null) {
+            chunkLoadingExtent.prefetch(region);
+        }
+    }
+
+    /**
+     * Release every chunk that was prefetched, allowing the world to unload
+     * them again.
+     */
+    public void releasePrefetchedChunks() {
+        if (chunkLoadingExtent != null) {
+            chunkLoadingExtent.releasePrefetched();
+        }
+    }
+
+    /**
+     * Prefetch the chunks of a region for a single operation, which must
+     * pass the result to {@link #releasePrefetch(ChunkPrefetch)} once done.
+     *
+     * <p>With the queue enabled, the changes of the operation only reach
+     * the world when the queue is flushed, so the prefetch is then kept
+     * until {@link #flushQueue()} rather than released by the operation.</p>
+     *
+     * @param region the region
+     * @return the prefetch, or null if nothing was prefetched
+     */
+    @Nullable
+    private ChunkPrefetch prefetchForOperation(Region region) {
+        return chunkLoadingExtent != null ? chunkLoadingExtent.prefetch(region) : null;
+    }
+
+    private void releasePrefetch(@Nullable ChunkPrefetch prefetch) {
+        if (prefetch != null && !isQueueEnabled()) {
+            chunkLoadingExtent.release(prefetch);
+        }
+    }
+
+    /**
+     * Get the number of chunks that were loaded ahead of this edit, which
+     * would otherwise have been loaded synchronously as they were reached.
+     *
+     * @return the number of chunk loads avoided
+     */
+    public int getAvoidedChunkLoads() {
+        return chunkLoadingExtent != null ? chunkLoadingExtent.getAvoidedLoads() : 0;
     }
 
     @Override
@@ -759,10 +957,15 @@ public int setBlocks(Region region, Pattern pattern) throws MaxChangedBlocksExce
         checkNotNull(region);
         checkNotNull(pattern);
 
-        BlockReplace replace = new BlockReplace(this, pattern);
-        RegionVisitor visitor = new RegionVisitor(region, replace);
-        Operations.completeLegacy(visitor);
-        return visitor.getAffected();
+        ChunkPrefetch prefetch = prefetchForOperation(region);
+        try {
+            BlockReplace replace = new BlockReplace(this, pattern);
+            RegionVisitor visitor = new RegionVisitor(region, replace);
+            Operations.completeLegacy(visitor);
+            return visitor.getAffected();
+        } finally {
+            releasePrefetch(prefetch);
+        }
     }
 
     /**
@@ -809,11 +1012,16 @@ public int replaceBlocks(Region region, Mask mask, Pattern pattern) throws MaxCh
         checkNotNull(mask);
         checkNotNull(pattern);
 
-        BlockReplace replace = new BlockReplace(this, pattern);
-        RegionMaskingFilter filter = new RegionMaskingFilter(mask, replace);
-        RegionVisitor visitor = new RegionVisitor(region, filter);
-        Operations.completeLegacy(visitor);
-        return visitor.getAffected();
+        ChunkPrefetch prefetch = prefetchForOperation(region);
+        try {
+            BlockReplace replace = new BlockReplace(this, pattern);
+            RegionMaskingFilter filter = new RegionMaskingFilter(mask, replace);
+            RegionVisitor visitor = new RegionVisitor(region, filter);
+            Operations.completeLegacy(visitor);
+            return visitor.getAffected();
+        } finally {
+            releasePrefetch(prefetch);
+        }
     }
 
     /**
@@ -983,12 +1191,17 @@ public int overlayCuboidBlocks(Region region, Pattern pattern) throws MaxChanged
         checkNotNull(region);
         checkNotNull(pattern);
 
-        BlockReplace replace = new BlockReplace(this, pattern);
-        RegionOffset offset = new RegionOffset(new Vector(0, 1, 0), replace);
-        GroundFunction ground = new GroundFunction(new ExistingBlockMask(this), offset);
-        LayerVisitor visitor = new LayerVisitor(asFlatRegion(region), minimumBlockY(region), maximumBlockY(region), ground);
-        Operations.completeLegacy(visitor);
-        return ground.getAffected();
+        ChunkPrefetch prefetch = prefetchForOperation(region);
+        try {
+            BlockReplace replace = new BlockReplace(this, pattern);
+            RegionOffset offset = new RegionOffset(new Vector(0, 1, 0), replace);
+            GroundFunction ground = new GroundFunction(new ExistingBlockMask(this), offset);
+            LayerVisitor visitor = new LayerVisitor(asFlatRegion(region), minimumBlockY(region), maximumBlockY(region), ground);
+            Operations.completeLegacy(visitor);
+            return ground.getAffected();
+        } finally {
+            releasePrefetch(prefetch);
+        }
     }
 
     /**
@@ -1002,11 +1215,16 @@ public int overlayCuboidBlocks(Region region, Pattern pattern) throws MaxChanged
     public int naturalizeCuboidBlocks(Region region) throws MaxChangedBlocksException {
         checkNotNull(region);
 
-        Naturalizer naturalizer = new Naturalizer(this);
-        FlatRegion flatRegion = Regions.asFlatRegion(region);
-        LayerVisitor visitor = new LayerVisitor(flatRegion, minimumBlockY(region), maximumBlockY(region), naturalizer);
-        Operations.completeLegacy(visitor);
-        return naturalizer.getAffected();
+        ChunkPrefetch prefetch = prefetchForOperation(region);
+        try {
+            Naturalizer naturalizer = new Naturalizer(this);
+            FlatRegion flatRegion = Regions.asFlatRegion(region);
+            LayerVisitor visitor = new LayerVisitor(flatRegion, minimumBlockY(region), maximumBlockY(region), naturalizer);
+            Operations.completeLegacy(visitor);
+            return naturalizer.getAffected();
+        } finally {
+            releasePrefetch(prefetch);
+        }
     }
 
     /**
@@ -1794,7 +2012,12 @@ protected BlockStateHolder getMaterial(int x, int y, int z, BlockStateHolder def
             }
         };
 
-        return shape.generate(this, pattern, hollow);
+        ChunkPrefetch prefetch = prefetchForOperation(region);
+        try {
+            return shape.generate(this, pattern, hollow);
+        } finally {
+            releasePrefetch(prefetch);
+        }
     }
 
     public int deformRegion(final Region region, final Vector zero, final Vector unit, final String expressionString) throws ExpressionException, MaxChangedBlocksException {
@@ -1809,35 +2032,39 @@ public int deformRegion(final Region region, final Vector zero, final Vector uni
         expression.setEnvironment(environment);
 
         final DoubleArrayList<BlockVector, BaseBlock> queue = new DoubleArrayList<>(false);
+        ChunkPrefetch prefetch = prefetchForOperation(region);
+        try {
+            for (BlockVector position : region) {
+                // offset, scale
+                final Vector scaled = position.subtract(zero).divide(unit);
 
-        for (BlockVector position : region) {
-            // offset, scale
-            final Vector scaled = position.subtract(zero).divide(unit);
-
-            // transform
-            expression.evaluate(scaled.getX(), scaled.getY(), scaled.getZ());
+                // transform
+                expression.evaluate(scaled.getX(), scaled.getY(), scaled.getZ());
 
-            final BlockVector sourcePosition = environment.toWorld(x.getValue(), y.getValue(), z.getValue());
+                final BlockVector sourcePosition = environment.toWorld(x.getValue(), y.getValue(), z.getValue());
 
-            // read block from world
-            final BaseBlock material = world.getFullBlock(sourcePosition);
+                // read block from world
+                final BaseBlock material = world.getFullBlock(sourcePosition);
 
-            // queue operation
-            queue.put(position, material);
-        }
+                // queue operation
+                queue.put(position, material);
+            }
 
-        int affected = 0;
-        for (Map.Entry<BlockVector, BaseBlock> entry : queue) {
-            BlockVector position = entry.getKey();
-            BaseBlock material = entry.getValue();
+            int affected = 0;
+            for (Map.Entry<BlockVector, BaseBlock> entry : queue) {
+                BlockVector position = entry.getKey();
+                BaseBlock material = entry.getValue();
 
-            // set at new position
-            if (setBlock(position, material)) {
-                ++affected;
+                // set at new position
+                if (setBlock(position, material)) {
+                    ++affected;
+                }
             }
-        }
 
-        return affected;
+            return affected;
+        } finally {
+            releasePrefetch(prefetch);
+        }
     }
 
     /**
@@ -1853,65 +2080,11 @@ public int deformRegion(final Region region, final Vector zero, final Vector uni
     public int hollowOutRegion(Region region, int thickness, Pattern pattern) throws MaxChangedBlocksException {
         int affected = 0;
 
-        final Set<BlockVector> outside = new HashSet<>();
+        HollowRegionSearch search = new HollowRegionSearch(this, region);
+        search.search(thickness);
 
-        final Vector min = region.getMinimumPoint();
-        final Vector max = region.getMaximumPoint();
-
-        final int minX = min.getBlockX();
-        final int minY = min.getBlockY();
-        final int minZ = min.getBlockZ();
-        final int maxX = max.getBlockX();
-        final int maxY = max.getBlockY();
-        final int maxZ = max.getBlockZ();
-
-        for (int x = minX; x <= maxX; ++x) {
-            for (int y = minY; y <= maxY; ++y) {
-                recurseHollow(region, new BlockVector(x, y, minZ), outside);
-                recurseHollow(region, new BlockVector(x, y, maxZ), outside);
-            }
-        }
-
-        for (int y = minY; y <= maxY; ++y) {
-            for (int z = minZ; z <= maxZ; ++z) {
-                recurseHollow(region, new BlockVector(minX, y, z), outside);
-                recurseHollow(region, new BlockVector(maxX, y, z), outside);
-            }
-        }
-
-        for (int z = minZ; z <= maxZ; ++z) {
-            for (int x = minX; x <= maxX; ++x) {
-                recurseHollow(region, new BlockVector(x, minY, z), outside);
-                recurseHollow(region, new BlockVector(x, maxY, z), outside);
-            }
-        }
-
-        for (int i = 1; i < thickness; ++i) {
-            final Set<BlockVector> newOutside = new HashSet<>();
-            outer: for (BlockVector position : region) {
-                for (Vector recurseDirection: recurseDirections) {
-                    BlockVector neighbor = position.add(recurseDirection).toBlockVector();
-
-                    if (outside.contains(neighbor)) {
-                        newOutside.add(position);
-                        continue outer;
-                    }
-                }
-            }
-
-            outside.addAll(newOutside);
-        }
-
-        outer: for (BlockVector position : region) {
-            for (Vector recurseDirection: recurseDirections) {
-                BlockVector neighbor = position.add(recurseDirection).toBlockVector();
-
-                if (outside.contains(neighbor)) {
-                    continue outer;
-                }
-            }
-
-            if (setBlock(position, pattern.apply(position))) {
+        for (BlockVector position : region) {
+            if (search.isHollow(position) && setBlock(position, pattern.apply(position))) {
                 ++affected;
             }
         }
@@ -2080,31 +2253,6 @@ private static Set<Vector> getHollowed(Set<Vector> vset) {
         return returnset;
     }
 
-    private void recurseHollow(Region region, BlockVector origin, Set<BlockVector> outside) {
-        final LinkedList<BlockVector> queue = new LinkedList<>();
-        queue.addLast(origin);
-
-        while (!queue.isEmpty()) {
-            final BlockVector current = queue.removeFirst();
-            final BlockState block = getBlock(current);
-            if (block.getBlockType().getMaterial().isMovementBlocker()) {
-                continue;
-            }
-
-            if (!outside.add(current)) {
-                continue;
-            }
-
-            if (!region.contains(current)) {
-                continue;
-            }
-
-            for (Vector recurseDirection: recurseDirections) {
-                queue.addLast(current.add(recurseDirection).toBlockVector());
-            }
-        } // while
-    }
-
     public int makeBiomeShape(final Region region, final Vector zero, final Vector unit, final BaseBiome biomeType, final String expressionString, final boolean hollow) throws ExpressionException, MaxChangedBlocksException {
         final Vector2D zero2D = zero.toVector2D();
         final Vector2D unit2D = unit.toVector2D();
@@ -2140,15 +2288,6 @@ protected BaseBiome getBiome(int x, int z, BaseBiome defaultBiomeType) {
         return shape.generate(this, biomeType, hollow);
     }
 
-    private static final Vector[] recurseDirections = {
-            Direction.NORTH.toVector(),
-            Direction.EAST.toVector(),
-            Direction.SOUTH.toVector(),
-            Direction.WEST.toVector(),
-            Direction.UP.toVector(),
-            Direction.DOWN.toVector(),
-    };
-
     private static double lengthSq(double x, double y, double z) {
         return (x * x) + (y * y) + (z * z);
     }
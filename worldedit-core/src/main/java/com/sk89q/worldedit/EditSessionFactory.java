@@ -25,8 +25,11 @@
 import com.sk89q.worldedit.event.extent.EditSessionEvent;
 import com.sk89q.worldedit.extent.inventory.BlockBag;
 import com.sk89q.worldedit.util.eventbus.EventBus;
+import com.sk89q.worldedit.util.metrics.EditMetrics;
 import com.sk89q.worldedit.world.World;
 
+import javax.annotation.Nullable;
+
 /**
  * Creates new {@link EditSession}s. To get an instance of this factory,
  * use {@link WorldEdit#getEditSessionFactory()}.
@@ -150,24 +153,29 @@ static final class EditSessionFactoryImpl extends EditSessionFactory {
             this.eventBus = eventBus;
         }
 
+        @Nullable
+        private EditMetrics createMetrics() {
+            return WorldEdit.getInstance().getConfiguration().profile ? new EditMetrics() : null;
+        }
+
         @Override
         public EditSession getEditSession(World world, int maxBlocks) {
-            return new EditSession(eventBus, world, maxBlocks, null, new EditSessionEvent(world, null, maxBlocks, null));
+            return new EditSession(eventBus, world, maxBlocks, null, new EditSessionEvent(world, null, maxBlocks, null), createMetrics());
         }
 
         @Override
         public EditSession getEditSession(World world, int maxBlocks, Player player) {
-            return new EditSession(eventBus, world, maxBlocks, null, new EditSessionEvent(world, player, maxBlocks, null));
+            return new EditSession(eventBus, world, maxBlocks, null, new EditSessionEvent(world, player, maxBlocks, null), createMetrics());
         }
 
         @Override
         public EditSession getEditSession(World world, int maxBlocks, BlockBag blockBag) {
-            return new EditSession(eventBus, world, maxBlocks, blockBag, new EditSessionEvent(world, null, maxBlocks, null));
+            return new EditSession(eventBus, world, maxBlocks, blockBag, new EditSessionEvent(world, null, maxBlocks, null), createMetrics());
         }
 
         @Override
         public EditSession getEditSession(World world, int maxBlocks, BlockBag blockBag, Player player) {
-            return new EditSession(eventBus, world, maxBlocks, blockBag, new EditSessionEvent(world, player, maxBlocks, null));
+            return new EditSession(eventBus, world, maxBlocks, blockBag, new EditSessionEvent(world, player, maxBlocks, null), createMetrics());
         }
 
     }
@@ -46,6 +46,7 @@
 import com.sk89q.worldedit.regions.selector.RegionSelectorType;
 import com.sk89q.worldedit.session.ClipboardHolder;
 import com.sk89q.worldedit.session.request.Request;
+import com.sk89q.worldedit.util.metrics.MetricsReport;
 import com.sk89q.worldedit.world.World;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.item.ItemType;
@@ -92,6 +93,7 @@ public class LocalSession {
     private transient Mask mask;
     private transient TimeZone timezone = TimeZone.getDefault();
     private transient Vector cuiTemporaryBlock;
+    private transient MetricsReport lastMetricsReport;
 
     // Saved properties
     private String lastScript;
@@ -894,4 +896,23 @@ public void setMask(Mask mask) {
         this.mask = mask;
     }
 
+    /**
+     * Get the metrics report of the last profiled command.
+     *
+     * @return the report, or null if no command has been profiled
+     */
+    @Nullable
+    public MetricsReport getLastMetricsReport() {
+        return lastMetricsReport;
+    }
+
+    /**
+     * Set the metrics report of the last profiled command.
+     *
+     * @param report the report, or null
+     */
+    public void setLastMetricsReport(@Nullable MetricsReport report) {
+        this.lastMetricsReport = report;
+    }
+
 }
@@ -50,6 +50,7 @@
 import com.sk89q.worldedit.util.io.file.FilenameResolutionException;
 import com.sk89q.worldedit.util.io.file.InvalidFilenameException;
 import com.sk89q.worldedit.util.logging.WorldEditPrefixHandler;
+import com.sk89q.worldedit.util.metrics.MetricsManager;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 import com.sk89q.worldedit.world.block.BlockType;
 import com.sk89q.worldedit.world.registry.BundledBlockData;
@@ -94,6 +95,7 @@ public class WorldEdit {
     private final PlatformManager platformManager = new PlatformManager(this);
     private final EditSessionFactory editSessionFactory = new EditSessionFactory.EditSessionFactoryImpl(eventBus);
     private final SessionManager sessions = new SessionManager(this);
+    private final MetricsManager metrics = new MetricsManager();
 
     private final BlockFactory blockFactory = new BlockFactory(this);
     private final ItemFactory itemFactory = new ItemFactory(this);
@@ -121,6 +123,16 @@ public static WorldEdit getInstance() {
         return instance;
     }
 
+    /**
+     * Get the metrics manager, where sinks for the reports of profiled
+     * commands can be registered.
+     *
+     * @return the metrics manager
+     */
+    public MetricsManager getMetrics() {
+        return metrics;
+    }
+
     /**
      * Get the platform manager, where platforms (that implement WorldEdit)
      * can be registered and information about registered platforms can
@@ -120,6 +120,7 @@ public Operation copyTo(Extent target) {
         BlockTransformExtent extent = new BlockTransformExtent(original, transform);
         ForwardExtentCopy copy = new ForwardExtentCopy(extent, original.getRegion(), original.getOrigin(), target, original.getOrigin());
         copy.setTransform(transform);
+        copy.setParallel(true);
         return copy;
     }
 
@@ -35,6 +35,7 @@
 import com.sk89q.worldedit.extension.platform.Actor;
 import com.sk89q.worldedit.function.mask.Mask;
 import com.sk89q.worldedit.util.command.parametric.Optional;
+import com.sk89q.worldedit.util.metrics.MetricsReport;
 import com.sk89q.worldedit.world.item.ItemType;
 import com.sk89q.worldedit.world.item.ItemTypes;
 
@@ -184,6 +185,33 @@ public void togglePlace(Player player, LocalSession session, EditSession editSes
         }
     }
 
+    @Command(
+        aliases = { "/perf", "perf" },
+        usage = "",
+        desc = "Show where the time of your last edit was spent",
+        help =
+            "Shows the timings of the last command that made an edit,\n" +
+            "broken down by the stages that blocks pass through.\n" +
+            "Requires profiling to be enabled in the configuration.",
+        min = 0,
+        max = 0
+    )
+    @CommandPermissions("worldedit.perf")
+    public void perf(Player player, LocalSession session) throws WorldEditException {
+        MetricsReport report = session.getLastMetricsReport();
+        if (report == null) {
+            if (worldEdit.getConfiguration().profile) {
+                player.printError("No edit has been profiled yet.");
+            } else {
+                player.printError("Profiling is disabled in the configuration.");
+            }
+            return;
+        }
+        for (String line : report.format()) {
+            player.printDebug(line);
+        }
+    }
+
     @Command(
         aliases = { "/searchitem", "/l", "/search", "searchitem" },
         usage = "<query>",
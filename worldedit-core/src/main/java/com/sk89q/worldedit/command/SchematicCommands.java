@@ -21,6 +21,8 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.sk89q.minecraft.util.commands.Command;
 import com.sk89q.minecraft.util.commands.CommandContext;
 import com.sk89q.minecraft.util.commands.CommandException;
@@ -34,10 +36,10 @@
 import com.sk89q.worldedit.extension.platform.Actor;
 import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.RemappedClipboard;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormats;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardWriter;
 import com.sk89q.worldedit.function.operation.Operations;
 import com.sk89q.worldedit.math.transform.Transform;
 import com.sk89q.worldedit.session.ClipboardHolder;
@@ -46,11 +48,7 @@
 import com.sk89q.worldedit.util.io.Closer;
 import com.sk89q.worldedit.util.io.file.FilenameException;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -69,6 +67,10 @@ public class SchematicCommands {
      */
     private static final int SCHEMATICS_PER_PAGE = 9;
     private static final Logger log = Logger.getLogger(SchematicCommands.class.getCanonicalName());
+    private static final Cache<String, LoadedSchematic> loadedSchematics = CacheBuilder.newBuilder()
+            .maximumSize(16)
+            .softValues()
+            .build();
     private final WorldEdit worldEdit;
 
     /**
@@ -109,11 +111,24 @@ public void load(Player player, LocalSession session, @Optional("sponge") String
         }
 
         try (Closer closer = Closer.create()) {
-            FileInputStream fis = closer.register(new FileInputStream(f));
-            BufferedInputStream bis = closer.register(new BufferedInputStream(fis));
-            ClipboardReader reader = closer.register(format.getReader(bis));
+            File file = f.getCanonicalFile();
+            String key = format.getName() + ":" + file.getPath();
+            LoadedSchematic cached = loadedSchematics.getIfPresent(key);
+            Clipboard clipboard;
 
-            Clipboard clipboard = reader.read();
+            if (cached != null && cached.isCurrent(file)) {
+                clipboard = cached.clipboard.snapshot();
+            } else {
+                ClipboardReader reader = closer.register(format.getReader(f));
+                clipboard = reader.read();
+
+                // Players loading the same file share its blocks until they change them
+                if (clipboard instanceof BlockArrayClipboard) {
+                    BlockArrayClipboard loaded = (BlockArrayClipboard) clipboard;
+                    loadedSchematics.put(key, new LoadedSchematic(file, loaded));
+                    clipboard = loaded.snapshot();
+                }
+            }
             session.setClipboard(new ClipboardHolder(clipboard));
 
             log.info(player.getName() + " loaded " + f.getCanonicalPath());
@@ -149,29 +164,32 @@ public void save(Player player, LocalSession session, @Optional("sponge") String
         Transform transform = holder.getTransform();
         Clipboard target;
 
-        // If we have a transform, bake it into the copy
-        if (!transform.isIdentity()) {
+        // If we have a transform, bake it into the copy, or look at the
+        // clipboard through it when it only rotates and flips blocks
+        if (transform.isIdentity()) {
+            target = clipboard;
+        } else if (RemappedClipboard.supports(clipboard, transform)) {
+            target = new RemappedClipboard((BlockArrayClipboard) clipboard, transform);
+        } else {
             FlattenedClipboardTransform result = FlattenedClipboardTransform.transform(clipboard, transform);
             target = new BlockArrayClipboard(result.getTransformedRegion());
             target.setOrigin(clipboard.getOrigin());
             Operations.completeLegacy(result.copyTo(target));
-        } else {
-            target = clipboard;
         }
 
-        try (Closer closer = Closer.create()) {
-            // Create parent directories
-            File parent = f.getParentFile();
-            if (parent != null && !parent.exists()) {
-                if (!parent.mkdirs()) {
-                    throw new CommandException("Could not create folder for schematics!");
-                }
+        // Create parent directories
+        File parent = f.getParentFile();
+        if (parent != null && !parent.exists()) {
+            if (!parent.mkdirs()) {
+                throw new CommandException("Could not create folder for schematics!");
             }
+        }
 
-            FileOutputStream fos = closer.register(new FileOutputStream(f));
-            BufferedOutputStream bos = closer.register(new BufferedOutputStream(fos));
-            ClipboardWriter writer = closer.register(format.getWriter(bos));
-            writer.write(target);
+        try {
+            // The clipboard may have been loaded lazily from the same file
+            format.write(target, f);
+            // The file may keep its length and time stamp, so loads cannot tell it changed
+            forgetLoadedSchematic(f.getCanonicalFile());
             log.info(player.getName() + " saved " + f.getCanonicalPath());
             player.print(filename + " saved.");
         } catch (IOException e) {
@@ -180,6 +198,17 @@ public void save(Player player, LocalSession session, @Optional("sponge") String
         }
     }
 
+    /**
+     * Drop the cached blocks of a schematic file, whichever format it was
+     * loaded with.
+     *
+     * @param file the canonical file
+     */
+    private static void forgetLoadedSchematic(File file) {
+        String suffix = ":" + file.getPath();
+        loadedSchematics.asMap().keySet().removeIf(key -> key.endsWith(suffix));
+    }
+
     @Command(
             aliases = { "delete", "d" },
             usage = "<filename>",
@@ -335,4 +364,25 @@ private List<String> listFiles(String prefix, File[] files) {
         }
         return result;
     }
+
+    /**
+     * A schematic that was loaded from a file, which is shared between
+     * loads of the same file while the file is unchanged.
+     */
+    private static final class LoadedSchematic {
+        private final long lastModified;
+        private final long length;
+        private final BlockArrayClipboard clipboard;
+
+        private LoadedSchematic(File file, BlockArrayClipboard clipboard) {
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.clipboard = clipboard;
+        }
+
+        private boolean isCurrent(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+
 }
@@ -179,12 +179,10 @@ public boolean actPrimary(Platform server, LocalConfiguration config, Player pla
 
             if (existingMask == null) {
                 editSession.setMask(mask);
-            } else if (existingMask instanceof MaskIntersection) {
-                ((MaskIntersection) existingMask).add(mask);
             } else {
-                MaskIntersection newMask = new MaskIntersection(existingMask);
-                newMask.add(mask);
-                editSession.setMask(newMask);
+                // The existing mask is the session's global mask, so it must
+                // not be modified in place
+                editSession.setMask(new MaskIntersection(existingMask, mask));
             }
         }
 
@@ -19,6 +19,8 @@
 
 package com.sk89q.worldedit.extension.factory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.sk89q.worldedit.BlockVector;
 import com.sk89q.worldedit.IncompleteRegionException;
 import com.sk89q.worldedit.NotABlockException;
@@ -54,6 +56,12 @@
  */
 class DefaultBlockParser extends InputParser<BlockStateHolder> {
 
+    private static final int CACHE_SIZE = 512;
+
+    private final Cache<CacheKey, BlockState> cache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
     protected DefaultBlockParser(WorldEdit worldEdit) {
         super(worldEdit);
     }
@@ -75,6 +83,23 @@ private static BaseBlock getBlockInHand(Actor actor, HandSide handSide) throws I
     @Override
     public BlockStateHolder parseFromInput(String input, ParserContext context)
             throws InputParseException {
+        // Plain block states are immutable and do not depend on the context
+        // (beyond the flags in the key), so repeated inputs can skip parsing
+        CacheKey key = new CacheKey(input, context);
+        BlockState cached = cache.getIfPresent(key);
+        if (cached != null) {
+            checkAllowed(input, cached.getBlockType(), context);
+            return cached;
+        }
+
+        BlockStateHolder result = parseUncached(input, context);
+        if (result instanceof BlockState && !isContextual(input)) {
+            cache.put(key, (BlockState) result);
+        }
+        return result;
+    }
+
+    private BlockStateHolder parseUncached(String input, ParserContext context) throws InputParseException {
         String originalInput = input;
         input = input.replace(";", "|");
         Exception suppressed = null;
@@ -98,6 +123,47 @@ public BlockStateHolder parseFromInput(String input, ParserContext context)
 
     private static String[] EMPTY_STRING_ARRAY = new String[]{};
 
+    /**
+     * Check whether the input names a block that depends on the player or
+     * their session, such as the block in hand, so its result cannot be
+     * cached.
+     *
+     * @param input the input
+     * @return true if the input is contextual
+     */
+    private static boolean isContextual(String input) {
+        String typeString = input.trim();
+        for (int i = 0; i < typeString.length(); i++) {
+            char c = typeString.charAt(i);
+            if (c == '|' || c == ';' || c == '[') {
+                typeString = typeString.substring(0, i);
+                break;
+            }
+        }
+        return "hand".equalsIgnoreCase(typeString)
+                || "offhand".equalsIgnoreCase(typeString)
+                || "pos1".equalsIgnoreCase(typeString);
+    }
+
+    /**
+     * Check that the actor may use the given block type if the context is
+     * restricted.
+     *
+     * @param input the input, for the error message
+     * @param blockType the block type
+     * @param context the context
+     * @throws InputParseException thrown if the block is disallowed
+     */
+    private void checkAllowed(String input, BlockType blockType, ParserContext context) throws InputParseException {
+        if (context.isRestricted()) {
+            Actor actor = context.requireActor();
+            if (actor != null && !actor.hasPermission("worldedit.anyblock")
+                    && worldEdit.getConfiguration().disallowedBlocks.contains(blockType.getId())) {
+                throw new DisallowedUsageException("You are not allowed to use '" + input + "'");
+            }
+        }
+    }
+
     /**
      * Backwards compatibility for wool colours in block syntax.
      *
@@ -278,13 +344,7 @@ private BlockStateHolder parseLogic(String input, ParserContext context) throws
         }
 
         // Check if the item is allowed
-        if (context.isRestricted()) {
-            Actor actor = context.requireActor();
-            if (actor != null && !actor.hasPermission("worldedit.anyblock")
-                    && worldEdit.getConfiguration().disallowedBlocks.contains(blockType.getId())) {
-                throw new DisallowedUsageException("You are not allowed to use '" + input + "'");
-            }
-        }
+        checkAllowed(input, blockType, context);
 
         if (blockType == BlockTypes.SIGN || blockType == BlockTypes.WALL_SIGN) {
             // Allow special sign text syntax
@@ -325,4 +385,41 @@ private BlockStateHolder parseLogic(String input, ParserContext context) throws
         }
     }
 
+    /**
+     * The input and the context flags that change how it is parsed.
+     */
+    private static final class CacheKey {
+        private final String input;
+        private final boolean tryingLegacy;
+        private final boolean preferringWildcard;
+
+        private CacheKey(String input, ParserContext context) {
+            this.input = input;
+            this.tryingLegacy = context.isTryingLegacy();
+            this.preferringWildcard = context.isPreferringWildcard();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return tryingLegacy == other.tryingLegacy
+                    && preferringWildcard == other.preferringWildcard
+                    && input.equals(other.input);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = input.hashCode();
+            result = 31 * result + (tryingLegacy ? 1 : 0);
+            result = 31 * result + (preferringWildcard ? 1 : 0);
+            return result;
+        }
+    }
+
 }
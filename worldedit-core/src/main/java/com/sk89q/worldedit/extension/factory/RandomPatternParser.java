@@ -31,6 +31,8 @@
 
 class RandomPatternParser extends InputParser<Pattern> {
 
+    private static final java.util.regex.Pattern PERCENT_PATTERN = java.util.regex.Pattern.compile("[0-9]+(\\.[0-9]*)?%.*");
+
     RandomPatternParser(WorldEdit worldEdit) {
         super(worldEdit);
     }
@@ -47,7 +49,7 @@ public Pattern parseFromInput(String input, ParserContext context) throws InputP
             double chance;
 
             // Parse special percentage syntax
-            if (token.matches("[0-9]+(\\.[0-9]*)?%.*")) {
+            if (PERCENT_PATTERN.matcher(token).matches()) {
                 String[] p = token.split("%");
 
                 if (p.length < 2) {
@@ -79,6 +79,8 @@
 import com.sk89q.worldedit.util.formatting.component.CommandUsageBox;
 import com.sk89q.worldedit.util.logging.DynamicStreamHandler;
 import com.sk89q.worldedit.util.logging.LogFormat;
+import com.sk89q.worldedit.util.metrics.EditMetrics;
+import com.sk89q.worldedit.util.metrics.MetricsReport;
 
 import java.io.File;
 import java.io.IOException;
@@ -318,6 +320,13 @@ public void handleCommand(CommandEvent event) {
                 session.remember(editSession);
                 editSession.flushQueue();
 
+                EditMetrics metrics = editSession.getMetrics();
+                if (metrics != null) {
+                    MetricsReport report = MetricsReport.create(Joiner.on(" ").join(split), metrics, editSession.getBlockChangeCount());
+                    session.setLastMetricsReport(report);
+                    worldEdit.getMetrics().publish(report);
+                }
+
                 if (config.profile) {
                     long time = System.currentTimeMillis() - start;
                     int changed = editSession.getBlockChangeCount();
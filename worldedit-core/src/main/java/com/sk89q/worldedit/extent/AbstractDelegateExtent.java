@@ -101,11 +101,21 @@ public BaseBiome getBiome(Vector2D position) {
         return extent.getBiome(position);
     }
 
+    @Override
+    public void getBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        extent.getBiomes(x, z, width, length, biomes);
+    }
+
     @Override
     public boolean setBiome(Vector2D position, BaseBiome biome) {
         return extent.setBiome(position, biome);
     }
 
+    @Override
+    public int setBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        return extent.setBiomes(x, z, width, length, biomes);
+    }
+
     @Override
     public Vector getMinimumPoint() {
         return extent.getMinimumPoint();
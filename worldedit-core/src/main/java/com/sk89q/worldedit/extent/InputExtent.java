@@ -19,6 +19,9 @@
 
 package com.sk89q.worldedit.extent;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.Vector2D;
 import com.sk89q.worldedit.world.block.BaseBlock;
@@ -66,4 +69,31 @@ public interface InputExtent {
      */
     BaseBiome getBiome(Vector2D position);
 
+    /**
+     * Fill an array with the biomes of a rectangle of columns.
+     *
+     * <p>Implementations should override this method when they can read
+     * many columns at once, such as a chunk's whole biome array.</p>
+     *
+     * <p>Every element is set to its own {@link BaseBiome}, which callers
+     * may change without affecting other elements.</p>
+     *
+     * @param x the X coordinate of the first column
+     * @param z the Z coordinate of the first column
+     * @param width the number of columns along the X axis
+     * @param length the number of columns along the Z axis
+     * @param biomes the array to fill, indexed by {@code z * width + x}
+     */
+    default void getBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        checkNotNull(biomes);
+        checkArgument(biomes.length >= width * length, "biomes is too small");
+
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                biomes[index++] = getBiome(new Vector2D(x + dx, z + dz));
+            }
+        }
+    }
+
 }
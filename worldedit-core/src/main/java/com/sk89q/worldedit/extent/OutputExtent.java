@@ -19,6 +19,9 @@
 
 package com.sk89q.worldedit.extent;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.Vector2D;
 import com.sk89q.worldedit.WorldEditException;
@@ -61,6 +64,37 @@ public interface OutputExtent {
      */
     boolean setBiome(Vector2D position, BaseBiome biome);
 
+    /**
+     * Set the biomes of a rectangle of columns.
+     *
+     * <p>Columns whose entry in the array is {@code null} are left alone.
+     * Implementations should override this method when they can write
+     * many columns at once, such as a chunk's whole biome array.</p>
+     *
+     * @param x the X coordinate of the first column
+     * @param z the Z coordinate of the first column
+     * @param width the number of columns along the X axis
+     * @param length the number of columns along the Z axis
+     * @param biomes the biomes to set, indexed by {@code z * width + x}
+     * @return the number of columns that were successfully set (return value may not be accurate)
+     */
+    default int setBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        checkNotNull(biomes);
+        checkArgument(biomes.length >= width * length, "biomes is too small");
+
+        int changed = 0;
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                BaseBiome biome = biomes[index++];
+                if (biome != null && setBiome(new Vector2D(x + dx, z + dz), biome)) {
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+
     /**
      * Return an {@link Operation} that should be called to tie up loose ends
      * (such as to commit changes in a buffer).
@@ -35,7 +35,7 @@
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 import com.sk89q.worldedit.world.block.BlockTypes;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -44,13 +44,32 @@
 /**
  * Stores block data as a multi-dimensional array of {@link BaseBlock}s and
  * other data as lists or maps.
+ *
+ * <p>Blocks are kept in sections of up to 16x16x16 blocks. A
+ * {@link #snapshot()} shares the sections with this clipboard, and a
+ * section is only copied when either clipboard changes it, so one loaded
+ * clipboard can be handed to many users without duplicating its blocks.</p>
  */
 public class BlockArrayClipboard implements Clipboard {
 
+    private static final int SECTION_SHIFT = 4;
+    private static final int SECTION_SIZE = 1 << SECTION_SHIFT;
+    private static final int SECTION_MASK = SECTION_SIZE - 1;
+
     private final Region region;
     private Vector origin;
-    private final BlockStateHolder[][][] blocks;
-    private final List<ClipboardEntity> entities = new ArrayList<>();
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int width;
+    private final int height;
+    private final int length;
+    private final int sectionsX;
+    private final int sectionsZ;
+    private final BlockStateHolder[][] sections;
+    private final boolean[] shared;
+    private int sharedCount;
+    private final EntityGrid<ClipboardEntity> entities = new EntityGrid<>();
 
     /**
      * Create a new instance.
@@ -64,8 +83,71 @@ public BlockArrayClipboard(Region region) {
         this.region = region.clone();
         this.origin = region.getMinimumPoint();
 
+        Vector min = this.region.getMinimumPoint();
         Vector dimensions = getDimensions();
-        blocks = new BlockStateHolder[dimensions.getBlockX()][dimensions.getBlockY()][dimensions.getBlockZ()];
+        this.minX = min.getBlockX();
+        this.minY = min.getBlockY();
+        this.minZ = min.getBlockZ();
+        this.width = dimensions.getBlockX();
+        this.height = dimensions.getBlockY();
+        this.length = dimensions.getBlockZ();
+        this.sectionsX = (width + SECTION_MASK) >> SECTION_SHIFT;
+        this.sectionsZ = (length + SECTION_MASK) >> SECTION_SHIFT;
+        int sectionsY = (height + SECTION_MASK) >> SECTION_SHIFT;
+
+        // Sections are allocated up front, so that parallel copies into a
+        // new clipboard only ever write to distinct array slots
+        this.sections = new BlockStateHolder[sectionsX * sectionsY * sectionsZ][];
+        this.shared = new boolean[sections.length];
+        for (int sy = 0; sy < sectionsY; sy++) {
+            for (int sz = 0; sz < sectionsZ; sz++) {
+                for (int sx = 0; sx < sectionsX; sx++) {
+                    sections[(sy * sectionsZ + sz) * sectionsX + sx] = new BlockStateHolder[
+                            sectionWidth(sx) * sectionSize(height, sy) * sectionLength(sz)];
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a snapshot of the given clipboard, sharing its sections.
+     *
+     * @param other the clipboard
+     */
+    private BlockArrayClipboard(BlockArrayClipboard other) {
+        this.region = other.region.clone();
+        this.origin = other.origin;
+        this.minX = other.minX;
+        this.minY = other.minY;
+        this.minZ = other.minZ;
+        this.width = other.width;
+        this.height = other.height;
+        this.length = other.length;
+        this.sectionsX = other.sectionsX;
+        this.sectionsZ = other.sectionsZ;
+        this.sections = other.sections.clone();
+        this.shared = new boolean[sections.length];
+        Arrays.fill(shared, true);
+        this.sharedCount = sections.length;
+        for (ClipboardEntity entity : other.entities.getAll()) {
+            Location location = entity.getLocation();
+            entities.add(new ClipboardEntity(location.getExtent() == other ? location.setExtent(this) : location, entity.getEntity()));
+        }
+    }
+
+    /**
+     * Create a copy of this clipboard that shares its blocks with this
+     * clipboard until either of them is changed.
+     *
+     * <p>Taking a snapshot while other threads write to this clipboard is
+     * not supported.</p>
+     *
+     * @return the snapshot
+     */
+    public synchronized BlockArrayClipboard snapshot() {
+        Arrays.fill(shared, true);
+        sharedCount = sections.length;
+        return new BlockArrayClipboard(this);
     }
 
     @Override
@@ -100,18 +182,12 @@ public Vector getMaximumPoint() {
 
     @Override
     public List<? extends Entity> getEntities(Region region) {
-        List<Entity> filtered = new ArrayList<>();
-        for (Entity entity : entities) {
-            if (region.contains(entity.getLocation().toVector())) {
-                filtered.add(entity);
-            }
-        }
-        return Collections.unmodifiableList(filtered);
+        return Collections.unmodifiableList(entities.getWithin(region));
     }
 
     @Override
     public List<? extends Entity> getEntities() {
-        return Collections.unmodifiableList(entities);
+        return entities.getAll();
     }
 
     @Nullable
@@ -125,8 +201,8 @@ public Entity createEntity(Location location, BaseEntity entity) {
     @Override
     public BlockState getBlock(Vector position) {
         if (region.contains(position)) {
-            Vector v = position.subtract(region.getMinimumPoint());
-            BlockStateHolder block = blocks[v.getBlockX()][v.getBlockY()][v.getBlockZ()];
+            BlockStateHolder block = getBlockRelative(
+                    position.getBlockX() - minX, position.getBlockY() - minY, position.getBlockZ() - minZ);
             if (block != null) {
                 return block.toImmutableState();
             }
@@ -138,8 +214,8 @@ public BlockState getBlock(Vector position) {
     @Override
     public BaseBlock getFullBlock(Vector position) {
         if (region.contains(position)) {
-            Vector v = position.subtract(region.getMinimumPoint());
-            BlockStateHolder block = blocks[v.getBlockX()][v.getBlockY()][v.getBlockZ()];
+            BlockStateHolder block = getBlockRelative(
+                    position.getBlockX() - minX, position.getBlockY() - minY, position.getBlockZ() - minZ);
             if (block != null) {
                 return block.toBaseBlock();
             }
@@ -151,14 +227,69 @@ public BaseBlock getFullBlock(Vector position) {
     @Override
     public boolean setBlock(Vector position, BlockStateHolder block) throws WorldEditException {
         if (region.contains(position)) {
-            Vector v = position.subtract(region.getMinimumPoint());
-            blocks[v.getBlockX()][v.getBlockY()][v.getBlockZ()] = block;
+            int x = position.getBlockX() - minX;
+            int y = position.getBlockY() - minY;
+            int z = position.getBlockZ() - minZ;
+            int section = sectionIndex(x, y, z);
+            BlockStateHolder[] blocks = sharedCount != 0 ? ownSection(section) : sections[section];
+            blocks[blockIndex(x, y, z)] = block;
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Get a block by its position relative to the minimum point of the
+     * region, without checking that the position is within the region.
+     *
+     * @param x the x offset, from 0 to the width - 1
+     * @param y the y offset, from 0 to the height - 1
+     * @param z the z offset, from 0 to the length - 1
+     * @return the block, or null if it was never set
+     */
+    @Nullable
+    public BlockStateHolder getBlockRelative(int x, int y, int z) {
+        return sections[sectionIndex(x, y, z)][blockIndex(x, y, z)];
+    }
+
+    private int sectionIndex(int x, int y, int z) {
+        return ((y >> SECTION_SHIFT) * sectionsZ + (z >> SECTION_SHIFT)) * sectionsX + (x >> SECTION_SHIFT);
+    }
+
+    private int blockIndex(int x, int y, int z) {
+        int sectionWidth = sectionWidth(x >> SECTION_SHIFT);
+        return ((y & SECTION_MASK) * sectionLength(z >> SECTION_SHIFT) + (z & SECTION_MASK)) * sectionWidth + (x & SECTION_MASK);
+    }
+
+    private int sectionWidth(int sectionX) {
+        return sectionSize(width, sectionX);
+    }
+
+    private int sectionLength(int sectionZ) {
+        return sectionSize(length, sectionZ);
+    }
+
+    private static int sectionSize(int size, int section) {
+        return Math.min(SECTION_SIZE, size - (section << SECTION_SHIFT));
+    }
+
+    /**
+     * Get a section for writing, copying it first if it is shared with
+     * another clipboard.
+     *
+     * @param section the section index
+     * @return the section
+     */
+    private synchronized BlockStateHolder[] ownSection(int section) {
+        if (shared[section]) {
+            sections[section] = sections[section].clone();
+            shared[section] = false;
+            sharedCount--;
+        }
+        return sections[section];
+    }
+
     @Override
     public BaseBiome getBiome(Vector2D position) {
         return new BaseBiome(0);
@@ -0,0 +1,360 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Lists;
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.entity.metadata.EntityProperties;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.extent.transform.BlockTransformExtent;
+import com.sk89q.worldedit.function.block.ExtentBlockCopy;
+import com.sk89q.worldedit.function.entity.ExtentEntityCopy;
+import com.sk89q.worldedit.function.operation.Operation;
+import com.sk89q.worldedit.function.operation.RunContext;
+import com.sk89q.worldedit.function.visitor.EntityVisitor;
+import com.sk89q.worldedit.math.transform.AffineTransform;
+import com.sk89q.worldedit.math.transform.Transform;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockTypes;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Pastes a {@link BlockArrayClipboard} by reading its block array directly.
+ *
+ * <p>This only supports transforms that map blocks onto blocks, which are
+ * the identity and combinations of right-angle rotations and flips. The
+ * destination is visited one chunk section at a time, each distinct block
+ * state is transformed once, and air is skipped without any mask tests.
+ * The result is the same as copying with a
+ * {@link com.sk89q.worldedit.function.operation.ForwardExtentCopy} from
+ * a {@link BlockTransformExtent}, which is used for blocks that have NBT
+ * data.</p>
+ *
+ * @see #supports(Clipboard, Transform, Vector)
+ */
+public class BlockArrayPaste implements Operation {
+
+    private static final double EPSILON = 1e-9;
+
+    private final BlockArrayClipboard clipboard;
+    private final Transform transform;
+    private final Extent destination;
+    private final Vector to;
+    private final int[] matrix;
+    private boolean ignoringAir;
+    private boolean copyingEntities = true;
+    private int affected;
+
+    @Nullable private BlockState[] translated;
+    @Nullable private BlockState air;
+
+    /**
+     * Create a new paste of a clipboard to the given position, where the
+     * clipboard's origin will be placed.
+     *
+     * @param clipboard the clipboard
+     * @param transform the transform, which must be supported
+     * @param destination the destination extent
+     * @param to the destination position
+     */
+    public BlockArrayPaste(BlockArrayClipboard clipboard, Transform transform, Extent destination, Vector to) {
+        checkNotNull(clipboard);
+        checkNotNull(transform);
+        checkNotNull(destination);
+        checkNotNull(to);
+        int[] matrix = getBlockMatrix(transform);
+        if (matrix == null || !isBlockPosition(clipboard.getOrigin()) || !isBlockPosition(to)) {
+            throw new IllegalArgumentException("Transform and positions must map blocks onto blocks");
+        }
+        this.clipboard = clipboard;
+        this.transform = transform;
+        this.destination = destination;
+        this.to = to;
+        this.matrix = matrix;
+    }
+
+    /**
+     * Return whether a paste of the given clipboard can be made with this
+     * operation.
+     *
+     * @param clipboard the clipboard
+     * @param transform the transform
+     * @param to the destination position
+     * @return true if supported
+     */
+    public static boolean supports(Clipboard clipboard, Transform transform, Vector to) {
+        return clipboard instanceof BlockArrayClipboard
+                && isBlockPosition(clipboard.getOrigin())
+                && isBlockPosition(to)
+                && getBlockMatrix(transform) != null;
+    }
+
+    /**
+     * Return whether air blocks in the clipboard are skipped.
+     *
+     * @return true if skipping air
+     */
+    public boolean isIgnoringAir() {
+        return ignoringAir;
+    }
+
+    /**
+     * Set whether air blocks in the clipboard are skipped.
+     *
+     * @param ignoringAir true to skip air
+     */
+    public void setIgnoringAir(boolean ignoringAir) {
+        this.ignoringAir = ignoringAir;
+    }
+
+    /**
+     * Return whether entities should be pasted along with blocks.
+     *
+     * @return true if copying
+     */
+    public boolean isCopyingEntities() {
+        return copyingEntities;
+    }
+
+    /**
+     * Set whether entities should be pasted along with blocks.
+     *
+     * @param copyingEntities true if copying
+     */
+    public void setCopyingEntities(boolean copyingEntities) {
+        this.copyingEntities = copyingEntities;
+    }
+
+    /**
+     * Get the number of affected blocks.
+     *
+     * @return the number of affected
+     */
+    public int getAffected() {
+        return affected;
+    }
+
+    @Override
+    public Operation resume(RunContext run) throws WorldEditException {
+        pasteBlocks();
+
+        if (copyingEntities) {
+            Vector from = clipboard.getOrigin();
+            ExtentEntityCopy entityCopy = new ExtentEntityCopy(from, destination, to, transform);
+            List<? extends Entity> entities = Lists.newArrayList(clipboard.getEntities(clipboard.getRegion()));
+            entities.removeIf(entity -> {
+                EntityProperties properties = entity.getFacet(EntityProperties.class);
+                return properties != null && !properties.isPasteable();
+            });
+            return new EntityVisitor(entities.iterator(), entityCopy);
+        }
+        return null;
+    }
+
+    private void pasteBlocks() throws WorldEditException {
+        Region region = clipboard.getRegion();
+        boolean cuboid = region instanceof CuboidRegion;
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        int minX = min.getBlockX();
+        int minY = min.getBlockY();
+        int minZ = min.getBlockZ();
+        int[] m = matrix;
+
+        // The destination of a source position p is M * (p - origin) + t + to
+        Vector origin = clipboard.getOrigin();
+        int offsetX = m[3] + to.getBlockX();
+        int offsetY = m[7] + to.getBlockY();
+        int offsetZ = m[11] + to.getBlockZ();
+        int originX = origin.getBlockX();
+        int originY = origin.getBlockY();
+        int originZ = origin.getBlockZ();
+
+        int[] a = apply(m, min.getBlockX() - originX, min.getBlockY() - originY, min.getBlockZ() - originZ);
+        int[] b = apply(m, max.getBlockX() - originX, max.getBlockY() - originY, max.getBlockZ() - originZ);
+        int destMinX = Math.min(a[0], b[0]) + offsetX;
+        int destMaxX = Math.max(a[0], b[0]) + offsetX;
+        int destMinY = Math.min(a[1], b[1]) + offsetY;
+        int destMaxY = Math.max(a[1], b[1]) + offsetY;
+        int destMinZ = Math.min(a[2], b[2]) + offsetZ;
+        int destMaxZ = Math.max(a[2], b[2]) + offsetZ;
+
+        ExtentBlockCopy nbtCopy = null;
+
+        for (int chunkX = destMinX >> 4; chunkX <= destMaxX >> 4; chunkX++) {
+            int x0 = Math.max(destMinX, chunkX << 4);
+            int x1 = Math.min(destMaxX, (chunkX << 4) + 15);
+            for (int chunkZ = destMinZ >> 4; chunkZ <= destMaxZ >> 4; chunkZ++) {
+                int z0 = Math.max(destMinZ, chunkZ << 4);
+                int z1 = Math.min(destMaxZ, (chunkZ << 4) + 15);
+                for (int sectionY = destMinY >> 4; sectionY <= destMaxY >> 4; sectionY++) {
+                    int y0 = Math.max(destMinY, sectionY << 4);
+                    int y1 = Math.min(destMaxY, (sectionY << 4) + 15);
+                    for (int y = y0; y <= y1; y++) {
+                        for (int z = z0; z <= z1; z++) {
+                            for (int x = x0; x <= x1; x++) {
+                                // The matrix is orthogonal, so its inverse is its transpose
+                                int rx = x - offsetX;
+                                int ry = y - offsetY;
+                                int rz = z - offsetZ;
+                                int sourceX = m[0] * rx + m[4] * ry + m[8] * rz + originX;
+                                int sourceY = m[1] * rx + m[5] * ry + m[9] * rz + originY;
+                                int sourceZ = m[2] * rx + m[6] * ry + m[10] * rz + originZ;
+
+                                BlockStateHolder block = clipboard.getBlockRelative(sourceX - minX, sourceY - minY, sourceZ - minZ);
+                                if (ignoringAir && (block == null || block.getBlockType().getMaterial().isAir())) {
+                                    continue;
+                                }
+                                if (!cuboid && !region.contains(new Vector(sourceX, sourceY, sourceZ))) {
+                                    continue;
+                                }
+
+                                if (block instanceof BaseBlock && ((BaseBlock) block).hasNbtData()) {
+                                    if (nbtCopy == null) {
+                                        nbtCopy = new ExtentBlockCopy(new BlockTransformExtent(clipboard, transform), origin, destination, to, transform);
+                                    }
+                                    if (nbtCopy.apply(new BlockVector(sourceX, sourceY, sourceZ))) {
+                                        affected++;
+                                    }
+                                } else {
+                                    BlockState state = block != null ? translate(block.toImmutableState()) : getAir();
+                                    if (destination.setBlock(new BlockVector(x, y, z), state)) {
+                                        affected++;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private BlockState translate(BlockState state) {
+        if (transform.isIdentity()) {
+            return state;
+        }
+        int id = state.getInternalId();
+        if (translated == null) {
+            translated = new BlockState[BlockState.getInternalIdCount()];
+        }
+        if (id < 0 || id >= translated.length) {
+            return BlockTransformExtent.transform(state, transform);
+        }
+        BlockState result = translated[id];
+        if (result == null) {
+            result = BlockTransformExtent.transform(state, transform);
+            translated[id] = result;
+        }
+        return result;
+    }
+
+    private BlockState getAir() {
+        if (air == null) {
+            air = translate(BlockTypes.AIR.getDefaultState());
+        }
+        return air;
+    }
+
+    @Override
+    public void cancel() {
+    }
+
+    @Override
+    public void addStatusMessages(List<String> messages) {
+        messages.add(getAffected() + " blocks affected");
+    }
+
+    static int[] apply(int[] m, int x, int y, int z) {
+        return new int[] {
+                m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z
+        };
+    }
+
+    static boolean isBlockPosition(Vector position) {
+        return isInteger(position.getX()) && isInteger(position.getY()) && isInteger(position.getZ());
+    }
+
+    private static boolean isInteger(double value) {
+        return Math.abs(value - Math.rint(value)) < EPSILON;
+    }
+
+    /**
+     * Get the coefficients of a transform, in the order of
+     * {@link AffineTransform#coefficients()}, if it is a combination of
+     * right-angle rotations, flips and a whole-block translation.
+     *
+     * @param transform the transform
+     * @return the coefficients, or null if the transform is not supported
+     */
+    @Nullable
+    static int[] getBlockMatrix(Transform transform) {
+        double[] coefficients;
+        if (transform.isIdentity()) {
+            coefficients = new AffineTransform().coefficients();
+        } else if (transform instanceof AffineTransform) {
+            coefficients = ((AffineTransform) transform).coefficients();
+        } else {
+            return null;
+        }
+
+        int[] matrix = new int[coefficients.length];
+        for (int i = 0; i < coefficients.length; i++) {
+            if (!isInteger(coefficients[i])) {
+                return null;
+            }
+            matrix[i] = (int) Math.rint(coefficients[i]);
+        }
+
+        // Every row and every column must hold exactly one 1 or -1
+        for (int i = 0; i < 3; i++) {
+            int rowCount = 0;
+            int columnCount = 0;
+            for (int j = 0; j < 3; j++) {
+                int row = matrix[i * 4 + j];
+                int column = matrix[j * 4 + i];
+                if (Math.abs(row) > 1 || Math.abs(column) > 1) {
+                    return null;
+                }
+                rowCount += Math.abs(row);
+                columnCount += Math.abs(column);
+            }
+            if (rowCount != 1 || columnCount != 1) {
+                return null;
+            }
+        }
+        return matrix;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.regions.Region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores entities in buckets of 16x16 columns, so that region queries
+ * only look at the entities in the columns overlapping the region.
+ *
+ * <p>Entities are expected to keep their location for as long as they
+ * are in the grid.</p>
+ *
+ * @param <E> the type of entity
+ */
+class EntityGrid<E extends Entity> {
+
+    private static final int SHIFT = 4;
+
+    private final List<E> entities = new ArrayList<>();
+    private final Map<Long, List<E>> columns = new HashMap<>();
+
+    /**
+     * Add an entity.
+     *
+     * @param entity the entity
+     */
+    void add(E entity) {
+        checkNotNull(entity);
+        entities.add(entity);
+        Vector position = entity.getLocation().toVector();
+        columns.computeIfAbsent(key(column(position.getX()), column(position.getZ())), k -> new ArrayList<>()).add(entity);
+    }
+
+    /**
+     * Remove an entity.
+     *
+     * @param entity the entity
+     * @return true if the entity was in the grid
+     */
+    boolean remove(E entity) {
+        if (!entities.remove(entity)) {
+            return false;
+        }
+        Vector position = entity.getLocation().toVector();
+        long key = key(column(position.getX()), column(position.getZ()));
+        List<E> bucket = columns.get(key);
+        if (bucket != null) {
+            bucket.remove(entity);
+            if (bucket.isEmpty()) {
+                columns.remove(key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get all entities in the order that they were added.
+     *
+     * @return an unmodifiable view of the entities
+     */
+    List<E> getAll() {
+        return Collections.unmodifiableList(entities);
+    }
+
+    /**
+     * Get the entities within the given region.
+     *
+     * @param region the region
+     * @return a new list of entities
+     */
+    List<E> getWithin(Region region) {
+        List<E> filtered = new ArrayList<>();
+        if (entities.isEmpty()) {
+            return filtered;
+        }
+
+        // Region.contains() rounds positions, so pad the bounds by a block
+        // to catch entities standing just outside of them
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        int minX = column(min.getX() - 1);
+        int minZ = column(min.getZ() - 1);
+        int maxX = column(max.getX() + 1);
+        int maxZ = column(max.getZ() + 1);
+
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > columns.size()) {
+            for (Map.Entry<Long, List<E>> entry : columns.entrySet()) {
+                long key = entry.getKey();
+                int x = (int) (key >> 32);
+                int z = (int) key;
+                if (x >= minX && x <= maxX && z >= minZ && z <= maxZ) {
+                    addWithin(entry.getValue(), region, filtered);
+                }
+            }
+        } else {
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    List<E> bucket = columns.get(key(x, z));
+                    if (bucket != null) {
+                        addWithin(bucket, region, filtered);
+                    }
+                }
+            }
+        }
+        return filtered;
+    }
+
+    private void addWithin(List<E> bucket, Region region, List<E> filtered) {
+        for (E entity : bucket) {
+            if (region.contains(entity.getLocation().toVector())) {
+                filtered.add(entity);
+            }
+        }
+    }
+
+    private static int column(double coordinate) {
+        return (int) Math.floor(coordinate) >> SHIFT;
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+}
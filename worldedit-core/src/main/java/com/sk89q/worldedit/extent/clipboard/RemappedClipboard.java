@@ -0,0 +1,304 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.entity.BaseEntity;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.extent.AbstractDelegateExtent;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.extent.NullExtent;
+import com.sk89q.worldedit.extent.transform.BlockTransformExtent;
+import com.sk89q.worldedit.function.entity.ExtentEntityCopy;
+import com.sk89q.worldedit.function.operation.Operation;
+import com.sk89q.worldedit.math.transform.Transform;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.util.Location;
+import com.sk89q.worldedit.world.biome.BaseBiome;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockTypes;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A read-only view of a {@link BlockArrayClipboard} with a right-angle
+ * rotation or flip applied, which maps each position back onto the blocks
+ * of the clipboard instead of copying them.
+ *
+ * <p>The transform is applied around the origin of the clipboard, like a
+ * paste of the clipboard at its own origin. The view reads from a
+ * {@link BlockArrayClipboard#snapshot() snapshot}, so later changes to the
+ * clipboard do not show through, and blocks cannot be set on the view.</p>
+ */
+public class RemappedClipboard implements Clipboard {
+
+    private final BlockArrayClipboard source;
+    private final Transform transform;
+    private final BlockTransformExtent states;
+    private final int[] matrix;
+    private final Region region;
+    private final Vector pivot;
+    private final int offsetX;
+    private final int offsetY;
+    private final int offsetZ;
+    private final int sourceMinX;
+    private final int sourceMinY;
+    private final int sourceMinZ;
+    private final int width;
+    private final int height;
+    private final int length;
+    private Vector origin;
+    @Nullable private EntityGrid<ViewEntity> entities;
+
+    /**
+     * Create a new view.
+     *
+     * @param clipboard the clipboard
+     * @param transform the transform, which must be supported
+     * @see #supports(Clipboard, Transform)
+     */
+    public RemappedClipboard(BlockArrayClipboard clipboard, Transform transform) {
+        checkNotNull(clipboard);
+        checkNotNull(transform);
+        checkArgument(supports(clipboard, transform), "Transform must map blocks onto blocks");
+        this.source = clipboard.snapshot();
+        this.transform = transform;
+        this.states = new BlockTransformExtent(source, transform);
+        this.matrix = BlockArrayPaste.getBlockMatrix(transform);
+        this.pivot = source.getOrigin();
+        this.origin = pivot;
+
+        int[] m = matrix;
+        this.offsetX = m[3] + pivot.getBlockX();
+        this.offsetY = m[7] + pivot.getBlockY();
+        this.offsetZ = m[11] + pivot.getBlockZ();
+
+        Vector min = source.getMinimumPoint();
+        Vector max = source.getMaximumPoint();
+        Vector dimensions = source.getDimensions();
+        this.sourceMinX = min.getBlockX();
+        this.sourceMinY = min.getBlockY();
+        this.sourceMinZ = min.getBlockZ();
+        this.width = dimensions.getBlockX();
+        this.height = dimensions.getBlockY();
+        this.length = dimensions.getBlockZ();
+
+        int[] a = BlockArrayPaste.apply(m, min.getBlockX() - pivot.getBlockX(), min.getBlockY() - pivot.getBlockY(), min.getBlockZ() - pivot.getBlockZ());
+        int[] b = BlockArrayPaste.apply(m, max.getBlockX() - pivot.getBlockX(), max.getBlockY() - pivot.getBlockY(), max.getBlockZ() - pivot.getBlockZ());
+        this.region = new CuboidRegion(
+                new Vector(Math.min(a[0], b[0]) + offsetX, Math.min(a[1], b[1]) + offsetY, Math.min(a[2], b[2]) + offsetZ),
+                new Vector(Math.max(a[0], b[0]) + offsetX, Math.max(a[1], b[1]) + offsetY, Math.max(a[2], b[2]) + offsetZ));
+    }
+
+    /**
+     * Return whether a view of the given clipboard can be made with the
+     * given transform, which must be a combination of right-angle
+     * rotations, flips and a whole-block translation.
+     *
+     * @param clipboard the clipboard
+     * @param transform the transform
+     * @return true if supported
+     */
+    public static boolean supports(Clipboard clipboard, Transform transform) {
+        return clipboard instanceof BlockArrayClipboard
+                && BlockArrayPaste.isBlockPosition(clipboard.getOrigin())
+                && BlockArrayPaste.getBlockMatrix(transform) != null;
+    }
+
+    /**
+     * Get the transform that is applied by this view.
+     *
+     * @return the transform
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    @Override
+    public Region getRegion() {
+        return region.clone();
+    }
+
+    @Override
+    public Vector getDimensions() {
+        return region.getMaximumPoint().subtract(region.getMinimumPoint()).add(1, 1, 1);
+    }
+
+    @Override
+    public Vector getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public void setOrigin(Vector origin) {
+        checkNotNull(origin);
+        this.origin = origin;
+    }
+
+    @Override
+    public Vector getMinimumPoint() {
+        return region.getMinimumPoint();
+    }
+
+    @Override
+    public Vector getMaximumPoint() {
+        return region.getMaximumPoint();
+    }
+
+    /**
+     * Get the block of the clipboard that is shown at the given position,
+     * before its state is transformed.
+     *
+     * @param position the position in this view
+     * @return the block, or null if there is none
+     */
+    @Nullable
+    private BlockStateHolder getSourceBlock(Vector position) {
+        // The matrix is orthogonal, so its inverse is its transpose
+        int[] m = matrix;
+        int rx = position.getBlockX() - offsetX;
+        int ry = position.getBlockY() - offsetY;
+        int rz = position.getBlockZ() - offsetZ;
+        int x = m[0] * rx + m[4] * ry + m[8] * rz + pivot.getBlockX() - sourceMinX;
+        int y = m[1] * rx + m[5] * ry + m[9] * rz + pivot.getBlockY() - sourceMinY;
+        int z = m[2] * rx + m[6] * ry + m[10] * rz + pivot.getBlockZ() - sourceMinZ;
+        if (x < 0 || y < 0 || z < 0 || x >= width || y >= height || z >= length) {
+            return null;
+        }
+        return source.getBlockRelative(x, y, z);
+    }
+
+    @Override
+    public BlockState getBlock(Vector position) {
+        BlockStateHolder block = getSourceBlock(position);
+        if (block != null) {
+            return states.transformBlock(block.toImmutableState());
+        }
+        return BlockTypes.AIR.getDefaultState();
+    }
+
+    @Override
+    public BaseBlock getFullBlock(Vector position) {
+        BlockStateHolder block = getSourceBlock(position);
+        if (block != null) {
+            return states.transformBlock(block.toBaseBlock());
+        }
+        return BlockTypes.AIR.getDefaultState().toBaseBlock();
+    }
+
+    @Override
+    public boolean setBlock(Vector position, BlockStateHolder block) throws WorldEditException {
+        return false;
+    }
+
+    @Override
+    public BaseBiome getBiome(Vector2D position) {
+        return new BaseBiome(0);
+    }
+
+    @Override
+    public boolean setBiome(Vector2D position, BaseBiome biome) {
+        return false;
+    }
+
+    @Override
+    public List<? extends Entity> getEntities(Region region) {
+        return Collections.unmodifiableList(getEntityGrid().getWithin(region));
+    }
+
+    @Override
+    public List<? extends Entity> getEntities() {
+        return getEntityGrid().getAll();
+    }
+
+    @Nullable
+    @Override
+    public Entity createEntity(Location location, BaseEntity entity) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Operation commit() {
+        return null;
+    }
+
+    /**
+     * Get the entities of the clipboard with the transform applied, which
+     * are only transformed the first time that they are needed.
+     *
+     * @return the entities
+     */
+    private synchronized EntityGrid<ViewEntity> getEntityGrid() {
+        if (entities == null) {
+            EntityGrid<ViewEntity> grid = new EntityGrid<>();
+            Extent collector = new AbstractDelegateExtent(new NullExtent()) {
+                @Override
+                public Entity createEntity(Location location, BaseEntity entity) {
+                    ViewEntity created = new ViewEntity(location.setExtent(RemappedClipboard.this), entity);
+                    grid.add(created);
+                    return created;
+                }
+            };
+            ExtentEntityCopy copy = new ExtentEntityCopy(pivot, collector, pivot, transform);
+            for (Entity entity : source.getEntities()) {
+                try {
+                    copy.apply(entity);
+                } catch (WorldEditException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            entities = grid;
+        }
+        return entities;
+    }
+
+    /**
+     * An entity of the view, which cannot be removed.
+     */
+    private static class ViewEntity extends StoredEntity {
+        ViewEntity(Location location, BaseEntity entity) {
+            super(location, entity);
+        }
+
+        @Override
+        public boolean remove() {
+            return false;
+        }
+
+        @Nullable
+        @Override
+        public <T> T getFacet(Class<? extends T> cls) {
+            return null;
+        }
+    }
+
+}
@@ -20,21 +20,24 @@
 package com.sk89q.worldedit.extent.clipboard.io;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.jnbt.NBTInputStream;
 import com.sk89q.jnbt.NBTOutputStream;
 import com.sk89q.jnbt.NamedTag;
 import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.util.io.ParallelGZIPOutputStream;
 
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Set;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * A collection of supported clipboard formats.
@@ -97,7 +100,7 @@ public ClipboardReader getReader(InputStream inputStream) throws IOException {
 
         @Override
         public ClipboardWriter getWriter(OutputStream outputStream) throws IOException {
-            NBTOutputStream nbtStream = new NBTOutputStream(new GZIPOutputStream(outputStream));
+            NBTOutputStream nbtStream = new NBTOutputStream(new ParallelGZIPOutputStream(outputStream));
             return new SpongeSchematicWriter(nbtStream);
         }
 
@@ -121,6 +124,44 @@ public boolean isFormat(File file) {
 
             return true;
         }
+    },
+
+    /**
+     * A format that stores independently compressed sections, so that very
+     * large clipboards can be loaded lazily.
+     *
+     * @see SectionedSchematicWriter
+     */
+    SECTIONED_SCHEMATIC("sectioned", "sections") {
+
+        @Override
+        public String getPrimaryFileExtension() {
+            return "sschem";
+        }
+
+        @Override
+        public ClipboardReader getReader(InputStream inputStream) throws IOException {
+            return new SectionedSchematicReader(ByteBuffer.wrap(ByteStreams.toByteArray(inputStream)), inputStream);
+        }
+
+        @Override
+        public ClipboardReader getReader(File file) throws IOException {
+            return SectionedSchematicReader.open(file);
+        }
+
+        @Override
+        public ClipboardWriter getWriter(OutputStream outputStream) throws IOException {
+            return new SectionedSchematicWriter(outputStream);
+        }
+
+        @Override
+        public boolean isFormat(File file) {
+            try (DataInputStream str = new DataInputStream(new FileInputStream(file))) {
+                return str.readInt() == SectionedSchematicWriter.MAGIC;
+            } catch (Exception e) {
+                return false;
+            }
+        }
     };
 
     private final ImmutableSet<String> aliases;
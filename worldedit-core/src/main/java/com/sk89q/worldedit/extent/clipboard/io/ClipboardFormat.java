@@ -19,10 +19,19 @@
 
 package com.sk89q.worldedit.extent.clipboard.io;
 
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Set;
 
 /**
@@ -53,6 +62,27 @@ public interface ClipboardFormat {
      */
     ClipboardReader getReader(InputStream inputStream) throws IOException;
 
+    /**
+     * Create a reader for a file.
+     *
+     * <p>Closing the reader closes the file. Formats that can read a file
+     * without streaming all of it, such as by mapping it into memory, may
+     * override this method.</p>
+     *
+     * @param file the file
+     * @return a reader
+     * @throws IOException thrown on I/O error
+     */
+    default ClipboardReader getReader(File file) throws IOException {
+        InputStream inputStream = new BufferedInputStream(new FileInputStream(file));
+        try {
+            return getReader(inputStream);
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
     /**
      * Create a writer.
      *
@@ -62,6 +92,39 @@ public interface ClipboardFormat {
      */
     ClipboardWriter getWriter(OutputStream outputStream) throws IOException;
 
+    /**
+     * Write a clipboard to a file.
+     *
+     * <p>The clipboard is first written to a temporary file next to the
+     * given file, which then replaces it, so the file is never left half
+     * written. A clipboard that was read lazily from the given file keeps
+     * reading the old contents: where {@link #getReader(File)} maps a file
+     * into memory, the mapping keeps the replaced file alive. Readers must
+     * not keep a file mapped on platforms where that prevents it from being
+     * replaced, such as Windows.</p>
+     *
+     * @param clipboard the clipboard
+     * @param file the file
+     * @throws IOException thrown on I/O error
+     */
+    default void write(Clipboard clipboard, File file) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temp));
+                 ClipboardWriter writer = getWriter(outputStream)) {
+                writer.write(clipboard);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
     /**
      * Return whether the given file is of this format.
      *
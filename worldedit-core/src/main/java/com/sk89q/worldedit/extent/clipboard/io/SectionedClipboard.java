@@ -0,0 +1,404 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard.io;
+
+import static com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter.SECTION_SHIFT;
+import static com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter.SECTION_SIZE;
+import static com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter.SECTION_VOLUME;
+
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.NBTInputStream;
+import com.sk89q.jnbt.NamedTag;
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.entity.BaseEntity;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.function.operation.Operation;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.util.Location;
+import com.sk89q.worldedit.world.biome.BaseBiome;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockTypes;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import javax.annotation.Nullable;
+
+/**
+ * A clipboard backed by the sections of a sectioned schematic, which are
+ * decompressed the first time they are accessed.
+ *
+ * <p>Sections that have been read are softly cached, so a clipboard larger
+ * than the heap can still be pasted. Sections that have been changed are
+ * kept in memory for the life of the clipboard. The region of the
+ * clipboard iterates section by section, so a paste through a region
+ * visitor loads each section once.</p>
+ *
+ * <p>Blocks may be read and set from several threads at once, as long as
+ * no two threads touch the same position, so the clipboard can be the
+ * source or target of a parallel copy.</p>
+ *
+ * <p>Entities are not stored in the format, so this clipboard never has
+ * any and does not accept new ones.</p>
+ */
+public class SectionedClipboard implements Clipboard {
+
+    private final Region region;
+    private final Vector min;
+    private final int sectionsX;
+    private final int sectionsZ;
+    private Vector origin;
+    private final BlockState[] palette;
+    private final ByteBuffer data;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final AtomicReferenceArray<SoftReference<Section>> cache;
+    private final AtomicReferenceArray<Section> modified;
+
+    SectionedClipboard(Vector min, Vector max, Vector origin, BlockState[] palette, ByteBuffer data,
+                       long[] offsets, int[] lengths) {
+        this.region = new SectionOrderedRegion(min, max);
+        this.min = min;
+        Vector dimensions = max.subtract(min).add(1, 1, 1);
+        this.sectionsX = (dimensions.getBlockX() + SECTION_SIZE - 1) >> SECTION_SHIFT;
+        this.sectionsZ = (dimensions.getBlockZ() + SECTION_SIZE - 1) >> SECTION_SHIFT;
+        this.origin = origin;
+        this.palette = palette;
+        this.data = data;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.cache = new AtomicReferenceArray<>(offsets.length);
+        this.modified = new AtomicReferenceArray<>(offsets.length);
+    }
+
+    @Override
+    public Region getRegion() {
+        return region.clone();
+    }
+
+    @Override
+    public Vector getDimensions() {
+        return region.getMaximumPoint().subtract(region.getMinimumPoint()).add(1, 1, 1);
+    }
+
+    @Override
+    public Vector getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public void setOrigin(Vector origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public Vector getMinimumPoint() {
+        return region.getMinimumPoint();
+    }
+
+    @Override
+    public Vector getMaximumPoint() {
+        return region.getMaximumPoint();
+    }
+
+    @Override
+    public List<? extends Entity> getEntities(Region region) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<? extends Entity> getEntities() {
+        return Collections.emptyList();
+    }
+
+    @Nullable
+    @Override
+    public Entity createEntity(Location location, BaseEntity entity) {
+        return null;
+    }
+
+    @Override
+    public BlockState getBlock(Vector position) {
+        if (region.contains(position)) {
+            int x = position.getBlockX() - min.getBlockX();
+            int y = position.getBlockY() - min.getBlockY();
+            int z = position.getBlockZ() - min.getBlockZ();
+            return getSection(sectionIndex(x, y, z)).states[blockIndex(x, y, z)];
+        }
+
+        return BlockTypes.AIR.getDefaultState();
+    }
+
+    @Override
+    public BaseBlock getFullBlock(Vector position) {
+        if (region.contains(position)) {
+            int x = position.getBlockX() - min.getBlockX();
+            int y = position.getBlockY() - min.getBlockY();
+            int z = position.getBlockZ() - min.getBlockZ();
+            Section section = getSection(sectionIndex(x, y, z));
+            int index = blockIndex(x, y, z);
+            CompoundTag nbt = section.tiles.get(index);
+            return nbt != null ? section.states[index].toBaseBlock(nbt) : section.states[index].toBaseBlock();
+        }
+
+        return BlockTypes.AIR.getDefaultState().toBaseBlock();
+    }
+
+    @Override
+    public boolean setBlock(Vector position, BlockStateHolder block) {
+        if (region.contains(position)) {
+            int x = position.getBlockX() - min.getBlockX();
+            int y = position.getBlockY() - min.getBlockY();
+            int z = position.getBlockZ() - min.getBlockZ();
+            int sectionIndex = sectionIndex(x, y, z);
+            Section section = modified.get(sectionIndex);
+            if (section == null) {
+                // Another thread may copy the same section at the same time,
+                // in which case both use whichever copy was installed first
+                Section copy = getSection(sectionIndex).copy();
+                section = modified.compareAndSet(sectionIndex, null, copy) ? copy : modified.get(sectionIndex);
+            }
+            int index = blockIndex(x, y, z);
+            section.states[index] = block.toImmutableState();
+            CompoundTag nbt = block instanceof BaseBlock ? ((BaseBlock) block).getNbtData() : null;
+            if (nbt != null) {
+                section.tiles.put(index, nbt);
+            } else {
+                section.tiles.remove(index);
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public BaseBiome getBiome(Vector2D position) {
+        return new BaseBiome(0);
+    }
+
+    @Override
+    public boolean setBiome(Vector2D position, BaseBiome biome) {
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public Operation commit() {
+        return null;
+    }
+
+    private int sectionIndex(int x, int y, int z) {
+        return ((y >> SECTION_SHIFT) * sectionsZ + (z >> SECTION_SHIFT)) * sectionsX + (x >> SECTION_SHIFT);
+    }
+
+    private static int blockIndex(int x, int y, int z) {
+        int mask = SECTION_SIZE - 1;
+        return ((y & mask) << (SECTION_SHIFT * 2)) | ((z & mask) << SECTION_SHIFT) | (x & mask);
+    }
+
+    private Section getSection(int index) {
+        Section section = modified.get(index);
+        if (section != null) {
+            return section;
+        }
+        SoftReference<Section> ref = cache.get(index);
+        section = ref != null ? ref.get() : null;
+        if (section == null) {
+            section = loadSection(index);
+            cache.set(index, new SoftReference<>(section));
+        }
+        return section;
+    }
+
+    private Section loadSection(int index) {
+        byte[] compressed = new byte[lengths[index]];
+        ByteBuffer slice = data.duplicate();
+        slice.position((int) offsets[index]);
+        slice.get(compressed);
+
+        try {
+            byte[] raw = inflate(compressed);
+            Section section = new Section();
+            int i = 0;
+            for (int block = 0; block < SECTION_VOLUME; block++) {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    if (shift > 28) {
+                        throw new IOException("VarInt too big");
+                    }
+                    b = raw[i++];
+                    value |= (b & 127) << shift;
+                    shift += 7;
+                } while ((b & 128) != 0);
+                section.states[block] = palette[value];
+            }
+
+            ByteArrayInputStream tileStream = new ByteArrayInputStream(raw, i, raw.length - i);
+            DataInputStream tileData = new DataInputStream(tileStream);
+            NBTInputStream tileNbt = new NBTInputStream(tileStream);
+            int tileCount = tileData.readInt();
+            for (int t = 0; t < tileCount; t++) {
+                int block = tileData.readUnsignedShort();
+                NamedTag tag = tileNbt.readNamedTag();
+                section.tiles.put(block, (CompoundTag) tag.getTag());
+            }
+            return section;
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            throw new IllegalStateException("Section " + index + " of the schematic is corrupt", e);
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] result = new byte[SECTION_VOLUME * 2];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == result.length) {
+                    result = Arrays.copyOf(result, result.length * 2);
+                }
+                int count = inflater.inflate(result, length, result.length - length);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Unexpected end of section");
+                }
+                length += count;
+            }
+            return Arrays.copyOf(result, length);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * The decoded blocks of one section.
+     */
+    private static final class Section {
+        private final BlockState[] states = new BlockState[SECTION_VOLUME];
+        private final Map<Integer, CompoundTag> tiles = new ConcurrentHashMap<>();
+
+        private Section copy() {
+            Section copy = new Section();
+            System.arraycopy(states, 0, copy.states, 0, SECTION_VOLUME);
+            copy.tiles.putAll(tiles);
+            return copy;
+        }
+    }
+
+    /**
+     * A cuboid region that iterates one section at a time, so visitors
+     * finish with each section before loading the next.
+     */
+    private static final class SectionOrderedRegion extends CuboidRegion {
+
+        private SectionOrderedRegion(Vector pos1, Vector pos2) {
+            super(pos1, pos2);
+        }
+
+        @Override
+        public Iterator<BlockVector> iterator() {
+            Vector min = getMinimumPoint();
+            Vector max = getMaximumPoint();
+            return new Iterator<BlockVector>() {
+                private int sectionX = min.getBlockX();
+                private int sectionY = min.getBlockY();
+                private int sectionZ = min.getBlockZ();
+                private int x = sectionX;
+                private int y = sectionY;
+                private int z = sectionZ;
+                private boolean done;
+
+                @Override
+                public boolean hasNext() {
+                    return !done;
+                }
+
+                @Override
+                public BlockVector next() {
+                    if (done) {
+                        throw new NoSuchElementException();
+                    }
+                    BlockVector answer = new BlockVector(x, y, z);
+                    advance();
+                    return answer;
+                }
+
+                private void advance() {
+                    if (++x <= sectionEnd(sectionX, max.getBlockX())) {
+                        return;
+                    }
+                    x = sectionX;
+                    if (++z <= sectionEnd(sectionZ, max.getBlockZ())) {
+                        return;
+                    }
+                    z = sectionZ;
+                    if (++y <= sectionEnd(sectionY, max.getBlockY())) {
+                        return;
+                    }
+
+                    // Move on to the next section
+                    sectionX += SECTION_SIZE;
+                    if (sectionX > max.getBlockX()) {
+                        sectionX = min.getBlockX();
+                        sectionZ += SECTION_SIZE;
+                        if (sectionZ > max.getBlockZ()) {
+                            sectionZ = min.getBlockZ();
+                            sectionY += SECTION_SIZE;
+                            if (sectionY > max.getBlockY()) {
+                                done = true;
+                                return;
+                            }
+                        }
+                    }
+                    x = sectionX;
+                    y = sectionY;
+                    z = sectionZ;
+                }
+
+                private int sectionEnd(int start, int max) {
+                    return Math.min(start + SECTION_SIZE - 1, max);
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter.MAGIC;
+import static com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter.SECTION_SHIFT;
+import static com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter.SECTION_SIZE;
+import static com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter.TRAILER_LENGTH;
+import static com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter.VERSION;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.extension.input.InputParseException;
+import com.sk89q.worldedit.extension.input.ParserContext;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.world.block.BlockState;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reads clipboards in the sectioned schematic format written by
+ * {@link SectionedSchematicWriter}.
+ *
+ * <p>Only the header and footer are read up front. The returned
+ * {@link SectionedClipboard} decompresses sections from the buffer as they
+ * are accessed, so reading returns as soon as the palette is resolved.
+ * The buffer is typically a memory-mapped file, or a copy of the file on
+ * Windows, and must not be changed while the clipboard is in use.</p>
+ */
+public class SectionedSchematicReader implements ClipboardReader {
+
+    private static final int HEADER_LENGTH = 44;
+
+    /**
+     * Whether files are mapped into memory, which is not done on Windows
+     * because a mapped file cannot be replaced there until the mapping is
+     * garbage collected.
+     */
+    private static final boolean MAP_FILES = !System.getProperty("os.name", "").startsWith("Windows");
+
+    private final ByteBuffer buffer;
+    @Nullable
+    private final Closeable source;
+
+    /**
+     * Create a new reader.
+     *
+     * @param buffer the buffer holding the whole file
+     */
+    public SectionedSchematicReader(ByteBuffer buffer) {
+        this(buffer, null);
+    }
+
+    /**
+     * Create a new reader.
+     *
+     * @param buffer the buffer holding the whole file
+     * @param source the source of the buffer, closed with this reader
+     */
+    SectionedSchematicReader(ByteBuffer buffer, @Nullable Closeable source) {
+        checkNotNull(buffer);
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.source = source;
+    }
+
+    /**
+     * Create a reader for a file, which is mapped into memory where the
+     * file can still be replaced while mapped.
+     *
+     * @param file the file
+     * @return a reader
+     * @throws IOException thrown on I/O error
+     */
+    static SectionedSchematicReader open(File file) throws IOException {
+        return open(file, MAP_FILES);
+    }
+
+    /**
+     * Create a reader for a file.
+     *
+     * <p>Sections are decompressed lazily either way. Without mapping,
+     * the compressed file is copied into memory, so that the file itself
+     * is not held while the clipboard is in use.</p>
+     *
+     * @param file the file
+     * @param map true to map the file into memory
+     * @return a reader
+     * @throws IOException thrown on I/O error
+     */
+    static SectionedSchematicReader open(File file, boolean map) throws IOException {
+        checkNotNull(file);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Sectioned schematics larger than 2 GiB are not supported");
+            }
+            if (map) {
+                // The mapping stays valid after the channel is closed
+                return new SectionedSchematicReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+            buffer.flip();
+            return new SectionedSchematicReader(buffer);
+        }
+    }
+
+    @Override
+    public Clipboard read() throws IOException {
+        ParserContext parserContext = new ParserContext();
+        parserContext.setRestricted(false);
+        parserContext.setTryLegacy(false);
+        parserContext.setPreferringWildcard(false);
+
+        return read(key -> {
+            try {
+                return WorldEdit.getInstance().getBlockFactory().parseFromInput(key, parserContext).toImmutableState();
+            } catch (InputParseException e) {
+                throw new IOException("Invalid BlockState in schematic: " + key
+                        + ". Are you missing a mod or using a schematic made in a newer version of Minecraft?");
+            }
+        });
+    }
+
+    /**
+     * Read the clipboard, resolving palette entries with the given function.
+     *
+     * @param resolver resolves state strings to states
+     * @return the clipboard
+     * @throws IOException thrown on I/O error or if the data is invalid
+     */
+    SectionedClipboard read(StateResolver resolver) throws IOException {
+        ByteBuffer b = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int limit = b.limit();
+        if (limit < HEADER_LENGTH + TRAILER_LENGTH || b.getInt(0) != MAGIC || b.getInt(limit - 4) != MAGIC) {
+            throw new IOException("Not a sectioned schematic");
+        }
+        try {
+            b.position(4);
+            int version = b.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported sectioned schematic version " + version);
+            }
+            int width = b.getInt();
+            int height = b.getInt();
+            int length = b.getInt();
+            Vector min = new Vector(b.getInt(), b.getInt(), b.getInt());
+            Vector offset = new Vector(b.getInt(), b.getInt(), b.getInt());
+            if (width <= 0 || height <= 0 || length <= 0) {
+                throw new IOException("Invalid dimensions " + width + "x" + height + "x" + length);
+            }
+
+            long footer = b.getLong(limit - TRAILER_LENGTH);
+            if (footer < HEADER_LENGTH || footer > limit - TRAILER_LENGTH) {
+                throw new IOException("Invalid footer offset " + footer);
+            }
+            b.position((int) footer);
+
+            int paletteSize = b.getInt();
+            if (paletteSize <= 0) {
+                throw new IOException("Invalid palette size " + paletteSize);
+            }
+            BlockState[] palette = new BlockState[paletteSize];
+            for (int i = 0; i < paletteSize; i++) {
+                byte[] key = new byte[b.getInt()];
+                b.get(key);
+                palette[i] = resolver.resolve(new String(key, StandardCharsets.UTF_8));
+            }
+
+            int sectionsX = (width + SECTION_SIZE - 1) >> SECTION_SHIFT;
+            int sectionsY = (height + SECTION_SIZE - 1) >> SECTION_SHIFT;
+            int sectionsZ = (length + SECTION_SIZE - 1) >> SECTION_SHIFT;
+            int sectionCount = sectionsX * sectionsY * sectionsZ;
+            long[] offsets = new long[sectionCount];
+            int[] lengths = new int[sectionCount];
+            for (int i = 0; i < sectionCount; i++) {
+                offsets[i] = b.getLong();
+                lengths[i] = b.getInt();
+                if (offsets[i] < HEADER_LENGTH || lengths[i] < 0 || offsets[i] + lengths[i] > footer) {
+                    throw new IOException("Invalid offset for section " + i);
+                }
+            }
+
+            Vector max = min.add(width - 1, height - 1, length - 1);
+            return new SectionedClipboard(min, max, min.subtract(offset), palette, buffer, offsets, lengths);
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Truncated or corrupt sectioned schematic", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    /**
+     * Resolves palette entries to block states.
+     */
+    interface StateResolver {
+        BlockState resolve(String key) throws IOException;
+    }
+
+}
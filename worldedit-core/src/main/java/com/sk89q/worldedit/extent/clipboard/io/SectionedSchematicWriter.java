@@ -0,0 +1,213 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.io.CountingOutputStream;
+import com.sk89q.jnbt.NBTOutputStream;
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.block.BaseBlock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * Writes clipboards in the sectioned schematic format.
+ *
+ * <p>The file starts with a header holding the size and position of the
+ * clipboard. It is followed by the clipboard cut into 16x16x16 sections,
+ * each compressed on its own. A footer at the end holds the palette and
+ * the offset of every section, and the last bytes of the file point to
+ * the footer. Sections can therefore be read independently and in any
+ * order, and the writer only ever holds one section in memory.</p>
+ *
+ * <p>Each section decompresses to the palette indices of its blocks as
+ * varints, in YZX order, followed by the count of tile entities and, for
+ * each, its index in the section as a short and its NBT as a named
+ * tag. Positions of an edge section that lie outside the clipboard hold
+ * index 0. All numbers are big-endian.</p>
+ */
+public class SectionedSchematicWriter implements ClipboardWriter {
+
+    static final int MAGIC = 0x57455353; // "WESS"
+    static final int VERSION = 1;
+    static final int SECTION_SHIFT = 4;
+    static final int SECTION_SIZE = 1 << SECTION_SHIFT;
+    static final int SECTION_VOLUME = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE;
+    static final int TRAILER_LENGTH = 12;
+
+    private final CountingOutputStream counter;
+    private final DataOutputStream out;
+
+    /**
+     * Create a new writer.
+     *
+     * @param outputStream the output stream to write to
+     */
+    public SectionedSchematicWriter(OutputStream outputStream) {
+        checkNotNull(outputStream);
+        this.counter = new CountingOutputStream(outputStream);
+        this.out = new DataOutputStream(counter);
+    }
+
+    @Override
+    public void write(Clipboard clipboard) throws IOException {
+        Region region = clipboard.getRegion();
+        Vector min = region.getMinimumPoint();
+        Vector offset = min.subtract(clipboard.getOrigin());
+        int width = region.getWidth();
+        int height = region.getHeight();
+        int length = region.getLength();
+        int sectionsX = (width + SECTION_SIZE - 1) >> SECTION_SHIFT;
+        int sectionsY = (height + SECTION_SIZE - 1) >> SECTION_SHIFT;
+        int sectionsZ = (length + SECTION_SIZE - 1) >> SECTION_SHIFT;
+        long sectionCount = (long) sectionsX * sectionsY * sectionsZ;
+        if (sectionCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region too large for a sectioned schematic");
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(length);
+        out.writeInt(min.getBlockX());
+        out.writeInt(min.getBlockY());
+        out.writeInt(min.getBlockZ());
+        out.writeInt(offset.getBlockX());
+        out.writeInt(offset.getBlockY());
+        out.writeInt(offset.getBlockZ());
+
+        StatePalette palette = new StatePalette();
+        long[] offsets = new long[(int) sectionCount];
+        int[] lengths = new int[(int) sectionCount];
+        SectionEncoder encoder = new SectionEncoder();
+
+        try {
+            int index = 0;
+            for (int sy = 0; sy < sectionsY; sy++) {
+                for (int sz = 0; sz < sectionsZ; sz++) {
+                    for (int sx = 0; sx < sectionsX; sx++) {
+                        byte[] compressed = encoder.encode(clipboard, palette, min, width, height, length,
+                                sx << SECTION_SHIFT, sy << SECTION_SHIFT, sz << SECTION_SHIFT);
+                        offsets[index] = counter.getCount();
+                        lengths[index] = compressed.length;
+                        out.write(compressed);
+                        index++;
+                    }
+                }
+            }
+        } finally {
+            encoder.end();
+        }
+
+        long footer = counter.getCount();
+        out.writeInt(palette.size());
+        for (int i = 0; i < palette.size(); i++) {
+            byte[] key = palette.getKey(i).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(key.length);
+            out.write(key);
+        }
+        for (int i = 0; i < offsets.length; i++) {
+            out.writeLong(offsets[i]);
+            out.writeInt(lengths[i]);
+        }
+
+        out.writeLong(footer);
+        out.writeInt(MAGIC);
+        out.flush();
+    }
+
+    /**
+     * Encodes and compresses sections, reusing its buffers between them.
+     */
+    private static final class SectionEncoder {
+        private final Deflater deflater = new Deflater();
+        private final ByteArrayOutputStream raw = new ByteArrayOutputStream(SECTION_VOLUME * 2);
+        private final ByteArrayOutputStream tiles = new ByteArrayOutputStream();
+        private final byte[] buffer = new byte[8192];
+
+        private byte[] encode(Clipboard clipboard, StatePalette palette, Vector min, int width, int height, int length,
+                              int baseX, int baseY, int baseZ) throws IOException {
+            raw.reset();
+            tiles.reset();
+            DataOutputStream tileOut = new DataOutputStream(tiles);
+            NBTOutputStream tileNbt = new NBTOutputStream(tiles);
+            int tileCount = 0;
+
+            for (int y = 0; y < SECTION_SIZE; y++) {
+                for (int z = 0; z < SECTION_SIZE; z++) {
+                    for (int x = 0; x < SECTION_SIZE; x++) {
+                        int rx = baseX + x;
+                        int ry = baseY + y;
+                        int rz = baseZ + z;
+                        int blockId = 0;
+                        if (rx < width && ry < height && rz < length) {
+                            BaseBlock block = clipboard.getFullBlock(new BlockVector(
+                                    min.getBlockX() + rx, min.getBlockY() + ry, min.getBlockZ() + rz));
+                            blockId = palette.getOrAdd(block.toImmutableState());
+                            if (block.getNbtData() != null) {
+                                tileOut.writeShort((y << (SECTION_SHIFT * 2)) | (z << SECTION_SHIFT) | x);
+                                tileNbt.writeNamedTag("", block.getNbtData());
+                                tileCount++;
+                            }
+                        }
+                        while ((blockId & -128) != 0) {
+                            raw.write(blockId & 127 | 128);
+                            blockId >>>= 7;
+                        }
+                        raw.write(blockId);
+                    }
+                }
+            }
+
+            new DataOutputStream(raw).writeInt(tileCount);
+            tiles.writeTo(raw);
+
+            deflater.reset();
+            deflater.setInput(raw.toByteArray());
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.size() / 4 + 64);
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                compressed.write(buffer, 0, count);
+            }
+            return compressed.toByteArray();
+        }
+
+        private void end() {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+}
@@ -21,11 +21,10 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.sk89q.jnbt.ByteArrayTag;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.jnbt.IntArrayTag;
 import com.sk89q.jnbt.IntTag;
-import com.sk89q.jnbt.ListTag;
+import com.sk89q.jnbt.NBTConstants;
 import com.sk89q.jnbt.NBTOutputStream;
 import com.sk89q.jnbt.ShortTag;
 import com.sk89q.jnbt.StringTag;
@@ -36,7 +35,6 @@
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.regions.Region;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -45,10 +43,16 @@
 
 /**
  * Writes schematic files using the Sponge schematic format.
+ *
+ * <p>The schematic is streamed to the output rather than built as a tag
+ * tree first. A first pass over the clipboard assigns palette indices and
+ * sizes the block data, and a second pass writes the block data directly,
+ * so only the palette and the tile entities are held in memory.</p>
  */
 public class SpongeSchematicWriter implements ClipboardWriter {
 
     private static final int MAX_SIZE = Short.MAX_VALUE - Short.MIN_VALUE;
+    private static final int BUFFER_SIZE = 64 * 1024;
     private final NBTOutputStream outputStream;
 
     /**
@@ -64,17 +68,16 @@ public SpongeSchematicWriter(NBTOutputStream outputStream) {
     @Override
     public void write(Clipboard clipboard) throws IOException {
         // For now always write the latest version. Maybe provide support for earlier if more appear.
-        outputStream.writeNamedTag("Schematic", new CompoundTag(write1(clipboard)));
+        write1(clipboard);
     }
 
     /**
      * Writes a version 1 schematic file.
      *
      * @param clipboard The clipboard
-     * @return The schematic map
      * @throws IOException If an error occurs
      */
-    private Map<String, Tag> write1(Clipboard clipboard) throws IOException {
+    private void write1(Clipboard clipboard) throws IOException {
         Region region = clipboard.getRegion();
         Vector origin = clipboard.getOrigin();
         Vector min = region.getMinimumPoint();
@@ -93,33 +96,64 @@ private Map<String, Tag> write1(Clipboard clipboard) throws IOException {
             throw new IllegalArgumentException("Length of region too large for a .schematic");
         }
 
-        Map<String, Tag> schematic = new HashMap<>();
-        schematic.put("Version", new IntTag(1));
+        // First pass: assign palette indices in order of appearance, count
+        // the bytes of block data and collect the (sparse) tile entities
+        StatePalette palette = new StatePalette();
+        List<CompoundTag> tileEntities = new ArrayList<>();
+        long dataLength = 0;
+
+        for (int y = 0; y < height; y++) {
+            int y0 = min.getBlockY() + y;
+            for (int z = 0; z < length; z++) {
+                int z0 = min.getBlockZ() + z;
+                for (int x = 0; x < width; x++) {
+                    int x0 = min.getBlockX() + x;
+                    BaseBlock block = clipboard.getFullBlock(new BlockVector(x0, y0, z0));
+                    if (block.getNbtData() != null) {
+                        tileEntities.add(createTileEntity(block, x, y, z));
+                    }
+
+                    dataLength += varIntLength(palette.getOrAdd(block.toImmutableState()));
+                }
+            }
+        }
+
+        if (dataLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many blocks for a .schematic");
+        }
+
+        outputStream.writeNamedTagHeader("Schematic", NBTConstants.TYPE_COMPOUND);
+        outputStream.writeNamedTag("Version", new IntTag(1));
 
         Map<String, Tag> metadata = new HashMap<>();
         metadata.put("WEOffsetX", new IntTag(offset.getBlockX()));
         metadata.put("WEOffsetY", new IntTag(offset.getBlockY()));
         metadata.put("WEOffsetZ", new IntTag(offset.getBlockZ()));
 
-        schematic.put("Metadata", new CompoundTag(metadata));
+        outputStream.writeNamedTag("Metadata", new CompoundTag(metadata));
 
-        schematic.put("Width", new ShortTag((short) width));
-        schematic.put("Height", new ShortTag((short) height));
-        schematic.put("Length", new ShortTag((short) length));
+        outputStream.writeNamedTag("Width", new ShortTag((short) width));
+        outputStream.writeNamedTag("Height", new ShortTag((short) height));
+        outputStream.writeNamedTag("Length", new ShortTag((short) length));
 
         // The Sponge format Offset refers to the 'min' points location in the world. That's our 'Origin'
-        schematic.put("Offset", new IntArrayTag(new int[]{
+        outputStream.writeNamedTag("Offset", new IntArrayTag(new int[]{
                 min.getBlockX(),
                 min.getBlockY(),
                 min.getBlockZ(),
         }));
 
-        int paletteMax = 0;
-        Map<String, Integer> palette = new HashMap<>();
-
-        List<CompoundTag> tileEntities = new ArrayList<>();
+        outputStream.writeNamedTag("PaletteMax", new IntTag(palette.size()));
+        Map<String, Tag> paletteTag = new HashMap<>();
+        for (int i = 0; i < palette.size(); i++) {
+            paletteTag.put(palette.getKey(i), new IntTag(i));
+        }
+        outputStream.writeNamedTag("Palette", new CompoundTag(paletteTag));
 
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream(width * height * length);
+        // Second pass: stream the block data in buffer-sized pieces
+        outputStream.writeByteArrayTagHeader("BlockData", (int) dataLength);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int used = 0;
 
         for (int y = 0; y < height; y++) {
             int y0 = min.getBlockY() + y;
@@ -127,60 +161,60 @@ private Map<String, Tag> write1(Clipboard clipboard) throws IOException {
                 int z0 = min.getBlockZ() + z;
                 for (int x = 0; x < width; x++) {
                     int x0 = min.getBlockX() + x;
-                    BlockVector point = new BlockVector(x0, y0, z0);
-                    BaseBlock block = clipboard.getFullBlock(point);
-                    if (block.getNbtData() != null) {
-                        Map<String, Tag> values = new HashMap<>();
-                        for (Map.Entry<String, Tag> entry : block.getNbtData().getValue().entrySet()) {
-                            values.put(entry.getKey(), entry.getValue());
-                        }
-
-                        values.remove("id"); // Remove 'id' if it exists. We want 'Id'
-
-                        // Positions are kept in NBT, we don't want that.
-                        values.remove("x");
-                        values.remove("y");
-                        values.remove("z");
-
-                        values.put("Id", new StringTag(block.getNbtId()));
-                        values.put("Pos", new IntArrayTag(new int[]{
-                                x,
-                                y,
-                                z
-                        }));
-
-                        tileEntities.add(new CompoundTag(values));
-                    }
+                    int blockId = palette.get(clipboard.getFullBlock(new BlockVector(x0, y0, z0)).toImmutableState());
 
-                    String blockKey = block.toImmutableState().getAsString();
-                    int blockId;
-                    if (palette.containsKey(blockKey)) {
-                        blockId = palette.get(blockKey);
-                    } else {
-                        blockId = paletteMax;
-                        palette.put(blockKey, blockId);
-                        paletteMax++;
+                    if (used > BUFFER_SIZE - 5) {
+                        outputStream.writeRawBytes(buffer, 0, used);
+                        used = 0;
                     }
-
                     while ((blockId & -128) != 0) {
-                        buffer.write(blockId & 127 | 128);
+                        buffer[used++] = (byte) (blockId & 127 | 128);
                         blockId >>>= 7;
                     }
-                    buffer.write(blockId);
+                    buffer[used++] = (byte) blockId;
                 }
             }
         }
+        outputStream.writeRawBytes(buffer, 0, used);
 
-        schematic.put("PaletteMax", new IntTag(paletteMax));
+        outputStream.writeListTagHeader("TileEntities", CompoundTag.class, tileEntities.size());
+        for (CompoundTag tileEntity : tileEntities) {
+            outputStream.writeTagPayload(tileEntity);
+        }
 
-        Map<String, Tag> paletteTag = new HashMap<>();
-        palette.forEach((key, value) -> paletteTag.put(key, new IntTag(value)));
+        outputStream.writeEndTag();
+    }
+
+    private static CompoundTag createTileEntity(BaseBlock block, int x, int y, int z) {
+        Map<String, Tag> values = new HashMap<>();
+        for (Map.Entry<String, Tag> entry : block.getNbtData().getValue().entrySet()) {
+            values.put(entry.getKey(), entry.getValue());
+        }
 
-        schematic.put("Palette", new CompoundTag(paletteTag));
-        schematic.put("BlockData", new ByteArrayTag(buffer.toByteArray()));
-        schematic.put("TileEntities", new ListTag(CompoundTag.class, tileEntities));
+        values.remove("id"); // Remove 'id' if it exists. We want 'Id'
 
-        return schematic;
+        // Positions are kept in NBT, we don't want that.
+        values.remove("x");
+        values.remove("y");
+        values.remove("z");
+
+        values.put("Id", new StringTag(block.getNbtId()));
+        values.put("Pos", new IntArrayTag(new int[]{
+                x,
+                y,
+                z
+        }));
+
+        return new CompoundTag(values);
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value & -128) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
     }
 
     @Override
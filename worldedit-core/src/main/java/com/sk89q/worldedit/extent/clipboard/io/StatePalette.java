@@ -0,0 +1,108 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard.io;
+
+import com.sk89q.worldedit.world.block.BlockState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns palette indices to block states in order of first appearance,
+ * keyed by state identity through each state's internal ID and falling
+ * back to the state string for fuzzy states.
+ */
+final class StatePalette {
+
+    private int[] byInternalId = new int[0];
+    private final Map<String, Integer> byString = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+
+    /**
+     * Get the index of a state, adding it if it is new.
+     *
+     * @param state the state
+     * @return the index
+     */
+    int getOrAdd(BlockState state) {
+        int id = state.getInternalId();
+        if (id == -1) {
+            return add(state.getAsString());
+        }
+        if (id >= byInternalId.length) {
+            int oldLength = byInternalId.length;
+            byInternalId = Arrays.copyOf(byInternalId, Math.max(id + 1, BlockState.getInternalIdCount()));
+            Arrays.fill(byInternalId, oldLength, byInternalId.length, -1);
+        }
+        int index = byInternalId[id];
+        if (index == -1) {
+            index = add(state.getAsString());
+            byInternalId[id] = index;
+        }
+        return index;
+    }
+
+    private int add(String key) {
+        // Distinct states can share a string (such as a fuzzy state with
+        // no properties set), and they must share an index too
+        Integer existing = byString.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int index = keys.size();
+        keys.add(key);
+        byString.put(key, index);
+        return index;
+    }
+
+    /**
+     * Get the index of a state that was already added.
+     *
+     * @param state the state
+     * @return the index
+     */
+    int get(BlockState state) {
+        int id = state.getInternalId();
+        return id == -1 ? byString.get(state.getAsString()) : byInternalId[id];
+    }
+
+    /**
+     * Get the string form of the state at an index.
+     *
+     * @param index the index
+     * @return the state string
+     */
+    String getKey(int index) {
+        return keys.get(index);
+    }
+
+    /**
+     * Get the number of states in the palette.
+     *
+     * @return the size
+     */
+    int size() {
+        return keys.size();
+    }
+
+}
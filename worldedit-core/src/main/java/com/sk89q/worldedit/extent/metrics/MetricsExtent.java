@@ -0,0 +1,93 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.AbstractDelegateExtent;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.util.metrics.LatencyHistogram;
+import com.sk89q.worldedit.util.metrics.StageMetrics;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Records the block reads and writes that pass through it, and the time
+ * that the extent below takes to serve them.
+ */
+public class MetricsExtent extends AbstractDelegateExtent {
+
+    private final StageMetrics stage;
+    @Nullable private final LatencyHistogram writes;
+
+    /**
+     * Create a new instance.
+     *
+     * @param extent the extent
+     * @param stage the stage to record to
+     * @param writes a histogram to record the latency of each write to, or null
+     */
+    public MetricsExtent(Extent extent, StageMetrics stage, @Nullable LatencyHistogram writes) {
+        super(extent);
+        checkNotNull(stage);
+        this.stage = stage;
+        this.writes = writes;
+    }
+
+    @Override
+    public BlockState getBlock(Vector position) {
+        long start = System.nanoTime();
+        try {
+            return super.getBlock(position);
+        } finally {
+            stage.recordRead(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public BaseBlock getFullBlock(Vector position) {
+        long start = System.nanoTime();
+        try {
+            return super.getFullBlock(position);
+        } finally {
+            stage.recordRead(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean setBlock(Vector location, BlockStateHolder block) throws WorldEditException {
+        long start = System.nanoTime();
+        try {
+            return super.setBlock(location, block);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            stage.recordWrite(nanos);
+            if (writes != null) {
+                writes.record(nanos);
+            }
+        }
+    }
+
+}
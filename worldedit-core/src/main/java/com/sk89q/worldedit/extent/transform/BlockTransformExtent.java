@@ -21,11 +21,16 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.primitives.Doubles;
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.extent.AbstractDelegateExtent;
 import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.math.transform.AffineTransform;
 import com.sk89q.worldedit.math.transform.Transform;
 import com.sk89q.worldedit.registry.state.DirectionalProperty;
 import com.sk89q.worldedit.registry.state.Property;
@@ -33,6 +38,9 @@
 import com.sk89q.worldedit.world.block.BlockState;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import javax.annotation.Nullable;
 
 /**
@@ -43,7 +51,18 @@ public class BlockTransformExtent extends AbstractDelegateExtent {
 
     private static final double RIGHT_ANGLE = Math.toRadians(90);
 
+    /**
+     * The tables of recently used affine transforms, keyed by the linear
+     * part of the transform, so that extents with the same rotation share
+     * them. Translation does not change directions, so it is left out.
+     */
+    private static final LoadingCache<List<Double>, StateTable> TABLES = CacheBuilder.newBuilder()
+            .maximumSize(16)
+            .build(CacheLoader.from(key -> new StateTable(new AffineTransform(Doubles.toArray(key)))));
+
     private final Transform transform;
+    private final StateTable forwardTable;
+    private final StateTable reverseTable;
 
     /**
      * Create a new instance.
@@ -54,6 +73,8 @@ public BlockTransformExtent(Extent extent, Transform transform) {
         super(extent);
         checkNotNull(transform);
         this.transform = transform;
+        this.forwardTable = getTable(transform);
+        this.reverseTable = forwardTable.inverse();
     }
 
     /**
@@ -65,6 +86,22 @@ public Transform getTransform() {
         return transform;
     }
 
+    /**
+     * Get the table for a transform, which is shared with other extents if
+     * the transform is affine.
+     *
+     * @param transform the transform
+     * @return the table
+     */
+    private static StateTable getTable(Transform transform) {
+        if (transform instanceof AffineTransform) {
+            double[] c = ((AffineTransform) transform).coefficients();
+            return TABLES.getUnchecked(Doubles.asList(c[0], c[1], c[2], c[4], c[5], c[6], c[8], c[9], c[10]));
+        } else {
+            return new StateTable(transform);
+        }
+    }
+
     /**
      * Transform a block without making a copy.
      *
@@ -73,7 +110,18 @@ public Transform getTransform() {
      * @return the same block
      */
     private <T extends BlockStateHolder> T transformBlock(T block, boolean reverse) {
-        return transform(block, reverse ? transform.inverse() : transform);
+        return (reverse ? reverseTable : forwardTable).apply(block);
+    }
+
+    /**
+     * Transform a block in the same way as the blocks that are read from
+     * this extent.
+     *
+     * @param block the block
+     * @return the transformed block, which is the given block if it is unchanged
+     */
+    public <T extends BlockStateHolder> T transformBlock(T block) {
+        return transformBlock(block, false);
     }
 
     @Override
@@ -117,7 +165,7 @@ private static <T extends BlockStateHolder> T transform(T block, Transform trans
         checkNotNull(block);
         checkNotNull(transform);
 
-        for (Property property : block.getBlockType().getProperties()) {
+        for (Property property : block.getBlockType().getPropertyMap().values()) {
             if (property instanceof DirectionalProperty) {
                 Direction value = (Direction) block.getState(property);
                 if (value != null) {
@@ -163,4 +211,83 @@ private static Vector getNewStateValue(DirectionalProperty state, Transform tran
         }
     }
 
+    /**
+     * Remembers the transformed state of every state that has been
+     * transformed, indexed by {@link BlockState#getInternalId()}, so that
+     * each distinct state is only transformed once.
+     *
+     * <p>The table is only allocated once the first state is looked up.</p>
+     */
+    private static final class StateTable {
+        private final Transform transform;
+        private final boolean identity;
+        @Nullable private volatile AtomicReferenceArray<BlockState> states;
+        @Nullable private volatile StateTable inverse;
+
+        private StateTable(Transform transform) {
+            this.transform = transform;
+            this.identity = transform.isIdentity();
+        }
+
+        private StateTable(Transform transform, StateTable inverse) {
+            this(transform);
+            this.inverse = inverse;
+        }
+
+        private StateTable inverse() {
+            StateTable table = inverse;
+            if (table == null) {
+                // A race creates two tables with the same contents, which is harmless
+                table = new StateTable(transform.inverse(), this);
+                inverse = table;
+            }
+            return table;
+        }
+
+        private AtomicReferenceArray<BlockState> states() {
+            AtomicReferenceArray<BlockState> table = states;
+            if (table == null) {
+                synchronized (this) {
+                    table = states;
+                    if (table == null) {
+                        table = new AtomicReferenceArray<>(BlockState.getInternalIdCount());
+                        states = table;
+                    }
+                }
+            }
+            return table;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends BlockStateHolder> T apply(T block) {
+            if (identity) {
+                return block;
+            }
+            if (block instanceof BlockState) {
+                return (T) get((BlockState) block);
+            } else if (block instanceof BaseBlock) {
+                BlockState state = block.toImmutableState();
+                BlockState transformed = get(state);
+                return transformed == state ? block : (T) transformed.toBaseBlock(((BaseBlock) block).getNbtData());
+            } else {
+                return transform(block, transform);
+            }
+        }
+
+        private BlockState get(BlockState state) {
+            AtomicReferenceArray<BlockState> states = states();
+            int id = state.getInternalId();
+            if (id < 0 || id >= states.length()) {
+                // Fuzzy states and states created after this table
+                return transform(state, transform);
+            }
+            BlockState transformed = states.get(id);
+            if (transformed == null) {
+                transformed = transform(state, transform);
+                states.set(id, transformed);
+            }
+            return transformed;
+        }
+    }
+
 }
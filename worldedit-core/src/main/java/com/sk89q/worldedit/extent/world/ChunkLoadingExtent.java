@@ -21,20 +21,51 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.sk89q.worldedit.BlockVector2D;
 import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.extent.AbstractDelegateExtent;
 import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.util.metrics.EditMetrics;
+import com.sk89q.worldedit.util.metrics.LatencyHistogram;
+import com.sk89q.worldedit.world.ChunkPrefetch;
 import com.sk89q.worldedit.world.World;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
 /**
  * Automatically loads chunks when blocks are accessed.
+ *
+ * <p>Chunks can also be requested ahead of an operation with
+ * {@link #prefetch(Region)}, so that the operation does not stall on
+ * synchronous chunk loads part way through.</p>
  */
 public class ChunkLoadingExtent extends AbstractDelegateExtent {
 
+    /**
+     * The largest number of chunks that a single region will prefetch.
+     * Larger regions load their chunks as they are reached instead.
+     */
+    public static final int MAX_PREFETCH_CHUNKS = 2048;
+
     private final World world;
     private boolean enabled;
+    @Nullable private LatencyHistogram loadTimer;
+    @Nullable private EditMetrics metrics;
+    private final List<ChunkPrefetch> prefetches = new ArrayList<>();
+    private final Set<BlockVector2D> touched = new HashSet<>();
+    private int avoidedLoads;
+    private boolean lastChunkReady;
+    private int lastChunkX;
+    private int lastChunkZ;
 
     /**
      * Create a new instance.
@@ -60,9 +91,151 @@ public ChunkLoadingExtent(Extent extent, World world) {
         this(extent, world, true);
     }
 
+    /**
+     * Set a histogram that records how long each check for a loaded chunk
+     * takes, which includes the time to load the chunk if it was not.
+     *
+     * @param loadTimer the histogram, or null to stop recording
+     */
+    public void setLoadTimer(@Nullable LatencyHistogram loadTimer) {
+        this.loadTimer = loadTimer;
+    }
+
+    /**
+     * Set the metrics that chunk loads avoided by prefetching are
+     * recorded to.
+     *
+     * @param metrics the metrics, or null to stop recording
+     */
+    public void setMetrics(@Nullable EditMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Request the chunks of the given region from the world, and keep them
+     * loaded until the returned prefetch is passed to
+     * {@link #release(ChunkPrefetch)} or {@link #releasePrefetched()} is
+     * called.
+     *
+     * <p>Regions spanning more than {@link #MAX_PREFETCH_CHUNKS} chunks are
+     * not prefetched.</p>
+     *
+     * @param region the region that is about to be edited
+     * @return the prefetch, or null if the region is too large or all of its
+     *     chunks were already prefetched
+     */
+    @Nullable
+    public ChunkPrefetch prefetch(Region region) {
+        checkNotNull(region);
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        long columns = (long) ((max.getBlockX() >> 4) - (min.getBlockX() >> 4) + 1)
+                * ((max.getBlockZ() >> 4) - (min.getBlockZ() >> 4) + 1);
+        if (columns > MAX_PREFETCH_CHUNKS) {
+            return null;
+        }
+
+        Set<BlockVector2D> chunks = new HashSet<>();
+        for (Vector2D chunk : region.getChunks()) {
+            BlockVector2D position = chunk.toBlockVector2D();
+            if (!isPrefetched(position)) {
+                chunks.add(position);
+            }
+        }
+        if (chunks.isEmpty()) {
+            return null;
+        }
+        ChunkPrefetch prefetch = world.prefetchChunks(chunks);
+        prefetches.add(prefetch);
+        return prefetch;
+    }
+
+    /**
+     * Release the chunks of one prefetch, allowing the world to unload them
+     * again.
+     *
+     * @param prefetch a prefetch returned by {@link #prefetch(Region)}
+     */
+    public void release(ChunkPrefetch prefetch) {
+        checkNotNull(prefetch);
+        prefetch.close();
+        prefetches.remove(prefetch);
+        lastChunkReady = false;
+    }
+
+    /**
+     * Release all chunks that were prefetched, allowing the world to unload
+     * them again.
+     */
+    public void releasePrefetched() {
+        for (ChunkPrefetch prefetch : prefetches) {
+            prefetch.close();
+        }
+        prefetches.clear();
+        lastChunkReady = false;
+    }
+
+    /**
+     * Get the number of chunks that were loaded by a prefetch before this
+     * extent first wrote to them, each of which would otherwise have been
+     * loaded synchronously during the edit.
+     *
+     * @return the number of chunk loads avoided
+     */
+    public int getAvoidedLoads() {
+        return avoidedLoads;
+    }
+
     @Override
     public boolean setBlock(Vector location, BlockStateHolder block) throws WorldEditException {
-        world.checkLoadedChunk(location);
+        if (!isReady(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+            LatencyHistogram loadTimer = this.loadTimer;
+            if (loadTimer != null) {
+                long start = System.nanoTime();
+                world.checkLoadedChunk(location);
+                loadTimer.record(System.nanoTime() - start);
+            } else {
+                world.checkLoadedChunk(location);
+            }
+        }
         return super.setBlock(location, block);
     }
+
+    private boolean isPrefetched(BlockVector2D chunk) {
+        for (ChunkPrefetch prefetch : prefetches) {
+            if (prefetch.getChunks().contains(chunk)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isReady(int chunkX, int chunkZ) {
+        if (prefetches.isEmpty()) {
+            return false;
+        }
+        if (lastChunkReady && chunkX == lastChunkX && chunkZ == lastChunkZ) {
+            return true;
+        }
+
+        // Chunks that are still loading are not cached, so that they are
+        // picked up as soon as an asynchronous load finishes
+        BlockVector2D chunk = new BlockVector2D(chunkX, chunkZ);
+        for (ChunkPrefetch prefetch : prefetches) {
+            if (prefetch.isLoaded(chunk)) {
+                if (prefetch.wasLoadedByPrefetch(chunk) && touched.add(chunk)) {
+                    avoidedLoads++;
+                    EditMetrics metrics = this.metrics;
+                    if (metrics != null) {
+                        metrics.recordAvoidedChunkLoad();
+                    }
+                }
+                lastChunkReady = true;
+                lastChunkX = chunkX;
+                lastChunkZ = chunkZ;
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -27,20 +27,30 @@
 import com.sk89q.worldedit.extent.AbstractDelegateExtent;
 import com.sk89q.worldedit.function.operation.Operation;
 import com.sk89q.worldedit.function.operation.RunContext;
+import com.sk89q.worldedit.world.ChunkBatch;
 import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 /**
  * Implements "fast mode" which may skip physics, lighting, etc.
+ *
+ * <p>If the world supports {@link ChunkBatch}es, changes made in fast mode
+ * are buffered and written a chunk at a time when this extent is
+ * committed, after every stage above it has been committed.</p>
  */
 public class FastModeExtent extends AbstractDelegateExtent {
 
     private final World world;
     private final Set<BlockVector2D> dirtyChunks = new HashSet<>();
+    @Nullable private final ChunkBatch batch;
     private boolean enabled = true;
 
     /**
@@ -63,6 +73,7 @@ public FastModeExtent(World world, boolean enabled) {
         checkNotNull(world);
         this.world = world;
         this.enabled = enabled;
+        this.batch = world.createChunkBatch();
     }
 
     /**
@@ -83,21 +94,45 @@ public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
 
+    @Override
+    public BlockState getBlock(Vector position) {
+        BlockStateHolder pending = batch != null ? batch.get(position) : null;
+        return pending != null ? pending.toImmutableState() : super.getBlock(position);
+    }
+
+    @Override
+    public BaseBlock getFullBlock(Vector position) {
+        BlockStateHolder pending = batch != null ? batch.get(position) : null;
+        return pending != null ? pending.toBaseBlock() : super.getFullBlock(position);
+    }
+
     @Override
     public boolean setBlock(Vector location, BlockStateHolder block) throws WorldEditException {
         if (enabled) {
             dirtyChunks.add(new BlockVector2D(location.getBlockX() >> 4, location.getBlockZ() >> 4));
+            if (batch != null) {
+                return batch.set(location, block);
+            }
             return world.setBlock(location, block, false);
         } else {
+            // Changes made while fast mode was enabled must not overwrite this one later
+            flushBatch();
             return world.setBlock(location, block, true);
         }
     }
 
+    private void flushBatch() {
+        if (batch != null && !batch.isEmpty()) {
+            batch.flush();
+        }
+    }
+
     @Override
     protected Operation commitBefore() {
         return new Operation() {
             @Override
             public Operation resume(RunContext run) throws WorldEditException {
+                flushBatch();
                 if (!dirtyChunks.isEmpty()) {
                     world.fixAfterFastMode(dirtyChunks);
                 }
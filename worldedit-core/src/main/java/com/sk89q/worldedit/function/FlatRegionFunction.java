@@ -19,6 +19,9 @@
 
 package com.sk89q.worldedit.function;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.sk89q.worldedit.Vector2D;
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.regions.FlatRegion;
@@ -38,4 +41,34 @@ public interface FlatRegionFunction {
      */
     boolean apply(Vector2D position) throws WorldEditException;
 
+    /**
+     * Apply the function to the selected columns of a rectangle.
+     *
+     * <p>Functions should override this method when they can handle many
+     * columns at once, such as by writing a chunk's biomes together.</p>
+     *
+     * @param x the X coordinate of the first column
+     * @param z the Z coordinate of the first column
+     * @param width the number of columns along the X axis
+     * @param length the number of columns along the Z axis
+     * @param columns the columns to apply the function to, indexed by {@code z * width + x}
+     * @return the number of columns that were changed
+     * @throws WorldEditException thrown on an error
+     */
+    default int apply(int x, int z, int width, int length, boolean[] columns) throws WorldEditException {
+        checkNotNull(columns);
+        checkArgument(columns.length >= width * length, "columns is too small");
+
+        int affected = 0;
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                if (columns[index++] && apply(new Vector2D(x + dx, z + dz))) {
+                    affected++;
+                }
+            }
+        }
+        return affected;
+    }
+
 }
@@ -54,4 +54,17 @@ public boolean apply(Vector2D position) throws WorldEditException {
         return mask.test(position) && function.apply(position);
     }
 
+    @Override
+    public int apply(int x, int z, int width, int length, boolean[] columns) throws WorldEditException {
+        boolean[] matched = new boolean[width * length];
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                matched[index] = columns[index] && mask.test(new Vector2D(x + dx, z + dz));
+                index++;
+            }
+        }
+        return function.apply(x, z, width, length, matched);
+    }
+
 }
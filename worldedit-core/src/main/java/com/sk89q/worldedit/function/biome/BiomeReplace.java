@@ -53,4 +53,15 @@ public boolean apply(Vector2D position) throws WorldEditException {
         return extent.setBiome(position, biome);
     }
 
+    @Override
+    public int apply(int x, int z, int width, int length, boolean[] columns) throws WorldEditException {
+        BaseBiome[] biomes = new BaseBiome[width * length];
+        for (int i = 0; i < biomes.length; i++) {
+            if (columns[i]) {
+                biomes[i] = biome;
+            }
+        }
+        return extent.setBiomes(x, z, width, length, biomes);
+    }
+
 }
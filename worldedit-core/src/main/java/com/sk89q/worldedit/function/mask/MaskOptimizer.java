@@ -0,0 +1,389 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.function.mask;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a tree of masks into an equivalent one that is cheaper to test.
+ *
+ * <p>Nested intersections and unions are flattened, block masks that read
+ * from the same extent are fused into a single lookup, and the children of
+ * every intersection or union are ordered so that cheap masks that are likely
+ * to decide the result are tested first. Only the exact
+ * {@link MaskIntersection} and {@link MaskUnion} classes are rewritten;
+ * every other mask, including subclasses of those two, is left alone.</p>
+ *
+ * <p>The returned mask does not share structure with the input, so later
+ * changes to the input are not reflected in it.</p>
+ */
+public final class MaskOptimizer {
+
+    private static final double DEFAULT_COST = 20;
+    private static final double DEFAULT_PASS_RATE = 0.5;
+
+    private MaskOptimizer() {
+    }
+
+    /**
+     * Optimize the given mask with a fixed, estimated test order.
+     *
+     * @param mask the mask
+     * @return an equivalent mask, which may be the given mask
+     */
+    public static Mask optimize(Mask mask) {
+        return optimize(mask, false);
+    }
+
+    /**
+     * Optimize the given mask.
+     *
+     * <p>If {@code adaptive} is true, intersections and unions additionally
+     * track how often each child decides the result and periodically
+     * re-order their children using the observed rates, which is worthwhile
+     * for masks that will be tested many times.</p>
+     *
+     * @param mask the mask
+     * @param adaptive true to re-order children using observed rates
+     * @return an equivalent mask, which may be the given mask
+     */
+    public static Mask optimize(Mask mask, boolean adaptive) {
+        checkNotNull(mask);
+        Kind kind = Kind.of(mask);
+        if (kind == Kind.OTHER || ((MaskIntersection) mask).getMasks().isEmpty()) {
+            // An empty intersection or union never matches, which is not
+            // the identity of either operation, so it is kept as is
+            return mask;
+        }
+        boolean union = kind == Kind.UNION;
+
+        List<Mask> children = new ArrayList<>();
+        for (Mask child : ((MaskIntersection) mask).getMasks()) {
+            Mask optimized = optimize(child, adaptive);
+            if (Kind.of(optimized) == kind && !((MaskIntersection) optimized).getMasks().isEmpty()) {
+                children.addAll(((MaskIntersection) optimized).getMasks());
+            } else if (optimized == Masks.alwaysTrue()) {
+                if (union) {
+                    return optimized;
+                }
+            } else if (optimized == Masks.alwaysFalse()) {
+                if (!union) {
+                    return optimized;
+                }
+            } else if (!children.contains(optimized)) {
+                children.add(optimized);
+            }
+        }
+
+        children = fuse(children, union);
+        if (children.isEmpty()) {
+            return union ? Masks.alwaysFalse() : Masks.alwaysTrue();
+        } else if (children.size() == 1) {
+            return children.get(0);
+        }
+
+        children.sort(Comparator.comparingDouble(child -> rank(estimate(child), union)));
+        if (adaptive) {
+            return union ? new AdaptiveUnion(children) : new AdaptiveIntersection(children);
+        } else {
+            return union ? new MaskUnion(children) : new MaskIntersection(children);
+        }
+    }
+
+    /**
+     * Merge block masks that read from the same extent.
+     *
+     * @param children the children of an intersection or union
+     * @param union true if the children belong to a union
+     * @return the fused children
+     */
+    private static List<Mask> fuse(List<Mask> children, boolean union) {
+        Map<Extent, List<BlockTypeMask>> typeMasks = new IdentityHashMap<>();
+        Map<Extent, List<BlockMask>> blockMasks = new IdentityHashMap<>();
+        List<Mask> result = new ArrayList<>();
+        for (Mask child : children) {
+            if (child.getClass() == BlockTypeMask.class) {
+                BlockTypeMask mask = (BlockTypeMask) child;
+                typeMasks.computeIfAbsent(mask.getExtent(), extent -> new ArrayList<>()).add(mask);
+            } else if (union && child.getClass() == BlockMask.class) {
+                // The intersection of two fuzzy block lists cannot be
+                // expressed as a single list, so only unions are merged
+                BlockMask mask = (BlockMask) child;
+                blockMasks.computeIfAbsent(mask.getExtent(), extent -> new ArrayList<>()).add(mask);
+            } else {
+                result.add(child);
+            }
+        }
+        for (Map.Entry<Extent, List<BlockTypeMask>> entry : typeMasks.entrySet()) {
+            List<BlockTypeMask> masks = entry.getValue();
+            if (masks.size() == 1) {
+                result.add(masks.get(0));
+                continue;
+            }
+            Set<BlockType> types = new HashSet<>(masks.get(0).getBlocks());
+            for (BlockTypeMask mask : masks.subList(1, masks.size())) {
+                if (union) {
+                    types.addAll(mask.getBlocks());
+                } else {
+                    types.retainAll(mask.getBlocks());
+                }
+            }
+            result.add(new BlockTypeMask(entry.getKey(), types));
+        }
+        for (Map.Entry<Extent, List<BlockMask>> entry : blockMasks.entrySet()) {
+            List<BlockMask> masks = entry.getValue();
+            if (masks.size() == 1) {
+                result.add(masks.get(0));
+                continue;
+            }
+            Set<BlockStateHolder> blocks = new HashSet<>();
+            for (BlockMask mask : masks) {
+                blocks.addAll(mask.getBlocks());
+            }
+            result.add(new BlockMask(entry.getKey(), blocks));
+        }
+        return result;
+    }
+
+    /**
+     * Get the rank of a mask within an intersection or union, where masks
+     * with a lower rank should be tested first.
+     *
+     * @param estimate the estimate for the mask
+     * @param union true if the mask belongs to a union
+     * @return the rank
+     */
+    private static double rank(Estimate estimate, boolean union) {
+        double decisive = union ? estimate.passRate : 1 - estimate.passRate;
+        return estimate.cost / Math.max(0.01, decisive);
+    }
+
+    /**
+     * Estimate the relative cost and pass rate of a mask.
+     *
+     * @param mask the mask
+     * @return the estimate
+     */
+    private static Estimate estimate(Mask mask) {
+        if (mask == Masks.alwaysTrue() || mask == Masks.alwaysFalse()) {
+            return new Estimate(0, mask == Masks.alwaysTrue() ? 1 : 0);
+        } else if (mask instanceof BoundedHeightMask) {
+            return new Estimate(1, DEFAULT_PASS_RATE);
+        } else if (mask instanceof RegionMask) {
+            return new Estimate(((RegionMask) mask).getRegion() instanceof CuboidRegion ? 2 : 8, DEFAULT_PASS_RATE);
+        } else if (mask instanceof BlockTypeMask || mask instanceof BlockCategoryMask) {
+            return new Estimate(10, 0.3);
+        } else if (mask instanceof BlockMask) {
+            return new Estimate(10 + ((BlockMask) mask).getBlocks().size(), 0.3);
+        } else if (mask instanceof ExistingBlockMask || mask instanceof SolidBlockMask) {
+            return new Estimate(10, DEFAULT_PASS_RATE);
+        } else if (mask instanceof NoiseFilter) {
+            return new Estimate(DEFAULT_COST, ((NoiseFilter) mask).getDensity());
+        } else if (mask instanceof ExpressionMask) {
+            return new Estimate(100, DEFAULT_PASS_RATE);
+        } else if (mask instanceof OffsetMask) {
+            Estimate inner = estimate(((OffsetMask) mask).getMask());
+            return new Estimate(inner.cost + 1, inner.passRate);
+        } else if (mask instanceof MaskIntersection) {
+            boolean union = mask instanceof MaskUnion;
+            double cost = 0;
+            double passRate = 1;
+            for (Mask child : ((MaskIntersection) mask).getMasks()) {
+                Estimate estimate = estimate(child);
+                cost += estimate.cost;
+                passRate *= union ? 1 - estimate.passRate : estimate.passRate;
+            }
+            return new Estimate(cost, union ? 1 - passRate : passRate);
+        } else {
+            return new Estimate(DEFAULT_COST, DEFAULT_PASS_RATE);
+        }
+    }
+
+    private enum Kind {
+        INTERSECTION,
+        UNION,
+        OTHER;
+
+        static Kind of(Mask mask) {
+            Class<?> type = mask.getClass();
+            if (type == MaskUnion.class || type == AdaptiveUnion.class) {
+                return UNION;
+            } else if (type == MaskIntersection.class || type == AdaptiveIntersection.class) {
+                return INTERSECTION;
+            } else {
+                return OTHER;
+            }
+        }
+    }
+
+    private static final class Estimate {
+        private final double cost;
+        private final double passRate;
+
+        private Estimate(double cost, double passRate) {
+            this.cost = cost;
+            this.passRate = Math.min(1, Math.max(0, passRate));
+        }
+    }
+
+    /**
+     * Tests a list of masks in an order that follows how often each mask
+     * has decided the result so far.
+     *
+     * <p>The counters are updated without synchronization. Concurrent tests
+     * may lose some updates, which only affects the quality of the order and
+     * never the result of a test.</p>
+     */
+    private static final class AdaptiveOrder {
+        private static final int REORDER_INTERVAL = 4096;
+
+        private final boolean union;
+        private volatile Node[] nodes;
+        private int calls;
+
+        private AdaptiveOrder(Collection<Mask> masks, boolean union) {
+            this.union = union;
+            reset(masks);
+        }
+
+        private void reset(Collection<Mask> masks) {
+            Node[] nodes = new Node[masks.size()];
+            int i = 0;
+            for (Mask mask : masks) {
+                nodes[i++] = new Node(mask, estimate(mask));
+            }
+            this.nodes = nodes;
+        }
+
+        private boolean test(Vector vector) {
+            Node[] nodes = this.nodes;
+            boolean result = !union;
+            for (Node node : nodes) {
+                node.tests++;
+                if (node.mask.test(vector) == union) {
+                    node.decisive++;
+                    result = union;
+                    break;
+                }
+            }
+            if (++calls >= REORDER_INTERVAL) {
+                calls = 0;
+                reorder(nodes);
+            }
+            return result;
+        }
+
+        private void reorder(Node[] current) {
+            // Ranks are computed up front because other threads may still
+            // be updating the counters while the nodes are sorted
+            double[] ranks = new double[current.length];
+            Integer[] order = new Integer[current.length];
+            for (int i = 0; i < current.length; i++) {
+                Node node = current[i];
+                int tests = node.tests;
+                int decisive = node.decisive;
+                // The prior keeps masks that were rarely reached from being
+                // judged on a handful of observations
+                double rate = (decisive + node.estimate * 2) / (tests + 2.0);
+                ranks[i] = node.cost / Math.max(0.01, rate);
+                order[i] = i;
+                node.tests = tests / 2;
+                node.decisive = decisive / 2;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> ranks[i]));
+            Node[] sorted = new Node[current.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = current[order[i]];
+            }
+            nodes = sorted;
+        }
+
+        private final class Node {
+            private final Mask mask;
+            private final double cost;
+            private final double estimate;
+            private int tests;
+            private int decisive;
+
+            private Node(Mask mask, Estimate estimate) {
+                this.mask = mask;
+                this.cost = Math.max(0.01, estimate.cost);
+                this.estimate = union ? estimate.passRate : 1 - estimate.passRate;
+            }
+        }
+    }
+
+    private static final class AdaptiveIntersection extends MaskIntersection {
+        private final AdaptiveOrder order;
+
+        private AdaptiveIntersection(Collection<Mask> masks) {
+            super(masks);
+            this.order = new AdaptiveOrder(masks, false);
+        }
+
+        @Override
+        public void add(Collection<Mask> masks) {
+            super.add(masks);
+            order.reset(getMasks());
+        }
+
+        @Override
+        public boolean test(Vector vector) {
+            return order.test(vector);
+        }
+    }
+
+    private static final class AdaptiveUnion extends MaskUnion {
+        private final AdaptiveOrder order;
+
+        private AdaptiveUnion(Collection<Mask> masks) {
+            super(masks);
+            this.order = new AdaptiveOrder(masks, true);
+        }
+
+        @Override
+        public void add(Collection<Mask> masks) {
+            super.add(masks);
+            order.reset(getMasks());
+        }
+
+        @Override
+        public boolean test(Vector vector) {
+            return order.test(vector);
+        }
+    }
+
+}
@@ -46,6 +46,15 @@ public static Mask alwaysTrue() {
         return ALWAYS_TRUE;
     }
 
+    /**
+     * Return a 3D mask that always returns false;
+     *
+     * @return a mask
+     */
+    public static Mask alwaysFalse() {
+        return ALWAYS_FALSE;
+    }
+
     /**
      * Return a 2D mask that always returns true;
      *
@@ -24,6 +24,7 @@
 
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.math.noise.NoiseGenerator;
+import com.sk89q.worldedit.math.noise.NoiseTileCache;
 
 import javax.annotation.Nullable;
 
@@ -34,6 +35,8 @@
 public class NoiseFilter extends AbstractMask {
 
     private NoiseGenerator noiseGenerator;
+    @Nullable
+    private ThreadLocal<NoiseTileCache> tiles;
     private double density;
 
     /**
@@ -64,6 +67,9 @@ public NoiseGenerator getNoiseGenerator() {
     public void setNoiseGenerator(NoiseGenerator noiseGenerator) {
         checkNotNull(noiseGenerator);
         this.noiseGenerator = noiseGenerator;
+        // Deterministic noise is computed a whole tile at a time and reused,
+        // with a cache for each thread testing the mask
+        this.tiles = noiseGenerator.isDeterministic() ? ThreadLocal.withInitial(() -> new NoiseTileCache(noiseGenerator, false)) : null;
     }
 
     /**
@@ -86,7 +92,8 @@ public void setDensity(double density) {
 
     @Override
     public boolean test(Vector vector) {
-        return noiseGenerator.noise(vector) <= density;
+        float noise = tiles != null ? tiles.get().get(vector.getBlockX(), vector.getBlockY(), vector.getBlockZ()) : noiseGenerator.noise(vector);
+        return noise <= density;
     }
 
     @Nullable
@@ -24,6 +24,9 @@
 
 import com.sk89q.worldedit.Vector2D;
 import com.sk89q.worldedit.math.noise.NoiseGenerator;
+import com.sk89q.worldedit.math.noise.NoiseTileCache;
+
+import javax.annotation.Nullable;
 
 /**
  * A mask that uses a noise generator and returns true whenever the noise
@@ -32,6 +35,8 @@
 public class NoiseFilter2D extends AbstractMask2D {
 
     private NoiseGenerator noiseGenerator;
+    @Nullable
+    private ThreadLocal<NoiseTileCache> tiles;
     private double density;
 
     /**
@@ -62,6 +67,9 @@ public NoiseGenerator getNoiseGenerator() {
     public void setNoiseGenerator(NoiseGenerator noiseGenerator) {
         checkNotNull(noiseGenerator);
         this.noiseGenerator = noiseGenerator;
+        // Deterministic noise is computed a whole tile at a time and reused,
+        // with a cache for each thread testing the mask
+        this.tiles = noiseGenerator.isDeterministic() ? ThreadLocal.withInitial(() -> new NoiseTileCache(noiseGenerator, true)) : null;
     }
 
     /**
@@ -84,7 +92,8 @@ public void setDensity(double density) {
 
     @Override
     public boolean test(Vector2D pos) {
-        return noiseGenerator.noise(pos) <= density;
+        float noise = tiles != null ? tiles.get().get(pos.getBlockX(), 0, pos.getBlockZ()) : noiseGenerator.noise(pos);
+        return noise <= density;
     }
 
 }
@@ -28,6 +28,7 @@
 import com.sk89q.worldedit.entity.Entity;
 import com.sk89q.worldedit.entity.metadata.EntityProperties;
 import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
 import com.sk89q.worldedit.function.CombinedRegionFunction;
 import com.sk89q.worldedit.function.RegionFunction;
 import com.sk89q.worldedit.function.RegionMaskingFilter;
@@ -36,12 +37,14 @@
 import com.sk89q.worldedit.function.mask.Mask;
 import com.sk89q.worldedit.function.mask.Masks;
 import com.sk89q.worldedit.function.visitor.EntityVisitor;
+import com.sk89q.worldedit.function.visitor.ParallelRegionVisitor;
 import com.sk89q.worldedit.function.visitor.RegionVisitor;
 import com.sk89q.worldedit.math.transform.Identity;
 import com.sk89q.worldedit.math.transform.Transform;
 import com.sk89q.worldedit.regions.Region;
 
 import java.util.List;
+import java.util.function.IntSupplier;
 
 /**
  * Makes a copy of a portion of one extent to another extent or another point.
@@ -64,7 +67,8 @@ public class ForwardExtentCopy implements Operation {
     private RegionFunction sourceFunction = null;
     private Transform transform = new Identity();
     private Transform currentTransform = null;
-    private RegionVisitor lastVisitor;
+    private boolean parallel;
+    private IntSupplier lastVisitorAffected;
     private int affected;
 
     /**
@@ -222,6 +226,29 @@ public void setRemovingEntities(boolean removingEntities) {
         this.removingEntities = removingEntities;
     }
 
+    /**
+     * Return whether blocks may be copied on several threads at once.
+     *
+     * @return true if parallel copying is allowed
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set whether blocks may be copied on several threads at once.
+     *
+     * <p>Parallel copying is only used when the destination is a
+     * {@link BlockArrayClipboard} and no source function is set, and the
+     * source extent and source mask must then be safe to read from several
+     * threads. Entities are always copied on the calling thread.</p>
+     *
+     * @param parallel true to allow parallel copying
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     /**
      * Get the number of affected objects.
      *
@@ -233,9 +260,9 @@ public int getAffected() {
 
     @Override
     public Operation resume(RunContext run) throws WorldEditException {
-        if (lastVisitor != null) {
-            affected += lastVisitor.getAffected();
-            lastVisitor = null;
+        if (lastVisitorAffected != null) {
+            affected += lastVisitorAffected.getAsInt();
+            lastVisitorAffected = null;
         }
 
         if (repetitions > 0) {
@@ -250,9 +277,16 @@ public Operation resume(RunContext run) throws WorldEditException {
             ExtentBlockCopy blockCopy = new ExtentBlockCopy(source, from, destination, to, currentTransform);
             RegionMaskingFilter filter = new RegionMaskingFilter(sourceMask, blockCopy);
             RegionFunction function = sourceFunction != null ? new CombinedRegionFunction(filter, sourceFunction) : filter;
-            RegionVisitor blockVisitor = new RegionVisitor(region, function);
-
-            lastVisitor = blockVisitor;
+            Operation blockVisitor;
+            if (parallel && sourceFunction == null && destination instanceof BlockArrayClipboard) {
+                ParallelRegionVisitor visitor = new ParallelRegionVisitor(region, function);
+                lastVisitorAffected = visitor::getAffected;
+                blockVisitor = visitor;
+            } else {
+                RegionVisitor visitor = new RegionVisitor(region, function);
+                lastVisitorAffected = visitor::getAffected;
+                blockVisitor = visitor;
+            }
 
             if (copyingEntities) {
                 ExtentEntityCopy entityCopy = new ExtentEntityCopy(from, destination, to, currentTransform);
@@ -22,8 +22,10 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockTypes;
 
 /**
  * A pattern that reads from {@link Clipboard}.
@@ -50,6 +52,12 @@ public BlockStateHolder apply(Vector position) {
         int yp = Math.abs(position.getBlockY()) % size.getBlockY();
         int zp = Math.abs(position.getBlockZ()) % size.getBlockZ();
 
+        if (clipboard instanceof BlockArrayClipboard) {
+            // Read the block array directly, skipping the region check and vector math
+            BlockStateHolder block = ((BlockArrayClipboard) clipboard).getBlockRelative(xp, yp, zp);
+            return block != null ? block.toBaseBlock() : BlockTypes.AIR.getDefaultState().toBaseBlock();
+        }
+
         return clipboard.getFullBlock(clipboard.getMinimumPoint().add(new Vector(xp, yp, zp)));
     }
 
@@ -19,6 +19,7 @@
 
 package com.sk89q.worldedit.function.pattern;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.sk89q.worldedit.Vector;
@@ -26,16 +27,45 @@
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Uses a random pattern of a weighted list of patterns.
+ *
+ * <p>Patterns are picked in constant time with an alias table, which is
+ * built the first time the pattern is applied after a change to the list.
+ * Unseeded patterns draw from {@link ThreadLocalRandom}, so a pattern can
+ * be shared between threads without contention. Seeded patterns instead
+ * derive the pick from the seed and the position, so the same seed gives
+ * the same result at every position regardless of the order in which
+ * positions are visited.</p>
  */
 public class RandomPattern extends AbstractPattern {
 
-    private final Random random = new Random();
-    private List<Chance> patterns = new ArrayList<>();
+    private final boolean seeded;
+    private final long seed;
+    private final List<Chance> patterns = new ArrayList<>();
     private double max = 0;
+    private volatile AliasTable table;
+
+    /**
+     * Create a new pattern that picks differently on every application.
+     */
+    public RandomPattern() {
+        this.seeded = false;
+        this.seed = 0;
+    }
+
+    /**
+     * Create a new pattern that always picks the same pattern for a given
+     * position and seed.
+     *
+     * @param seed the seed
+     */
+    public RandomPattern(long seed) {
+        this.seeded = true;
+        this.seed = seed;
+    }
 
     /**
      * Add a pattern to the weight list of patterns.
@@ -46,25 +76,120 @@ public class RandomPattern extends AbstractPattern {
      * @param pattern the pattern
      * @param chance the chance, which can be any positive number
      */
-    public void add(Pattern pattern, double chance) {
+    public synchronized void add(Pattern pattern, double chance) {
         checkNotNull(pattern);
+        checkArgument(chance >= 0, "chance >= 0 required");
         patterns.add(new Chance(pattern, chance));
         max += chance;
+        table = null;
     }
 
     @Override
     public BlockStateHolder apply(Vector position) {
-        double r = random.nextDouble();
-        double offset = 0;
+        AliasTable table = this.table;
+        if (table == null) {
+            table = buildTable();
+        }
+
+        int index;
+        if (seeded) {
+            long hash = mix64(seed + mix64(position.getBlockX() * 0x9E3779B97F4A7C15L
+                    + position.getBlockY() * 0xC2B2AE3D27D4EB4FL
+                    + position.getBlockZ() * 0x165667B19E3779F9L));
+            index = table.sample((int) (((hash >>> 32) * table.size()) >>> 32), toUnitDouble(mix64(hash)));
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            index = table.sample(random.nextInt(table.size()), random.nextDouble());
+        }
+        return table.patterns[index].apply(position);
+    }
+
+    private synchronized AliasTable buildTable() {
+        if (table == null) {
+            if (patterns.isEmpty() || !(max > 0)) {
+                throw new RuntimeException("ProportionalFillPattern");
+            }
+            table = new AliasTable(patterns, max);
+        }
+        return table;
+    }
 
-        for (Chance chance : patterns) {
-            if (r <= (offset + chance.getChance()) / max) {
-                return chance.getPattern().apply(position);
+    /**
+     * The SplitMix64 finalizer, as used by {@link java.util.SplittableRandom}.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double toUnitDouble(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Vose's alias table over the weighted patterns.
+     */
+    private static final class AliasTable {
+        private final Pattern[] patterns;
+        private final double[] probability;
+        private final int[] alias;
+
+        private AliasTable(List<Chance> chances, double max) {
+            int n = chances.size();
+            patterns = new Pattern[n];
+            probability = new double[n];
+            alias = new int[n];
+
+            double[] scaled = new double[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                Chance chance = chances.get(i);
+                patterns[i] = chance.getPattern();
+                scaled[i] = chance.getChance() * n / max;
+                if (scaled[i] < 1) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                probability[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] = (scaled[more] + scaled[less]) - 1;
+                if (scaled[more] < 1) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+
+            // Whatever is left over is 1 up to rounding error
+            while (largeCount > 0) {
+                int i = large[--largeCount];
+                probability[i] = 1;
+                alias[i] = i;
             }
-            offset += chance.getChance();
+            while (smallCount > 0) {
+                int i = small[--smallCount];
+                probability[i] = 1;
+                alias[i] = i;
+            }
+        }
+
+        private int size() {
+            return patterns.length;
         }
 
-        throw new RuntimeException("ProportionalFillPattern");
+        private int sample(int column, double coin) {
+            return coin < probability[column] ? column : alias[column];
+        }
     }
 
     private static class Chance {
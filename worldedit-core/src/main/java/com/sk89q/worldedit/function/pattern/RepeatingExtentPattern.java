@@ -23,7 +23,9 @@
 
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockTypes;
 
 /**
  * Returns the blocks from {@link Extent}, repeating when out of bounds.
@@ -89,6 +91,18 @@ public BlockStateHolder apply(Vector position) {
         int x = base.getBlockX() % size.getBlockX();
         int y = base.getBlockY() % size.getBlockY();
         int z = base.getBlockZ() % size.getBlockZ();
+        if (extent instanceof BlockArrayClipboard) {
+            // Read the block array directly, skipping the region check
+            Vector min = extent.getMinimumPoint();
+            int rx = x - min.getBlockX();
+            int ry = y - min.getBlockY();
+            int rz = z - min.getBlockZ();
+            BlockStateHolder block = null;
+            if (rx >= 0 && ry >= 0 && rz >= 0 && rx < size.getBlockX() && ry < size.getBlockY() && rz < size.getBlockZ()) {
+                block = ((BlockArrayClipboard) extent).getBlockRelative(rx, ry, rz);
+            }
+            return block != null ? block.toBaseBlock() : BlockTypes.AIR.getDefaultState().toBaseBlock();
+        }
         return extent.getFullBlock(new Vector(x, y, z));
     }
 
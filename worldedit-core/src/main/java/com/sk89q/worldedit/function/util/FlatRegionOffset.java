@@ -68,4 +68,13 @@ public void setOffset(Vector2D offset) {
     public boolean apply(Vector2D position) throws WorldEditException {
         return function.apply(position.add(offset));
     }
+
+    @Override
+    public int apply(int x, int z, int width, int length, boolean[] columns) throws WorldEditException {
+        if (offset.getX() != offset.getBlockX() || offset.getZ() != offset.getBlockZ()) {
+            // A fractional offset can round columns apart, so place them one by one
+            return FlatRegionFunction.super.apply(x, z, width, length, columns);
+        }
+        return function.apply(x + offset.getBlockX(), z + offset.getBlockZ(), width, length, columns);
+    }
 }
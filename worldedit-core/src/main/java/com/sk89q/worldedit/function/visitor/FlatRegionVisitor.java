@@ -28,13 +28,26 @@
 import com.sk89q.worldedit.function.operation.RunContext;
 import com.sk89q.worldedit.regions.FlatRegion;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Applies region functions to columns in a {@link FlatRegion}.
+ *
+ * <p>Columns are gathered into chunk-sized tiles before they are passed to
+ * the function, so that functions which can handle many columns at once
+ * are given up to a chunk at a time.</p>
  */
 public class FlatRegionVisitor implements Operation {
 
+    /**
+     * The number of tiles that may be gathering columns at once, after
+     * which the oldest tile is applied.
+     */
+    private static final int MAX_PENDING_TILES = 64;
+
     private final FlatRegion flatRegion;
     private final FlatRegionFunction function;
     private int affected = 0;
@@ -64,15 +77,38 @@ public int getAffected() {
 
     @Override
     public Operation resume(RunContext run) throws WorldEditException {
+        Map<Long, boolean[]> pending = new LinkedHashMap<>();
         for (Vector2D pt : flatRegion.asFlatRegion()) {
-            if (function.apply(pt)) {
-                affected++;
+            int x = pt.getBlockX();
+            int z = pt.getBlockZ();
+            long key = (long) (x >> 4) << 32 | (z >> 4) & 0xFFFFFFFFL;
+            boolean[] columns = pending.get(key);
+            if (columns == null) {
+                if (pending.size() >= MAX_PENDING_TILES) {
+                    Iterator<Map.Entry<Long, boolean[]>> it = pending.entrySet().iterator();
+                    Map.Entry<Long, boolean[]> eldest = it.next();
+                    it.remove();
+                    applyTile(eldest.getKey(), eldest.getValue());
+                }
+                columns = new boolean[256];
+                pending.put(key, columns);
             }
+            columns[(z & 15) << 4 | x & 15] = true;
+        }
+
+        for (Map.Entry<Long, boolean[]> entry : pending.entrySet()) {
+            applyTile(entry.getKey(), entry.getValue());
         }
 
         return null;
     }
 
+    private void applyTile(long key, boolean[] columns) throws WorldEditException {
+        int x = (int) (key >> 32) << 4;
+        int z = (int) key << 4;
+        affected += function.apply(x, z, 16, 16, columns);
+    }
+
     @Override
     public void cancel() {
     }
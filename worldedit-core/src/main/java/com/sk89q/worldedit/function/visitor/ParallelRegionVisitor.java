@@ -0,0 +1,180 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.function.visitor;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.function.RegionFunction;
+import com.sk89q.worldedit.function.operation.Operation;
+import com.sk89q.worldedit.function.operation.RunContext;
+import com.sk89q.worldedit.regions.Region;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies a region function to every point of a region on a fork-join pool.
+ *
+ * <p>The region is split into chunk-aligned columns that are visited in
+ * parallel, so the function and every extent it touches must be safe to
+ * use from several threads at once, as long as no two threads touch the
+ * same position. Points are not visited in any particular order.</p>
+ */
+public class ParallelRegionVisitor implements Operation {
+
+    private final Region region;
+    private final RegionFunction function;
+    private final ForkJoinPool pool;
+    private final AtomicInteger affected = new AtomicInteger();
+
+    /**
+     * Create a new visitor that runs on the common pool.
+     *
+     * @param region the region
+     * @param function the function
+     */
+    public ParallelRegionVisitor(Region region, RegionFunction function) {
+        this(region, function, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new visitor.
+     *
+     * @param region the region
+     * @param function the function
+     * @param pool the pool to run on
+     */
+    public ParallelRegionVisitor(Region region, RegionFunction function, ForkJoinPool pool) {
+        checkNotNull(region);
+        checkNotNull(function);
+        checkNotNull(pool);
+        this.region = region;
+        this.function = function;
+        this.pool = pool;
+    }
+
+    /**
+     * Get the number of affected objects.
+     *
+     * @return the number of affected
+     */
+    public int getAffected() {
+        return affected.get();
+    }
+
+    @Override
+    public Operation resume(RunContext run) throws WorldEditException {
+        List<Vector2D> columns = new ArrayList<>(region.getChunks());
+        try {
+            pool.invoke(new ColumnAction(columns, 0, columns.size()));
+        } catch (FunctionException e) {
+            throw e.getCause();
+        }
+        return null;
+    }
+
+    @Override
+    public void cancel() {
+    }
+
+    @Override
+    public void addStatusMessages(List<String> messages) {
+        messages.add(getAffected() + " blocks affected");
+    }
+
+    private void visitColumn(Vector2D column) throws WorldEditException {
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        int minX = Math.max(min.getBlockX(), column.getBlockX() << 4);
+        int maxX = Math.min(max.getBlockX(), (column.getBlockX() << 4) + 15);
+        int minZ = Math.max(min.getBlockZ(), column.getBlockZ() << 4);
+        int maxZ = Math.min(max.getBlockZ(), (column.getBlockZ() << 4) + 15);
+        int minY = min.getBlockY();
+        int maxY = max.getBlockY();
+
+        int count = 0;
+        for (int y = minY; y <= maxY; ++y) {
+            for (int z = minZ; z <= maxZ; ++z) {
+                for (int x = minX; x <= maxX; ++x) {
+                    BlockVector pt = new BlockVector(x, y, z);
+                    if (region.contains(pt) && function.apply(pt)) {
+                        count++;
+                    }
+                }
+            }
+        }
+        affected.addAndGet(count);
+    }
+
+    /**
+     * Visits a range of chunk columns, splitting it until one column is left.
+     */
+    private class ColumnAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Vector2D> columns;
+        private final int start;
+        private final int end;
+
+        private ColumnAction(List<Vector2D> columns, int start, int end) {
+            this.columns = columns;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ColumnAction(columns, start, middle), new ColumnAction(columns, middle, end));
+            } else if (end > start) {
+                try {
+                    visitColumn(columns.get(start));
+                } catch (WorldEditException e) {
+                    throw new FunctionException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Carries a checked exception out of the pool.
+     */
+    private static class FunctionException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private FunctionException(WorldEditException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized WorldEditException getCause() {
+            return (WorldEditException) super.getCause();
+        }
+    }
+
+}
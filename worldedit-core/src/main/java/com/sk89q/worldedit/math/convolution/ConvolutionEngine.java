@@ -0,0 +1,224 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.math.convolution;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Applies {@link Kernel}s to 2D float data, splitting the work into tiles of
+ * rows that are processed on a {@link ForkJoinPool}.
+ *
+ * <p>{@link SeparableKernel}s are applied as a horizontal pass followed by
+ * a vertical pass, which is equivalent to the full 2D convolution. Samples
+ * that fall outside of the data are replaced with the value of the cell
+ * being computed, as {@link HeightMapFilter} has always done.</p>
+ */
+public class ConvolutionEngine {
+
+    private static final int DEFAULT_TILE_ROWS = 32;
+    private static final ConvolutionEngine DEFAULT = new ConvolutionEngine(ForkJoinPool.commonPool(), DEFAULT_TILE_ROWS);
+
+    private final ForkJoinPool pool;
+    private final int tileRows;
+
+    /**
+     * Create a new engine.
+     *
+     * @param pool the pool to run tiles on
+     * @param tileRows the number of rows in one tile, which must be at least 1
+     */
+    public ConvolutionEngine(ForkJoinPool pool, int tileRows) {
+        checkNotNull(pool);
+        checkArgument(tileRows >= 1, "tileRows >= 1 required");
+        this.pool = pool;
+        this.tileRows = tileRows;
+    }
+
+    /**
+     * Get the shared engine, which runs on the common fork-join pool.
+     *
+     * @return the default engine
+     */
+    public static ConvolutionEngine getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Convolve the given data with a kernel.
+     *
+     * @param inData the data, indexed by {@code y * width + x}
+     * @param width the width of the data
+     * @param height the height of the data
+     * @param kernel the kernel
+     * @return a new array with the convolved data
+     */
+    public float[] convolve(float[] inData, int width, int height, Kernel kernel) {
+        checkNotNull(inData);
+        checkNotNull(kernel);
+        checkArgument(width >= 0 && height >= 0, "dimensions must not be negative");
+        checkArgument(inData.length == width * height, "data length does not match width * height");
+
+        float[] outData = new float[inData.length];
+
+        if (kernel instanceof SeparableKernel) {
+            SeparableKernel separable = (SeparableKernel) kernel;
+            float[] horizontal = separable.getHorizontalData();
+            float[] vertical = separable.getVerticalData();
+            int kox = kernel.getXOrigin();
+            int koy = kernel.getYOrigin();
+            float[] rowData = new float[inData.length];
+
+            run(height, (start, end) -> convolveRows(inData, rowData, width, start, end, horizontal, kox));
+            run(height, (start, end) -> convolveColumns(rowData, outData, width, height, start, end, vertical, koy));
+        } else {
+            float[] matrix = kernel.getKernelData(null);
+            run(height, (start, end) -> convolveFull(inData, outData, width, height, start, end, matrix, kernel));
+        }
+
+        return outData;
+    }
+
+    private void run(int height, RowTask task) {
+        if (height <= tileRows) {
+            task.apply(0, height);
+        } else {
+            pool.invoke(new RowAction(task, 0, height));
+        }
+    }
+
+    private static void convolveRows(float[] inData, float[] outData, int width, int startY, int endY, float[] weights, int origin) {
+        for (int y = startY; y < endY; ++y) {
+            int row = y * width;
+            for (int x = 0; x < width; ++x) {
+                float z = 0;
+                for (int k = 0; k < weights.length; ++k) {
+                    float f = weights[k];
+                    if (f == 0) continue;
+
+                    int offsetX = x + k - origin;
+                    // Clamp coordinates inside data
+                    if (offsetX < 0 || offsetX >= width) {
+                        offsetX = x;
+                    }
+
+                    z += f * inData[row + offsetX];
+                }
+                outData[row + x] = z;
+            }
+        }
+    }
+
+    private static void convolveColumns(float[] inData, float[] outData, int width, int height, int startY, int endY, float[] weights, int origin) {
+        for (int y = startY; y < endY; ++y) {
+            int row = y * width;
+            for (int k = 0; k < weights.length; ++k) {
+                float f = weights[k];
+                if (f == 0) continue;
+
+                int offsetY = y + k - origin;
+                // Clamp coordinates inside data
+                if (offsetY < 0 || offsetY >= height) {
+                    offsetY = y;
+                }
+
+                // Walk whole rows at a time so that both arrays are read sequentially
+                int source = offsetY * width;
+                for (int x = 0; x < width; ++x) {
+                    outData[row + x] += f * inData[source + x];
+                }
+            }
+        }
+    }
+
+    private static void convolveFull(float[] inData, float[] outData, int width, int height, int startY, int endY, float[] matrix, Kernel kernel) {
+        int kh = kernel.getHeight();
+        int kw = kernel.getWidth();
+        int kox = kernel.getXOrigin();
+        int koy = kernel.getYOrigin();
+
+        for (int y = startY; y < endY; ++y) {
+            for (int x = 0; x < width; ++x) {
+                float z = 0;
+
+                for (int ky = 0; ky < kh; ++ky) {
+                    int offsetY = y + ky - koy;
+                    // Clamp coordinates inside data
+                    if (offsetY < 0 || offsetY >= height) {
+                        offsetY = y;
+                    }
+
+                    offsetY *= width;
+
+                    int matrixOffset = ky * kw;
+                    for (int kx = 0; kx < kw; ++kx) {
+                        float f = matrix[matrixOffset + kx];
+                        if (f == 0) continue;
+
+                        int offsetX = x + kx - kox;
+                        // Clamp coordinates inside data
+                        if (offsetX < 0 || offsetX >= width) {
+                            offsetX = x;
+                        }
+
+                        z += f * inData[offsetY + offsetX];
+                    }
+                }
+
+                outData[y * width + x] = z;
+            }
+        }
+    }
+
+    /**
+     * Processes the rows in the range [start, end).
+     */
+    private interface RowTask {
+        void apply(int start, int end);
+    }
+
+    private class RowAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RowTask task;
+        private final int start;
+        private final int end;
+
+        private RowAction(RowTask task, int start, int end) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= tileRows) {
+                task.apply(start, end);
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new RowAction(task, start, middle), new RowAction(task, middle, end));
+            }
+        }
+    }
+
+}
@@ -22,7 +22,7 @@
 /**
  * A Gaussian Kernel generator (2D bellcurve).
  */
-public class GaussianKernel extends Kernel {
+public class GaussianKernel extends SeparableKernel {
 
     /**
      * Constructor of the kernel
@@ -31,19 +31,18 @@ public class GaussianKernel extends Kernel {
      * @param sigma controls 'flatness'
      */
     public GaussianKernel(int radius, double sigma) {
-        super(radius * 2 + 1, radius * 2 + 1, createKernel(radius, sigma));
+        super(createKernel(radius, sigma), createKernel(radius, sigma));
     }
 
     private static float[] createKernel(int radius, double sigma) {
         int diameter = radius * 2 + 1;
-        float[] data = new float[diameter * diameter];
+        float[] data = new float[diameter];
 
+        // exp(-(x^2 + y^2) / 2s^2) / (2 pi s^2) factors into the same 1D curve along each axis
         double sigma22 = 2 * sigma * sigma;
-        double constant = Math.PI * sigma22;
-        for (int y = -radius; y <= radius; ++y) {
-            for (int x = -radius; x <= radius; ++x) {
-                data[(y + radius) * diameter + x + radius] = (float) (Math.exp(-(x * x + y * y) / sigma22) / constant);
-            }
+        double constant = Math.sqrt(Math.PI * sigma22);
+        for (int x = -radius; x <= radius; ++x) {
+            data[x + radius] = (float) (Math.exp(-(x * x) / sigma22) / constant);
         }
 
         return data;
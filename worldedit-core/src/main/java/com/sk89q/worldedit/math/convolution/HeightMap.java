@@ -64,12 +64,7 @@ public HeightMap(EditSession session, Region region) {
         int maxY = region.getMaximumPoint().getBlockY();
 
         // Store current heightmap data
-        data = new int[width * height];
-        for (int z = 0; z < height; ++z) {
-            for (int x = 0; x < width; ++x) {
-                data[z * width + x] = session.getHighestTerrainBlock(x + minX, z + minZ, minY, maxY);
-            }
-        }
+        data = session.getHighestTerrainBlocks(minX, minZ, width, height, minY, maxY);
     }
 
     /**
@@ -84,14 +79,16 @@ public HeightMap(EditSession session, Region region) {
     public int applyFilter(HeightMapFilter filter, int iterations) throws MaxChangedBlocksException {
         checkNotNull(filter);
 
-        int[] newData = new int[data.length];
-        System.arraycopy(data, 0, newData, 0, data.length);
+        float[] newData = new float[data.length];
+        for (int i = 0; i < data.length; ++i) {
+            newData[i] = data[i];
+        }
 
         for (int i = 0; i < iterations; ++i) {
             newData = filter.filter(newData, width, height);
         }
 
-        return apply(newData);
+        return apply(HeightMapFilter.round(newData));
     }
 
     /**
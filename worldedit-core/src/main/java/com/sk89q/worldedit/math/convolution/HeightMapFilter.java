@@ -82,44 +82,40 @@ public void setKernel(Kernel kernel) {
     public int[] filter(int[] inData, int width, int height) {
         checkNotNull(inData);
 
-        int index = 0;
-        float[] matrix = kernel.getKernelData(null);
-        int[] outData = new int[inData.length];
-
-        int kh = kernel.getHeight();
-        int kw = kernel.getWidth();
-        int kox = kernel.getXOrigin();
-        int koy = kernel.getYOrigin();
-
-        for (int y = 0; y < height; ++y) {
-            for (int x = 0; x < width; ++x) {
-                float z = 0;
-
-                for (int ky = 0; ky < kh; ++ky) {
-                    int offsetY = y + ky - koy;
-                    // Clamp coordinates inside data
-                    if (offsetY < 0 || offsetY >= height) {
-                        offsetY = y;
-                    }
-
-                    offsetY *= width;
-
-                    int matrixOffset = ky * kw;
-                    for (int kx = 0; kx < kw; ++kx) {
-                        float f = matrix[matrixOffset + kx];
-                        if (f == 0) continue;
-
-                        int offsetX = x + kx - kox;
-                        // Clamp coordinates inside data
-                        if (offsetX < 0 || offsetX >= width) {
-                            offsetX = x;
-                        }
-
-                        z += f * inData[offsetY + offsetX];
-                    }
-                }
-                outData[index++] = (int) (z + 0.5);
-            }
+        float[] data = new float[inData.length];
+        for (int i = 0; i < inData.length; ++i) {
+            data[i] = inData[i];
+        }
+
+        return round(filter(data, width, height));
+    }
+
+    /**
+     * Filter with a 2D kernel without rounding the result, so that repeated
+     * iterations do not accumulate rounding errors.
+     *
+     * @param inData the data
+     * @param width the width
+     * @param height the height
+     *
+     * @return the modified height map
+     */
+    public float[] filter(float[] inData, int width, int height) {
+        checkNotNull(inData);
+
+        return ConvolutionEngine.getDefault().convolve(inData, width, height, kernel);
+    }
+
+    /**
+     * Round filtered data back to whole heights.
+     *
+     * @param data the data
+     * @return the rounded data
+     */
+    static int[] round(float[] data) {
+        int[] outData = new int[data.length];
+        for (int i = 0; i < data.length; ++i) {
+            outData[i] = (int) (data[i] + 0.5);
         }
         return outData;
     }
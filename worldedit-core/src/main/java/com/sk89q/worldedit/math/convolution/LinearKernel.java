@@ -22,15 +22,15 @@
 /**
  * A linear Kernel generator (all cells weight the same)
  */
-public class LinearKernel extends Kernel {
+public class LinearKernel extends SeparableKernel {
 
     public LinearKernel(int radius) {
-        super(radius * 2 + 1, radius * 2 + 1, createKernel(radius));
+        super(createKernel(radius), createKernel(radius));
     }
 
     private static float[] createKernel(int radius) {
         int diameter = radius * 2 + 1;
-        float[] data = new float[diameter * diameter];
+        float[] data = new float[diameter];
 
         for (int i = 0; i < data.length; data[i++] = 1.0f / data.length);
 
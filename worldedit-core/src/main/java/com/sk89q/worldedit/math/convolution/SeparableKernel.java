@@ -0,0 +1,73 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.math.convolution;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A kernel that is the outer product of a horizontal and a vertical
+ * vector, and so can be applied as two 1D passes.
+ */
+public class SeparableKernel extends Kernel {
+
+    private final float[] horizontal;
+    private final float[] vertical;
+
+    /**
+     * Create a new separable kernel.
+     *
+     * @param horizontal the weights along the X axis
+     * @param vertical the weights along the Y axis
+     */
+    public SeparableKernel(float[] horizontal, float[] vertical) {
+        super(checkNotNull(horizontal).length, checkNotNull(vertical).length, createKernel(horizontal, vertical));
+        this.horizontal = horizontal.clone();
+        this.vertical = vertical.clone();
+    }
+
+    private static float[] createKernel(float[] horizontal, float[] vertical) {
+        float[] data = new float[horizontal.length * vertical.length];
+        for (int y = 0; y < vertical.length; ++y) {
+            for (int x = 0; x < horizontal.length; ++x) {
+                data[y * horizontal.length + x] = horizontal[x] * vertical[y];
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Get a copy of the weights along the X axis.
+     *
+     * @return the horizontal weights
+     */
+    public final float[] getHorizontalData() {
+        return horizontal.clone();
+    }
+
+    /**
+     * Get a copy of the weights along the Y axis.
+     *
+     * @return the vertical weights
+     */
+    public final float[] getVerticalData() {
+        return vertical.clone();
+    }
+
+}
@@ -19,6 +19,9 @@
 
 package com.sk89q.worldedit.math.noise;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.Vector2D;
 import net.royawesome.jlibnoise.module.Module;
@@ -29,6 +32,7 @@
 
     private static final Random RANDOM = new Random();
     private final V module;
+    private int revision;
 
     JLibNoiseGenerator() {
         module = createModule();
@@ -41,6 +45,13 @@ protected V getModule() {
         return module;
     }
 
+    /**
+     * Mark the settings of the module as changed.
+     */
+    protected void changed() {
+        ++revision;
+    }
+
     public abstract void setSeed(int seed);
 
     public abstract int getSeed();
@@ -55,6 +66,44 @@ public float noise(Vector position) {
         return forceRange(module.GetValue(position.getX(), position.getY(), position.getZ()));
     }
 
+    @Override
+    public void noise(int x, int z, int width, int length, float[] values) {
+        checkNotNull(values);
+        checkArgument(values.length >= width * length, "values is too small");
+
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                values[index++] = forceRange(module.GetValue(x + dx, 0, z + dz));
+            }
+        }
+    }
+
+    @Override
+    public void noise(int x, int y, int z, int width, int height, int length, float[] values) {
+        checkNotNull(values);
+        checkArgument(values.length >= width * height * length, "values is too small");
+
+        int index = 0;
+        for (int dy = 0; dy < height; ++dy) {
+            for (int dz = 0; dz < length; ++dz) {
+                for (int dx = 0; dx < width; ++dx) {
+                    values[index++] = forceRange(module.GetValue(x + dx, y + dy, z + dz));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public int getRevision() {
+        return revision;
+    }
+
     private float forceRange(double value) {
         return (float) Math.max(0, Math.min(1, value / 2.0 + 0.5));
     }
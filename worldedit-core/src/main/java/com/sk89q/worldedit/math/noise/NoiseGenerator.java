@@ -19,6 +19,9 @@
 
 package com.sk89q.worldedit.math.noise;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.Vector2D;
 
@@ -45,4 +48,72 @@ public interface NoiseGenerator {
      */
     float noise(Vector position);
 
+    /**
+     * Fill an array with the noise values of a grid of columns.
+     *
+     * @param x the X coordinate of the first column
+     * @param z the Z coordinate of the first column
+     * @param width the number of columns along the X axis
+     * @param length the number of columns along the Z axis
+     * @param values the array to fill, indexed by {@code z * width + x}
+     */
+    default void noise(int x, int z, int width, int length, float[] values) {
+        checkNotNull(values);
+        checkArgument(values.length >= width * length, "values is too small");
+
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                values[index++] = noise(new Vector2D(x + dx, z + dz));
+            }
+        }
+    }
+
+    /**
+     * Fill an array with the noise values of a box of positions.
+     *
+     * @param x the X coordinate of the first position
+     * @param y the Y coordinate of the first position
+     * @param z the Z coordinate of the first position
+     * @param width the number of positions along the X axis
+     * @param height the number of positions along the Y axis
+     * @param length the number of positions along the Z axis
+     * @param values the array to fill, indexed by {@code (y * length + z) * width + x}
+     */
+    default void noise(int x, int y, int z, int width, int height, int length, float[] values) {
+        checkNotNull(values);
+        checkArgument(values.length >= width * height * length, "values is too small");
+
+        int index = 0;
+        for (int dy = 0; dy < height; ++dy) {
+            for (int dz = 0; dz < length; ++dz) {
+                for (int dx = 0; dx < width; ++dx) {
+                    values[index++] = noise(new Vector(x + dx, y + dy, z + dz));
+                }
+            }
+        }
+    }
+
+    /**
+     * Get whether this generator always returns the same value for the same
+     * position, which allows its values to be computed ahead of time and
+     * reused.
+     *
+     * @return true if deterministic
+     */
+    default boolean isDeterministic() {
+        return false;
+    }
+
+    /**
+     * Get a number that changes whenever a setting that affects the
+     * returned values is changed, so that values computed ahead of time
+     * can be discarded.
+     *
+     * @return the revision
+     */
+    default int getRevision() {
+        return 0;
+    }
+
 }
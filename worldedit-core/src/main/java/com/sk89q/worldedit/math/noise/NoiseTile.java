@@ -0,0 +1,134 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.math.noise;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.stream.IntStream;
+
+/**
+ * The noise values of a generator for one 16x16x16 section, or for one
+ * 16x16 grid of columns, computed in a single batch.
+ */
+public final class NoiseTile {
+
+    public static final int SIZE = 16;
+    public static final int SHIFT = 4;
+    private static final int MASK = SIZE - 1;
+
+    private final int tileX;
+    private final int tileY;
+    private final int tileZ;
+    private final boolean flat;
+    private final float[] values;
+
+    private NoiseTile(int tileX, int tileY, int tileZ, boolean flat, float[] values) {
+        this.tileX = tileX;
+        this.tileY = tileY;
+        this.tileZ = tileZ;
+        this.flat = flat;
+        this.values = values;
+    }
+
+    /**
+     * Compute the tile for a 16x16x16 section.
+     *
+     * @param generator the generator
+     * @param tileX the section X coordinate
+     * @param tileY the section Y coordinate
+     * @param tileZ the section Z coordinate
+     * @param parallel true to fill the layers of the section in parallel, which requires a thread-safe generator
+     * @return the tile
+     */
+    public static NoiseTile create(NoiseGenerator generator, int tileX, int tileY, int tileZ, boolean parallel) {
+        checkNotNull(generator);
+
+        int x = tileX << SHIFT;
+        int y = tileY << SHIFT;
+        int z = tileZ << SHIFT;
+        float[] values = new float[SIZE * SIZE * SIZE];
+
+        if (parallel) {
+            IntStream.range(0, SIZE).parallel().forEach(dy -> {
+                float[] layer = new float[SIZE * SIZE];
+                generator.noise(x, y + dy, z, SIZE, 1, SIZE, layer);
+                System.arraycopy(layer, 0, values, dy * SIZE * SIZE, layer.length);
+            });
+        } else {
+            generator.noise(x, y, z, SIZE, SIZE, SIZE, values);
+        }
+
+        return new NoiseTile(tileX, tileY, tileZ, false, values);
+    }
+
+    /**
+     * Compute the tile for a 16x16 grid of columns.
+     *
+     * @param generator the generator
+     * @param tileX the grid X coordinate
+     * @param tileZ the grid Z coordinate
+     * @return the tile
+     */
+    public static NoiseTile create(NoiseGenerator generator, int tileX, int tileZ) {
+        checkNotNull(generator);
+
+        float[] values = new float[SIZE * SIZE];
+        generator.noise(tileX << SHIFT, tileZ << SHIFT, SIZE, SIZE, values);
+        return new NoiseTile(tileX, 0, tileZ, true, values);
+    }
+
+    /**
+     * Get whether this tile holds a grid of columns rather than a section.
+     *
+     * @return true if 2D
+     */
+    public boolean isFlat() {
+        return flat;
+    }
+
+    /**
+     * Get whether the given position falls in this tile.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate, ignored for a flat tile
+     * @param z the Z coordinate
+     * @return true if contained
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >> SHIFT == tileX && z >> SHIFT == tileZ && (flat || y >> SHIFT == tileY);
+    }
+
+    /**
+     * Get the noise value at a position inside this tile.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate, ignored for a flat tile
+     * @param z the Z coordinate
+     * @return the noise value
+     */
+    public float get(int x, int y, int z) {
+        if (flat) {
+            return values[(z & MASK) << SHIFT | (x & MASK)];
+        } else {
+            return values[((y & MASK) << SHIFT | (z & MASK)) << SHIFT | (x & MASK)];
+        }
+    }
+
+}
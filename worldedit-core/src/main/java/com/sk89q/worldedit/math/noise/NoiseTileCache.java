@@ -0,0 +1,182 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.math.noise;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Looks up the noise values of a deterministic {@link NoiseGenerator}
+ * from a bounded set of recently used {@link NoiseTile}s.
+ *
+ * <p>Computed tiles are discarded whenever the generator's
+ * {@link NoiseGenerator#getRevision() revision} changes.</p>
+ *
+ * <p>A tile only pays off if most of its values are looked up before it
+ * is evicted, which depends on the order positions are visited in. Once
+ * the cache has computed more values than were looked up, it samples
+ * single positions instead of filling new tiles, so that it never costs
+ * much more than sampling every position directly.</p>
+ *
+ * <p>Instances are not thread-safe, so each thread should use its own.</p>
+ */
+public class NoiseTileCache {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final NoiseGenerator generator;
+    private final boolean flat;
+    private final Map<Long, NoiseTile> tiles;
+    private boolean parallel;
+    private int revision;
+    private NoiseTile last;
+    private long lookups;
+    private long samples;
+
+    /**
+     * Create a new cache.
+     *
+     * @param generator the generator
+     * @param flat true to cache grids of columns, false to cache sections
+     */
+    public NoiseTileCache(NoiseGenerator generator, boolean flat) {
+        this(generator, flat, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new cache.
+     *
+     * @param generator the generator
+     * @param flat true to cache grids of columns, false to cache sections
+     * @param capacity the maximum number of tiles to keep
+     */
+    public NoiseTileCache(NoiseGenerator generator, boolean flat, int capacity) {
+        checkNotNull(generator);
+        checkArgument(capacity >= 1, "capacity >= 1 required");
+        this.generator = generator;
+        this.flat = flat;
+        this.revision = generator.getRevision();
+        this.tiles = new LinkedHashMap<Long, NoiseTile>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NoiseTile> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the generator.
+     *
+     * @return the generator
+     */
+    public NoiseGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Get whether sections are filled using multiple threads.
+     *
+     * @return true if parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set whether sections are filled using multiple threads, which
+     * requires a generator that is safe to use from several threads.
+     *
+     * @param parallel true if parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Get the noise value at a position, computing its tile if needed.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate, ignored when caching columns
+     * @param z the Z coordinate
+     * @return the noise value
+     */
+    public float get(int x, int y, int z) {
+        if (generator.getRevision() != revision) {
+            clear();
+            revision = generator.getRevision();
+        }
+
+        lookups++;
+        NoiseTile tile = last;
+        if (tile == null || !tile.contains(x, y, z)) {
+            int tileX = x >> NoiseTile.SHIFT;
+            int tileY = flat ? 0 : y >> NoiseTile.SHIFT;
+            int tileZ = z >> NoiseTile.SHIFT;
+            long key = ((long) tileX & 0x3FFFFF) << 42 | ((long) tileZ & 0x3FFFFF) << 20 | (tileY & 0xFFFFF);
+            tile = tiles.get(key);
+            if (tile == null) {
+                int volume = flat ? NoiseTile.SIZE * NoiseTile.SIZE : NoiseTile.SIZE * NoiseTile.SIZE * NoiseTile.SIZE;
+                if (samples > lookups + volume) {
+                    samples++;
+                    return flat ? generator.noise(new Vector2D(x, z)) : generator.noise(new Vector(x, y, z));
+                }
+                samples += volume;
+                tile = flat ? NoiseTile.create(generator, tileX, tileZ) : NoiseTile.create(generator, tileX, tileY, tileZ, parallel);
+                tiles.put(key, tile);
+            }
+            last = tile;
+        }
+        return tile.get(x, y, z);
+    }
+
+    /**
+     * Get the number of noise values computed so far, both to fill tiles
+     * and for single positions.
+     *
+     * @return the number of samples
+     */
+    public long getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * Get the number of values looked up so far.
+     *
+     * @return the number of lookups
+     */
+    public long getLookupCount() {
+        return lookups;
+    }
+
+    /**
+     * Discard all computed tiles.
+     */
+    public void clear() {
+        tiles.clear();
+        last = null;
+    }
+
+}
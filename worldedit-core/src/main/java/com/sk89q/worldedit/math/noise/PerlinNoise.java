@@ -36,7 +36,10 @@ public double getFrequency() {
     }
 
     public void setFrequency(double frequency) {
-        getModule().setFrequency(frequency);
+        if (frequency != getFrequency()) {
+            getModule().setFrequency(frequency);
+            changed();
+        }
     }
 
     public double getLacunarity() {
@@ -44,7 +47,10 @@ public double getLacunarity() {
     }
 
     public void setLacunarity(double lacunarity) {
-        getModule().setLacunarity(lacunarity);
+        if (lacunarity != getLacunarity()) {
+            getModule().setLacunarity(lacunarity);
+            changed();
+        }
     }
 
     public int getOctaveCount() {
@@ -52,11 +58,17 @@ public int getOctaveCount() {
     }
 
     public void setOctaveCount(int octaveCount) {
-        getModule().setOctaveCount(octaveCount);
+        if (octaveCount != getOctaveCount()) {
+            getModule().setOctaveCount(octaveCount);
+            changed();
+        }
     }
 
     public void setPersistence(double persistence) {
-        getModule().setPersistence(persistence);
+        if (persistence != getPersistence()) {
+            getModule().setPersistence(persistence);
+            changed();
+        }
     }
 
     public double getPersistence() {
@@ -65,7 +77,10 @@ public double getPersistence() {
 
     @Override
     public void setSeed(int seed) {
-        getModule().setSeed(seed);
+        if (seed != getSeed()) {
+            getModule().setSeed(seed);
+            changed();
+        }
     }
 
     @Override
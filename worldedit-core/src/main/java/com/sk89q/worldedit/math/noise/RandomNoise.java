@@ -19,6 +19,9 @@
 
 package com.sk89q.worldedit.math.noise;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.Vector2D;
 
@@ -59,4 +62,23 @@ public float noise(Vector position) {
         return random.nextFloat();
     }
 
+    @Override
+    public void noise(int x, int z, int width, int length, float[] values) {
+        fill(values, width * length);
+    }
+
+    @Override
+    public void noise(int x, int y, int z, int width, int height, int length, float[] values) {
+        fill(values, width * height * length);
+    }
+
+    private void fill(float[] values, int count) {
+        checkNotNull(values);
+        checkArgument(values.length >= count, "values is too small");
+
+        for (int i = 0; i < count; ++i) {
+            values[i] = random.nextFloat();
+        }
+    }
+
 }
@@ -36,12 +36,18 @@ public double getFrequency() {
     }
 
     public void setFrequency(double frequency) {
-        getModule().setFrequency(frequency);
+        if (frequency != getFrequency()) {
+            getModule().setFrequency(frequency);
+            changed();
+        }
     }
 
     @Override
     public void setSeed(int seed) {
-        getModule().setSeed(seed);
+        if (seed != getSeed()) {
+            getModule().setSeed(seed);
+            changed();
+        }
     }
 
     @Override
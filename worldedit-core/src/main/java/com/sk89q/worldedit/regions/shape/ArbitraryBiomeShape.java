@@ -24,14 +24,25 @@
 import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.regions.FlatRegion;
 import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.World;
 import com.sk89q.worldedit.world.biome.BaseBiome;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Generates solid and hollow shapes according to materials returned by the
  * {@link #getBiome} method.
  */
 public abstract class ArbitraryBiomeShape {
 
+    /**
+     * The number of chunks whose biomes may be gathered at once, after
+     * which the oldest chunk is written.
+     */
+    private static final int MAX_PENDING_CHUNKS = 64;
+
     private final FlatRegion extent;
     private int cacheOffsetX;
     private int cacheOffsetZ;
@@ -128,6 +139,8 @@ private boolean isInsideCached(int x, int z, BaseBiome baseBiome) {
      * @return number of affected blocks.
      */
     public int generate(EditSession editSession, BaseBiome baseBiome, boolean hollow) {
+        World world = editSession.getWorld();
+        Map<Long, BaseBiome[]> pending = new LinkedHashMap<>();
         int affected = 0;
 
         for (Vector2D position : getExtent()) {
@@ -137,7 +150,7 @@ public int generate(EditSession editSession, BaseBiome baseBiome, boolean hollow
             if (!hollow) {
                 final BaseBiome material = getBiome(x, z, baseBiome);
                 if (material != null && material != OUTSIDE) {
-                    editSession.getWorld().setBiome(position, material);
+                    setBiome(world, pending, x, z, material);
                     ++affected;
                 }
 
@@ -173,13 +186,41 @@ public int generate(EditSession editSession, BaseBiome baseBiome, boolean hollow
                 continue;
             }
 
-            editSession.getWorld().setBiome(position, material);
+            setBiome(world, pending, x, z, material);
             ++affected;
         }
 
+        for (Map.Entry<Long, BaseBiome[]> entry : pending.entrySet()) {
+            writeChunk(world, entry.getKey(), entry.getValue());
+        }
+
         return affected;
     }
 
+    /**
+     * Gather the biome of a column into the array of its chunk, so that
+     * the biomes of each chunk are written together.
+     */
+    private static void setBiome(World world, Map<Long, BaseBiome[]> pending, int x, int z, BaseBiome biome) {
+        long key = (long) (x >> 4) << 32 | (z >> 4) & 0xFFFFFFFFL;
+        BaseBiome[] biomes = pending.get(key);
+        if (biomes == null) {
+            if (pending.size() >= MAX_PENDING_CHUNKS) {
+                Iterator<Map.Entry<Long, BaseBiome[]>> it = pending.entrySet().iterator();
+                Map.Entry<Long, BaseBiome[]> eldest = it.next();
+                it.remove();
+                writeChunk(world, eldest.getKey(), eldest.getValue());
+            }
+            biomes = new BaseBiome[256];
+            pending.put(key, biomes);
+        }
+        biomes[(z & 15) << 4 | x & 15] = biome;
+    }
+
+    private static void writeChunk(World world, long key, BaseBiome[] biomes) {
+        world.setBiomes((int) (key >> 32) << 4, (int) key << 4, 16, 16, biomes);
+    }
+
     private static final BaseBiome OUTSIDE = new BaseBiome(0) {
         @Override
         public int hashCode() {
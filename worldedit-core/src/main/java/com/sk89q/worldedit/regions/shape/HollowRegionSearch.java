@@ -0,0 +1,329 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.regions.shape;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.regions.Region;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Finds the blocks of a region that are not reachable from the outside of
+ * the region, for hollowing it out.
+ *
+ * <p>All state is kept in bit sets covering the bounding box of the region
+ * plus a one block border, so the search never allocates per block.
+ * Materials are read once, in a single pass over that box.</p>
+ *
+ * <p>A block is "outside" if it is not a movement blocker and it can be
+ * reached through such blocks, moving through the region, from the faces
+ * of the bounding box. A shell of the given thickness is then grown
+ * inward from the outside, and every block of the region that does not
+ * touch the outside or the shell is hollow.</p>
+ */
+public class HollowRegionSearch {
+
+    private final Extent extent;
+    private final Region region;
+
+    private final int originX;
+    private final int originY;
+    private final int originZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int strideZ;
+    private final int strideY;
+    private final int[] neighbors;
+
+    private final BitSet solid;
+    private final BitSet inRegion;
+    private final BitSet outside;
+
+    /**
+     * Create a new search.
+     *
+     * @param extent the extent to read blocks from
+     * @param region the region to hollow out
+     */
+    public HollowRegionSearch(Extent extent, Region region) {
+        checkNotNull(extent);
+        checkNotNull(region);
+
+        this.extent = extent;
+        this.region = region;
+
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        originX = min.getBlockX() - 1;
+        originY = min.getBlockY() - 1;
+        originZ = min.getBlockZ() - 1;
+        sizeX = max.getBlockX() - min.getBlockX() + 3;
+        sizeY = max.getBlockY() - min.getBlockY() + 3;
+        sizeZ = max.getBlockZ() - min.getBlockZ() + 3;
+
+        long volume = (long) sizeX * sizeY * sizeZ;
+        checkArgument(volume <= Integer.MAX_VALUE, "region is too large to hollow out");
+
+        strideZ = sizeX;
+        strideY = sizeX * sizeZ;
+        neighbors = new int[] { 1, -1, strideY, -strideY, strideZ, -strideZ };
+
+        solid = new BitSet((int) volume);
+        inRegion = new BitSet((int) volume);
+        outside = new BitSet((int) volume);
+    }
+
+    private int index(int x, int y, int z) {
+        return ((y - originY) * sizeZ + (z - originZ)) * sizeX + (x - originX);
+    }
+
+    /**
+     * Run the search.
+     *
+     * @param thickness the thickness of the shell to leave (manhattan distance)
+     */
+    public void search(int thickness) {
+        readBlocks();
+        floodOutside();
+        growShell(thickness - 1);
+    }
+
+    /**
+     * Get whether a position is hollow, meaning that it is in the region
+     * and does not touch the outside or the shell.
+     *
+     * <p>{@link #search(int)} must have been called first.</p>
+     *
+     * @param position the position
+     * @return true if hollow
+     */
+    public boolean isHollow(Vector position) {
+        int x = position.getBlockX();
+        int y = position.getBlockY();
+        int z = position.getBlockZ();
+        if (x <= originX || y <= originY || z <= originZ
+                || x >= originX + sizeX - 1 || y >= originY + sizeY - 1 || z >= originZ + sizeZ - 1) {
+            return false;
+        }
+
+        int index = index(x, y, z);
+        if (!inRegion.get(index)) {
+            return false;
+        }
+        for (int offset : neighbors) {
+            if (outside.get(index + offset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readBlocks() {
+        for (BlockVector position : region) {
+            inRegion.set(index(position.getBlockX(), position.getBlockY(), position.getBlockZ()));
+        }
+
+        int index = 0;
+        for (int y = 0; y < sizeY; ++y) {
+            for (int z = 0; z < sizeZ; ++z) {
+                for (int x = 0; x < sizeX; ++x, ++index) {
+                    Vector position = new Vector(originX + x, originY + y, originZ + z);
+                    if (extent.getBlock(position).getBlockType().getMaterial().isMovementBlocker()) {
+                        solid.set(index);
+                    }
+                }
+            }
+        }
+    }
+
+    private void floodOutside() {
+        IntQueue queue = new IntQueue();
+        int maxX = sizeX - 2;
+        int maxY = sizeY - 2;
+        int maxZ = sizeZ - 2;
+
+        // Seed from every face of the bounding box
+        for (int x = 1; x <= maxX; ++x) {
+            for (int y = 1; y <= maxY; ++y) {
+                visitOutside((y * sizeZ + 1) * sizeX + x, queue);
+                visitOutside((y * sizeZ + maxZ) * sizeX + x, queue);
+            }
+        }
+
+        for (int y = 1; y <= maxY; ++y) {
+            for (int z = 1; z <= maxZ; ++z) {
+                visitOutside((y * sizeZ + z) * sizeX + 1, queue);
+                visitOutside((y * sizeZ + z) * sizeX + maxX, queue);
+            }
+        }
+
+        for (int z = 1; z <= maxZ; ++z) {
+            for (int x = 1; x <= maxX; ++x) {
+                visitOutside((sizeZ + z) * sizeX + x, queue);
+                visitOutside((maxY * sizeZ + z) * sizeX + x, queue);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            // The outside only spreads onward from blocks that are in the region
+            if (inRegion.get(current)) {
+                for (int offset : neighbors) {
+                    visitOutside(current + offset, queue);
+                }
+            } else {
+                spreadFromBorder(current, queue);
+            }
+        }
+    }
+
+    /**
+     * Spread the outside from a block of the border around the bounding
+     * box, if the region contains it. Some regions, such as cylinders,
+     * contain a few points just past their bounding box.
+     */
+    private void spreadFromBorder(int index, IntQueue queue) {
+        int x = index % sizeX;
+        int z = (index / sizeX) % sizeZ;
+        int y = index / strideY;
+        if (x > 0 && y > 0 && z > 0 && x < sizeX - 1 && y < sizeY - 1 && z < sizeZ - 1) {
+            return;
+        }
+        if (!region.contains(new Vector(originX + x, originY + y, originZ + z))) {
+            return;
+        }
+
+        // Neighbors past the edge of the border can never touch the region
+        if (x > 0) {
+            visitOutside(index - 1, queue);
+        }
+        if (x < sizeX - 1) {
+            visitOutside(index + 1, queue);
+        }
+        if (z > 0) {
+            visitOutside(index - strideZ, queue);
+        }
+        if (z < sizeZ - 1) {
+            visitOutside(index + strideZ, queue);
+        }
+        if (y > 0) {
+            visitOutside(index - strideY, queue);
+        }
+        if (y < sizeY - 1) {
+            visitOutside(index + strideY, queue);
+        }
+    }
+
+    private void visitOutside(int index, IntQueue queue) {
+        if (!solid.get(index) && !outside.get(index)) {
+            outside.set(index);
+            queue.add(index);
+        }
+    }
+
+    private void growShell(int layers) {
+        if (layers <= 0) {
+            return;
+        }
+
+        // The first layer is every block of the region that touches the outside
+        IntQueue frontier = new IntQueue();
+        for (int index = inRegion.nextSetBit(0); index >= 0; index = inRegion.nextSetBit(index + 1)) {
+            if (!outside.get(index) && touchesOutside(index)) {
+                frontier.add(index);
+            }
+        }
+        for (int i = 0; i < frontier.size(); ++i) {
+            outside.set(frontier.get(i));
+        }
+
+        // Every further layer only needs to look around the previous one
+        for (int layer = 1; layer < layers && !frontier.isEmpty(); ++layer) {
+            IntQueue next = new IntQueue();
+            while (!frontier.isEmpty()) {
+                int current = frontier.poll();
+                for (int offset : neighbors) {
+                    int neighbor = current + offset;
+                    if (inRegion.get(neighbor) && !outside.get(neighbor)) {
+                        outside.set(neighbor);
+                        next.add(neighbor);
+                    }
+                }
+            }
+            frontier = next;
+        }
+    }
+
+    private boolean touchesOutside(int index) {
+        for (int offset : neighbors) {
+            if (outside.get(index + offset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A growable FIFO queue of ints.
+     */
+    private static final class IntQueue {
+        private int[] elements = new int[256];
+        private int head;
+        private int tail;
+
+        void add(int value) {
+            if (tail == elements.length) {
+                if (head > elements.length / 2) {
+                    System.arraycopy(elements, head, elements, 0, tail - head);
+                } else {
+                    elements = Arrays.copyOf(elements, elements.length * 2);
+                    System.arraycopy(elements, head, elements, 0, tail - head);
+                }
+                tail -= head;
+                head = 0;
+            }
+            elements[tail++] = value;
+        }
+
+        int poll() {
+            return elements[head++];
+        }
+
+        int get(int i) {
+            return elements[head + i];
+        }
+
+        int size() {
+            return tail - head;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+    }
+
+}
@@ -19,13 +19,13 @@
 
 package com.sk89q.worldedit.registry;
 
-import java.util.HashSet;
+import com.google.common.collect.ImmutableSet;
+
 import java.util.Set;
 
 public abstract class Category<T> {
-    private final Set<T> set = new HashSet<>();
     protected final String id;
-    private boolean empty = true;
+    private volatile Set<T> set;
 
     protected Category(final String id) {
         this.id = id;
@@ -35,16 +35,45 @@ public final String getId() {
         return this.id;
     }
 
+    /**
+     * Get the contents of this category, loading them the first time.
+     *
+     * @return an immutable set
+     */
     public final Set<T> getAll() {
-        if (this.empty) {
-            this.set.addAll(this.load());
-            this.empty = false;
+        Set<T> set = this.set;
+        if (set == null) {
+            synchronized (this) {
+                set = this.set;
+                if (set == null) {
+                    set = ImmutableSet.copyOf(this.load());
+                    onLoad(set);
+                    this.set = set;
+                }
+            }
         }
-        return this.set;
+        return set;
     }
 
     protected abstract Set<T> load();
 
+    /**
+     * Called after the contents have been loaded, before they are visible
+     * to other threads.
+     *
+     * @param loaded the loaded contents
+     */
+    protected void onLoad(Set<T> loaded) {
+    }
+
+    /**
+     * Called after the cached contents have been dropped.
+     *
+     * @param previous the previous contents
+     */
+    protected void onInvalidate(Set<T> previous) {
+    }
+
     /**
      * Checks if this category contains {@code object}.
      *
@@ -55,9 +84,12 @@ public boolean contains(final T object) {
         return this.getAll().contains(object);
     }
 
-    public void invalidateCache() {
-        this.set.clear();
-        this.empty = true;
+    public synchronized void invalidateCache() {
+        Set<T> previous = this.set;
+        this.set = null;
+        if (previous != null) {
+            onInvalidate(previous);
+        }
     }
 
     @Override
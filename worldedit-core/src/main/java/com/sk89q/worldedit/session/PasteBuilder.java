@@ -23,6 +23,8 @@
 
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayPaste;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.extent.transform.BlockTransformExtent;
 import com.sk89q.worldedit.function.mask.ExistingBlockMask;
@@ -83,6 +85,12 @@ public PasteBuilder ignoreAirBlocks(boolean ignoreAirBlocks) {
      * @return the operation
      */
     public Operation build() {
+        if (BlockArrayPaste.supports(clipboard, transform, to)) {
+            BlockArrayPaste paste = new BlockArrayPaste((BlockArrayClipboard) clipboard, transform, targetExtent, to);
+            paste.setIgnoringAir(ignoreAirBlocks);
+            return paste;
+        }
+
         BlockTransformExtent extent = new BlockTransformExtent(clipboard, transform);
         ForwardExtentCopy copy = new ForwardExtentCopy(extent, clipboard.getRegion(), clipboard.getOrigin(), targetExtent, to);
         copy.setTransform(transform);
@@ -21,31 +21,29 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Striped;
 import com.sk89q.worldedit.LocalConfiguration;
 import com.sk89q.worldedit.LocalSession;
 import com.sk89q.worldedit.WorldEdit;
 import com.sk89q.worldedit.entity.Player;
 import com.sk89q.worldedit.event.platform.ConfigurationLoadEvent;
-import com.sk89q.worldedit.session.storage.JsonFileSessionStore;
+import com.sk89q.worldedit.session.storage.AsyncSessionWriter;
+import com.sk89q.worldedit.session.storage.BinaryFileSessionStore;
 import com.sk89q.worldedit.session.storage.SessionStore;
 import com.sk89q.worldedit.session.storage.VoidStore;
-import com.sk89q.worldedit.util.concurrency.EvenMoreExecutors;
 import com.sk89q.worldedit.util.eventbus.Subscribe;
 import com.sk89q.worldedit.world.gamemode.GameModes;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.UUID;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,18 +54,24 @@
  *
  * <p>Get a reference to one from {@link WorldEdit}.</p>
  *
- * <p>While this class is thread-safe, the returned session may not be.</p>
+ * <p>While this class is thread-safe, the returned session may not be.
+ * Looking up sessions never blocks, and creating a session only blocks
+ * other threads that are creating a session with the same key.</p>
  */
 public class SessionManager {
 
     public static int EXPIRATION_GRACE = 600000;
     private static final int FLUSH_PERIOD = 1000 * 30;
-    private static final ListeningExecutorService executorService = MoreExecutors.listeningDecorator(EvenMoreExecutors.newBoundedCachedThreadPool(0, 1, 5));
+    private static final int UNLOAD_TIMEOUT = 30;
+    private static final int LOAD_STRIPES = 64;
     private static final Logger log = Logger.getLogger(SessionManager.class.getCanonicalName());
     private final Timer timer = new Timer();
     private final WorldEdit worldEdit;
-    private final Map<UUID, SessionHolder> sessions = new HashMap<>();
-    private SessionStore store = new VoidStore();
+    private final Map<UUID, SessionHolder> sessions = new ConcurrentHashMap<>();
+    private final Map<String, SessionHolder> sessionsByName = new ConcurrentHashMap<>();
+    private final Striped<Lock> loadLocks = Striped.lock(LOAD_STRIPES);
+    private volatile SessionStore store = new VoidStore();
+    private final AsyncSessionWriter writer = new AsyncSessionWriter(store);
 
     /**
      * Create a new session manager.
@@ -88,7 +92,7 @@ public SessionManager(WorldEdit worldEdit) {
      * @param owner the owner
      * @return true if a session exists
      */
-    public synchronized boolean contains(SessionOwner owner) {
+    public boolean contains(SessionOwner owner) {
         checkNotNull(owner);
         return sessions.containsKey(getKey(owner));
     }
@@ -100,16 +104,10 @@ public synchronized boolean contains(SessionOwner owner) {
      * @return the session, if found, otherwise {@code null}
      */
     @Nullable
-    public synchronized LocalSession findByName(String name) {
+    public LocalSession findByName(String name) {
         checkNotNull(name);
-        for (SessionHolder holder : sessions.values()) {
-            String test = holder.key.getName();
-            if (name.equals(test)) {
-                return holder.session;
-            }
-        }
-
-        return null;
+        SessionHolder holder = sessionsByName.get(name);
+        return holder != null ? holder.session : null;
     }
 
     /**
@@ -120,7 +118,7 @@ public synchronized LocalSession findByName(String name) {
      * @return the session for the owner, if it exists
      */
     @Nullable
-    public synchronized LocalSession getIfPresent(SessionOwner owner) {
+    public LocalSession getIfPresent(SessionOwner owner) {
         checkNotNull(owner);
         SessionHolder stored = sessions.get(getKey(owner));
         if (stored != null) {
@@ -136,7 +134,7 @@ public synchronized LocalSession getIfPresent(SessionOwner owner) {
      * @param owner the owner
      * @return a session
      */
-    public synchronized LocalSession get(SessionOwner owner) {
+    public LocalSession get(SessionOwner owner) {
         checkNotNull(owner);
 
         LocalSession session = getIfPresent(owner);
@@ -145,21 +143,7 @@ public synchronized LocalSession get(SessionOwner owner) {
 
         // No session exists yet -- create one
         if (session == null) {
-            try {
-                session = store.load(getKey(sessionKey));
-                session.postLoad();
-            } catch (IOException e) {
-                log.log(Level.WARNING, "Failed to load saved session", e);
-                session = new LocalSession();
-            }
-
-            session.setConfiguration(config);
-            session.setBlockChangeLimit(config.defaultChangeLimit);
-
-            // Remember the session if the session is still active
-            if (sessionKey.isActive()) {
-                sessions.put(getKey(owner), new SessionHolder(sessionKey, session));
-            }
+            session = load(sessionKey, config);
         }
 
         // Set the limit on the number of blocks that an operation can
@@ -194,40 +178,78 @@ public synchronized LocalSession get(SessionOwner owner) {
     }
 
     /**
-     * Save a map of sessions to disk.
+     * Load the session for a key, unless another thread has just done so.
      *
-     * @param sessions a map of sessions to save
-     * @return a future that completes on save or error
+     * @param sessionKey the session key
+     * @param config the configuration
+     * @return the session
      */
-    private ListenableFuture<?> commit(final Map<SessionKey, LocalSession> sessions) {
-        checkNotNull(sessions);
-
-        if (sessions.isEmpty()) {
-            return Futures.immediateFuture(sessions);
-        }
+    private LocalSession load(SessionKey sessionKey, LocalConfiguration config) {
+        UUID key = getKey(sessionKey);
+        Lock lock = loadLocks.get(key);
+        lock.lock();
+        try {
+            SessionHolder stored = sessions.get(key);
+            if (stored != null) {
+                return stored.session;
+            }
 
-        return executorService.submit((Callable<Object>) () -> {
-            Exception exception = null;
+            // A session that has not been written yet is newer than the store
+            LocalSession session = writer.getPending(key);
+            if (session == null) {
+                try {
+                    session = store.load(key);
+                    session.postLoad();
+                } catch (IOException e) {
+                    log.log(Level.WARNING, "Failed to load saved session", e);
+                    session = new LocalSession();
+                }
+            }
 
-            for (Map.Entry<SessionKey, LocalSession> entry : sessions.entrySet()) {
-                SessionKey key = entry.getKey();
+            session.setConfiguration(config);
+            session.setBlockChangeLimit(config.defaultChangeLimit);
 
-                if (key.isPersistent()) {
-                    try {
-                        store.save(getKey(key), entry.getValue());
-                    } catch (IOException e) {
-                        log.log(Level.WARNING, "Failed to write session for UUID " + getKey(key), e);
-                        exception = e;
-                    }
+            // Remember the session if the session is still active
+            if (sessionKey.isActive()) {
+                SessionHolder holder = new SessionHolder(sessionKey, session);
+                sessions.put(key, holder);
+                String name = sessionKey.getName();
+                if (name != null) {
+                    sessionsByName.put(name, holder);
                 }
             }
 
-            if (exception != null) {
-                throw exception;
+            return session;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue a map of sessions to be saved to disk.
+     *
+     * @param sessions a map of sessions to save
+     */
+    private void commit(final Map<SessionKey, LocalSession> sessions) {
+        checkNotNull(sessions);
+
+        for (Map.Entry<SessionKey, LocalSession> entry : sessions.entrySet()) {
+            SessionKey key = entry.getKey();
+
+            if (key.isPersistent()) {
+                writer.submit(getKey(key), entry.getValue());
             }
+        }
+    }
 
-            return sessions;
-        });
+    /**
+     * Get the writer that saves sessions in the background, which reports
+     * the number of queued sessions and how long saving them takes.
+     *
+     * @return the writer
+     */
+    public AsyncSessionWriter getWriter() {
+        return writer;
     }
 
     /**
@@ -261,47 +283,78 @@ protected UUID getKey(SessionKey key) {
      *
      * @param owner the owner
      */
-    public synchronized void remove(SessionOwner owner) {
+    public void remove(SessionOwner owner) {
         checkNotNull(owner);
-        sessions.remove(getKey(owner));
+        SessionHolder holder = sessions.remove(getKey(owner));
+        if (holder != null) {
+            removeName(holder);
+        }
+    }
+
+    private void removeName(SessionHolder holder) {
+        String name = holder.key.getName();
+        if (name != null) {
+            sessionsByName.remove(name, holder);
+        }
     }
 
     /**
      * Called to unload this session manager.
+     *
+     * <p>Every session is saved and the writer thread is stopped before
+     * this returns.</p>
      */
-    public synchronized void unload() {
+    public void unload() {
         clear();
+
+        try {
+            if (!writer.shutdown(UNLOAD_TIMEOUT, TimeUnit.SECONDS)) {
+                log.log(Level.WARNING, "Timed out while saving sessions; " + writer.getQueueDepth() + " session(s) may not have been saved");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
      * Remove all sessions.
+     *
+     * <p>Changed sessions are queued to be saved. Until they have been
+     * written, loading one of them again returns the queued session rather
+     * than the older copy on disk.</p>
      */
-    public synchronized void clear() {
-        saveChangedSessions();
-        sessions.clear();
+    public void clear() {
+        saveChangedSessions(true);
     }
 
-    private synchronized void saveChangedSessions() {
+    /**
+     * Queue dirty sessions to be saved and forget sessions that have been
+     * inactive for longer than {@link #EXPIRATION_GRACE}.
+     *
+     * <p>Expiry is decided from each session's own timestamp, so sessions
+     * may be looked up and created by other threads in the meantime. A
+     * session is only forgotten under its key's load lock, after checking
+     * again that its owner has not become active.</p>
+     *
+     * @param removeAll true to forget every session
+     */
+    private void saveChangedSessions(boolean removeAll) {
         long now = System.currentTimeMillis();
-        Iterator<SessionHolder> it = sessions.values().iterator();
         Map<SessionKey, LocalSession> saveQueue = new HashMap<>();
 
-        while (it.hasNext()) {
-            SessionHolder stored = it.next();
-            if (stored.key.isActive()) {
+        for (Map.Entry<UUID, SessionHolder> entry : sessions.entrySet()) {
+            SessionHolder stored = entry.getValue();
+            boolean active = stored.key.isActive();
+            if (active) {
                 stored.lastActive = now;
+            }
 
-                if (stored.session.compareAndResetDirty()) {
+            if (removeAll || (!active && now - stored.lastActive > EXPIRATION_GRACE)) {
+                if (expire(entry.getKey(), stored, removeAll) && stored.session.compareAndResetDirty()) {
                     saveQueue.put(stored.key, stored.session);
                 }
-            } else {
-                if (now - stored.lastActive > EXPIRATION_GRACE) {
-                    if (stored.session.compareAndResetDirty()) {
-                        saveQueue.put(stored.key, stored.session);
-                    }
-
-                    it.remove();
-                }
+            } else if (active && stored.session.compareAndResetDirty()) {
+                saveQueue.put(stored.key, stored.session);
             }
         }
 
@@ -310,11 +363,39 @@ private synchronized void saveChangedSessions() {
         }
     }
 
+    /**
+     * Forget a stored session, unless it was replaced in the meantime or,
+     * when not forced, its owner has become active again.
+     *
+     * @param key the key the session is stored under
+     * @param stored the stored session
+     * @param force true to forget the session even if its owner is active
+     * @return true if the session was forgotten
+     */
+    private boolean expire(UUID key, SessionHolder stored, boolean force) {
+        Lock lock = loadLocks.get(key);
+        lock.lock();
+        try {
+            // The owner may have reconnected since the session was checked
+            if (!force && stored.key.isActive()) {
+                return false;
+            }
+            if (!sessions.remove(key, stored)) {
+                return false;
+            }
+            removeName(stored);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Subscribe
     public void onConfigurationLoad(ConfigurationLoadEvent event) {
         LocalConfiguration config = event.getConfiguration();
         File dir = new File(config.getWorkingDirectory(), "sessions");
-        store = new JsonFileSessionStore(dir);
+        store = new BinaryFileSessionStore(dir);
+        writer.setStore(store);
     }
 
     /**
@@ -323,7 +404,7 @@ public void onConfigurationLoad(ConfigurationLoadEvent event) {
     private static class SessionHolder {
         private final SessionKey key;
         private final LocalSession session;
-        private long lastActive = System.currentTimeMillis();
+        private volatile long lastActive = System.currentTimeMillis();
 
         private SessionHolder(SessionKey key, LocalSession session) {
             this.key = key;
@@ -338,9 +419,7 @@ private SessionHolder(SessionKey key, LocalSession session) {
     private class SessionTracker extends TimerTask {
         @Override
         public void run() {
-            synchronized (SessionManager.this) {
-                saveChangedSessions();
-            }
+            saveChangedSessions(false);
         }
     }
 
@@ -0,0 +1,272 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.session.storage;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sk89q.worldedit.LocalSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes sessions to a {@link SessionStore} on a background thread.
+ *
+ * <p>Sessions are queued by ID, so a session that is queued again before
+ * it is written is only written once, with its latest state. Queued
+ * sessions are written in batches. A session stays visible through
+ * {@link #getPending(UUID)} until it has been written, so it can be used
+ * in place of the older copy in the store.</p>
+ *
+ * <p>The writer thread is started when it is first needed and stopped by
+ * {@link #shutdown(long, TimeUnit)}.</p>
+ */
+public class AsyncSessionWriter {
+
+    private static final Logger log = Logger.getLogger(AsyncSessionWriter.class.getCanonicalName());
+
+    private final Map<UUID, Queued> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile SessionStore store;
+    @Nullable private ExecutorService executor;
+
+    /**
+     * Create a new writer.
+     *
+     * @param store the store to write to
+     */
+    public AsyncSessionWriter(SessionStore store) {
+        setStore(store);
+    }
+
+    /**
+     * Get the store that sessions are written to.
+     *
+     * @return the store
+     */
+    public SessionStore getStore() {
+        return store;
+    }
+
+    /**
+     * Set the store that sessions are written to.
+     *
+     * @param store the store
+     */
+    public void setStore(SessionStore store) {
+        checkNotNull(store);
+        this.store = store;
+    }
+
+    /**
+     * Queue a session to be written.
+     *
+     * @param id the UUID
+     * @param session the session
+     */
+    public void submit(UUID id, LocalSession session) {
+        checkNotNull(id);
+        checkNotNull(session);
+        pending.put(id, new Queued(session));
+        if (scheduled.compareAndSet(false, true)) {
+            getExecutor().execute(this::drain);
+        }
+    }
+
+    /**
+     * Get the session that is queued to be written for an ID, which is
+     * newer than the session in the store.
+     *
+     * @param id the UUID
+     * @return the session, or {@code null} if none is waiting to be written
+     */
+    @Nullable
+    public LocalSession getPending(UUID id) {
+        checkNotNull(id);
+        Queued queued = pending.get(id);
+        return queued != null ? queued.session : null;
+    }
+
+    /**
+     * Write all queued sessions, and wait until they have been written.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if everything was written within the timeout
+     * @throws InterruptedException thrown if interrupted while waiting
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        Future<?> future = getExecutor().submit(this::drain);
+        try {
+            future.get(timeout, unit);
+            return true;
+        } catch (ExecutionException e) {
+            log.log(Level.WARNING, "Failed to flush sessions", e.getCause());
+            return false;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write all queued sessions and stop the writer thread.
+     *
+     * <p>Sessions that are queued afterwards start a new thread.</p>
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if everything was written within the timeout
+     * @throws InterruptedException thrown if interrupted while waiting
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        boolean flushed = flush(timeout, unit);
+        ExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            if (!executor.awaitTermination(timeout, unit)) {
+                executor.shutdownNow();
+                return false;
+            }
+        }
+        return flushed && pending.isEmpty();
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("WorldEdit Session Writer").build());
+        }
+        return executor;
+    }
+
+    private void drain() {
+        scheduled.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        SessionStore store = this.store;
+        long start = System.nanoTime();
+        for (Map.Entry<UUID, Queued> entry : pending.entrySet()) {
+            // Take whatever was queued last for this ID
+            UUID id = entry.getKey();
+            Queued queued = entry.getValue();
+            try {
+                store.save(id, queued.session);
+                written.incrementAndGet();
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                log.log(Level.WARNING, "Failed to write session for UUID " + id, e);
+            }
+            // Keep the entry if it was queued again while it was written
+            pending.remove(id, queued);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos.set(elapsed);
+        totalFlushNanos.addAndGet(elapsed);
+        batches.incrementAndGet();
+    }
+
+    /**
+     * Get the number of sessions waiting to be written.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    /**
+     * Get the number of sessions that have been written.
+     *
+     * @return the number of sessions
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Get the number of session writes that have failed.
+     *
+     * @return the number of failures
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Get how long the most recent batch took to write.
+     *
+     * @param unit the unit to return the time in
+     * @return the time
+     */
+    public long getLastFlushLatency(TimeUnit unit) {
+        return unit.convert(lastFlushNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get how long a batch took to write on average.
+     *
+     * @param unit the unit to return the time in
+     * @return the time
+     */
+    public long getAverageFlushLatency(TimeUnit unit) {
+        long count = batches.get();
+        return count == 0 ? 0 : unit.convert(totalFlushNanos.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * One submission of a session, compared by identity so that a session
+     * that is queued again is not mistaken for the one being written.
+     */
+    private static final class Queued {
+        private final LocalSession session;
+
+        private Queued(LocalSession session) {
+            this.session = session;
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.session.storage;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.LocalSession;
+import com.sk89q.worldedit.regions.selector.RegionSelectorType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores sessions as compressed binary files in a directory.
+ *
+ * <p>Sessions that were saved by {@link JsonFileSessionStore} in the same
+ * directory are still loaded, and are replaced by a binary file the next
+ * time they are saved.</p>
+ */
+public class BinaryFileSessionStore implements SessionStore {
+
+    private static final Logger log = Logger.getLogger(BinaryFileSessionStore.class.getCanonicalName());
+    private static final int MAGIC = 0x57455353; // "WESS"
+    private static final int VERSION = 1;
+
+    private static final int HAS_LAST_SCRIPT = 1;
+    private static final int HAS_DEFAULT_SELECTOR = 1 << 1;
+    private static final int USE_SERVER_CUI = 1 << 2;
+
+    private final File dir;
+    private final JsonFileSessionStore legacyStore;
+
+    /**
+     * Create a new session store.
+     *
+     * @param dir the directory
+     */
+    public BinaryFileSessionStore(File dir) {
+        checkNotNull(dir);
+        this.legacyStore = new JsonFileSessionStore(dir);
+        this.dir = dir;
+    }
+
+    /**
+     * Get the path for the given UUID.
+     *
+     * @param id the ID
+     * @return the file
+     */
+    private File getPath(UUID id) {
+        checkNotNull(id);
+        return new File(dir, id + ".session");
+    }
+
+    @Override
+    public LocalSession load(UUID id) throws IOException {
+        File file = getPath(id);
+        if (!file.exists()) {
+            return legacyStore.load(id);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a WorldEdit session file: " + file.getPath());
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported session file version " + version + ": " + file.getPath());
+            }
+
+            DataInputStream body = new DataInputStream(new GZIPInputStream(in));
+            int flags = body.readUnsignedByte();
+            LocalSession session = new LocalSession();
+            if ((flags & HAS_LAST_SCRIPT) != 0) {
+                session.setLastScript(body.readUTF());
+            }
+            if ((flags & HAS_DEFAULT_SELECTOR) != 0) {
+                String name = body.readUTF();
+                try {
+                    session.setDefaultRegionSelector(RegionSelectorType.valueOf(name));
+                } catch (IllegalArgumentException e) {
+                    log.log(Level.WARNING, "Unknown default selector '" + name + "' in " + file.getPath());
+                }
+            }
+            session.setUseServerCUI((flags & USE_SERVER_CUI) != 0);
+
+            // Nothing has changed since the session was stored
+            session.compareAndResetDirty();
+            return session;
+        }
+    }
+
+    @Override
+    public void save(UUID id, LocalSession session) throws IOException {
+        File finalFile = getPath(id);
+        File tempFile = new File(finalFile.getParentFile(), finalFile.getName() + ".tmp");
+
+        String lastScript = session.getLastScript();
+        RegionSelectorType defaultSelector = session.getDefaultRegionSelector();
+        int flags = 0;
+        if (lastScript != null) {
+            flags |= HAS_LAST_SCRIPT;
+        }
+        if (defaultSelector != null) {
+            flags |= HAS_DEFAULT_SELECTOR;
+        }
+        if (session.shouldUseServerCUI()) {
+            flags |= USE_SERVER_CUI;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+
+            GZIPOutputStream compressed = new GZIPOutputStream(out);
+            DataOutputStream body = new DataOutputStream(compressed);
+            body.writeByte(flags);
+            if (lastScript != null) {
+                body.writeUTF(lastScript);
+            }
+            if (defaultSelector != null) {
+                body.writeUTF(defaultSelector.name());
+            }
+            body.flush();
+            compressed.finish();
+        }
+
+        try {
+            Files.move(tempFile.toPath(), finalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), finalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        File legacyFile = new File(dir, id + ".json");
+        if (legacyFile.exists() && !legacyFile.delete()) {
+            log.log(Level.WARNING, "Failed to delete old session file " + legacyFile.getPath());
+        }
+    }
+
+}
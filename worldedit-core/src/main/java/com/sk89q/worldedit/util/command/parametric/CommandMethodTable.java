@@ -0,0 +1,112 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.command.parametric;
+
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+
+import javax.annotation.Nullable;
+
+/**
+ * Parameter names and direct invokers for the {@code @Command} methods of a
+ * class, generated at build time by the command method processor.
+ *
+ * <p>The generated implementation for a class {@code com.example.Foo} is
+ * named {@code com.example.Foo_CommandMethods}. When it is present,
+ * {@link ParametricBuilder} uses it instead of reading parameter names out
+ * of the class file and calling methods through reflection. When it is
+ * absent (for example, for classes compiled without the processor), the
+ * reflective path is used as before.</p>
+ */
+public interface CommandMethodTable {
+
+    /**
+     * The suffix appended to the binary name of a class to get the name of
+     * its generated table.
+     */
+    String SUFFIX = "_CommandMethods";
+
+    /**
+     * Get the index of the method with the given key.
+     *
+     * @param key the key, as returned by {@link #getKey(Method)}
+     * @return the index, or -1 if the method is not in this table
+     */
+    int indexOf(String key);
+
+    /**
+     * Get the source names of the parameters of a method.
+     *
+     * @param index the index of the method
+     * @return the parameter names
+     */
+    String[] getParameterNames(int index);
+
+    /**
+     * Invoke a method directly.
+     *
+     * @param target the object to invoke on, ignored for static methods
+     * @param index the index of the method
+     * @param args the arguments
+     * @throws Exception anything thrown by the method itself
+     */
+    void invoke(@Nullable Object target, int index, Object[] args) throws Exception;
+
+    /**
+     * Get the key of a method, which is its name followed by the erased
+     * type names of its parameters, such as
+     * {@code set(com.sk89q.worldedit.entity.Player,java.lang.String[])}.
+     *
+     * @param method the method
+     * @return the key
+     */
+    static String getKey(Method method) {
+        StringJoiner joiner = new StringJoiner(",", method.getName() + "(", ")");
+        for (Class<?> type : method.getParameterTypes()) {
+            joiner.add(type.getTypeName());
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Find the generated table for a class.
+     *
+     * @param type the class
+     * @return the table, or null if none was generated
+     */
+    @Nullable
+    static CommandMethodTable find(Class<?> type) {
+        Class<?> tableClass;
+        try {
+            tableClass = Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+        if (!CommandMethodTable.class.isAssignableFrom(tableClass)) {
+            return null;
+        }
+        try {
+            return (CommandMethodTable) tableClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+}
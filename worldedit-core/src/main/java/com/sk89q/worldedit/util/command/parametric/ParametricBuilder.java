@@ -45,6 +45,8 @@
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 /**
  * Creates commands using annotations placed on methods and individual parameters of
  * such methods.
@@ -56,6 +58,7 @@ public class ParametricBuilder {
 
     private final Map<Type, Binding> bindings = new HashMap<>();
     private final Paranamer paranamer = new CachingParanamer();
+    private final Map<Class<?>, CommandMethodTable> methodTables = new HashMap<>();
     private final List<InvokeListener> invokeListeners = new ArrayList<>();
     private Authorizer authorizer = new NullAuthorizer();
     private CommandCompleter defaultCompleter = new NullCompleter();
@@ -169,6 +172,23 @@ Paranamer getParanamer() {
         return paranamer;
     }
     
+    /**
+     * Get the generated {@link CommandMethodTable} for a class, looking it up
+     * the first time the class is seen.
+     *
+     * @param type the class
+     * @return the table, or null if the class was compiled without one
+     */
+    @Nullable
+    CommandMethodTable getMethodTable(Class<?> type) {
+        if (methodTables.containsKey(type)) {
+            return methodTables.get(type);
+        }
+        CommandMethodTable table = CommandMethodTable.find(type);
+        methodTables.put(type, table);
+        return table;
+    }
+
     /**
      * Get the map of bindings.
      * 
@@ -45,6 +45,8 @@
 import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 /**
  * The implementation of a {@link CommandCallable} for the {@link ParametricBuilder}.
  */
@@ -53,6 +55,9 @@ class ParametricCallable implements CommandCallable {
     private final ParametricBuilder builder;
     private final Object object;
     private final Method method;
+    @Nullable
+    private final CommandMethodTable methodTable;
+    private final int methodIndex;
     private final ParameterData[] parameters;
     private final Set<Character> valueFlags = new HashSet<>();
     private final boolean anyFlags;
@@ -74,8 +79,17 @@ class ParametricCallable implements CommandCallable {
         this.object = object;
         this.method = method;
         
+        // Prefer the table generated at build time, which saves parsing the
+        // class file for names and calling through reflection
+        CommandMethodTable table = builder.getMethodTable(method.getDeclaringClass());
+        int index = table != null ? table.indexOf(CommandMethodTable.getKey(method)) : -1;
+        this.methodTable = index != -1 ? table : null;
+        this.methodIndex = index;
+
         Annotation[][] annotations = method.getParameterAnnotations();
-        String[] names = builder.getParanamer().lookupParameterNames(method, false);
+        String[] names = methodTable != null
+                ? methodTable.getParameterNames(methodIndex)
+                : builder.getParanamer().lookupParameterNames(method, false);
         Type[] types = method.getGenericParameterTypes();
         parameters = new ParameterData[types.length];
         List<Parameter> userParameters = new ArrayList<>();
@@ -240,7 +254,7 @@ public Object call(String stringArguments, CommandLocals locals, String[] parent
             }
 
             // Execute!
-            method.invoke(object, args);
+            invoke(args);
 
             // postInvoke handlers
             for (InvokeHandler handler : handlers) {
@@ -267,6 +281,26 @@ public Object call(String stringArguments, CommandLocals locals, String[] parent
         return true;
     }
 
+    /**
+     * Invoke the method, through the generated table if there is one.
+     *
+     * @param args the arguments
+     * @throws InvocationTargetException thrown if the method throws
+     * @throws IllegalAccessException thrown if the method is inaccessible
+     */
+    private void invoke(Object[] args) throws InvocationTargetException, IllegalAccessException {
+        if (methodTable != null) {
+            try {
+                methodTable.invoke(object, methodIndex, args);
+            } catch (Throwable t) {
+                // Match Method.invoke() so the handling in call() is the same
+                throw new InvocationTargetException(t);
+            }
+        } else {
+            method.invoke(object, args);
+        }
+    }
+
     @Override
     public List<String> getSuggestions(String arguments, CommandLocals locals) throws CommandException {
         return builder.getDefaultCompleter().getSuggestions(arguments, locals);
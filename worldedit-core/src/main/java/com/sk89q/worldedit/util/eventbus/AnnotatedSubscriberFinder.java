@@ -56,7 +56,7 @@ public Multimap<Class<?>, EventHandler> findAllSubscribers(Object listener) {
                                         "must require a single argument.");
                     }
                     Class<?> eventType = parameterTypes[0];
-                    EventHandler handler = new MethodEventHandler(annotation.priority(), listener, method);
+                    EventHandler handler = new MethodHandleEventHandler(annotation.priority(), listener, method);
                     methodsInListener.put(eventType, handler);
                 }
             }
@@ -36,6 +36,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,9 +48,10 @@
  * and events are dispatched at the time of call, rather than being queued up.
  * This does allow dispatching during an in-progress dispatch.</p>
  *
- * <p>This implementation utilizes naive synchronization on all getter and
- * setter methods. Dispatch does not occur when a lock has been acquired,
- * however.</p>
+ * <p>Changes to the registered handlers are synchronized. For every event
+ * class that is posted, the sorted list of handlers to call is built once
+ * and kept until the handlers change, so posting does not take a lock.
+ * Dispatch does not occur when a lock has been acquired.</p>
  */
 public class EventBus {
 
@@ -68,6 +70,12 @@ public class EventBus {
     @RequiresNewerGuava
     private HierarchyCache flattenHierarchyCache = new HierarchyCache();
 
+    /**
+     * The handlers to call for each posted event class, sorted by priority.
+     * The whole map is replaced whenever the registered handlers change.
+     */
+    private volatile Map<Class<?>, EventHandler[]> dispatchCache = new ConcurrentHashMap<>();
+
     /**
      * Registers the given handler for the given class to receive events.
      *
@@ -78,6 +86,7 @@ public synchronized void subscribe(Class<?> clazz, EventHandler handler) {
         checkNotNull(clazz);
         checkNotNull(handler);
         handlersByType.put(clazz, handler);
+        invalidateDispatchCache();
     }
 
     /**
@@ -88,6 +97,7 @@ public synchronized void subscribe(Class<?> clazz, EventHandler handler) {
     public synchronized void subscribeAll(Multimap<Class<?>, EventHandler> handlers) {
         checkNotNull(handlers);
         handlersByType.putAll(handlers);
+        invalidateDispatchCache();
     }
 
     /**
@@ -100,6 +110,7 @@ public synchronized void unsubscribe(Class<?> clazz, EventHandler handler) {
         checkNotNull(clazz);
         checkNotNull(handler);
         handlersByType.remove(clazz, handler);
+        invalidateDispatchCache();
     }
 
     /**
@@ -113,10 +124,11 @@ public synchronized void unsubscribeAll(Multimap<Class<?>, EventHandler> handler
             Set<EventHandler> currentHandlers = getHandlersForEventType(entry.getKey());
             Collection<EventHandler> eventMethodsInListener = entry.getValue();
 
-            if (currentHandlers != null &&!currentHandlers.containsAll(entry.getValue())) {
+            if (currentHandlers != null) {
                 currentHandlers.removeAll(eventMethodsInListener);
             }
         }
+        invalidateDispatchCache();
     }
 
     /**
@@ -153,25 +165,50 @@ public void unregister(Object object) {
      * @param event  event to post.
      */
     public void post(Object event) {
-        List<EventHandler> dispatching = new ArrayList<>();
+        Map<Class<?>, EventHandler[]> cache = dispatchCache;
+        EventHandler[] dispatching = cache.get(event.getClass());
+        if (dispatching == null) {
+            dispatching = getDispatchHandlers(event.getClass());
+        }
 
-        synchronized (this) {
-            Set<Class<?>> dispatchTypes = flattenHierarchy(event.getClass());
+        for (EventHandler handler : dispatching) {
+            dispatch(event, handler);
+        }
+    }
 
-            for (Class<?> eventType : dispatchTypes) {
-                Set<EventHandler> wrappers = getHandlersForEventType(eventType);
+    /**
+     * Build and remember the sorted handlers for an event class.
+     *
+     * @param eventClass the event class
+     * @return the handlers
+     */
+    private synchronized EventHandler[] getDispatchHandlers(Class<?> eventClass) {
+        EventHandler[] dispatching = dispatchCache.get(eventClass);
+        if (dispatching != null) {
+            return dispatching;
+        }
+
+        List<EventHandler> handlers = new ArrayList<>();
+        for (Class<?> eventType : flattenHierarchy(eventClass)) {
+            Set<EventHandler> wrappers = getHandlersForEventType(eventType);
 
-                if (wrappers != null && !wrappers.isEmpty()) {
-                    dispatching.addAll(wrappers);
-                }
+            if (wrappers != null && !wrappers.isEmpty()) {
+                handlers.addAll(wrappers);
             }
         }
+        Collections.sort(handlers);
 
-        Collections.sort(dispatching);
+        dispatching = handlers.toArray(new EventHandler[handlers.size()]);
+        dispatchCache.put(eventClass, dispatching);
+        return dispatching;
+    }
 
-        for (EventHandler handler : dispatching) {
-            dispatch(event, handler);
-        }
+    /**
+     * Forget the handlers built for posted event classes. This must be
+     * called with the lock held after the registered handlers change.
+     */
+    private void invalidateDispatchCache() {
+        dispatchCache = new ConcurrentHashMap<>();
     }
 
     /**
@@ -0,0 +1,133 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.eventbus;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Dispatches an event to a method through a function that is bound when
+ * the handler is created, rather than through reflection on every event.
+ *
+ * <p>Public methods of public classes that are visible to WorldEdit are
+ * called through a class generated by {@link LambdaMetafactory}, which the
+ * JIT can inline like any other call. Other methods are called through a
+ * bound {@link MethodHandle}.</p>
+ */
+public class MethodHandleEventHandler extends MethodEventHandler {
+
+    private final EventSink sink;
+
+    /**
+     * Create a new event handler.
+     *
+     * @param priority the priority
+     * @param object the object to call the method on, or null for a static method
+     * @param method the method
+     */
+    public MethodHandleEventHandler(Priority priority, Object object, Method method) {
+        super(priority, object, method);
+        this.sink = bind(object, method);
+    }
+
+    @Override
+    public void dispatch(Object event) throws Exception {
+        try {
+            sink.accept(event);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    private static EventSink bind(Object object, Method method) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle;
+        try {
+            method.setAccessible(true);
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Can't access " + method, e);
+        }
+
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (canGenerate(method)) {
+            try {
+                Class<?> eventType = method.getParameterTypes()[0];
+                MethodType sinkType = isStatic
+                        ? MethodType.methodType(EventSink.class)
+                        : MethodType.methodType(EventSink.class, method.getDeclaringClass());
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept", sinkType,
+                        MethodType.methodType(void.class, Object.class), handle,
+                        MethodType.methodType(void.class, eventType));
+                return isStatic
+                        ? (EventSink) site.getTarget().invoke()
+                        : (EventSink) site.getTarget().invoke(object);
+            } catch (Throwable ignored) {
+                // Fall back to the method handle
+            }
+        }
+
+        MethodHandle bound = (isStatic ? handle : handle.bindTo(object))
+                .asType(MethodType.methodType(void.class, Object.class));
+        return event -> {
+            bound.invokeExact(event);
+        };
+    }
+
+    /**
+     * Return whether a class that calls the method directly can be
+     * generated next to this class.
+     */
+    private static boolean canGenerate(Method method) {
+        if (!Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+        for (Class<?> type : new Class<?>[] { method.getDeclaringClass(), method.getParameterTypes()[0] }) {
+            if (!Modifier.isPublic(type.getModifiers()) || !isVisible(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, MethodHandleEventHandler.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Receives an event.
+     */
+    @FunctionalInterface
+    interface EventSink {
+        void accept(Object event) throws Throwable;
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.metrics;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects timings and counters for a single edit session.
+ *
+ * <p>Stages are added from the top of the extent chain downwards, so the
+ * first stage sees every read and write made by the caller, and each
+ * stage's time includes the time of the stages after it.</p>
+ */
+public class EditMetrics {
+
+    private final long startNanos = System.nanoTime();
+    private final List<StageMetrics> stages = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram worldWrites = new LatencyHistogram();
+    private final LatencyHistogram chunkChecks = new LatencyHistogram();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAdder avoidedChunkLoads = new LongAdder();
+
+    /**
+     * Add a stage below the stages that were already added.
+     *
+     * @param name the name of the stage
+     * @return the new stage
+     */
+    public StageMetrics addStage(String name) {
+        StageMetrics stage = new StageMetrics(name);
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Get the stages, from the top of the chain downwards.
+     *
+     * @return the stages
+     */
+    public List<StageMetrics> getStages() {
+        return ImmutableList.copyOf(stages);
+    }
+
+    /**
+     * Get the histogram of the time taken by the world to set a block.
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getWorldWrites() {
+        return worldWrites;
+    }
+
+    /**
+     * Get the histogram of the time taken to make sure that a chunk is
+     * loaded before it is written to.
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getChunkChecks() {
+        return chunkChecks;
+    }
+
+    /**
+     * Record a chunk that was loaded ahead of the edit, which the edit
+     * would otherwise have had to load synchronously.
+     */
+    public void recordAvoidedChunkLoad() {
+        avoidedChunkLoads.increment();
+    }
+
+    /**
+     * Get the number of synchronous chunk loads that were avoided by
+     * loading chunks ahead of the edit.
+     *
+     * @return the number of chunks
+     */
+    public long getAvoidedChunkLoads() {
+        return avoidedChunkLoads.sum();
+    }
+
+    /**
+     * Record the time taken to flush queued changes.
+     *
+     * @param nanos the time in nanoseconds
+     */
+    public void recordFlush(long nanos) {
+        flushNanos.add(nanos);
+    }
+
+    /**
+     * Get the time spent flushing queued changes.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getFlushNanos() {
+        return flushNanos.sum();
+    }
+
+    /**
+     * Get the time since these metrics were created.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hands reports of profiled commands to the registered {@link MetricsSink}s.
+ *
+ * <p>Profiling is turned on with the {@code profile} setting of the
+ * configuration.</p>
+ */
+public class MetricsManager {
+
+    private static final Logger log = Logger.getLogger(MetricsManager.class.getCanonicalName());
+
+    private final List<MetricsSink> sinks = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register a sink.
+     *
+     * @param sink the sink
+     */
+    public void addSink(MetricsSink sink) {
+        checkNotNull(sink);
+        sinks.add(sink);
+    }
+
+    /**
+     * Unregister a sink.
+     *
+     * @param sink the sink
+     */
+    public void removeSink(MetricsSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Pass a report to every registered sink.
+     *
+     * @param report the report
+     */
+    public void publish(MetricsReport report) {
+        checkNotNull(report);
+        for (MetricsSink sink : sinks) {
+            try {
+                sink.accept(report);
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Failed to pass a metrics report to " + sink, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable summary of the metrics of one profiled command.
+ */
+public class MetricsReport {
+
+    /**
+     * A rough size of one block change in memory, used to estimate the
+     * size of the history.
+     */
+    private static final long ESTIMATED_BYTES_PER_CHANGE = 96;
+
+    private final String label;
+    private final long elapsedNanos;
+    private final long flushNanos;
+    private final List<Stage> stages;
+    private final long worldWrites;
+    private final long worldWriteNanos;
+    private final long worldWriteMedianNanos;
+    private final long worldWrite99thNanos;
+    private final long chunkChecks;
+    private final long chunkCheckNanos;
+    private final long chunkCheck99thNanos;
+    private final long avoidedChunkLoads;
+    private final int historyChanges;
+
+    private MetricsReport(String label, EditMetrics metrics, int historyChanges) {
+        this.label = label;
+        this.elapsedNanos = metrics.getElapsedNanos();
+        this.flushNanos = metrics.getFlushNanos();
+        List<Stage> stages = new ArrayList<>();
+        for (StageMetrics stage : metrics.getStages()) {
+            stages.add(new Stage(stage.getName(), stage.getReads(), stage.getWrites(), stage.getNanos()));
+        }
+        this.stages = ImmutableList.copyOf(stages);
+        LatencyHistogram writes = metrics.getWorldWrites();
+        this.worldWrites = writes.getCount();
+        this.worldWriteNanos = writes.getTotalNanos();
+        this.worldWriteMedianNanos = writes.getPercentileNanos(0.5);
+        this.worldWrite99thNanos = writes.getPercentileNanos(0.99);
+        LatencyHistogram checks = metrics.getChunkChecks();
+        this.chunkChecks = checks.getCount();
+        this.chunkCheckNanos = checks.getTotalNanos();
+        this.chunkCheck99thNanos = checks.getPercentileNanos(0.99);
+        this.avoidedChunkLoads = metrics.getAvoidedChunkLoads();
+        this.historyChanges = historyChanges;
+    }
+
+    /**
+     * Create a report from the current state of the given metrics.
+     *
+     * @param label a label for the report, such as the command that was run
+     * @param metrics the metrics
+     * @param historyChanges the number of changes recorded in history
+     * @return a new report
+     */
+    public static MetricsReport create(String label, EditMetrics metrics, int historyChanges) {
+        checkNotNull(label);
+        checkNotNull(metrics);
+        return new MetricsReport(label, metrics, historyChanges);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getFlushNanos() {
+        return flushNanos;
+    }
+
+    /**
+     * Get the stages, from the top of the extent chain downwards.
+     *
+     * @return the stages
+     */
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    /**
+     * Get the number of blocks read by the edit.
+     *
+     * @return the number of reads
+     */
+    public long getBlocksRead() {
+        return stages.isEmpty() ? 0 : stages.get(0).getReads();
+    }
+
+    /**
+     * Get the number of blocks written by the edit.
+     *
+     * @return the number of writes
+     */
+    public long getBlocksWritten() {
+        return stages.isEmpty() ? 0 : stages.get(0).getWrites();
+    }
+
+    public long getWorldWrites() {
+        return worldWrites;
+    }
+
+    public long getWorldWriteNanos() {
+        return worldWriteNanos;
+    }
+
+    public long getWorldWriteMedianNanos() {
+        return worldWriteMedianNanos;
+    }
+
+    public long getWorldWrite99thNanos() {
+        return worldWrite99thNanos;
+    }
+
+    public long getChunkChecks() {
+        return chunkChecks;
+    }
+
+    public long getChunkCheckNanos() {
+        return chunkCheckNanos;
+    }
+
+    public long getAvoidedChunkLoads() {
+        return avoidedChunkLoads;
+    }
+
+    public int getHistoryChanges() {
+        return historyChanges;
+    }
+
+    /**
+     * Get a rough estimate of the memory used by the history of the edit.
+     *
+     * @return the estimate in bytes
+     */
+    public long getEstimatedHistoryBytes() {
+        return historyChanges * ESTIMATED_BYTES_PER_CHANGE;
+    }
+
+    /**
+     * Format this report as lines of text.
+     *
+     * @return the lines
+     */
+    public List<String> format() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%s: %s elapsed, %d read, %d written, %s flushing queued blocks",
+                label, time(elapsedNanos), getBlocksRead(), getBlocksWritten(), time(flushNanos)));
+        for (Stage stage : stages) {
+            lines.add(String.format(Locale.ROOT, "  %s: %s (%d reads, %d writes)",
+                    stage.getName(), time(stage.getNanos()), stage.getReads(), stage.getWrites()));
+        }
+        lines.add(String.format(Locale.ROOT, "  world writes: %d in %s, median < %s, 99th < %s",
+                worldWrites, time(worldWriteNanos), time(worldWriteMedianNanos), time(worldWrite99thNanos)));
+        lines.add(String.format(Locale.ROOT, "  chunk load checks: %d in %s, 99th < %s, %d loads avoided by prefetching",
+                chunkChecks, time(chunkCheckNanos), time(chunkCheck99thNanos), avoidedChunkLoads));
+        lines.add(String.format(Locale.ROOT, "  history: %d changes (~%d KiB)",
+                historyChanges, getEstimatedHistoryBytes() / 1024));
+        return lines;
+    }
+
+    private static String time(long nanos) {
+        if (nanos < 1000000) {
+            return String.format(Locale.ROOT, "%.1fus", nanos / 1000.0);
+        } else if (nanos < 1000000000) {
+            return String.format(Locale.ROOT, "%.1fms", nanos / 1000000.0);
+        } else {
+            return String.format(Locale.ROOT, "%.2fs", nanos / 1000000000.0);
+        }
+    }
+
+    /**
+     * A snapshot of one {@link StageMetrics}.
+     */
+    public static final class Stage {
+        private final String name;
+        private final long reads;
+        private final long writes;
+        private final long nanos;
+
+        private Stage(String name, long reads, long writes, long nanos) {
+            this.name = name;
+            this.reads = reads;
+            this.writes = writes;
+            this.nanos = nanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getReads() {
+            return reads;
+        }
+
+        public long getWrites() {
+            return writes;
+        }
+
+        /**
+         * Get the time spent in this stage and the stages below it.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+}
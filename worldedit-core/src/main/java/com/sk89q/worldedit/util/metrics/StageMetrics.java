@@ -0,0 +1,103 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the block reads and writes that pass through one point of an
+ * extent chain, and the time spent below that point.
+ */
+public class StageMetrics {
+
+    private final String name;
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    /**
+     * Create a new instance.
+     *
+     * @param name the name of the stage
+     */
+    public StageMetrics(String name) {
+        checkNotNull(name);
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the stage.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record a block read.
+     *
+     * @param nanos the time taken
+     */
+    public void recordRead(long nanos) {
+        reads.increment();
+        this.nanos.add(nanos);
+    }
+
+    /**
+     * Record a block write.
+     *
+     * @param nanos the time taken
+     */
+    public void recordWrite(long nanos) {
+        writes.increment();
+        this.nanos.add(nanos);
+    }
+
+    /**
+     * Get the number of blocks read.
+     *
+     * @return the number of reads
+     */
+    public long getReads() {
+        return reads.sum();
+    }
+
+    /**
+     * Get the number of blocks written.
+     *
+     * @return the number of writes
+     */
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    /**
+     * Get the time spent in this stage and the stages below it.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+}
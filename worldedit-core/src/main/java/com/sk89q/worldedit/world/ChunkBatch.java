@@ -0,0 +1,235 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.world;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.world.FastModeExtent;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Collects the block changes of an edit in fast mode so that a world can
+ * write them a chunk at a time.
+ *
+ * <p>A batch is created by {@link World#createChunkBatch()} for a single
+ * {@link FastModeExtent}, which applies it when its edit session commits.
+ * Changes made directly through
+ * {@link World#setBlock(Vector, BlockStateHolder, boolean)} are never
+ * buffered.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+public abstract class ChunkBatch {
+
+    private final int sectionCount;
+    private final Map<Long, BatchChunk> chunks = new LinkedHashMap<>();
+    @Nullable private BatchChunk last;
+
+    /**
+     * Create a new instance.
+     *
+     * @param height the height of the world, with blocks from Y 0 up to but excluding it
+     */
+    protected ChunkBatch(int height) {
+        checkArgument(height > 0, "height > 0 required");
+        this.sectionCount = (height + 15) >> 4;
+    }
+
+    /**
+     * Return whether there are no buffered changes.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    /**
+     * Buffer a block change, replacing any change buffered at the same
+     * position.
+     *
+     * @param position the position
+     * @param block the block, which keeps its NBT data
+     * @return true if buffered, false if the position is outside of the world
+     */
+    public boolean set(Vector position, BlockStateHolder block) {
+        checkNotNull(position);
+        checkNotNull(block);
+        int y = position.getBlockY();
+        if (y < 0 || y >> 4 >= sectionCount) {
+            return false;
+        }
+        if (!(block instanceof BaseBlock && ((BaseBlock) block).hasNbtData())) {
+            block = block.toImmutableState();
+        }
+        int x = position.getBlockX();
+        int z = position.getBlockZ();
+        getChunk(x >> 4, z >> 4, true).getSection(y >> 4, true)[index(x, y, z)] = block;
+        return true;
+    }
+
+    /**
+     * Get the change buffered at a position.
+     *
+     * @param position the position
+     * @return the buffered block, or null if there is no change buffered
+     */
+    @Nullable
+    public BlockStateHolder get(Vector position) {
+        checkNotNull(position);
+        int y = position.getBlockY();
+        if (y < 0 || y >> 4 >= sectionCount) {
+            return null;
+        }
+        int x = position.getBlockX();
+        int z = position.getBlockZ();
+        BatchChunk chunk = getChunk(x >> 4, z >> 4, false);
+        BlockStateHolder[] section = chunk != null ? chunk.getSection(y >> 4) : null;
+        return section != null ? section[index(x, y, z)] : null;
+    }
+
+    /**
+     * Write every buffered change, in the order that the chunks were first
+     * changed, and empty the batch.
+     */
+    public void flush() {
+        List<BatchChunk> pending = new ArrayList<>(chunks.values());
+        clear();
+        for (BatchChunk chunk : pending) {
+            apply(chunk);
+        }
+    }
+
+    /**
+     * Discard every buffered change without writing it.
+     */
+    public void clear() {
+        chunks.clear();
+        last = null;
+    }
+
+    /**
+     * Write the buffered changes of one chunk to the world.
+     *
+     * @param chunk the changes
+     */
+    protected abstract void apply(BatchChunk chunk);
+
+    @Nullable
+    private BatchChunk getChunk(int chunkX, int chunkZ, boolean create) {
+        BatchChunk chunk = last;
+        if (chunk != null && chunk.chunkX == chunkX && chunk.chunkZ == chunkZ) {
+            return chunk;
+        }
+        long key = (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+        chunk = chunks.get(key);
+        if (chunk == null) {
+            if (!create) {
+                return null;
+            }
+            chunk = new BatchChunk(chunkX, chunkZ, sectionCount);
+            chunks.put(key, chunk);
+        }
+        last = chunk;
+        return chunk;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+    }
+
+    /**
+     * The buffered changes of one chunk, kept in sections of 16x16x16
+     * blocks.
+     */
+    public static final class BatchChunk {
+
+        private final int chunkX;
+        private final int chunkZ;
+        private final BlockStateHolder[][] sections;
+
+        private BatchChunk(int chunkX, int chunkZ, int sectionCount) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.sections = new BlockStateHolder[sectionCount][];
+        }
+
+        /**
+         * Get the chunk X coordinate.
+         *
+         * @return the X coordinate
+         */
+        public int getX() {
+            return chunkX;
+        }
+
+        /**
+         * Get the chunk Z coordinate.
+         *
+         * @return the Z coordinate
+         */
+        public int getZ() {
+            return chunkZ;
+        }
+
+        /**
+         * Get the number of sections in the chunk.
+         *
+         * @return the number of sections
+         */
+        public int getSectionCount() {
+            return sections.length;
+        }
+
+        /**
+         * Get the changes of a section, indexed by
+         * {@code (y & 15) << 8 | (z & 15) << 4 | (x & 15)}, where positions
+         * without a change are null.
+         *
+         * @param sectionY the section Y coordinate
+         * @return the changes, or null if the section has no changes
+         */
+        @Nullable
+        public BlockStateHolder[] getSection(int sectionY) {
+            return sections[sectionY];
+        }
+
+        private BlockStateHolder[] getSection(int sectionY, boolean create) {
+            BlockStateHolder[] section = sections[sectionY];
+            if (section == null && create) {
+                section = new BlockStateHolder[16 * 16 * 16];
+                sections[sectionY] = section;
+            }
+            return section;
+        }
+
+    }
+
+}
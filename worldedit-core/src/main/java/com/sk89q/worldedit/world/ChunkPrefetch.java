@@ -0,0 +1,130 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.world;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.worldedit.BlockVector2D;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A set of chunks that a world was asked to load ahead of an edit.
+ *
+ * <p>The world marks each chunk as it becomes available, which may happen
+ * on another thread if the platform loads chunks asynchronously, and keeps
+ * the marked chunks loaded until the prefetch is closed.</p>
+ */
+public class ChunkPrefetch implements AutoCloseable {
+
+    private final Set<BlockVector2D> chunks;
+    private final Map<BlockVector2D, Boolean> loaded = new ConcurrentHashMap<>();
+    private final Runnable release;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Create a new instance.
+     *
+     * @param chunks the chunks that were requested
+     * @param release called once when the prefetch is closed
+     */
+    public ChunkPrefetch(Set<BlockVector2D> chunks, Runnable release) {
+        checkNotNull(chunks);
+        checkNotNull(release);
+        this.chunks = ImmutableSet.copyOf(chunks);
+        this.release = release;
+    }
+
+    /**
+     * Get the chunks that were requested.
+     *
+     * @return the chunk coordinates
+     */
+    public Set<BlockVector2D> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Mark a chunk as loaded and held by this prefetch.
+     *
+     * @param chunk the chunk coordinates
+     * @param wasLoaded true if the chunk was already loaded before it was requested
+     */
+    public void markLoaded(BlockVector2D chunk, boolean wasLoaded) {
+        checkNotNull(chunk);
+        if (chunks.contains(chunk) && !closed.get()) {
+            loaded.put(chunk, !wasLoaded);
+        }
+    }
+
+    /**
+     * Return whether the given chunk is loaded and held by this prefetch.
+     *
+     * @param chunk the chunk coordinates
+     * @return true if the chunk is loaded
+     */
+    public boolean isLoaded(BlockVector2D chunk) {
+        return !closed.get() && loaded.containsKey(chunk);
+    }
+
+    /**
+     * Return whether the given chunk was loaded by this prefetch, rather
+     * than having already been loaded when it was requested.
+     *
+     * @param chunk the chunk coordinates
+     * @return true if this prefetch loaded the chunk
+     */
+    public boolean wasLoadedByPrefetch(BlockVector2D chunk) {
+        return loaded.getOrDefault(chunk, false);
+    }
+
+    /**
+     * Get the number of requested chunks that are loaded so far.
+     *
+     * @return the number of loaded chunks
+     */
+    public int getLoadedCount() {
+        return loaded.size();
+    }
+
+    /**
+     * Return whether this prefetch has been closed.
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Release the chunks, allowing the world to unload them again.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+
+}
@@ -36,6 +36,10 @@
 import com.sk89q.worldedit.world.block.BlockType;
 import com.sk89q.worldedit.world.weather.WeatherType;
 
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
 /**
  * Represents a world (dimension).
  */
@@ -162,6 +166,41 @@ public interface World extends Extent {
      */
     void checkLoadedChunk(Vector position);
 
+    /**
+     * Request that the given chunks be loaded ahead of an edit, and kept
+     * loaded until the returned prefetch is closed.
+     *
+     * <p>Chunks are loaded asynchronously where the platform allows it, so
+     * callers should check {@link ChunkPrefetch#isLoaded(BlockVector2D)}
+     * and fall back to {@link #checkLoadedChunk(Vector)} for chunks that
+     * are not ready yet.</p>
+     *
+     * <p>The default implementation holds nothing, so every chunk goes
+     * through {@link #checkLoadedChunk(Vector)}.</p>
+     *
+     * @param chunks the chunk coordinates
+     * @return the prefetch, which must be closed once the edit is done
+     */
+    default ChunkPrefetch prefetchChunks(Set<BlockVector2D> chunks) {
+        return new ChunkPrefetch(chunks, () -> {});
+    }
+
+    /**
+     * Create a batch that collects the block changes of one edit session
+     * in fast mode, to be written a chunk at a time when the session
+     * commits.
+     *
+     * <p>The default implementation returns null, so fast mode changes are
+     * passed to {@link #setBlock(Vector, BlockStateHolder, boolean)} one at
+     * a time.</p>
+     *
+     * @return a new batch, or null if this world does not support batches
+     */
+    @Nullable
+    default ChunkBatch createChunkBatch() {
+        return null;
+    }
+
     /**
      * Fix the given chunks after fast mode was used.
      *
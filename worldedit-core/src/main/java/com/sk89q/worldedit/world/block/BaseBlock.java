@@ -187,6 +187,11 @@ public int hashCode() {
         return ret;
     }
 
+    @Override
+    public String getAsString() {
+        return blockState.getAsString();
+    }
+
     @Override
     public String toString() {
 //        if (getNbtData() != null) { // TODO Maybe make some JSON serialiser to make this not awful.
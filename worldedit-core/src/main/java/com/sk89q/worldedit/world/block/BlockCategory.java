@@ -25,6 +25,7 @@
 import com.sk89q.worldedit.registry.NamespacedRegistry;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A category of blocks. This is due to the splitting up of
@@ -34,10 +35,51 @@ public class BlockCategory extends Category<BlockType> {
 
     public static final NamespacedRegistry<BlockCategory> REGISTRY = new NamespacedRegistry<>("block tag");
 
+    /**
+     * Guards the category bits of every {@link BlockType}.
+     */
+    private static final Object BITS_LOCK = new Object();
+    private static final AtomicInteger nextSlot = new AtomicInteger();
+
+    private final int slot = nextSlot.getAndIncrement();
+
     public BlockCategory(final String id) {
         super(id);
     }
 
+    @Override
+    protected void onLoad(Set<BlockType> loaded) {
+        synchronized (BITS_LOCK) {
+            for (BlockType type : loaded) {
+                type.setInCategory(slot, true);
+            }
+        }
+    }
+
+    @Override
+    protected void onInvalidate(Set<BlockType> previous) {
+        synchronized (BITS_LOCK) {
+            for (BlockType type : previous) {
+                type.setInCategory(slot, false);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the BlockType is contained within this category.
+     *
+     * <p>Membership is answered from a bit kept on the type, which is set
+     * when the category is loaded.</p>
+     *
+     * @param blockType The block type
+     * @return If it's a part of this category
+     */
+    @Override
+    public boolean contains(BlockType blockType) {
+        getAll();
+        return blockType.isInCategory(slot);
+    }
+
     @Override
     protected Set<BlockType> load() {
         return WorldEdit.getInstance().getPlatformManager()
@@ -53,6 +95,6 @@ protected Set<BlockType> load() {
      * @return If it's a part of this category
      */
     public boolean contains(BlockStateHolder blockStateHolder) {
-        return this.getAll().contains(blockStateHolder.getBlockType());
+        return contains(blockStateHolder.getBlockType());
     }
 }
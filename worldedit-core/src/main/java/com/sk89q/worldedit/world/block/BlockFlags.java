@@ -0,0 +1,210 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.world.block;
+
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.worldedit.world.registry.BlockMaterial;
+
+import java.util.Set;
+
+/**
+ * Bits of the attribute word that every {@link BlockType} computes once,
+ * the first time that it is asked for one (see {@link BlockType#getFlags()}).
+ *
+ * <p>The word covers the boolean traits of the block's {@link BlockMaterial}
+ * and whether the block must be placed late when edits are reordered, so
+ * that hot loops can answer these questions with a single bit test.</p>
+ */
+public final class BlockFlags {
+
+    public static final long AIR = 1L;
+    public static final long FULL_CUBE = 1L << 1;
+    public static final long OPAQUE = 1L << 2;
+    public static final long POWER_SOURCE = 1L << 3;
+    public static final long LIQUID = 1L << 4;
+    public static final long SOLID = 1L << 5;
+    public static final long FRAGILE_WHEN_PUSHED = 1L << 6;
+    public static final long UNPUSHABLE = 1L << 7;
+    public static final long TICKS_RANDOMLY = 1L << 8;
+    public static final long MOVEMENT_BLOCKER = 1L << 9;
+    public static final long BURNABLE = 1L << 10;
+    public static final long TOOL_REQUIRED = 1L << 11;
+    public static final long REPLACED_DURING_PLACEMENT = 1L << 12;
+    public static final long TRANSLUCENT = 1L << 13;
+    public static final long HAS_CONTAINER = 1L << 14;
+
+    /**
+     * The block should be placed after other blocks.
+     */
+    public static final long PLACE_LAST = 1L << 32;
+
+    /**
+     * The block is attached to other blocks and should be placed at the
+     * very end.
+     */
+    public static final long PLACE_FINAL = 1L << 33;
+
+    /**
+     * Set on every computed word, so that a computed word is never zero.
+     */
+    static final long COMPUTED = 1L << 63;
+
+    private BlockFlags() {
+    }
+
+    /**
+     * Get the flags describing the boolean traits of a material.
+     *
+     * @param material the material, or null
+     * @return the flags
+     */
+    public static long of(BlockMaterial material) {
+        if (material == null) {
+            return 0;
+        } else if (material instanceof FlagBlockMaterial) {
+            return ((FlagBlockMaterial) material).getFlags();
+        }
+        long flags = 0;
+        if (material.isAir()) flags |= AIR;
+        if (material.isFullCube()) flags |= FULL_CUBE;
+        if (material.isOpaque()) flags |= OPAQUE;
+        if (material.isPowerSource()) flags |= POWER_SOURCE;
+        if (material.isLiquid()) flags |= LIQUID;
+        if (material.isSolid()) flags |= SOLID;
+        if (material.isFragileWhenPushed()) flags |= FRAGILE_WHEN_PUSHED;
+        if (material.isUnpushable()) flags |= UNPUSHABLE;
+        if (material.isTicksRandomly()) flags |= TICKS_RANDOMLY;
+        if (material.isMovementBlocker()) flags |= MOVEMENT_BLOCKER;
+        if (material.isBurnable()) flags |= BURNABLE;
+        if (material.isToolRequired()) flags |= TOOL_REQUIRED;
+        if (material.isReplacedDuringPlacement()) flags |= REPLACED_DURING_PLACEMENT;
+        if (material.isTranslucent()) flags |= TRANSLUCENT;
+        if (material.hasContainer()) flags |= HAS_CONTAINER;
+        return flags;
+    }
+
+    /**
+     * Compute the full attribute word of a block type.
+     *
+     * @param type the block type
+     * @return the flags, including {@link #COMPUTED}
+     */
+    static long compute(BlockType type) {
+        long flags = COMPUTED | of(type.getMaterial());
+        if (Placement.LAST.contains(type)) {
+            flags |= PLACE_LAST;
+        }
+        if (Placement.FINAL.contains(type)) {
+            flags |= PLACE_FINAL;
+        }
+        return flags;
+    }
+
+    /**
+     * Holds the placement lists, which are only built once the platform's
+     * block tags are available.
+     */
+    private static final class Placement {
+        private static final Set<BlockType> LAST = ImmutableSet.<BlockType>builder()
+                .addAll(BlockCategories.SAPLINGS.getAll())
+                .addAll(BlockCategories.FLOWER_POTS.getAll())
+                .addAll(BlockCategories.BUTTONS.getAll())
+                .addAll(BlockCategories.ANVIL.getAll()) // becomes relevant with asynchronous placement
+                .addAll(BlockCategories.WOODEN_PRESSURE_PLATES.getAll())
+                .addAll(BlockCategories.CARPETS.getAll())
+                .addAll(BlockCategories.RAILS.getAll())
+                .add(BlockTypes.BLACK_BED)
+                .add(BlockTypes.BLUE_BED)
+                .add(BlockTypes.BROWN_BED)
+                .add(BlockTypes.CYAN_BED)
+                .add(BlockTypes.GRAY_BED)
+                .add(BlockTypes.GREEN_BED)
+                .add(BlockTypes.LIGHT_BLUE_BED)
+                .add(BlockTypes.LIGHT_GRAY_BED)
+                .add(BlockTypes.LIME_BED)
+                .add(BlockTypes.MAGENTA_BED)
+                .add(BlockTypes.ORANGE_BED)
+                .add(BlockTypes.PINK_BED)
+                .add(BlockTypes.PURPLE_BED)
+                .add(BlockTypes.RED_BED)
+                .add(BlockTypes.WHITE_BED)
+                .add(BlockTypes.YELLOW_BED)
+                .add(BlockTypes.GRASS)
+                .add(BlockTypes.TALL_GRASS)
+                .add(BlockTypes.ROSE_BUSH)
+                .add(BlockTypes.DANDELION)
+                .add(BlockTypes.BROWN_MUSHROOM)
+                .add(BlockTypes.RED_MUSHROOM)
+                .add(BlockTypes.FERN)
+                .add(BlockTypes.LARGE_FERN)
+                .add(BlockTypes.OXEYE_DAISY)
+                .add(BlockTypes.AZURE_BLUET)
+                .add(BlockTypes.TORCH)
+                .add(BlockTypes.WALL_TORCH)
+                .add(BlockTypes.FIRE)
+                .add(BlockTypes.REDSTONE_WIRE)
+                .add(BlockTypes.CARROTS)
+                .add(BlockTypes.POTATOES)
+                .add(BlockTypes.WHEAT)
+                .add(BlockTypes.BEETROOTS)
+                .add(BlockTypes.COCOA)
+                .add(BlockTypes.LADDER)
+                .add(BlockTypes.LEVER)
+                .add(BlockTypes.REDSTONE_TORCH)
+                .add(BlockTypes.REDSTONE_WALL_TORCH)
+                .add(BlockTypes.SNOW)
+                .add(BlockTypes.NETHER_PORTAL)
+                .add(BlockTypes.END_PORTAL)
+                .add(BlockTypes.REPEATER)
+                .add(BlockTypes.VINE)
+                .add(BlockTypes.LILY_PAD)
+                .add(BlockTypes.NETHER_WART)
+                .add(BlockTypes.PISTON)
+                .add(BlockTypes.STICKY_PISTON)
+                .add(BlockTypes.TRIPWIRE_HOOK)
+                .add(BlockTypes.TRIPWIRE)
+                .add(BlockTypes.STONE_PRESSURE_PLATE)
+                .add(BlockTypes.HEAVY_WEIGHTED_PRESSURE_PLATE)
+                .add(BlockTypes.LIGHT_WEIGHTED_PRESSURE_PLATE)
+                .add(BlockTypes.COMPARATOR)
+                .add(BlockTypes.IRON_TRAPDOOR)
+                .add(BlockTypes.ACACIA_TRAPDOOR)
+                .add(BlockTypes.BIRCH_TRAPDOOR)
+                .add(BlockTypes.DARK_OAK_TRAPDOOR)
+                .add(BlockTypes.JUNGLE_TRAPDOOR)
+                .add(BlockTypes.OAK_TRAPDOOR)
+                .add(BlockTypes.SPRUCE_TRAPDOOR)
+                .add(BlockTypes.DAYLIGHT_DETECTOR)
+                .build();
+
+        private static final Set<BlockType> FINAL = ImmutableSet.<BlockType>builder()
+                .addAll(BlockCategories.DOORS.getAll())
+                .addAll(BlockCategories.BANNERS.getAll())
+                .add(BlockTypes.SIGN)
+                .add(BlockTypes.WALL_SIGN)
+                .add(BlockTypes.CACTUS)
+                .add(BlockTypes.SUGAR_CANE)
+                .add(BlockTypes.CAKE)
+                .add(BlockTypes.PISTON_HEAD)
+                .add(BlockTypes.MOVING_PISTON)
+                .build();
+    }
+
+}
@@ -37,6 +37,7 @@
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An immutable class that represents the state a block can be in.
@@ -44,9 +45,13 @@
 @SuppressWarnings("unchecked")
 public class BlockState implements BlockStateHolder<BlockState> {
 
+    private static final AtomicInteger nextInternalId = new AtomicInteger();
+
     private final BlockType blockType;
     private final Map<Property<?>, Object> values;
     private final boolean fuzzy;
+    private final int internalId;
+    private String asString;
 
     private BaseBlock emptyBaseBlock;
 
@@ -58,6 +63,7 @@ private BlockState(BlockType blockType) {
         this.values = new LinkedHashMap<>();
         this.emptyBaseBlock = new BaseBlock(this);
         this.fuzzy = false;
+        this.internalId = nextInternalId.getAndIncrement();
     }
 
     /**
@@ -70,6 +76,7 @@ private BlockState(BlockType blockType, Map<Property<?>, Object> values) {
         this.blockType = blockType;
         this.values = values;
         this.fuzzy = true;
+        this.internalId = -1;
     }
 
     static Map<Map<Property<?>, Object>, BlockState> generateStateMap(BlockType blockType) {
@@ -142,6 +149,29 @@ public BlockType getBlockType() {
         return this.blockType;
     }
 
+    /**
+     * Get an ID that uniquely identifies this state among all states
+     * created in this runtime.
+     *
+     * <p>IDs are dense and start at 0, so they can be used to index arrays,
+     * but they are not stable across restarts and must not be saved.
+     * Fuzzy states have an ID of -1.</p>
+     *
+     * @return the internal ID, or -1
+     */
+    public int getInternalId() {
+        return internalId;
+    }
+
+    /**
+     * Get an upper bound for the internal IDs assigned so far.
+     *
+     * @return one more than the highest internal ID
+     */
+    public static int getInternalIdCount() {
+        return nextInternalId.get();
+    }
+
     @Override
     public <V> BlockState with(final Property<V> property, final V value) {
         if (fuzzy) {
@@ -235,6 +265,19 @@ private BlockState setState(final Property<?> property, final Object value) {
         return this;
     }
 
+    @Override
+    public String getAsString() {
+        if (fuzzy) {
+            return BlockStateHolder.super.getAsString();
+        }
+        // The values of a non-fuzzy state never change, so the string only needs to be built once
+        String asString = this.asString;
+        if (asString == null) {
+            this.asString = asString = BlockStateHolder.super.getAsString();
+        }
+        return asString;
+    }
+
     @Override
     public String toString() {
         return getAsString();
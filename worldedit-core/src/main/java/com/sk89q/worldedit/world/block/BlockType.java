@@ -32,6 +32,7 @@
 import com.sk89q.worldedit.world.registry.LegacyMapper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -45,7 +46,9 @@ public class BlockType {
     private String id;
     private BlockState defaultState;
     private Map<String, ? extends Property> properties;
-    private BlockMaterial blockMaterial;
+    private volatile BlockMaterial blockMaterial;
+    private volatile long flags;
+    private volatile long[] categories = new long[0];
     private Map<Map<Property<?>, Object>, BlockState> blockStatesMap;
 
     public BlockType(String id) {
@@ -160,13 +163,84 @@ public ItemType getItemType() {
     /**
      * Get the material for this BlockType.
      *
+     * <p>The platform's material is copied the first time that it is
+     * requested, and its boolean traits are then answered from the
+     * type's {@link BlockFlags}.</p>
+     *
      * @return The material
      */
     public BlockMaterial getMaterial() {
-        if (this.blockMaterial == null) {
-            this.blockMaterial = WorldEdit.getInstance().getPlatformManager().queryCapability(Capability.GAME_HOOKS).getRegistries().getBlockRegistry().getMaterial(this);
+        BlockMaterial material = this.blockMaterial;
+        if (material == null) {
+            synchronized (this) {
+                material = this.blockMaterial;
+                if (material == null) {
+                    material = WorldEdit.getInstance().getPlatformManager().queryCapability(Capability.GAME_HOOKS).getRegistries().getBlockRegistry().getMaterial(this);
+                    if (material != null) {
+                        material = new FlagBlockMaterial(material);
+                        this.blockMaterial = material;
+                    }
+                }
+            }
+        }
+        return material;
+    }
+
+    /**
+     * Get the attribute word of this BlockType, made up of the bits in
+     * {@link BlockFlags}.
+     *
+     * @return the flags
+     */
+    public long getFlags() {
+        long flags = this.flags;
+        if (flags == 0) {
+            // Computing the word twice in a race is harmless, as both
+            // threads arrive at the same value
+            flags = BlockFlags.compute(this);
+            this.flags = flags;
+        }
+        return flags;
+    }
+
+    /**
+     * Checks whether this BlockType has all of the given {@link BlockFlags}.
+     *
+     * @param flags the flags to test
+     * @return true if all flags are set
+     */
+    public boolean hasFlags(long flags) {
+        return (getFlags() & flags) == flags;
+    }
+
+    /**
+     * Checks the membership bit of a loaded {@link BlockCategory}.
+     *
+     * @param slot the category's slot
+     * @return true if this type is in the category
+     */
+    boolean isInCategory(int slot) {
+        long[] categories = this.categories;
+        int word = slot >>> 6;
+        return word < categories.length && (categories[word] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Sets the membership bit of a {@link BlockCategory}. Callers must hold
+     * the lock that guards all category bits.
+     *
+     * @param slot the category's slot
+     * @param member whether this type is in the category
+     */
+    void setInCategory(int slot, boolean member) {
+        int word = slot >>> 6;
+        long[] categories = Arrays.copyOf(this.categories, Math.max(this.categories.length, word + 1));
+        if (member) {
+            categories[word] |= 1L << slot;
+        } else {
+            categories[word] &= ~(1L << slot);
         }
-        return this.blockMaterial;
+        this.categories = categories;
     }
 
     /**
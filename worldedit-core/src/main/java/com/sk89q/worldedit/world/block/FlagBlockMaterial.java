@@ -0,0 +1,147 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.world.block;
+
+import com.sk89q.worldedit.world.registry.BlockMaterial;
+
+/**
+ * An immutable copy of a platform {@link BlockMaterial} that answers the
+ * boolean traits from a {@link BlockFlags} word.
+ */
+final class FlagBlockMaterial implements BlockMaterial {
+
+    private final long flags;
+    private final float hardness;
+    private final float resistance;
+    private final float slipperiness;
+    private final int lightValue;
+
+    FlagBlockMaterial(BlockMaterial material) {
+        this.flags = BlockFlags.of(material);
+        this.hardness = material.getHardness();
+        this.resistance = material.getResistance();
+        this.slipperiness = material.getSlipperiness();
+        this.lightValue = material.getLightValue();
+    }
+
+    long getFlags() {
+        return flags;
+    }
+
+    private boolean has(long flag) {
+        return (flags & flag) != 0;
+    }
+
+    @Override
+    public boolean isAir() {
+        return has(BlockFlags.AIR);
+    }
+
+    @Override
+    public boolean isFullCube() {
+        return has(BlockFlags.FULL_CUBE);
+    }
+
+    @Override
+    public boolean isOpaque() {
+        return has(BlockFlags.OPAQUE);
+    }
+
+    @Override
+    public boolean isPowerSource() {
+        return has(BlockFlags.POWER_SOURCE);
+    }
+
+    @Override
+    public boolean isLiquid() {
+        return has(BlockFlags.LIQUID);
+    }
+
+    @Override
+    public boolean isSolid() {
+        return has(BlockFlags.SOLID);
+    }
+
+    @Override
+    public float getHardness() {
+        return hardness;
+    }
+
+    @Override
+    public float getResistance() {
+        return resistance;
+    }
+
+    @Override
+    public float getSlipperiness() {
+        return slipperiness;
+    }
+
+    @Override
+    public int getLightValue() {
+        return lightValue;
+    }
+
+    @Override
+    public boolean isFragileWhenPushed() {
+        return has(BlockFlags.FRAGILE_WHEN_PUSHED);
+    }
+
+    @Override
+    public boolean isUnpushable() {
+        return has(BlockFlags.UNPUSHABLE);
+    }
+
+    @Override
+    public boolean isTicksRandomly() {
+        return has(BlockFlags.TICKS_RANDOMLY);
+    }
+
+    @Override
+    public boolean isMovementBlocker() {
+        return has(BlockFlags.MOVEMENT_BLOCKER);
+    }
+
+    @Override
+    public boolean isBurnable() {
+        return has(BlockFlags.BURNABLE);
+    }
+
+    @Override
+    public boolean isToolRequired() {
+        return has(BlockFlags.TOOL_REQUIRED);
+    }
+
+    @Override
+    public boolean isReplacedDuringPlacement() {
+        return has(BlockFlags.REPLACED_DURING_PLACEMENT);
+    }
+
+    @Override
+    public boolean isTranslucent() {
+        return has(BlockFlags.TRANSLUCENT);
+    }
+
+    @Override
+    public boolean hasContainer() {
+        return has(BlockFlags.HAS_CONTAINER);
+    }
+
+}
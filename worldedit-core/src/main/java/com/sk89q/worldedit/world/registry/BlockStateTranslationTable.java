@@ -0,0 +1,200 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.world.registry;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockType;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nullable;
+
+/**
+ * Translates between WorldEdit {@link BlockState}s and the block states of
+ * a platform.
+ *
+ * <p>Translations to the platform are kept in an array indexed by
+ * {@link BlockState#getInternalId()}, and translations from the platform in
+ * a concurrent map keyed by the platform state, so lookups never build
+ * strings. Both directions are filled for every known state by
+ * {@link #populate()}; states that are seen later are translated once and
+ * remembered. The table may be read from any number of threads.</p>
+ *
+ * <p>Platform states that the table returns are shared, so they must not
+ * be modified. Platform states that are passed in are copied with the
+ * table's key copier before they are remembered, so callers may keep
+ * modifying their own.</p>
+ *
+ * <p>States that the platform fails to translate while the table is
+ * populated are left out, and are translated again when they are
+ * requested.</p>
+ *
+ * @param <T> the platform's block state type, which must implement
+ *     {@code equals()} and {@code hashCode()} by state
+ */
+public class BlockStateTranslationTable<T> {
+
+    private static final Logger log = Logger.getLogger(BlockStateTranslationTable.class.getCanonicalName());
+
+    private final Function<BlockState, T> toPlatform;
+    private final Function<T, BlockState> fromPlatform;
+    private final UnaryOperator<T> keyCopier;
+    private final Map<T, BlockState> reverse = new ConcurrentHashMap<>();
+    private volatile Object[] forward = new Object[0];
+
+    /**
+     * Create a new table.
+     *
+     * @param toPlatform translates a WorldEdit state, returning null if it has no equivalent
+     * @param fromPlatform translates a platform state, returning null if it has no equivalent
+     */
+    public BlockStateTranslationTable(Function<BlockState, T> toPlatform, Function<T, BlockState> fromPlatform) {
+        this(toPlatform, fromPlatform, UnaryOperator.identity());
+    }
+
+    /**
+     * Create a new table for a platform whose states are mutable.
+     *
+     * @param toPlatform translates a WorldEdit state, returning null if it has no equivalent
+     * @param fromPlatform translates a platform state, returning null if it has no equivalent
+     * @param keyCopier copies a platform state that was passed in before it is remembered
+     */
+    public BlockStateTranslationTable(Function<BlockState, T> toPlatform, Function<T, BlockState> fromPlatform, UnaryOperator<T> keyCopier) {
+        checkNotNull(toPlatform);
+        checkNotNull(fromPlatform);
+        checkNotNull(keyCopier);
+        this.toPlatform = toPlatform;
+        this.fromPlatform = fromPlatform;
+        this.keyCopier = keyCopier;
+    }
+
+    /**
+     * Translate every state of every registered {@link BlockType}.
+     *
+     * <p>This should be called once the platform is ready.</p>
+     */
+    public synchronized void populate() {
+        Object[] table = Arrays.copyOf(forward, BlockState.getInternalIdCount());
+        int failed = 0;
+        RuntimeException firstFailure = null;
+        for (BlockType type : BlockType.REGISTRY.values()) {
+            for (BlockState state : type.getAllStates()) {
+                int id = state.getInternalId();
+                if (id < 0 || id >= table.length || table[id] != null) {
+                    continue;
+                }
+                T platformState;
+                try {
+                    platformState = toPlatform.apply(state);
+                } catch (RuntimeException e) {
+                    // Leave the slot empty, so that the state is translated
+                    // again if it is ever used
+                    if (firstFailure == null) {
+                        firstFailure = e;
+                    }
+                    failed++;
+                    continue;
+                }
+                if (platformState != null) {
+                    table[id] = platformState;
+                    reverse.putIfAbsent(platformState, state);
+                }
+            }
+        }
+        forward = table;
+
+        if (firstFailure != null) {
+            log.log(Level.WARNING, "Failed to translate " + failed + " block state(s) ahead of time", firstFailure);
+        }
+    }
+
+    /**
+     * Get the platform state for a WorldEdit state.
+     *
+     * @param state the WorldEdit state
+     * @return the platform state, or null if there is none
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T toPlatform(BlockStateHolder<?> state) {
+        BlockState immutableState = state.toImmutableState();
+        int id = immutableState.getInternalId();
+        Object[] table = forward;
+        if (id >= 0 && id < table.length) {
+            Object platformState = table[id];
+            if (platformState != null) {
+                return (T) platformState;
+            }
+        }
+        if (id < 0) {
+            // Fuzzy states have no fixed identity to remember
+            return toPlatform.apply(immutableState);
+        }
+        return add(immutableState);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private synchronized T add(BlockState state) {
+        int id = state.getInternalId();
+        Object[] table = forward;
+        if (id < table.length && table[id] != null) {
+            return (T) table[id];
+        }
+        T platformState = toPlatform.apply(state);
+        if (platformState != null) {
+            // Copy so that readers only ever see fully written arrays
+            table = Arrays.copyOf(table, Math.max(table.length, BlockState.getInternalIdCount()));
+            table[id] = platformState;
+            forward = table;
+            reverse.putIfAbsent(platformState, state);
+        }
+        return platformState;
+    }
+
+    /**
+     * Get the WorldEdit state for a platform state.
+     *
+     * @param platformState the platform state
+     * @return the WorldEdit state, or null if there is none
+     */
+    @Nullable
+    public BlockState fromPlatform(T platformState) {
+        checkNotNull(platformState);
+        BlockState state = reverse.get(platformState);
+        if (state == null) {
+            state = fromPlatform.apply(platformState);
+            if (state != null) {
+                reverse.putIfAbsent(keyCopier.apply(platformState), state);
+            }
+        }
+        return state;
+    }
+
+}
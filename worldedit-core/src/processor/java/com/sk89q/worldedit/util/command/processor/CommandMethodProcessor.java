@@ -0,0 +1,200 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.command.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a {@code CommandMethodTable} for every top-level class with
+ * {@code @Command} methods, so that the parametric command builder does not
+ * have to read parameter names out of class files or call commands through
+ * reflection at runtime.
+ *
+ * <p>Classes that cannot be handled (nested or generic classes, or classes
+ * whose only commands are private) are skipped and fall back to the
+ * reflective path.</p>
+ */
+public class CommandMethodProcessor extends AbstractProcessor {
+
+    private static final String COMMAND = "com.sk89q.minecraft.util.commands.Command";
+    private static final String TABLE = "com.sk89q.worldedit.util.command.parametric.CommandMethodTable";
+    private static final String SUFFIX = "_CommandMethods";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(COMMAND);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement command = processingEnv.getElementUtils().getTypeElement(COMMAND);
+        if (command == null) {
+            return false;
+        }
+
+        Map<TypeElement, List<ExecutableElement>> methods = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(command)) {
+            if (element.getKind() != ElementKind.METHOD || element.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            TypeElement owner = (TypeElement) element.getEnclosingElement();
+            if (owner.getNestingKind() != NestingKind.TOP_LEVEL || !owner.getTypeParameters().isEmpty()) {
+                continue;
+            }
+            methods.computeIfAbsent(owner, k -> new ArrayList<>()).add((ExecutableElement) element);
+        }
+
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : methods.entrySet()) {
+            TypeElement owner = entry.getKey();
+            if (generated.add(owner.getQualifiedName().toString())) {
+                try {
+                    write(owner, entry.getValue());
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Failed to write command method table: " + e.getMessage(), owner);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void write(TypeElement owner, List<ExecutableElement> methods) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(owner);
+        String simpleName = owner.getSimpleName() + SUFFIX;
+        String qualifiedName = pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName;
+        String ownerName = owner.getQualifiedName().toString();
+
+        StringBuilder keys = new StringBuilder();
+        StringBuilder names = new StringBuilder();
+        StringBuilder cases = new StringBuilder();
+
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            List<? extends VariableElement> params = method.getParameters();
+
+            StringJoiner key = new StringJoiner(",", method.getSimpleName() + "(", ")");
+            StringJoiner paramNames = new StringJoiner(", ", "{ ", " }");
+            StringJoiner args = new StringJoiner(", ");
+            for (int j = 0; j < params.size(); j++) {
+                TypeMirror type = processingEnv.getTypeUtils().erasure(params.get(j).asType());
+                key.add(getTypeName(type));
+                paramNames.add(quote(params.get(j).getSimpleName().toString()));
+                args.add("(" + type + ") args[" + j + "]");
+            }
+
+            keys.append("        ").append(quote(key.toString())).append(",\n");
+            names.append("        new String[] ").append(params.isEmpty() ? "{}" : paramNames.toString()).append(",\n");
+
+            String receiver = method.getModifiers().contains(Modifier.STATIC) ? ownerName : "((" + ownerName + ") target)";
+            cases.append("            case ").append(i).append(":\n")
+                    .append("                ").append(receiver).append(".").append(method.getSimpleName())
+                    .append("(").append(args).append(");\n")
+                    .append("                return;\n");
+        }
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, owner);
+        try (Writer writer = file.openWriter()) {
+            if (!pkg.isUnnamed()) {
+                writer.write("package " + pkg.getQualifiedName() + ";\n\n");
+            }
+            writer.write("/**\n * Generated from {@link " + ownerName + "}. Do not edit.\n */\n");
+            writer.write("public final class " + simpleName + " implements " + TABLE + " {\n\n");
+            writer.write("    private static final String[] KEYS = {\n" + keys + "    };\n\n");
+            writer.write("    private static final String[][] PARAMETER_NAMES = {\n" + names + "    };\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public int indexOf(String key) {\n");
+            writer.write("        for (int i = 0; i < KEYS.length; i++) {\n");
+            writer.write("            if (KEYS[i].equals(key)) {\n");
+            writer.write("                return i;\n");
+            writer.write("            }\n");
+            writer.write("        }\n");
+            writer.write("        return -1;\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public String[] getParameterNames(int index) {\n");
+            writer.write("        return PARAMETER_NAMES[index].clone();\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public void invoke(Object target, int index, Object[] args) throws Exception {\n");
+            writer.write("        switch (index) {\n");
+            writer.write(cases.toString());
+            writer.write("            default:\n");
+            writer.write("                throw new IllegalArgumentException(\"No method at index \" + index);\n");
+            writer.write("        }\n");
+            writer.write("    }\n\n");
+            writer.write("}\n");
+        }
+    }
+
+    /**
+     * Get the name of an erased type as {@link Class#getTypeName()} would
+     * return it at runtime.
+     */
+    private String getTypeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return getTypeName(((ArrayType) type).getComponentType()) + "[]";
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+            return processingEnv.getElementUtils().getBinaryName(element).toString();
+        } else {
+            return type.toString();
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+}
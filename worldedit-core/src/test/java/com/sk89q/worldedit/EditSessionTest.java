@@ -0,0 +1,149 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sk89q.worldedit.extension.platform.TestPlatform;
+import com.sk89q.worldedit.function.mask.ExistingBlockMask;
+import com.sk89q.worldedit.function.pattern.BlockPattern;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.ChunkPrefetch;
+import com.sk89q.worldedit.world.TestWorld;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class EditSessionTest {
+
+    @BeforeClass
+    public static void setUp() {
+        TestPlatform.setUp();
+    }
+
+    @Test
+    public void testOperationsReleasePrefetchedChunks() throws WorldEditException {
+        Set<BlockVector2D> held = new HashSet<>();
+        TestWorld world = new TestWorld() {
+            @Override
+            public ChunkPrefetch prefetchChunks(Set<BlockVector2D> chunks) {
+                held.addAll(chunks);
+                return new ChunkPrefetch(chunks, () -> held.removeAll(chunks));
+            }
+        };
+        EditSession editSession = WorldEdit.getInstance().getEditSessionFactory().getEditSession(world, -1);
+        CuboidRegion region = new CuboidRegion(new Vector(-5, 0, -5), new Vector(40, 10, 20));
+
+        // The queue is never flushed, so the operation itself must let go of its chunks
+        editSession.setBlocks(region, BlockTypes.STONE.getDefaultState());
+        assertTrue(held.isEmpty());
+        editSession.replaceBlocks(region, new ExistingBlockMask(editSession), new BlockPattern(BlockTypes.DIRT.getDefaultState()));
+        assertTrue(held.isEmpty());
+
+        // Chunks that were prefetched by the caller are held until the queue is flushed
+        editSession.prefetchChunks(region);
+        editSession.setBlocks(region, BlockTypes.STONE.getDefaultState());
+        assertEquals(4 * 3, held.size());
+        editSession.flushQueue();
+        assertTrue(held.isEmpty());
+    }
+
+    @Test
+    public void testQueuedOperationsHoldPrefetchedChunksUntilFlush() throws WorldEditException {
+        Set<BlockVector2D> held = new HashSet<>();
+        Set<BlockVector2D> syncLoads = new HashSet<>();
+        TestWorld world = new TestWorld() {
+            @Override
+            public ChunkPrefetch prefetchChunks(Set<BlockVector2D> chunks) {
+                held.addAll(chunks);
+                ChunkPrefetch prefetch = new ChunkPrefetch(chunks, () -> held.removeAll(chunks));
+                for (BlockVector2D chunk : chunks) {
+                    prefetch.markLoaded(chunk, false);
+                }
+                return prefetch;
+            }
+
+            @Override
+            public void checkLoadedChunk(Vector position) {
+                syncLoads.add(new BlockVector2D(position.getBlockX() >> 4, position.getBlockZ() >> 4));
+            }
+        };
+        EditSession editSession = WorldEdit.getInstance().getEditSessionFactory().getEditSession(world, -1);
+        editSession.enableQueue();
+        CuboidRegion region = new CuboidRegion(new Vector(-5, 0, -5), new Vector(40, 10, 20));
+
+        // The queued changes only reach the world on flush, so the chunks must still be held then
+        editSession.setBlocks(region, BlockTypes.STONE.getDefaultState());
+        assertEquals(4 * 3, held.size());
+        editSession.flushQueue();
+
+        assertTrue(held.isEmpty());
+        assertTrue(syncLoads.isEmpty());
+        assertEquals(4 * 3, editSession.getAvoidedChunkLoads());
+        assertEquals(BlockTypes.STONE.getDefaultState(), world.getBlock(new Vector(40, 10, 20)));
+    }
+
+    @Test
+    public void testHighestTerrainBlocksMatchesSingleColumns() throws WorldEditException {
+        TestWorld world = new TestWorld();
+        BlockState stone = BlockTypes.STONE.getDefaultState();
+        BlockState grass = BlockTypes.TALL_GRASS.getDefaultState();
+        Random random = new Random(7);
+        for (int x = -20; x < 30; x++) {
+            for (int z = -5; z < 20; z++) {
+                int height = random.nextInt(12);
+                for (int y = 0; y <= height; y++) {
+                    world.setBlock(new Vector(x, y, z), stone, false);
+                }
+                // Grass is not a movement blocker, so it must be skipped
+                if (random.nextBoolean()) {
+                    world.setBlock(new Vector(x, height + 1, z), grass, false);
+                }
+                // Floating blocks above the search range must be ignored
+                if (random.nextInt(4) == 0) {
+                    world.setBlock(new Vector(x, 15, z), stone, false);
+                }
+            }
+        }
+
+        EditSession editSession = WorldEdit.getInstance().getEditSessionFactory().getEditSession(world, -1);
+        int originX = -19;
+        int originZ = -3;
+        int width = 45;
+        int length = 20;
+        int[] heights = editSession.getHighestTerrainBlocks(originX, originZ, width, length, 2, 12);
+
+        int[] expected = new int[width * length];
+        for (int z = 0; z < length; z++) {
+            for (int x = 0; x < width; x++) {
+                expected[z * width + x] = editSession.getHighestTerrainBlock(originX + x, originZ + z, 2, 12);
+            }
+        }
+        assertArrayEquals(expected, heights);
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.blocks;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sk89q.worldedit.extension.platform.TestPlatform;
+import com.sk89q.worldedit.world.block.BlockCategories;
+import com.sk89q.worldedit.world.block.BlockCategory;
+import com.sk89q.worldedit.world.block.BlockType;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BlocksTest {
+
+    @BeforeClass
+    public static void setUp() {
+        TestPlatform.setUp();
+    }
+
+    @Test
+    public void testPlaceLast() {
+        BlockType[] types = {
+                BlockTypes.BLACK_BED,
+                BlockTypes.BLUE_BED,
+                BlockTypes.BROWN_BED,
+                BlockTypes.CYAN_BED,
+                BlockTypes.GRAY_BED,
+                BlockTypes.GREEN_BED,
+                BlockTypes.LIGHT_BLUE_BED,
+                BlockTypes.LIGHT_GRAY_BED,
+                BlockTypes.LIME_BED,
+                BlockTypes.MAGENTA_BED,
+                BlockTypes.ORANGE_BED,
+                BlockTypes.PINK_BED,
+                BlockTypes.PURPLE_BED,
+                BlockTypes.RED_BED,
+                BlockTypes.WHITE_BED,
+                BlockTypes.YELLOW_BED,
+                BlockTypes.GRASS,
+                BlockTypes.TALL_GRASS,
+                BlockTypes.ROSE_BUSH,
+                BlockTypes.DANDELION,
+                BlockTypes.BROWN_MUSHROOM,
+                BlockTypes.RED_MUSHROOM,
+                BlockTypes.FERN,
+                BlockTypes.LARGE_FERN,
+                BlockTypes.OXEYE_DAISY,
+                BlockTypes.AZURE_BLUET,
+                BlockTypes.TORCH,
+                BlockTypes.WALL_TORCH,
+                BlockTypes.FIRE,
+                BlockTypes.REDSTONE_WIRE,
+                BlockTypes.CARROTS,
+                BlockTypes.POTATOES,
+                BlockTypes.WHEAT,
+                BlockTypes.BEETROOTS,
+                BlockTypes.COCOA,
+                BlockTypes.LADDER,
+                BlockTypes.LEVER,
+                BlockTypes.REDSTONE_TORCH,
+                BlockTypes.REDSTONE_WALL_TORCH,
+                BlockTypes.SNOW,
+                BlockTypes.NETHER_PORTAL,
+                BlockTypes.END_PORTAL,
+                BlockTypes.REPEATER,
+                BlockTypes.VINE,
+                BlockTypes.LILY_PAD,
+                BlockTypes.NETHER_WART,
+                BlockTypes.PISTON,
+                BlockTypes.STICKY_PISTON,
+                BlockTypes.TRIPWIRE_HOOK,
+                BlockTypes.TRIPWIRE,
+                BlockTypes.STONE_PRESSURE_PLATE,
+                BlockTypes.HEAVY_WEIGHTED_PRESSURE_PLATE,
+                BlockTypes.LIGHT_WEIGHTED_PRESSURE_PLATE,
+                BlockTypes.COMPARATOR,
+                BlockTypes.IRON_TRAPDOOR,
+                BlockTypes.ACACIA_TRAPDOOR,
+                BlockTypes.BIRCH_TRAPDOOR,
+                BlockTypes.DARK_OAK_TRAPDOOR,
+                BlockTypes.JUNGLE_TRAPDOOR,
+                BlockTypes.OAK_TRAPDOOR,
+                BlockTypes.SPRUCE_TRAPDOOR,
+                BlockTypes.DAYLIGHT_DETECTOR
+        };
+        for (BlockType type : types) {
+            assertTrue(type.getId(), Blocks.shouldPlaceLast(type));
+            assertFalse(type.getId(), Blocks.shouldPlaceFinal(type));
+        }
+
+        BlockCategory[] categories = {
+                BlockCategories.SAPLINGS,
+                BlockCategories.FLOWER_POTS,
+                BlockCategories.BUTTONS,
+                BlockCategories.ANVIL,
+                BlockCategories.WOODEN_PRESSURE_PLATES,
+                BlockCategories.CARPETS,
+                BlockCategories.RAILS
+        };
+        for (BlockCategory category : categories) {
+            assertFalse(category.getId(), category.getAll().isEmpty());
+            for (BlockType type : category.getAll()) {
+                assertTrue(type.getId(), Blocks.shouldPlaceLast(type));
+            }
+        }
+    }
+
+    @Test
+    public void testPlaceFinal() {
+        BlockType[] types = {
+                BlockTypes.SIGN,
+                BlockTypes.WALL_SIGN,
+                BlockTypes.CACTUS,
+                BlockTypes.SUGAR_CANE,
+                BlockTypes.CAKE,
+                BlockTypes.PISTON_HEAD,
+                BlockTypes.MOVING_PISTON
+        };
+        for (BlockType type : types) {
+            assertTrue(type.getId(), Blocks.shouldPlaceFinal(type));
+            assertFalse(type.getId(), Blocks.shouldPlaceLast(type));
+        }
+
+        BlockCategory[] categories = {
+                BlockCategories.DOORS,
+                BlockCategories.BANNERS
+        };
+        for (BlockCategory category : categories) {
+            assertFalse(category.getId(), category.getAll().isEmpty());
+            for (BlockType type : category.getAll()) {
+                assertTrue(type.getId(), Blocks.shouldPlaceFinal(type));
+            }
+        }
+    }
+
+    @Test
+    public void testOrdinaryBlocks() {
+        for (BlockType type : new BlockType[] { BlockTypes.STONE, BlockTypes.DIRT, BlockTypes.OAK_PLANKS, BlockTypes.GLASS }) {
+            assertFalse(type.getId(), Blocks.shouldPlaceLast(type));
+            assertFalse(type.getId(), Blocks.shouldPlaceFinal(type));
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extension.platform.TestPlatform;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicReader;
+import com.sk89q.worldedit.extent.clipboard.io.SectionedSchematicWriter;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.math.transform.AffineTransform;
+import com.sk89q.worldedit.math.transform.Transform;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class FlattenedClipboardTransformTest {
+
+    @BeforeClass
+    public static void setUp() {
+        TestPlatform.setUp();
+    }
+
+    @Test
+    public void testParallelCopyFromSectionedClipboard() throws Exception {
+        BlockState[] states = {
+                BlockTypes.STONE.getDefaultState(),
+                BlockTypes.OAK_LOG.getDefaultState(),
+                BlockTypes.OAK_STAIRS.getDefaultState(),
+        };
+        Region region = new CuboidRegion(new Vector(-21, 3, -9), new Vector(26, 40, 37));
+        BlockArrayClipboard original = new BlockArrayClipboard(region);
+        original.setOrigin(new Vector(2, 10, 5));
+        Random random = new Random(3);
+        for (Vector position : region) {
+            original.setBlock(position, states[random.nextInt(states.length)]);
+        }
+        Clipboard sectioned = read(write(original));
+
+        // Change some sections after loading, so both the changed and the
+        // lazily loaded sections are read during the copy
+        BlockState glass = BlockTypes.GLASS.getDefaultState();
+        for (int i = 0; i < 200; i++) {
+            Vector position = region.getMinimumPoint().add(random.nextInt(48), random.nextInt(38), random.nextInt(47));
+            original.setBlock(position, glass);
+            sectioned.setBlock(position, glass);
+        }
+
+        Transform transform = new AffineTransform().rotateY(90);
+        Clipboard expected = bake(original, transform);
+        for (int round = 0; round < 4; round++) {
+            Clipboard actual = bake(sectioned, transform);
+            assertEquals(expected.getRegion().getMinimumPoint(), actual.getRegion().getMinimumPoint());
+            assertEquals(expected.getRegion().getMaximumPoint(), actual.getRegion().getMaximumPoint());
+            for (Vector position : expected.getRegion()) {
+                assertSame(expected.getBlock(position), actual.getBlock(position));
+            }
+        }
+    }
+
+    private static Clipboard bake(Clipboard clipboard, Transform transform) throws WorldEditException {
+        FlattenedClipboardTransform result = FlattenedClipboardTransform.transform(clipboard, transform);
+        BlockArrayClipboard target = new BlockArrayClipboard(result.getTransformedRegion());
+        target.setOrigin(clipboard.getOrigin());
+        Operations.complete(result.copyTo(target));
+        return target;
+    }
+
+    private static byte[] write(Clipboard clipboard) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SectionedSchematicWriter writer = new SectionedSchematicWriter(bytes)) {
+            writer.write(clipboard);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Clipboard read(byte[] data) throws IOException {
+        try (SectionedSchematicReader reader = new SectionedSchematicReader(ByteBuffer.wrap(data))) {
+            return reader.read();
+        }
+    }
+
+}
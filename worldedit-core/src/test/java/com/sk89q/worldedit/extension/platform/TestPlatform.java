@@ -0,0 +1,198 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extension.platform;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.worldedit.LocalConfiguration;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.entity.Player;
+import com.sk89q.worldedit.event.platform.PlatformReadyEvent;
+import com.sk89q.worldedit.registry.Category;
+import com.sk89q.worldedit.util.command.Dispatcher;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BlockType;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import com.sk89q.worldedit.world.registry.BlockCategoryRegistry;
+import com.sk89q.worldedit.world.registry.BundledRegistries;
+import com.sk89q.worldedit.world.registry.Registries;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * A platform without a game for tests, which serves the bundled block data
+ * and a few members of the block tags that WorldEdit relies on.
+ */
+public final class TestPlatform extends AbstractPlatform {
+
+    private static TestPlatform instance;
+
+    private final TestRegistries registries = new TestRegistries();
+    private LocalConfiguration configuration;
+
+    private TestPlatform() {
+    }
+
+    /**
+     * Register the test platform with WorldEdit, if that has not happened
+     * yet.
+     *
+     * <p>This must be called before {@link BlockTypes} is first used.</p>
+     *
+     * @return the platform
+     */
+    public static synchronized TestPlatform setUp() {
+        if (instance == null) {
+            instance = new TestPlatform();
+            WorldEdit.getInstance().getPlatformManager().register(instance);
+            WorldEdit.getInstance().getEventBus().post(new PlatformReadyEvent());
+        }
+        return instance;
+    }
+
+    @Override
+    public Registries getRegistries() {
+        return registries;
+    }
+
+    @Override
+    public boolean isValidMobType(String type) {
+        return false;
+    }
+
+    @Override
+    public void reload() {
+    }
+
+    @Nullable
+    @Override
+    public Player matchPlayer(Player player) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public World matchWorld(World world) {
+        return world;
+    }
+
+    @Override
+    public void registerCommands(Dispatcher dispatcher) {
+    }
+
+    @Override
+    public void registerGameHooks() {
+    }
+
+    @Override
+    public synchronized LocalConfiguration getConfiguration() {
+        // LocalConfiguration pulls in the block types, which need this
+        // platform to be registered first
+        if (configuration == null) {
+            configuration = new LocalConfiguration() {
+                @Override
+                public void load() {
+                }
+            };
+        }
+        return configuration;
+    }
+
+    @Override
+    public String getVersion() {
+        return WorldEdit.getVersion();
+    }
+
+    @Override
+    public String getPlatformName() {
+        return "Test";
+    }
+
+    @Override
+    public String getPlatformVersion() {
+        return WorldEdit.getVersion();
+    }
+
+    @Override
+    public Map<Capability, Preference> getCapabilities() {
+        Map<Capability, Preference> capabilities = new EnumMap<>(Capability.class);
+        capabilities.put(Capability.CONFIGURATION, Preference.NORMAL);
+        capabilities.put(Capability.GAME_HOOKS, Preference.NORMAL);
+        capabilities.put(Capability.WORLD_EDITING, Preference.NORMAL);
+        return capabilities;
+    }
+
+    private static final class TestRegistries extends BundledRegistries {
+        private final BlockCategoryRegistry blockCategories = new BlockCategoryRegistry() {
+            private Map<String, Set<BlockType>> tags;
+
+            private synchronized Map<String, Set<BlockType>> getTags() {
+                // Built on first use, as the block types need the platform
+                if (tags == null) {
+                    tags = ImmutableMap.<String, Set<BlockType>>builder()
+                            .put("minecraft:saplings", ImmutableSet.of(BlockTypes.OAK_SAPLING, BlockTypes.BIRCH_SAPLING))
+                            .put("minecraft:flower_pots", ImmutableSet.of(BlockTypes.FLOWER_POT, BlockTypes.POTTED_POPPY))
+                            .put("minecraft:buttons", ImmutableSet.of(BlockTypes.STONE_BUTTON, BlockTypes.OAK_BUTTON))
+                            .put("minecraft:anvil", ImmutableSet.of(BlockTypes.ANVIL, BlockTypes.DAMAGED_ANVIL))
+                            .put("minecraft:wooden_pressure_plates", ImmutableSet.of(BlockTypes.OAK_PRESSURE_PLATE))
+                            .put("minecraft:carpets", ImmutableSet.of(BlockTypes.WHITE_CARPET, BlockTypes.RED_CARPET))
+                            .put("minecraft:rails", ImmutableSet.of(BlockTypes.RAIL, BlockTypes.POWERED_RAIL))
+                            .put("minecraft:doors", ImmutableSet.of(BlockTypes.OAK_DOOR, BlockTypes.IRON_DOOR))
+                            .put("minecraft:banners", ImmutableSet.of(BlockTypes.WHITE_BANNER, BlockTypes.WHITE_WALL_BANNER))
+                            .build();
+                }
+                return tags;
+            }
+
+            @Override
+            public Set<BlockType> getCategorisedByName(String category) {
+                return getTags().getOrDefault(category, Collections.emptySet());
+            }
+
+            @Override
+            public Set<BlockType> getAll(Category<BlockType> category) {
+                return getCategorisedByName(category.getId());
+            }
+
+            @Override
+            public Set<String> getCategories(BlockType categorised) {
+                Set<String> categories = new HashSet<>();
+                for (Map.Entry<String, Set<BlockType>> entry : getTags().entrySet()) {
+                    if (entry.getValue().contains(categorised)) {
+                        categories.add(entry.getKey());
+                    }
+                }
+                return categories;
+            }
+        };
+
+        @Override
+        public BlockCategoryRegistry getBlockCategoryRegistry() {
+            return blockCategories;
+        }
+    }
+
+}
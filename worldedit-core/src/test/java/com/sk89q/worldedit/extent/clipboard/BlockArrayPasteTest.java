@@ -0,0 +1,163 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.extent.transform.BlockTransformExtent;
+import com.sk89q.worldedit.function.mask.ExistingBlockMask;
+import com.sk89q.worldedit.function.operation.ForwardExtentCopy;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.math.transform.AffineTransform;
+import com.sk89q.worldedit.math.transform.Identity;
+import com.sk89q.worldedit.math.transform.Transform;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.CylinderRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.registry.state.DirectionalProperty;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.util.Direction;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockType;
+import com.sk89q.worldedit.world.registry.BlockMaterial;
+import com.sk89q.worldedit.world.registry.PassthroughBlockMaterial;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+public class BlockArrayPasteTest {
+
+    private static final DirectionalProperty FACING = new DirectionalProperty("facing", Arrays.asList(Direction.values()).subList(0, 6));
+
+    private static final BlockType AIR = createType("pastetest:air", ImmutableMap.of(), true);
+    private static final BlockType LOG = createType("pastetest:log", ImmutableMap.of("facing", FACING), false);
+
+    private static BlockType createType(String id, Map<String, Property<?>> properties, boolean air) {
+        return new BlockType(id) {
+            @Override
+            public Map<String, ? extends Property> getPropertyMap() {
+                return properties;
+            }
+
+            @Override
+            public BlockMaterial getMaterial() {
+                return new PassthroughBlockMaterial(null) {
+                    @Override
+                    public boolean isAir() {
+                        return air;
+                    }
+                };
+            }
+        };
+    }
+
+    private static final Transform[] TRANSFORMS = {
+            new Identity(),
+            new AffineTransform().rotateY(90),
+            new AffineTransform().rotateY(180),
+            new AffineTransform().rotateY(270),
+            new AffineTransform().rotateX(90),
+            new AffineTransform().scale(-1, 1, 1),
+            new AffineTransform().rotateY(90).scale(1, 1, -1).rotateZ(-90),
+    };
+
+    @Test
+    public void testMatchesForwardCopy() throws Exception {
+        Region region = new CuboidRegion(new Vector(-5, 3, 9), new Vector(20, 14, 27));
+        for (Transform transform : TRANSFORMS) {
+            for (boolean ignoreAir : new boolean[] { false, true }) {
+                comparePastes(region, transform, ignoreAir);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesForwardCopyOfCylinder() throws Exception {
+        Region region = new CylinderRegion(null, new Vector(4, 0, -3), new Vector2D(7, 11), 2, 9);
+        for (Transform transform : TRANSFORMS) {
+            comparePastes(region, transform, false);
+        }
+    }
+
+    @Test
+    public void testSupports() {
+        Region region = new CuboidRegion(new Vector(0, 0, 0), new Vector(3, 3, 3));
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(region);
+        assertTrue(BlockArrayPaste.supports(clipboard, new AffineTransform().rotateY(-90).translate(2, 0, 0), Vector.ZERO));
+        assertTrue(!BlockArrayPaste.supports(clipboard, new AffineTransform().rotateY(45), Vector.ZERO));
+        assertTrue(!BlockArrayPaste.supports(clipboard, new AffineTransform().scale(2), Vector.ZERO));
+        assertTrue(!BlockArrayPaste.supports(clipboard, new Identity(), new Vector(0.5, 0, 0)));
+    }
+
+    private static void comparePastes(Region region, Transform transform, boolean ignoreAir) throws Exception {
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(region);
+        clipboard.setOrigin(region.getMinimumPoint().add(3, 2, 4));
+        Random random = new Random(region.getArea());
+        for (Vector position : region) {
+            BlockState state = random.nextInt(3) == 0 ? AIR.getDefaultState() : LOG.getAllStates().get(random.nextInt(6));
+            clipboard.setBlock(position, state);
+        }
+
+        Vector to = new Vector(100, 40, -60);
+        BlockArrayClipboard expected = createTarget(to);
+        BlockTransformExtent extent = new BlockTransformExtent(clipboard, transform);
+        ForwardExtentCopy copy = new ForwardExtentCopy(extent, clipboard.getRegion(), clipboard.getOrigin(), expected, to);
+        copy.setTransform(transform);
+        if (ignoreAir) {
+            copy.setSourceMask(new ExistingBlockMask(clipboard));
+        }
+        Operations.complete(copy);
+
+        BlockArrayClipboard actual = createTarget(to);
+        BlockArrayPaste paste = new BlockArrayPaste(clipboard, transform, actual, to);
+        paste.setIgnoringAir(ignoreAir);
+        Operations.complete(paste);
+
+        Vector size = expected.getDimensions();
+        for (int x = 0; x < size.getBlockX(); x++) {
+            for (int y = 0; y < size.getBlockY(); y++) {
+                BlockState[] expectedRow = toStates(expected, x, y);
+                BlockState[] actualRow = toStates(actual, x, y);
+                assertArrayEquals(transform + " ignoreAir=" + ignoreAir, expectedRow, actualRow);
+            }
+        }
+    }
+
+    private static BlockArrayClipboard createTarget(Vector to) {
+        return new BlockArrayClipboard(new CuboidRegion(to.subtract(64, 64, 64), to.add(64, 64, 64)));
+    }
+
+    private static BlockState[] toStates(BlockArrayClipboard clipboard, int x, int y) {
+        BlockState[] states = new BlockState[clipboard.getDimensions().getBlockZ()];
+        for (int z = 0; z < states.length; z++) {
+            BlockStateHolder block = clipboard.getBlockRelative(x, y, z);
+            states[z] = block != null ? block.toImmutableState() : null;
+        }
+        return states;
+    }
+
+}
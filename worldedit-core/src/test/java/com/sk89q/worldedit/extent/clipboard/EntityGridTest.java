@@ -0,0 +1,102 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.entity.BaseEntity;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.CylinderRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.util.Location;
+import com.sk89q.worldedit.world.entity.EntityType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class EntityGridTest {
+
+    private static final BaseEntity PIG = new BaseEntity(new EntityType("gridtest:pig"));
+
+    private static BlockArrayClipboard populate(Random random, int count) {
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(new CuboidRegion(new Vector(-40, 0, -40), new Vector(60, 3, 60)));
+        for (int i = 0; i < count; i++) {
+            Vector position = new Vector(random.nextDouble() * 100 - 40, random.nextDouble() * 4, random.nextDouble() * 100 - 40);
+            clipboard.createEntity(new Location(clipboard, position), PIG);
+        }
+        return clipboard;
+    }
+
+    private static void assertMatchesScan(Clipboard clipboard, Region region) {
+        List<Entity> expected = new ArrayList<>();
+        for (Entity entity : clipboard.getEntities()) {
+            if (region.contains(entity.getLocation().toVector())) {
+                expected.add(entity);
+            }
+        }
+        List<? extends Entity> actual = clipboard.getEntities(region);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    @Test
+    public void testRegionQueriesMatchFullScan() {
+        Random random = new Random(7);
+        BlockArrayClipboard clipboard = populate(random, 2000);
+
+        assertMatchesScan(clipboard, new CuboidRegion(new Vector(-3, 0, 5), new Vector(4, 3, 12)));
+        assertMatchesScan(clipboard, new CuboidRegion(new Vector(15, 1, 15), new Vector(16, 1, 16)));
+        assertMatchesScan(clipboard, new CuboidRegion(new Vector(-1000, -10, -1000), new Vector(1000, 10, 1000)));
+        assertMatchesScan(clipboard, new CylinderRegion(new Vector(10, 0, 10), new Vector2D(7.5, 7.5), 0, 3));
+        for (int i = 0; i < 50; i++) {
+            Vector min = new Vector(random.nextInt(100) - 40, 0, random.nextInt(100) - 40);
+            assertMatchesScan(clipboard, new CuboidRegion(min, min.add(random.nextInt(30), 3, random.nextInt(30))));
+        }
+    }
+
+    @Test
+    public void testRemovedEntitiesAreNotReturned() {
+        BlockArrayClipboard clipboard = populate(new Random(11), 200);
+        Region everything = new CuboidRegion(new Vector(-50, -10, -50), new Vector(70, 10, 70));
+        List<Entity> removed = new ArrayList<>();
+        for (Entity entity : new ArrayList<>(clipboard.getEntities())) {
+            if (removed.size() < 50) {
+                assertTrue(entity.remove());
+                removed.add(entity);
+            }
+        }
+
+        assertEquals(150, clipboard.getEntities().size());
+        assertEquals(150, clipboard.getEntities(everything).size());
+        for (Entity entity : removed) {
+            assertFalse(clipboard.getEntities(everything).contains(entity));
+            assertFalse(entity.remove());
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.transform.BlockTransformExtent;
+import com.sk89q.worldedit.math.transform.AffineTransform;
+import com.sk89q.worldedit.math.transform.Transform;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.registry.state.DirectionalProperty;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.util.Direction;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+public class RemappedClipboardTest {
+
+    private static final DirectionalProperty FACING = new DirectionalProperty("facing", Arrays.asList(Direction.values()).subList(0, 6));
+
+    private static final BlockType STONE = createType("remaptest:stone", ImmutableMap.of());
+    private static final BlockType LOG = createType("remaptest:log", ImmutableMap.of("facing", FACING));
+
+    private static BlockType createType(String id, Map<String, Property<?>> properties) {
+        return new BlockType(id) {
+            @Override
+            public Map<String, ? extends Property> getPropertyMap() {
+                return properties;
+            }
+        };
+    }
+
+    @Test
+    public void testSnapshotIsolation() throws Exception {
+        Region region = new CuboidRegion(new Vector(-20, 0, -20), new Vector(20, 5, 20));
+        BlockArrayClipboard clipboard = createClipboard(region);
+        Vector position = new Vector(3, 2, -7);
+        BlockState before = clipboard.getBlock(position);
+
+        BlockArrayClipboard snapshot = clipboard.snapshot();
+        clipboard.setBlock(position, STONE.getDefaultState());
+        assertEquals(before, snapshot.getBlock(position));
+        assertEquals(STONE.getDefaultState(), clipboard.getBlock(position));
+
+        Vector other = new Vector(-18, 4, 19);
+        BlockState original = clipboard.getBlock(other);
+        snapshot.setBlock(other, LOG.getAllStates().get(0));
+        assertEquals(original, clipboard.getBlock(other));
+        assertEquals(LOG.getAllStates().get(0), snapshot.getBlock(other));
+    }
+
+    @Test
+    public void testMatchesTransformedSource() throws Exception {
+        Region region = new CuboidRegion(new Vector(-5, 23, 9), new Vector(20, 34, 27));
+        BlockArrayClipboard clipboard = createClipboard(region);
+        clipboard.setOrigin(region.getMinimumPoint().add(3, 2, 4));
+
+        Transform[] transforms = {
+                new AffineTransform().rotateY(90),
+                new AffineTransform().rotateY(180),
+                new AffineTransform().rotateX(90),
+                new AffineTransform().scale(-1, 1, 1),
+        };
+        for (Transform transform : transforms) {
+            RemappedClipboard view = new RemappedClipboard(clipboard, transform);
+            BlockTransformExtent expected = new BlockTransformExtent(clipboard, transform);
+            Vector origin = clipboard.getOrigin();
+            for (Vector position : region) {
+                Vector moved = transform.apply(position.subtract(origin)).add(origin).round();
+                assertTrue(transform.toString(), view.getRegion().contains(moved));
+                assertEquals(transform.toString(), expected.getBlock(position), view.getBlock(moved));
+            }
+
+            // The view must not see later changes to the clipboard
+            Vector position = region.getMinimumPoint();
+            Vector moved = transform.apply(position.subtract(origin)).add(origin).round();
+            BlockState previous = clipboard.getBlock(position);
+            BlockState seen = view.getBlock(moved);
+            clipboard.setBlock(position, STONE.getDefaultState());
+            assertEquals(seen, view.getBlock(moved));
+            clipboard.setBlock(position, previous);
+        }
+    }
+
+    private static BlockArrayClipboard createClipboard(Region region) throws Exception {
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(region);
+        Random random = new Random(region.getArea());
+        for (Vector position : region) {
+            BlockState state = random.nextBoolean() ? STONE.getDefaultState() : LOG.getAllStates().get(random.nextInt(6));
+            clipboard.setBlock(position, state);
+        }
+        return clipboard;
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.StringTag;
+import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.registry.state.IntegerProperty;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SectionedSchematicTest {
+
+    private static final IntegerProperty AGE = new IntegerProperty("age", Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+    private static final Map<String, Property<?>> PROPERTIES = ImmutableMap.of("age", AGE);
+    private static final BlockType CROP = new BlockType("sectiontest:crop") {
+        @Override
+        public Map<String, ? extends Property> getPropertyMap() {
+            return PROPERTIES;
+        }
+    };
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, BlockState> states = new HashMap<>();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        BlockArrayClipboard original = createClipboard();
+        SectionedClipboard loaded = read(ByteBuffer.wrap(write(original)));
+
+        assertEquals(original.getRegion().getMinimumPoint(), loaded.getMinimumPoint());
+        assertEquals(original.getRegion().getMaximumPoint(), loaded.getMaximumPoint());
+        assertEquals(original.getOrigin(), loaded.getOrigin());
+        assertSameBlocks(original, loaded);
+    }
+
+    @Test
+    public void testRoundTripThroughMappedFile() throws Exception {
+        BlockArrayClipboard original = createClipboard();
+        File file = folder.newFile("test.sschem");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(write(original));
+        }
+
+        assertSameBlocks(original, read(file, true));
+    }
+
+    @Test
+    public void testSaveOverMappedSource() throws Exception {
+        assertSaveOverSource(true);
+    }
+
+    @Test
+    public void testSaveOverCopiedSource() throws Exception {
+        assertSaveOverSource(false);
+    }
+
+    private void assertSaveOverSource(boolean map) throws Exception {
+        BlockArrayClipboard original = createClipboard();
+        File file = folder.newFile("test.sschem");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(write(original));
+        }
+
+        SectionedClipboard loaded = read(file, map);
+        BlockState state = CROP.getDefaultState().with(AGE, 9);
+        Vector position = loaded.getMinimumPoint().add(20, 3, 17);
+        loaded.setBlock(position, state);
+        original.setBlock(position, state);
+
+        // Saving the lazily loaded clipboard over its own source must
+        // neither truncate the mapping under it nor write a corrupt file
+        BuiltInClipboardFormat.SECTIONED_SCHEMATIC.write(loaded, file);
+        assertSameBlocks(original, loaded);
+        assertSameBlocks(original, read(file, map));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testRegionVisitsEachPointOnceBySection() throws Exception {
+        SectionedClipboard loaded = read(ByteBuffer.wrap(write(createClipboard())));
+        Region region = loaded.getRegion();
+
+        Set<BlockVector> seen = new HashSet<>();
+        int sectionChanges = 0;
+        Vector lastSection = null;
+        for (BlockVector position : region) {
+            assertTrue(region.contains(position));
+            assertTrue(seen.add(position));
+            Vector section = position.subtract(region.getMinimumPoint()).divide(16).floor();
+            if (!section.equals(lastSection)) {
+                sectionChanges++;
+                lastSection = section;
+            }
+        }
+        assertEquals(region.getArea(), seen.size());
+        assertEquals(3 * 2 * 2, sectionChanges);
+    }
+
+    @Test
+    public void testSetBlock() throws Exception {
+        SectionedClipboard loaded = read(ByteBuffer.wrap(write(createClipboard())));
+        Vector position = loaded.getMinimumPoint().add(20, 3, 17);
+        BlockState state = CROP.getDefaultState().with(AGE, 9);
+
+        loaded.setBlock(position, state);
+        loaded.setBlock(loaded.getMinimumPoint(), state);
+
+        assertSame(state, loaded.getBlock(position));
+        assertSame(state, loaded.getBlock(loaded.getMinimumPoint()));
+        assertNull(loaded.getFullBlock(loaded.getMinimumPoint()).getNbtData());
+    }
+
+    @Test
+    public void testConcurrentSetBlock() throws Exception {
+        SectionedClipboard loaded = read(ByteBuffer.wrap(write(createClipboard())));
+        Region region = loaded.getRegion();
+        BlockState state = CROP.getDefaultState().with(AGE, 9);
+
+        // Every thread writes its own positions, but all of them share sections
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (Vector position : region) {
+                        if (Math.floorMod(position.getBlockX() + position.getBlockY(), threads) == thread) {
+                            loaded.setBlock(position, state);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (Vector position : region) {
+            assertSame(state, loaded.getBlock(position));
+        }
+    }
+
+    private BlockArrayClipboard createClipboard() throws Exception {
+        Region region = new CuboidRegion(new Vector(-20, 5, 7), new Vector(16, 24, 25));
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(region);
+        clipboard.setOrigin(new Vector(1, 2, 3));
+        Random random = new Random(1);
+        for (Vector position : region) {
+            clipboard.setBlock(position, CROP.getDefaultState().with(AGE, random.nextInt(10)));
+        }
+        Map<String, Tag> sign = new HashMap<>();
+        sign.put("id", new StringTag("minecraft:sign"));
+        sign.put("Text1", new StringTag("hello"));
+        clipboard.setBlock(region.getMinimumPoint(), CROP.getDefaultState().toBaseBlock(new CompoundTag(sign)));
+        clipboard.setBlock(region.getMaximumPoint(), CROP.getDefaultState().toBaseBlock(new CompoundTag(sign)));
+
+        for (Vector position : region) {
+            BlockState state = clipboard.getBlock(position);
+            states.put(state.getAsString(), state);
+        }
+        return clipboard;
+    }
+
+    private static byte[] write(BlockArrayClipboard clipboard) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SectionedSchematicWriter writer = new SectionedSchematicWriter(bytes)) {
+            writer.write(clipboard);
+        }
+        return bytes.toByteArray();
+    }
+
+    private SectionedClipboard read(ByteBuffer buffer) throws IOException {
+        try (SectionedSchematicReader reader = new SectionedSchematicReader(buffer)) {
+            return reader.read(states::get);
+        }
+    }
+
+    private SectionedClipboard read(File file, boolean map) throws IOException {
+        try (SectionedSchematicReader reader = SectionedSchematicReader.open(file, map)) {
+            return reader.read(states::get);
+        }
+    }
+
+    private static void assertSameBlocks(BlockArrayClipboard expected, SectionedClipboard actual) {
+        for (Vector position : expected.getRegion()) {
+            BaseBlock expectedBlock = expected.getFullBlock(position);
+            BaseBlock actualBlock = actual.getFullBlock(position);
+            assertSame(expectedBlock.toImmutableState(), actualBlock.toImmutableState());
+            assertEquals(String.valueOf(expectedBlock.getNbtData() == null ? null : expectedBlock.getNbtData().getValue()),
+                    String.valueOf(actualBlock.getNbtData() == null ? null : actualBlock.getNbtData().getValue()));
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.clipboard.io;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.jnbt.ByteArrayTag;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.IntArrayTag;
+import com.sk89q.jnbt.IntTag;
+import com.sk89q.jnbt.ListTag;
+import com.sk89q.jnbt.NBTInputStream;
+import com.sk89q.jnbt.NBTOutputStream;
+import com.sk89q.jnbt.NamedTag;
+import com.sk89q.jnbt.StringTag;
+import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.registry.state.IntegerProperty;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class SpongeSchematicWriterTest {
+
+    private static final IntegerProperty LEVEL = new IntegerProperty("level", Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7));
+    private static final Map<String, Property<?>> PROPERTIES = ImmutableMap.of("level", LEVEL);
+    private static final BlockType CAULDRON = new BlockType("schematictest:cauldron") {
+        @Override
+        public Map<String, ? extends Property> getPropertyMap() {
+            return PROPERTIES;
+        }
+    };
+
+    @Test
+    public void testWritesReadableSchematic() throws Exception {
+        CuboidRegion region = new CuboidRegion(new Vector(-3, 10, 4), new Vector(40, 20, 30));
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(region);
+        clipboard.setOrigin(new Vector(0, 10, 0));
+
+        Random random = new Random(7);
+        for (Vector position : region) {
+            clipboard.setBlock(position, CAULDRON.getDefaultState().with(LEVEL, random.nextInt(8)));
+        }
+        Map<String, Tag> chest = new HashMap<>();
+        chest.put("id", new StringTag("minecraft:chest"));
+        chest.put("x", new IntTag(1));
+        chest.put("Lock", new StringTag("key"));
+        clipboard.setBlock(new Vector(-1, 12, 5), CAULDRON.getDefaultState().toBaseBlock(new CompoundTag(chest)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SpongeSchematicWriter writer = new SpongeSchematicWriter(new NBTOutputStream(bytes))) {
+            writer.write(clipboard);
+        }
+
+        NamedTag root;
+        try (NBTInputStream in = new NBTInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            root = in.readNamedTag();
+        }
+        assertEquals("Schematic", root.getName());
+        Map<String, Tag> schematic = ((CompoundTag) root.getTag()).getValue();
+
+        assertEquals(1, ((IntTag) schematic.get("Version")).getValue().intValue());
+        assertEquals(-3, ((IntTag) ((CompoundTag) schematic.get("Metadata")).getValue().get("WEOffsetX")).getValue().intValue());
+        assertEquals(Arrays.toString(new int[] { -3, 10, 4 }), Arrays.toString(((IntArrayTag) schematic.get("Offset")).getValue()));
+
+        Map<String, Tag> paletteTag = ((CompoundTag) schematic.get("Palette")).getValue();
+        assertEquals(8, ((IntTag) schematic.get("PaletteMax")).getValue().intValue());
+        String[] palette = new String[paletteTag.size()];
+        for (Map.Entry<String, Tag> entry : paletteTag.entrySet()) {
+            palette[((IntTag) entry.getValue()).getValue()] = entry.getKey();
+        }
+
+        byte[] data = ((ByteArrayTag) schematic.get("BlockData")).getValue();
+        List<String> decoded = new ArrayList<>();
+        int i = 0;
+        while (i < data.length) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[i++];
+                value |= (b & 127) << shift;
+                shift += 7;
+            } while ((b & 128) != 0);
+            decoded.add(palette[value]);
+        }
+
+        List<String> expected = new ArrayList<>();
+        Vector min = region.getMinimumPoint();
+        for (int y = 0; y < region.getHeight(); y++) {
+            for (int z = 0; z < region.getLength(); z++) {
+                for (int x = 0; x < region.getWidth(); x++) {
+                    BlockState state = clipboard.getBlock(min.add(x, y, z));
+                    expected.add(state.getAsString());
+                }
+            }
+        }
+        assertEquals(expected, decoded);
+
+        List<Tag> tileEntities = ((ListTag) schematic.get("TileEntities")).getValue();
+        assertEquals(1, tileEntities.size());
+        Map<String, Tag> tileEntity = ((CompoundTag) tileEntities.get(0)).getValue();
+        assertEquals("minecraft:chest", ((StringTag) tileEntity.get("Id")).getValue());
+        assertEquals("key", ((StringTag) tileEntity.get("Lock")).getValue());
+        assertEquals(Arrays.toString(new int[] { 2, 2, 1 }), Arrays.toString(((IntArrayTag) tileEntity.get("Pos")).getValue()));
+        assertEquals(null, tileEntity.get("x"));
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.StringTag;
+import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.math.transform.AffineTransform;
+import com.sk89q.worldedit.registry.state.DirectionalProperty;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.util.Direction;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public class BlockTransformExtentTest {
+
+    private static final DirectionalProperty FACING = new DirectionalProperty("facing",
+            Arrays.asList(Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST));
+    private static final Map<String, Property<?>> PROPERTIES = ImmutableMap.of("facing", FACING);
+
+    private static final BlockType CHEST = new BlockType("transformtest:chest") {
+        @Override
+        public Map<String, ? extends Property> getPropertyMap() {
+            return PROPERTIES;
+        }
+    };
+
+    /**
+     * Wraps a capturing extent, so the transformed block can be read back.
+     */
+    private static final class Capture {
+        private Object last;
+        private final BlockTransformExtent extent;
+
+        private Capture(AffineTransform transform) {
+            Extent target = (Extent) Proxy.newProxyInstance(Extent.class.getClassLoader(), new Class<?>[] { Extent.class }, (proxy, method, args) -> {
+                if (method.getName().equals("setBlock")) {
+                    last = args[1];
+                    return true;
+                }
+                return null;
+            });
+            extent = new BlockTransformExtent(target, transform);
+        }
+
+        private <T> T set(BlockStateHolder<?> block) throws WorldEditException {
+            extent.setBlock(Vector.ZERO, block);
+            @SuppressWarnings("unchecked") T result = (T) last;
+            return result;
+        }
+    }
+
+    @Test
+    public void testTableMatchesDirectTransform() throws Exception {
+        AffineTransform rotation = new AffineTransform().rotateY(90);
+        Capture capture = new Capture(rotation);
+        for (BlockState state : CHEST.getAllStates()) {
+            BlockState expected = BlockTransformExtent.transform(state, rotation.inverse());
+            // Set twice so that the second answer comes from the table
+            assertSame(expected, capture.set(state));
+            assertSame(expected, capture.set(state));
+        }
+    }
+
+    @Test
+    public void testTranslationDoesNotChangeStates() throws Exception {
+        // Both extents use the same shared table, which must not depend on the translation
+        Capture rotated = new Capture(new AffineTransform().rotateY(90));
+        Capture moved = new Capture(new AffineTransform().translate(12, -3, 40).rotateY(90));
+        for (BlockState state : CHEST.getAllStates()) {
+            assertSame(rotated.set(state), moved.set(state));
+        }
+    }
+
+    @Test
+    public void testRotation() throws Exception {
+        Capture capture = new Capture(new AffineTransform().rotateY(180));
+        BlockState north = CHEST.getDefaultState().with(FACING, Direction.NORTH);
+        assertEquals(Direction.SOUTH, capture.<BlockState>set(north).getState(FACING));
+    }
+
+    @Test
+    public void testNbtDataIsKept() throws Exception {
+        Capture capture = new Capture(new AffineTransform().rotateY(90));
+        CompoundTag tag = new CompoundTag(Collections.<String, Tag>singletonMap("Lock", new StringTag("key")));
+        BlockState north = CHEST.getDefaultState().with(FACING, Direction.NORTH);
+
+        BaseBlock transformed = capture.set(north.toBaseBlock(tag));
+        assertSame(tag, transformed.getNbtData());
+        assertSame(capture.set(north), transformed.toImmutableState());
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.worldedit.BlockVector2D;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.NullExtent;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.world.ChunkPrefetch;
+import com.sk89q.worldedit.world.NullWorld;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ChunkLoadingExtentTest {
+
+    private static final BlockState STONE = (new BlockType("prefetchtest:stone") {
+        @Override
+        public Map<String, ? extends Property> getPropertyMap() {
+            return ImmutableMap.of();
+        }
+    }).getDefaultState();
+
+    /**
+     * A world that starts with the chunks at even x coordinates loaded and
+     * only completes prefetches when told to, like an asynchronous loader.
+     */
+    private static class PrefetchingWorld extends NullWorld {
+        private final Set<BlockVector2D> loaded = new HashSet<>();
+        private final List<ChunkPrefetch> pending = new ArrayList<>();
+        private final Set<BlockVector2D> held = new HashSet<>();
+        private int syncLoads;
+
+        @Override
+        public void checkLoadedChunk(Vector position) {
+            if (loaded.add(new BlockVector2D(position.getBlockX() >> 4, position.getBlockZ() >> 4))) {
+                syncLoads++;
+            }
+        }
+
+        @Override
+        public ChunkPrefetch prefetchChunks(Set<BlockVector2D> chunks) {
+            held.addAll(chunks);
+            ChunkPrefetch prefetch = new ChunkPrefetch(chunks, () -> held.removeAll(chunks));
+            pending.add(prefetch);
+            return prefetch;
+        }
+
+        void completeLoads() {
+            for (ChunkPrefetch prefetch : pending) {
+                for (BlockVector2D chunk : prefetch.getChunks()) {
+                    prefetch.markLoaded(chunk, !loaded.add(chunk));
+                }
+            }
+            pending.clear();
+        }
+    }
+
+    private static void fill(ChunkLoadingExtent extent, int maxX, int maxZ) throws WorldEditException {
+        for (int x = 0; x <= maxX; x++) {
+            for (int z = 0; z <= maxZ; z++) {
+                extent.setBlock(new Vector(x, 64, z), STONE);
+            }
+        }
+    }
+
+    @Test
+    public void testPrefetchedChunksSkipSynchronousLoads() throws WorldEditException {
+        PrefetchingWorld world = new PrefetchingWorld();
+        world.loaded.add(new BlockVector2D(0, 0));
+        ChunkLoadingExtent extent = new ChunkLoadingExtent(new NullExtent(), world);
+
+        assertNotNull(extent.prefetch(new CuboidRegion(new Vector(0, 0, 0), new Vector(47, 255, 31))));
+        assertEquals(6, world.held.size());
+        world.completeLoads();
+        fill(extent, 47, 31);
+
+        assertEquals(0, world.syncLoads);
+        assertEquals(5, extent.getAvoidedLoads());
+
+        extent.releasePrefetched();
+        assertTrue(world.held.isEmpty());
+    }
+
+    @Test
+    public void testChunksStillLoadingFallBackToSynchronousLoads() throws WorldEditException {
+        PrefetchingWorld world = new PrefetchingWorld();
+        ChunkLoadingExtent extent = new ChunkLoadingExtent(new NullExtent(), world);
+
+        extent.prefetch(new CuboidRegion(new Vector(0, 0, 0), new Vector(31, 255, 15)));
+        fill(extent, 15, 15);
+        assertEquals(1, world.syncLoads);
+
+        world.completeLoads();
+        fill(extent, 31, 15);
+        assertEquals(1, world.syncLoads);
+        assertEquals(1, extent.getAvoidedLoads());
+    }
+
+    @Test
+    public void testHugeRegionsAreNotPrefetched() {
+        PrefetchingWorld world = new PrefetchingWorld();
+        ChunkLoadingExtent extent = new ChunkLoadingExtent(new NullExtent(), world);
+
+        assertNull(extent.prefetch(new CuboidRegion(new Vector(0, 0, 0), new Vector(16 * 64, 255, 16 * 64))));
+        assertTrue(world.held.isEmpty());
+    }
+
+    @Test
+    public void testReleaseSinglePrefetch() {
+        PrefetchingWorld world = new PrefetchingWorld();
+        ChunkLoadingExtent extent = new ChunkLoadingExtent(new NullExtent(), world);
+
+        ChunkPrefetch first = extent.prefetch(new CuboidRegion(new Vector(0, 0, 0), new Vector(15, 255, 15)));
+        ChunkPrefetch second = extent.prefetch(new CuboidRegion(new Vector(0, 0, 0), new Vector(31, 255, 15)));
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(2, world.held.size());
+
+        extent.release(first);
+        assertTrue(first.isClosed());
+        assertEquals(Collections.singleton(new BlockVector2D(1, 0)), world.held);
+
+        extent.releasePrefetched();
+        assertTrue(world.held.isEmpty());
+    }
+
+}
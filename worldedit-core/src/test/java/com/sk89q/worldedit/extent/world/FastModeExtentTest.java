@@ -0,0 +1,157 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.extent.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.StringTag;
+import com.sk89q.worldedit.BlockVector2D;
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extension.platform.TestPlatform;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.ChunkBatch;
+import com.sk89q.worldedit.world.TestWorld;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FastModeExtentTest {
+
+    private static class BatchingWorld extends TestWorld {
+        private final List<BlockVector2D> appliedChunks = new ArrayList<>();
+
+        @Override
+        public ChunkBatch createChunkBatch() {
+            return new ChunkBatch(getMaxY() + 1) {
+                @Override
+                protected void apply(BatchChunk chunk) {
+                    appliedChunks.add(new BlockVector2D(chunk.getX(), chunk.getZ()));
+                    for (int sectionY = 0; sectionY < chunk.getSectionCount(); sectionY++) {
+                        BlockStateHolder[] blocks = chunk.getSection(sectionY);
+                        if (blocks == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < blocks.length; i++) {
+                            if (blocks[i] != null) {
+                                Vector position = new Vector(chunk.getX() << 4 | i & 15, sectionY << 4 | i >> 8, chunk.getZ() << 4 | i >> 4 & 15);
+                                setBlock(position, blocks[i], false);
+                            }
+                        }
+                    }
+                }
+            };
+        }
+    }
+
+    @BeforeClass
+    public static void setUp() {
+        TestPlatform.setUp();
+    }
+
+    private static EditSession createFastSession(BatchingWorld world) {
+        EditSession editSession = WorldEdit.getInstance().getEditSessionFactory().getEditSession(world, -1);
+        editSession.setFastMode(true);
+        return editSession;
+    }
+
+    @Test
+    public void testFastModeChangesAreWrittenOnFlush() throws WorldEditException {
+        BatchingWorld world = new BatchingWorld();
+        EditSession editSession = createFastSession(world);
+        BlockState stone = BlockTypes.STONE.getDefaultState();
+        CuboidRegion region = new CuboidRegion(new Vector(-5, 0, -5), new Vector(40, 10, 20));
+
+        editSession.setBlocks(region, stone);
+        assertSame(BlockTypes.AIR.getDefaultState(), world.getBlock(new Vector(3, 4, 5)));
+        assertSame(stone, editSession.getBlock(new Vector(3, 4, 5)));
+
+        editSession.flushQueue();
+        for (Vector position : region) {
+            assertSame(stone, world.getBlock(position));
+        }
+        assertEquals(4 * 3, world.appliedChunks.size());
+
+        // The batch is empty after a flush
+        editSession.flushQueue();
+        assertEquals(4 * 3, world.appliedChunks.size());
+    }
+
+    @Test
+    public void testWorldWritesAreNotBuffered() throws WorldEditException {
+        BatchingWorld world = new BatchingWorld();
+        BlockState stone = BlockTypes.STONE.getDefaultState();
+
+        world.setBlock(new Vector(1, 2, 3), stone, false);
+        assertSame(stone, world.getBlock(new Vector(1, 2, 3)));
+        assertTrue(world.appliedChunks.isEmpty());
+    }
+
+    @Test
+    public void testLaterSlowChangeIsNotOverwritten() throws WorldEditException {
+        BatchingWorld world = new BatchingWorld();
+        EditSession editSession = createFastSession(world);
+        Vector position = new Vector(1, 2, 3);
+
+        editSession.setBlock(position, BlockTypes.STONE.getDefaultState());
+        editSession.setFastMode(false);
+        editSession.setBlock(position, BlockTypes.DIRT.getDefaultState());
+        editSession.flushQueue();
+
+        assertSame(BlockTypes.DIRT.getDefaultState(), world.getBlock(position));
+    }
+
+    @Test
+    public void testBatchKeepsNbtData() {
+        ChunkBatch batch = new BatchingWorld().createChunkBatch();
+        BaseBlock chest = BlockTypes.CHEST.getDefaultState().toBaseBlock(new CompoundTag(ImmutableMap.of("id", new StringTag("minecraft:chest"))));
+
+        assertTrue(batch.set(new Vector(-1, 0, -1), chest));
+        assertTrue(batch.set(new Vector(-1, 1, -1), chest.toImmutableState()));
+        assertSame(chest, batch.get(new Vector(-1, 0, -1)));
+        assertSame(chest.toImmutableState(), batch.get(new Vector(-1, 1, -1)));
+        assertNull(batch.get(new Vector(-1, 2, -1)));
+    }
+
+    @Test
+    public void testBatchRejectsPositionsOutsideWorld() {
+        BatchingWorld world = new BatchingWorld();
+        ChunkBatch batch = world.createChunkBatch();
+
+        assertFalse(batch.set(new Vector(0, -1, 0), BlockTypes.STONE.getDefaultState()));
+        assertFalse(batch.set(new Vector(0, world.getMaxY() + 1, 0), BlockTypes.STONE.getDefaultState()));
+        assertTrue(batch.isEmpty());
+    }
+
+}
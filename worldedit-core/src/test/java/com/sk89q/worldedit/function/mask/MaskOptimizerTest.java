@@ -0,0 +1,152 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.function.mask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.extent.NullExtent;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+public class MaskOptimizerTest {
+
+    private static final BlockType STONE = createType("masktest:stone");
+    private static final BlockType DIRT = createType("masktest:dirt");
+    private static final BlockType SAND = createType("masktest:sand");
+
+    private static BlockType createType(String id) {
+        return new BlockType(id) {
+            @Override
+            public Map<String, ? extends Property> getPropertyMap() {
+                return Collections.emptyMap();
+            }
+        };
+    }
+
+    @Test
+    public void testNestedIntersectionsAreFlattenedAndOrdered() {
+        CountingMask expensive = new CountingMask(true);
+        BoundedHeightMask height = new BoundedHeightMask(0, 10);
+        Mask mask = new MaskIntersection(expensive, new MaskIntersection(new MaskIntersection(height)));
+
+        Mask optimized = MaskOptimizer.optimize(mask);
+
+        assertSame(MaskIntersection.class, optimized.getClass());
+        List<Mask> children = new ArrayList<>(((MaskIntersection) optimized).getMasks());
+        assertEquals(2, children.size());
+        assertSame(height, children.get(0));
+        assertSame(expensive, children.get(1));
+
+        assertFalse(optimized.test(new Vector(0, 20, 0)));
+        assertEquals(0, expensive.tests);
+        assertTrue(optimized.test(new Vector(0, 5, 0)));
+        assertEquals(1, expensive.tests);
+    }
+
+    @Test
+    public void testUnionFusesBlockTypeMasksOfTheSameExtent() {
+        Extent extent = new NullExtent();
+        Extent other = new NullExtent();
+        BlockTypeMask unrelated = new BlockTypeMask(other, SAND);
+        Mask mask = new MaskUnion(new BlockTypeMask(extent, STONE), new MaskUnion(new BlockTypeMask(extent, DIRT), unrelated));
+
+        Mask optimized = MaskOptimizer.optimize(mask);
+
+        assertSame(MaskUnion.class, optimized.getClass());
+        List<Mask> children = new ArrayList<>(((MaskUnion) optimized).getMasks());
+        assertEquals(2, children.size());
+        assertTrue(children.contains(unrelated));
+        children.remove(unrelated);
+        BlockTypeMask fused = (BlockTypeMask) children.get(0);
+        assertSame(extent, fused.getExtent());
+        assertEquals(ImmutableSet.of(STONE, DIRT), ImmutableSet.copyOf(fused.getBlocks()));
+    }
+
+    @Test
+    public void testIdentityAndEmptyMasks() {
+        MaskIntersection empty = new MaskIntersection();
+        assertSame(empty, MaskOptimizer.optimize(empty));
+        assertSame(Masks.alwaysTrue(), MaskOptimizer.optimize(new MaskIntersection(Masks.alwaysTrue())));
+        assertSame(Masks.alwaysFalse(), MaskOptimizer.optimize(new MaskUnion(Masks.alwaysFalse())));
+
+        CountingMask counting = new CountingMask(false);
+        assertSame(Masks.alwaysTrue(), MaskOptimizer.optimize(new MaskUnion(counting, Masks.alwaysTrue())));
+        assertSame(Masks.alwaysFalse(), MaskOptimizer.optimize(new MaskIntersection(counting, Masks.alwaysFalse())));
+        assertSame(counting, MaskOptimizer.optimize(new MaskIntersection(counting, Masks.alwaysTrue())));
+
+        // An empty child never matches, so it must not be flattened away
+        Mask optimized = MaskOptimizer.optimize(new MaskIntersection(new CountingMask(true), new MaskIntersection()));
+        assertFalse(optimized.test(Vector.ZERO));
+    }
+
+    @Test
+    public void testAdaptiveOrderFollowsRejections() {
+        CountingMask passing = new CountingMask(true);
+        CountingMask rejecting = new CountingMask(false);
+        Mask optimized = MaskOptimizer.optimize(new MaskIntersection(passing, rejecting), true);
+
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(optimized.test(Vector.ZERO));
+        }
+        int before = passing.tests;
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(optimized.test(Vector.ZERO));
+        }
+
+        assertEquals(20000, rejecting.tests);
+        assertEquals(before, passing.tests);
+    }
+
+    private static class CountingMask extends AbstractMask {
+        private final boolean result;
+        private int tests;
+
+        private CountingMask(boolean result) {
+            this.result = result;
+        }
+
+        @Override
+        public boolean test(Vector vector) {
+            tests++;
+            return result;
+        }
+
+        @Nullable
+        @Override
+        public Mask2D toMask2D() {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.function.pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import org.junit.Test;
+
+public class RandomPatternTest {
+
+    private static final int SAMPLES = 200000;
+
+    @Test
+    public void testDistributionFollowsWeights() {
+        CountingPattern[] counters = { new CountingPattern(), new CountingPattern(), new CountingPattern(), new CountingPattern() };
+        double[] weights = { 50, 25, 25, 0 };
+        RandomPattern pattern = new RandomPattern();
+        for (int i = 0; i < counters.length; i++) {
+            pattern.add(counters[i], weights[i]);
+        }
+
+        for (int i = 0; i < SAMPLES; i++) {
+            pattern.apply(new Vector(i, 0, 0));
+        }
+
+        assertEquals(0.5, counters[0].count / (double) SAMPLES, 0.01);
+        assertEquals(0.25, counters[1].count / (double) SAMPLES, 0.01);
+        assertEquals(0.25, counters[2].count / (double) SAMPLES, 0.01);
+        assertEquals(0, counters[3].count);
+    }
+
+    @Test
+    public void testSeededDistributionFollowsWeights() {
+        CountingPattern first = new CountingPattern();
+        CountingPattern second = new CountingPattern();
+        RandomPattern pattern = new RandomPattern(42);
+        pattern.add(first, 3);
+        pattern.add(second, 1);
+
+        for (int x = 0; x < 100; x++) {
+            for (int z = 0; z < 100; z++) {
+                for (int y = 0; y < 20; y++) {
+                    pattern.apply(new Vector(x, y, z));
+                }
+            }
+        }
+
+        assertEquals(0.75, first.count / (double) SAMPLES, 0.01);
+        assertEquals(0.25, second.count / (double) SAMPLES, 0.01);
+    }
+
+    @Test
+    public void testSeededIsReproducible() {
+        Pattern[] entries = new Pattern[20];
+        RandomPattern a = new RandomPattern(1234);
+        RandomPattern b = new RandomPattern(1234);
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new CountingPattern();
+            a.add(entries[i], i + 1);
+            b.add(entries[i], i + 1);
+        }
+
+        // Visit b in the opposite order to show the pick depends on position only
+        CountingPattern.last = null;
+        for (int x = 0; x < 64; x++) {
+            Vector position = new Vector(x, x * 3, -x);
+            a.apply(position);
+            Pattern picked = CountingPattern.last;
+            b.apply(new Vector(63 - x, 0, 0));
+            b.apply(position);
+            assertSame(picked, CountingPattern.last);
+        }
+    }
+
+    @Test
+    public void testAddRebuildsTable() {
+        CountingPattern first = new CountingPattern();
+        CountingPattern second = new CountingPattern();
+        RandomPattern pattern = new RandomPattern();
+        pattern.add(first, 1);
+        pattern.apply(Vector.ZERO);
+        pattern.add(second, 0);
+        pattern.add(new CountingPattern(), 0);
+
+        for (int i = 0; i < 1000; i++) {
+            pattern.apply(Vector.ZERO);
+        }
+        assertEquals(1001, first.count);
+        assertEquals(0, second.count);
+    }
+
+    private static final class CountingPattern implements Pattern {
+        private static Pattern last;
+        private int count;
+
+        @Override
+        public BlockStateHolder apply(Vector position) {
+            count++;
+            last = this;
+            return null;
+        }
+    }
+
+}
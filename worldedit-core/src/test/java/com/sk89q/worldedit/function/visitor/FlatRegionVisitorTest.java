@@ -0,0 +1,117 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.function.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.sk89q.worldedit.BlockVector2D;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.extent.NullExtent;
+import com.sk89q.worldedit.function.FlatRegionFunction;
+import com.sk89q.worldedit.function.FlatRegionMaskingFilter;
+import com.sk89q.worldedit.function.biome.BiomeReplace;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.function.util.FlatRegionOffset;
+import com.sk89q.worldedit.regions.CylinderRegion;
+import com.sk89q.worldedit.regions.FlatRegion;
+import com.sk89q.worldedit.world.biome.BaseBiome;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class FlatRegionVisitorTest {
+
+    private static final BaseBiome BIOME = new BaseBiome(6);
+
+    @Test
+    public void testSetsBiomesOfEveryColumn() throws Exception {
+        FlatRegion region = new CylinderRegion(null, new Vector(-9, 0, 30), new Vector2D(37.5, 21.5), 0, 10);
+        BiomeExtent extent = new BiomeExtent();
+
+        FlatRegionVisitor visitor = new FlatRegionVisitor(region, new BiomeReplace(extent, BIOME));
+        Operations.complete(visitor);
+
+        int count = 0;
+        Set<BlockVector2D> chunks = new HashSet<>();
+        for (Vector2D column : region.asFlatRegion()) {
+            assertEquals(BIOME, extent.biomes.get(column.toBlockVector2D()));
+            chunks.add(new BlockVector2D(column.getBlockX() >> 4, column.getBlockZ() >> 4));
+            count++;
+        }
+        assertEquals(count, extent.biomes.size());
+        assertEquals(count, visitor.getAffected());
+
+        // Every chunk of the region should be written in one call
+        assertEquals(chunks.size(), extent.bulkWrites);
+    }
+
+    @Test
+    public void testMaskAndOffset() throws Exception {
+        FlatRegion region = new CylinderRegion(null, new Vector(5, 0, -5), new Vector2D(20, 20), 0, 10);
+        BiomeExtent extent = new BiomeExtent();
+        Vector2D offset = new Vector2D(100, -3);
+
+        FlatRegionFunction function = new FlatRegionOffset(offset, new BiomeReplace(extent, BIOME));
+        function = new FlatRegionMaskingFilter(position -> (position.getBlockX() + position.getBlockZ()) % 3 == 0, function);
+        FlatRegionVisitor visitor = new FlatRegionVisitor(region, function);
+        Operations.complete(visitor);
+
+        int count = 0;
+        for (Vector2D column : region.asFlatRegion()) {
+            BaseBiome biome = extent.biomes.get(column.add(offset).toBlockVector2D());
+            if ((column.getBlockX() + column.getBlockZ()) % 3 == 0) {
+                assertEquals(BIOME, biome);
+                count++;
+            } else {
+                assertNull(biome);
+            }
+        }
+        assertEquals(count, extent.biomes.size());
+        assertEquals(count, visitor.getAffected());
+    }
+
+    private static class BiomeExtent extends NullExtent {
+        private final Map<BlockVector2D, BaseBiome> biomes = new HashMap<>();
+        private int bulkWrites;
+
+        @Override
+        public BaseBiome getBiome(Vector2D position) {
+            return biomes.get(position.toBlockVector2D());
+        }
+
+        @Override
+        public boolean setBiome(Vector2D position, BaseBiome biome) {
+            biomes.put(position.toBlockVector2D(), biome);
+            return true;
+        }
+
+        @Override
+        public int setBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+            bulkWrites++;
+            return super.setBiomes(x, z, width, length, biomes);
+        }
+    }
+
+}
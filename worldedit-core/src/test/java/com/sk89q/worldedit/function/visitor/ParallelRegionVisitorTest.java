@@ -0,0 +1,112 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.function.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.function.operation.ForwardExtentCopy;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.CylinderRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelRegionVisitorTest {
+
+    private static final BlockType STONE = new BlockType("paralleltest:stone") {
+        @Override
+        public Map<String, ? extends Property> getPropertyMap() {
+            return ImmutableMap.of();
+        }
+    };
+
+    private static final BlockType DIRT = new BlockType("paralleltest:dirt") {
+        @Override
+        public Map<String, ? extends Property> getPropertyMap() {
+            return ImmutableMap.of();
+        }
+    };
+
+    @Test
+    public void testVisitsEveryPointOnce() throws Exception {
+        Region region = new CylinderRegion(null, new Vector(-7, 0, 21), new Vector2D(23.5, 11.5), 3, 12);
+        Set<BlockVector> visited = ConcurrentHashMap.newKeySet();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelRegionVisitor visitor = new ParallelRegionVisitor(region, position -> {
+                assertTrue(visited.add(position.toBlockVector()));
+                return position.getBlockY() % 2 == 0;
+            }, pool);
+            Operations.complete(visitor);
+
+            int count = 0;
+            int even = 0;
+            for (Vector position : region) {
+                assertTrue(visited.contains(position.toBlockVector()));
+                count++;
+                if (position.getBlockY() % 2 == 0) {
+                    even++;
+                }
+            }
+            assertEquals(count, visited.size());
+            assertEquals(even, visitor.getAffected());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelCopy() throws Exception {
+        CuboidRegion region = new CuboidRegion(new Vector(-20, 0, -20), new Vector(40, 9, 30));
+        BlockArrayClipboard source = new BlockArrayClipboard(region);
+        for (Vector position : region) {
+            BlockState state = (position.getBlockX() + position.getBlockZ()) % 3 == 0 ? DIRT.getDefaultState() : STONE.getDefaultState();
+            source.setBlock(position, state);
+        }
+
+        Vector offset = new Vector(100, 10, 100);
+        BlockArrayClipboard target = new BlockArrayClipboard(new CuboidRegion(region.getMinimumPoint().add(offset), region.getMaximumPoint().add(offset)));
+        ForwardExtentCopy copy = new ForwardExtentCopy(source, region, target, region.getMinimumPoint().add(offset));
+        copy.setCopyingEntities(false);
+        copy.setParallel(true);
+        Operations.complete(copy);
+
+        assertEquals(region.getArea(), copy.getAffected());
+        for (Vector position : region) {
+            assertSame(source.getBlock(position), target.getBlock(position.add(offset)));
+        }
+    }
+
+}
@@ -24,10 +24,13 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.internal.expression.lexer.LexerException;
 import com.sk89q.worldedit.internal.expression.parser.ParserException;
 import com.sk89q.worldedit.internal.expression.runtime.EvaluationException;
 import com.sk89q.worldedit.internal.expression.runtime.ExpressionEnvironment;
+import com.sk89q.worldedit.math.noise.PerlinNoise;
+import com.sk89q.worldedit.math.noise.VoronoiNoise;
 import org.junit.Test;
 
 public class ExpressionTest {
@@ -162,6 +165,35 @@ public void testQuery() throws Exception {
         assertEquals(1, simpleEval("!queryRel(3,4,5,100,200)"), 0);
     }
 
+    @Test
+    public void testNoise() throws Exception {
+        PerlinNoise perlin = new PerlinNoise();
+        perlin.setSeed(7);
+        perlin.setFrequency(0.05);
+        perlin.setOctaveCount(4);
+        perlin.setPersistence(0.5);
+        VoronoiNoise voronoi = new VoronoiNoise();
+        voronoi.setSeed(8);
+        voronoi.setFrequency(0.1);
+
+        Expression expression = compile("perlin(seed, x, y, z, 0.05, 4, 0.5)", "seed", "x", "y", "z");
+        Expression expression2 = compile("voronoi(8, x, y, z, 0.1)", "x", "y", "z");
+        for (int x = -20; x < 20; x += 3) {
+            for (int y = 0; y < 40; y += 5) {
+                for (int z = -33; z < 20; z += 7) {
+                    assertEquals(perlin.noise(new Vector(x, y, z)), expression.evaluate(7, x, y, z), 0);
+                    assertEquals(perlin.noise(new Vector(x + 0.5, y, z)), expression.evaluate(7, x + 0.5, y, z), 0);
+                    assertEquals(voronoi.noise(new Vector(x, y, z)), expression2.evaluate(x, y, z), 0);
+                }
+            }
+        }
+
+        // Changing the seed must not reuse noise computed for the old one
+        perlin.setSeed(9);
+        assertEquals(perlin.noise(new Vector(1, 2, 3)), expression.evaluate(9, 1, 2, 3), 0);
+        assertEquals(perlin.noise(new Vector(1, 2, 3)), expression.evaluate(9, 1, 2, 3), 0);
+    }
+
     private double simpleEval(String expressionString) throws ExpressionException {
         final Expression expression = compile(expressionString);
 
@@ -0,0 +1,83 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.math.convolution;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ConvolutionEngineTest {
+
+    private static final int SIZE = 512;
+
+    private static float[] createHeightMap(int width, int height) {
+        Random random = new Random(42);
+        float[] data = new float[width * height];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = 64 + random.nextInt(32);
+        }
+        return data;
+    }
+
+    private static Kernel asFullKernel(Kernel kernel) {
+        return new Kernel(kernel.getWidth(), kernel.getHeight(), kernel.getKernelData(null));
+    }
+
+    @Test
+    public void testSeparableMatchesFullKernel() {
+        float[] data = createHeightMap(SIZE, SIZE);
+        GaussianKernel kernel = new GaussianKernel(5, 1.0);
+        ConvolutionEngine engine = ConvolutionEngine.getDefault();
+
+        float[] separable = engine.convolve(data, SIZE, SIZE, kernel);
+        float[] full = engine.convolve(data, SIZE, SIZE, asFullKernel(kernel));
+
+        assertArrayEquals(full, separable, 0.001f);
+    }
+
+    @Test
+    public void testTilingDoesNotChangeResult() {
+        float[] data = createHeightMap(SIZE, SIZE - 3);
+        LinearKernel kernel = new LinearKernel(2);
+
+        float[] serial = new ConvolutionEngine(ForkJoinPool.commonPool(), SIZE).convolve(data, SIZE, SIZE - 3, kernel);
+        float[] tiled = new ConvolutionEngine(ForkJoinPool.commonPool(), 7).convolve(data, SIZE, SIZE - 3, kernel);
+
+        assertArrayEquals(serial, tiled, 0);
+    }
+
+    @Test
+    public void testFlatDataIsUnchanged() {
+        float[] data = new float[16 * 16];
+        Arrays.fill(data, 70);
+
+        int[] filtered = new HeightMapFilter(new GaussianKernel(5, 1.0)).filter(HeightMapFilter.round(data), 16, 16);
+
+        for (int height : filtered) {
+            assertEquals(70, height);
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.math.noise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import org.junit.Test;
+
+public class NoiseTileCacheTest {
+
+    private static class HashNoise implements NoiseGenerator {
+        private long samples;
+
+        @Override
+        public float noise(Vector2D position) {
+            samples++;
+            return hash(position.getBlockX(), 0, position.getBlockZ());
+        }
+
+        @Override
+        public float noise(Vector position) {
+            samples++;
+            return hash(position.getBlockX(), position.getBlockY(), position.getBlockZ());
+        }
+
+        @Override
+        public boolean isDeterministic() {
+            return true;
+        }
+
+        private static float hash(int x, int y, int z) {
+            int h = x * 73856093 ^ y * 19349663 ^ z * 83492791;
+            return (h & 0xFFFF) / 65535f;
+        }
+    }
+
+    @Test
+    public void testSectionsMatchPointSamples() {
+        HashNoise generator = new HashNoise();
+        NoiseTileCache cache = new NoiseTileCache(generator, false, 2);
+        for (int x = -20; x < 20; x += 3) {
+            for (int y = 0; y < 40; y += 5) {
+                for (int z = -33; z < 20; z += 7) {
+                    assertEquals(generator.noise(new Vector(x, y, z)), cache.get(x, y, z), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelSectionsMatchPointSamples() {
+        HashNoise generator = new HashNoise();
+        NoiseTileCache cache = new NoiseTileCache(generator, false);
+        cache.setParallel(true);
+        for (int y = -17; y < 17; ++y) {
+            assertEquals(generator.noise(new Vector(5, y, -9)), cache.get(5, y, -9), 0);
+        }
+    }
+
+    @Test
+    public void testColumnsMatchPointSamples() {
+        HashNoise generator = new HashNoise();
+        NoiseTileCache cache = new NoiseTileCache(generator, true);
+        for (int x = -40; x < 40; ++x) {
+            for (int z = -40; z < 40; z += 9) {
+                assertEquals(generator.noise(new Vector2D(x, z)), cache.get(x, 100, z), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testSettingsChangeDiscardsTiles() {
+        PerlinNoise generator = new PerlinNoise();
+        NoiseTileCache cache = new NoiseTileCache(generator, false);
+        assertEquals(generator.noise(new Vector(3, 4, 5)), cache.get(3, 4, 5), 0);
+
+        generator.setFrequency(generator.getFrequency() * 3);
+        assertEquals(generator.noise(new Vector(3, 4, 5)), cache.get(3, 4, 5), 0);
+
+        generator.setSeed(generator.getSeed() + 1);
+        assertEquals(generator.noise(new Vector(3, 4, 5)), cache.get(3, 4, 5), 0);
+    }
+
+    @Test
+    public void testUnchangedSettingsKeepRevision() {
+        PerlinNoise generator = new PerlinNoise();
+        int revision = generator.getRevision();
+        generator.setSeed(generator.getSeed());
+        generator.setFrequency(generator.getFrequency());
+        generator.setOctaveCount(generator.getOctaveCount());
+        assertEquals(revision, generator.getRevision());
+    }
+
+    @Test
+    public void testWideRegionSamplesAboutOncePerBlock() {
+        HashNoise generator = new HashNoise();
+        NoiseTileCache cache = new NoiseTileCache(generator, false);
+
+        // A slice of 16 by 16 sections is more than the cache holds, so
+        // each section would be evicted before the next layer reaches it
+        CuboidRegion region = new CuboidRegion(new Vector(0, 0, 0), new Vector(255, 255, 31));
+        for (Vector position : region) {
+            assertEquals(HashNoise.hash(position.getBlockX(), position.getBlockY(), position.getBlockZ()),
+                    cache.get(position.getBlockX(), position.getBlockY(), position.getBlockZ()), 0);
+        }
+
+        assertEquals(region.getArea(), cache.getLookupCount());
+        assertEquals(generator.samples, cache.getSampleCount());
+        assertTrue(generator.samples <= region.getArea() + 2 * NoiseTile.SIZE * NoiseTile.SIZE * NoiseTile.SIZE);
+    }
+
+    @Test
+    public void testSectionOrderFillsEveryTile() {
+        HashNoise generator = new HashNoise();
+        NoiseTileCache cache = new NoiseTileCache(generator, false);
+
+        for (int tile = 0; tile < 8; tile++) {
+            CuboidRegion section = new CuboidRegion(new Vector(tile * 16, 0, 0), new Vector(tile * 16 + 15, 15, 15));
+            for (Vector position : section) {
+                cache.get(position.getBlockX(), position.getBlockY(), position.getBlockZ());
+            }
+        }
+
+        assertEquals(8 * 16 * 16 * 16, generator.samples);
+        assertEquals(generator.samples, cache.getLookupCount());
+    }
+
+}
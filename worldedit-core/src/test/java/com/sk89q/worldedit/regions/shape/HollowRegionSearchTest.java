@@ -0,0 +1,209 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.regions.shape;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.sk89q.worldedit.BlockVector;
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extension.platform.TestPlatform;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.function.pattern.BlockPattern;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.CylinderRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.Vector2D;
+import com.sk89q.worldedit.util.Direction;
+import com.sk89q.worldedit.world.TestWorld;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.Set;
+
+public class HollowRegionSearchTest {
+
+    private static final Vector[] DIRECTIONS = {
+            Direction.NORTH.toVector(),
+            Direction.EAST.toVector(),
+            Direction.SOUTH.toVector(),
+            Direction.WEST.toVector(),
+            Direction.UP.toVector(),
+            Direction.DOWN.toVector(),
+    };
+
+    @BeforeClass
+    public static void setUp() {
+        TestPlatform.setUp();
+    }
+
+    @Test
+    public void testHollowCuboid() throws Exception {
+        Region region = new CuboidRegion(new Vector(-6, 10, 3), new Vector(7, 21, 15));
+        for (int thickness = 1; thickness <= 3; thickness++) {
+            TestWorld world = new TestWorld();
+            fill(world, region, new Random(0), 0);
+            assertSameAsOriginal(world, region, thickness);
+        }
+    }
+
+    @Test
+    public void testInteriorCavities() throws Exception {
+        Region region = new CuboidRegion(new Vector(0, 5, 0), new Vector(19, 24, 19));
+        for (int thickness = 2; thickness <= 4; thickness++) {
+            TestWorld world = new TestWorld();
+            fill(world, region, new Random(thickness), 0.2);
+            // A tunnel from the side connects some cavities to the outside
+            for (int x = 0; x < 12; x++) {
+                world.setBlock(new Vector(x, 14, 9), BlockTypes.AIR.getDefaultState(), false);
+            }
+            assertSameAsOriginal(world, region, thickness);
+        }
+    }
+
+    @Test
+    public void testCylinderWithCavities() throws Exception {
+        Region region = new CylinderRegion(null, new Vector(4, 0, -3), new Vector2D(9.5, 7.5), 20, 33);
+        TestWorld world = new TestWorld();
+        fill(world, region, new Random(5), 0.15);
+        assertSameAsOriginal(world, region, 2);
+    }
+
+    /**
+     * Fill a region with stone, leaving some blocks as air.
+     */
+    private static void fill(TestWorld world, Region region, Random random, double cavities) throws WorldEditException {
+        for (BlockVector position : region) {
+            if (random.nextDouble() >= cavities) {
+                world.setBlock(position, BlockTypes.STONE.getDefaultState(), false);
+            }
+        }
+    }
+
+    private static void assertSameAsOriginal(TestWorld world, Region region, int thickness) throws Exception {
+        Set<BlockVector> expected = originalHollow(world, region, thickness);
+        assertFalse(expected.isEmpty());
+
+        EditSession editSession = WorldEdit.getInstance().getEditSessionFactory().getEditSession(world, -1);
+        BlockState marker = BlockTypes.GLASS.getDefaultState();
+        int affected = editSession.hollowOutRegion(region, thickness, new BlockPattern(marker));
+        editSession.flushQueue();
+
+        Set<BlockVector> actual = new HashSet<>();
+        for (BlockVector position : region) {
+            if (world.getBlock(position) == marker) {
+                actual.add(position);
+            }
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), affected);
+    }
+
+    /**
+     * The hollowing that EditSession did before it used
+     * {@link HollowRegionSearch}, kept here to compare against.
+     */
+    private static Set<BlockVector> originalHollow(Extent extent, Region region, int thickness) {
+        Set<BlockVector> outside = new HashSet<>();
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        int minX = min.getBlockX();
+        int minY = min.getBlockY();
+        int minZ = min.getBlockZ();
+        int maxX = max.getBlockX();
+        int maxY = max.getBlockY();
+        int maxZ = max.getBlockZ();
+
+        for (int x = minX; x <= maxX; ++x) {
+            for (int y = minY; y <= maxY; ++y) {
+                recurseHollow(extent, region, new BlockVector(x, y, minZ), outside);
+                recurseHollow(extent, region, new BlockVector(x, y, maxZ), outside);
+            }
+        }
+        for (int y = minY; y <= maxY; ++y) {
+            for (int z = minZ; z <= maxZ; ++z) {
+                recurseHollow(extent, region, new BlockVector(minX, y, z), outside);
+                recurseHollow(extent, region, new BlockVector(maxX, y, z), outside);
+            }
+        }
+        for (int z = minZ; z <= maxZ; ++z) {
+            for (int x = minX; x <= maxX; ++x) {
+                recurseHollow(extent, region, new BlockVector(x, minY, z), outside);
+                recurseHollow(extent, region, new BlockVector(x, maxY, z), outside);
+            }
+        }
+
+        for (int i = 1; i < thickness; ++i) {
+            Set<BlockVector> newOutside = new HashSet<>();
+            for (BlockVector position : region) {
+                if (touches(position, outside)) {
+                    newOutside.add(position);
+                }
+            }
+            outside.addAll(newOutside);
+        }
+
+        Set<BlockVector> hollow = new HashSet<>();
+        for (BlockVector position : region) {
+            if (!touches(position, outside)) {
+                hollow.add(position);
+            }
+        }
+        return hollow;
+    }
+
+    private static boolean touches(BlockVector position, Set<BlockVector> outside) {
+        for (Vector direction : DIRECTIONS) {
+            if (outside.contains(position.add(direction).toBlockVector())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void recurseHollow(Extent extent, Region region, BlockVector origin, Set<BlockVector> outside) {
+        LinkedList<BlockVector> queue = new LinkedList<>();
+        queue.addLast(origin);
+        while (!queue.isEmpty()) {
+            BlockVector current = queue.removeFirst();
+            if (extent.getBlock(current).getBlockType().getMaterial().isMovementBlocker()) {
+                continue;
+            }
+            if (!outside.add(current)) {
+                continue;
+            }
+            if (!region.contains(current)) {
+                continue;
+            }
+            for (Vector direction : DIRECTIONS) {
+                queue.addLast(current.add(direction).toBlockVector());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.session.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.sk89q.worldedit.LocalSession;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncSessionWriterTest {
+
+    /**
+     * Remembers the last script of every saved session, and can hold up
+     * saves until it is released.
+     */
+    private static final class BlockingStore implements SessionStore {
+        private final Map<UUID, String> saved = new ConcurrentHashMap<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private BlockingStore(boolean blocking) {
+            release = new CountDownLatch(blocking ? 1 : 0);
+        }
+
+        @Override
+        public LocalSession load(UUID id) {
+            LocalSession session = new LocalSession();
+            session.setLastScript(saved.get(id));
+            return session;
+        }
+
+        @Override
+        public void save(UUID id, LocalSession session) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            saved.put(id, session.getLastScript());
+        }
+    }
+
+    @Test
+    public void testPendingUntilWritten() throws Exception {
+        BlockingStore store = new BlockingStore(true);
+        AsyncSessionWriter writer = new AsyncSessionWriter(store);
+        UUID id = UUID.randomUUID();
+        LocalSession session = new LocalSession();
+        session.setLastScript("queued.js");
+
+        try {
+            writer.submit(id, session);
+            assertTrue(store.entered.await(10, TimeUnit.SECONDS));
+            // The store is still writing, so it has nothing yet
+            assertNull(store.load(id).getLastScript());
+            assertSame(session, writer.getPending(id));
+        } finally {
+            store.release.countDown();
+        }
+
+        assertTrue(writer.flush(10, TimeUnit.SECONDS));
+        assertNull(writer.getPending(id));
+        assertEquals("queued.js", store.saved.get(id));
+        assertTrue(writer.shutdown(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQueuedAgainWhileWriting() throws Exception {
+        BlockingStore store = new BlockingStore(true);
+        AsyncSessionWriter writer = new AsyncSessionWriter(store);
+        UUID id = UUID.randomUUID();
+        LocalSession session = new LocalSession();
+        session.setLastScript("first.js");
+
+        try {
+            writer.submit(id, session);
+            assertTrue(store.entered.await(10, TimeUnit.SECONDS));
+            LocalSession newer = new LocalSession();
+            newer.setLastScript("second.js");
+            writer.submit(id, newer);
+            assertSame(newer, writer.getPending(id));
+        } finally {
+            store.release.countDown();
+        }
+
+        assertTrue(writer.shutdown(10, TimeUnit.SECONDS));
+        assertEquals("second.js", store.saved.get(id));
+        assertEquals(0, writer.getQueueDepth());
+    }
+
+    @Test
+    public void testShutdownWritesAndRestarts() throws Exception {
+        BlockingStore store = new BlockingStore(false);
+        AsyncSessionWriter writer = new AsyncSessionWriter(store);
+        UUID id = UUID.randomUUID();
+        LocalSession session = new LocalSession();
+
+        session.setLastScript("before.js");
+        writer.submit(id, session);
+        assertTrue(writer.shutdown(10, TimeUnit.SECONDS));
+        assertEquals("before.js", store.saved.get(id));
+
+        // Sessions queued after a shutdown start a new writer thread
+        session.setLastScript("after.js");
+        writer.submit(id, session);
+        assertTrue(writer.shutdown(10, TimeUnit.SECONDS));
+        assertEquals("after.js", store.saved.get(id));
+    }
+
+}
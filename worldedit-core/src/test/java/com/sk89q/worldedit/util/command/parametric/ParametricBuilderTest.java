@@ -0,0 +1,132 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.command.parametric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sk89q.minecraft.util.commands.Command;
+import com.sk89q.minecraft.util.commands.CommandException;
+import com.sk89q.minecraft.util.commands.CommandLocals;
+import com.sk89q.worldedit.util.command.CommandCallable;
+import com.sk89q.worldedit.util.command.SimpleDispatcher;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParametricBuilderTest {
+
+    @Test
+    public void testUsesGeneratedTable() throws Exception {
+        TableCommands commands = new TableCommands();
+        CommandCallable callable = register(commands);
+
+        assertEquals("word", callable.getDescription().getParameters().get(0).getName());
+        assertEquals("count", callable.getDescription().getParameters().get(1).getName());
+
+        callable.call("hello 3", new CommandLocals(), new String[] { "echo" });
+        assertTrue(commands.invokedThroughTable);
+        assertEquals("hello3", commands.calls.get(0));
+    }
+
+    @Test
+    public void testFallsBackToReflection() throws Exception {
+        PlainCommands commands = new PlainCommands();
+        CommandCallable callable = register(commands);
+
+        assertEquals("string", callable.getDescription().getParameters().get(0).getName());
+
+        callable.call("hello 3", new CommandLocals(), new String[] { "echo" });
+        assertEquals("hello3", commands.calls.get(0));
+    }
+
+    @Test
+    public void testGeneratedTableRethrowsCommandException() throws Exception {
+        CommandCallable callable = register(new TableCommands());
+        try {
+            callable.call("fail 1", new CommandLocals(), new String[] { "echo" });
+            fail("Expected a CommandException");
+        } catch (CommandException e) {
+            assertSame(TableCommands.FAILURE, e);
+        }
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        assertEquals("echo(java.lang.String,int)",
+                CommandMethodTable.getKey(PlainCommands.class.getMethod("echo", String.class, int.class)));
+    }
+
+    private static CommandCallable register(Object commands) throws ParametricException {
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        new ParametricBuilder().registerMethodsAsCommands(dispatcher, commands);
+        return dispatcher.get("echo").getCallable();
+    }
+
+    public static class PlainCommands {
+        final List<String> calls = new ArrayList<>();
+
+        @Command(aliases = "echo", desc = "Echo")
+        public void echo(String word, int count) {
+            calls.add(word + count);
+        }
+    }
+
+    public static class TableCommands {
+        static final CommandException FAILURE = new CommandException("failed");
+
+        final List<String> calls = new ArrayList<>();
+        boolean invokedThroughTable;
+
+        @Command(aliases = "echo", desc = "Echo")
+        public void echo(String word, int count) throws CommandException {
+            if (word.equals("fail")) {
+                throw FAILURE;
+            }
+            calls.add(word + count);
+        }
+    }
+
+    /**
+     * Written out by hand as the processor would generate it.
+     */
+    public static final class TableCommands_CommandMethods implements CommandMethodTable {
+        @Override
+        public int indexOf(String key) {
+            return key.equals("echo(java.lang.String,int)") ? 0 : -1;
+        }
+
+        @Override
+        public String[] getParameterNames(int index) {
+            return new String[] { "word", "count" };
+        }
+
+        @Override
+        public void invoke(Object target, int index, Object[] args) throws Exception {
+            TableCommands commands = (TableCommands) target;
+            commands.invokedThroughTable = true;
+            commands.echo((String) args[0], (int) args[1]);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.eventbus;
+
+import static org.junit.Assert.assertEquals;
+
+import com.sk89q.worldedit.util.eventbus.EventHandler.Priority;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class EventBusTest {
+
+    public static class Event {
+    }
+
+    public static class SubEvent extends Event {
+    }
+
+    public static class PublicListener {
+        private final List<String> calls;
+
+        PublicListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @Subscribe(priority = Priority.LATE)
+        public void onEvent(Event event) {
+            calls.add("public late " + event.getClass().getSimpleName());
+        }
+
+        @Subscribe(priority = Priority.EARLY)
+        public void onSubEvent(SubEvent event) {
+            calls.add("public early " + event.getClass().getSimpleName());
+        }
+    }
+
+    private static class PrivateListener {
+        private final List<String> calls;
+
+        private PrivateListener(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @Subscribe
+        public void onEvent(Event event) {
+            calls.add("private normal " + event.getClass().getSimpleName());
+        }
+    }
+
+    public static class FailingListener {
+        @Subscribe(priority = Priority.VERY_EARLY)
+        public void onEvent(Event event) {
+            throw new IllegalStateException("expected");
+        }
+    }
+
+    @Test
+    public void testDispatchOrder() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+        bus.register(new PublicListener(calls));
+        bus.register(new PrivateListener(calls));
+
+        bus.post(new Event());
+        assertEquals(Arrays.asList("private normal Event", "public late Event"), calls);
+
+        calls.clear();
+        bus.post(new SubEvent());
+        assertEquals(Arrays.asList("public early SubEvent", "private normal SubEvent", "public late SubEvent"), calls);
+    }
+
+    @Test
+    public void testUnregister() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+        PublicListener listener = new PublicListener(calls);
+        bus.register(listener);
+        bus.post(new SubEvent());
+        assertEquals(2, calls.size());
+
+        // Posting built the dispatch list, which must be rebuilt now
+        calls.clear();
+        bus.unregister(listener);
+        bus.post(new SubEvent());
+        assertEquals(0, calls.size());
+
+        bus.register(new PrivateListener(calls));
+        bus.post(new SubEvent());
+        assertEquals(Arrays.asList("private normal SubEvent"), calls);
+    }
+
+    @Test
+    public void testFailingHandlerDoesNotStopDispatch() {
+        Logger logger = Logger.getLogger(EventBus.class.getCanonicalName());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.OFF);
+        try {
+            EventBus bus = new EventBus();
+            List<String> calls = new ArrayList<>();
+            bus.register(new FailingListener());
+            bus.register(new PrivateListener(calls));
+            bus.post(new Event());
+            assertEquals(Arrays.asList("private normal Event"), calls);
+        } finally {
+            logger.setLevel(level);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.io;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+public class ParallelGZIPOutputStreamTest {
+
+    private static final int[] SIZES = { 0, 1, 1000, 128 * 1024, 128 * 1024 + 1, 1024 * 1024 + 12345 };
+
+    @Test
+    public void testReadableByGZIPInputStream() throws IOException {
+        for (int size : SIZES) {
+            byte[] data = createData(size);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (ParallelGZIPOutputStream out = new ParallelGZIPOutputStream(compressed)) {
+                out.write(data);
+            }
+            assertArrayEquals("size " + size, data, decompress(compressed.toByteArray()));
+        }
+    }
+
+    @Test
+    public void testSingleByteWritesOnSeveralThreads() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] data = createData(300 * 1024);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (ParallelGZIPOutputStream out = new ParallelGZIPOutputStream(compressed, executor, Deflater.BEST_SPEED)) {
+                for (byte b : data) {
+                    out.write(b);
+                }
+            }
+            assertArrayEquals(data, decompress(compressed.toByteArray()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] createData(int size) {
+        // Repetitive enough that blocks reference the previous block's window
+        Random random = new Random(size);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = i >= 40000 && random.nextInt(4) != 0 ? data[i - 40000] : (byte) random.nextInt(16);
+        }
+        return data;
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return ByteStreams.toByteArray(in);
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.util.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class MetricsReportTest {
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(1000000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(99 * 100 + 1000000, histogram.getTotalNanos());
+        long median = histogram.getPercentileNanos(0.5);
+        assertTrue(median >= 100 && median < 200);
+        long max = histogram.getPercentileNanos(1);
+        assertTrue(max >= 1000000 && max < 2000000);
+
+        LatencyHistogram zero = new LatencyHistogram();
+        zero.record(0);
+        assertEquals(0, zero.getPercentileNanos(1));
+    }
+
+    @Test
+    public void testReportSummarizesStages() {
+        EditMetrics metrics = new EditMetrics();
+        StageMetrics top = metrics.addStage("before_history");
+        StageMetrics world = metrics.addStage("world");
+        top.recordRead(10);
+        top.recordWrite(50);
+        top.recordWrite(50);
+        world.recordWrite(20);
+        metrics.getWorldWrites().record(20);
+        metrics.getChunkChecks().record(5);
+        metrics.recordFlush(7);
+
+        MetricsReport report = MetricsReport.create("//set stone", metrics, 2);
+
+        assertEquals(1, report.getBlocksRead());
+        assertEquals(2, report.getBlocksWritten());
+        assertEquals(2, report.getStages().size());
+        assertEquals("before_history", report.getStages().get(0).getName());
+        assertEquals(110, report.getStages().get(0).getNanos());
+        assertEquals(1, report.getWorldWrites());
+        assertEquals(1, report.getChunkChecks());
+        assertEquals(7, report.getFlushNanos());
+        assertEquals(2, report.getHistoryChanges());
+
+        // Later changes to the metrics do not affect the report
+        top.recordWrite(1);
+        assertEquals(2, report.getBlocksWritten());
+
+        List<String> lines = report.format();
+        assertTrue(lines.get(0).startsWith("//set stone: "));
+        assertEquals(report.getStages().size() + 4, lines.size());
+    }
+
+}
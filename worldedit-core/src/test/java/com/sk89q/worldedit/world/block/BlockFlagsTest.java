@@ -0,0 +1,116 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.world.block;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.world.registry.BlockMaterial;
+import com.sk89q.worldedit.world.registry.PassthroughBlockMaterial;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class BlockFlagsTest {
+
+    private static final BlockType LOG = createType("flagstest:log");
+    private static final BlockType LEAVES = createType("flagstest:leaves");
+
+    private static BlockType createType(String id) {
+        return new BlockType(id) {
+            @Override
+            public Map<String, ? extends Property> getPropertyMap() {
+                return Collections.emptyMap();
+            }
+        };
+    }
+
+    @Test
+    public void testMaterialFlags() {
+        BlockMaterial material = new PassthroughBlockMaterial(null) {
+            @Override
+            public boolean isAir() {
+                return true;
+            }
+
+            @Override
+            public float getHardness() {
+                return 2.5f;
+            }
+        };
+
+        long flags = BlockFlags.of(material);
+        assertTrue((flags & BlockFlags.AIR) != 0);
+        // Defaults of a material without a backing material
+        assertTrue((flags & BlockFlags.FULL_CUBE) != 0);
+        assertTrue((flags & BlockFlags.SOLID) != 0);
+        assertFalse((flags & BlockFlags.LIQUID) != 0);
+        assertFalse((flags & BlockFlags.PLACE_LAST) != 0);
+
+        FlagBlockMaterial copy = new FlagBlockMaterial(material);
+        assertEquals(flags, BlockFlags.of(copy));
+        assertTrue(copy.isAir());
+        assertTrue(copy.isSolid());
+        assertFalse(copy.isLiquid());
+        assertEquals(2.5f, copy.getHardness(), 0);
+        assertEquals(material.getLightValue(), copy.getLightValue());
+    }
+
+    @Test
+    public void testCategoryMembershipBits() {
+        TestCategory logs = new TestCategory("flagstest:logs", ImmutableSet.of(LOG));
+        TestCategory both = new TestCategory("flagstest:both", ImmutableSet.of(LOG, LEAVES));
+
+        assertTrue(logs.contains(LOG));
+        assertFalse(logs.contains(LEAVES));
+        assertTrue(both.contains(LEAVES));
+        assertTrue(both.contains(LOG.getDefaultState()));
+        assertEquals(1, logs.loads);
+
+        logs.contents = ImmutableSet.of(LEAVES);
+        logs.invalidateCache();
+        assertFalse(logs.contains(LOG));
+        assertTrue(logs.contains(LEAVES));
+        assertTrue(both.contains(LOG));
+        assertEquals(2, logs.loads);
+    }
+
+    private static class TestCategory extends BlockCategory {
+        private Set<BlockType> contents;
+        private int loads;
+
+        private TestCategory(String id, Set<BlockType> contents) {
+            super(id);
+            this.contents = contents;
+        }
+
+        @Override
+        protected Set<BlockType> load() {
+            loads++;
+            return contents;
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.world.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.worldedit.registry.state.BooleanProperty;
+import com.sk89q.worldedit.registry.state.EnumProperty;
+import com.sk89q.worldedit.registry.state.Property;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BlockStateTranslationTableTest {
+
+    private static final Map<String, Property<?>> PROPERTIES = ImmutableMap.of(
+            "powered", new BooleanProperty("powered", Arrays.asList(true, false)),
+            "face", new EnumProperty("face", Arrays.asList("floor", "wall", "ceiling")));
+
+    private static final BlockType LEVER = new BlockType("translationtest:lever") {
+        @Override
+        public Map<String, ? extends Property> getPropertyMap() {
+            return PROPERTIES;
+        }
+    };
+
+    private static BlockStateTranslationTable<String> createTable(Map<String, BlockState> platform) {
+        return new BlockStateTranslationTable<>(state -> {
+            String id = "platform/" + state.getAsString();
+            platform.put(id, state);
+            return id;
+        }, platform::get);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Map<String, BlockState> platform = new HashMap<>();
+        BlockStateTranslationTable<String> table = createTable(platform);
+        table.populate();
+
+        assertEquals(6, LEVER.getAllStates().size());
+        for (BlockState state : LEVER.getAllStates()) {
+            String platformState = table.toPlatform(state);
+            assertSame(platformState, table.toPlatform(state));
+            // Equal but not identical platform states must find the same state
+            assertSame(state, table.fromPlatform(new String(platformState)));
+        }
+    }
+
+    @Test
+    public void testLazyTranslation() {
+        Map<String, BlockState> platform = new HashMap<>();
+        BlockStateTranslationTable<String> table = createTable(platform);
+
+        BlockState state = LEVER.getDefaultState();
+        String platformState = table.toPlatform(state.toBaseBlock());
+        assertEquals("platform/" + state.getAsString(), platformState);
+        assertSame(platformState, table.toPlatform(state));
+        assertSame(state, table.fromPlatform(platformState));
+        assertNull(table.fromPlatform("platform/unknown"));
+    }
+
+    @Test
+    public void testPopulateSkipsFailures() {
+        Map<String, BlockState> platform = new HashMap<>();
+        BlockStateTranslationTable<String> table = new BlockStateTranslationTable<>(state -> {
+            if (state.getBlockType() == LEVER && state.getState(LEVER.getProperty("powered")) == Boolean.TRUE) {
+                throw new IllegalArgumentException("unknown state");
+            }
+            String id = "platform/" + state.getAsString();
+            platform.put(id, state);
+            return id;
+        }, platform::get);
+        table.populate();
+
+        BlockState unpowered = LEVER.getDefaultState().with(LEVER.getProperty("powered"), false);
+        assertEquals("platform/" + unpowered.getAsString(), table.toPlatform(unpowered));
+        try {
+            table.toPlatform(LEVER.getDefaultState().with(LEVER.getProperty("powered"), true));
+            fail("Untranslatable state should be translated again when requested");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void testPassedStatesAreCopied() {
+        BlockState state = LEVER.getDefaultState();
+        BlockStateTranslationTable<MutableState> table = new BlockStateTranslationTable<>(
+                s -> new MutableState(s.getAsString()),
+                s -> s.id.equals(state.getAsString()) ? state : null,
+                s -> new MutableState(s.id));
+
+        MutableState passed = new MutableState(state.getAsString());
+        assertSame(state, table.fromPlatform(passed));
+        passed.id = "changed";
+        assertSame(state, table.fromPlatform(new MutableState(state.getAsString())));
+        assertNull(table.fromPlatform(passed));
+    }
+
+    @Test
+    public void testInternalIds() {
+        for (BlockState state : LEVER.getAllStates()) {
+            BlockState other = LEVER.getAllStates().get(0);
+            assertEquals(state == other, state.getInternalId() == other.getInternalId());
+        }
+        assertEquals(-1, LEVER.getDefaultState().toFuzzy().getInternalId());
+    }
+
+    private static class MutableState {
+        private String id;
+
+        private MutableState(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof MutableState && ((MutableState) obj).id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+
+}
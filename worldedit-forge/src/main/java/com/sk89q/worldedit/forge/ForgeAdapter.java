@@ -22,12 +22,23 @@
 import com.sk89q.worldedit.Vector;
 import com.sk89q.worldedit.util.Direction;
 import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.registry.BlockStateTranslationTable;
+import com.sk89q.worldedit.world.registry.LegacyMapper;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
+import javax.annotation.Nullable;
+
 final class ForgeAdapter {
 
+    private static final BlockStateTranslationTable<IBlockState> blockStateTable =
+            new BlockStateTranslationTable<>(ForgeAdapter::toNative, ForgeAdapter::fromNative);
+
     private ForgeAdapter() {
     }
 
@@ -64,4 +75,40 @@ public static BlockPos toBlockPos(Vector vector) {
         return new BlockPos(vector.getBlockX(), vector.getBlockY(), vector.getBlockZ());
     }
 
+    /**
+     * Translate every known block state ahead of time, so that block
+     * changes do not have to go through the legacy mapper later.
+     */
+    static void loadBlockStateTable() {
+        blockStateTable.populate();
+    }
+
+    @Nullable
+    public static IBlockState adapt(BlockStateHolder<?> block) {
+        return blockStateTable.toPlatform(block);
+    }
+
+    @Nullable
+    public static BlockState adapt(IBlockState state) {
+        return blockStateTable.fromPlatform(state);
+    }
+
+    @Nullable
+    @SuppressWarnings("deprecation")
+    private static IBlockState toNative(BlockState state) {
+        int[] legacy = LegacyMapper.getInstance().getLegacyFromBlock(state);
+        if (legacy != null) {
+            Block block = Block.getBlockById(legacy[0]);
+            return block.getStateFromMeta(legacy.length > 1 ? legacy[1] : 0);
+        }
+        Block block = Block.getBlockFromName(state.getBlockType().getId());
+        return block != null ? block.getDefaultState() : null;
+    }
+
+    @Nullable
+    private static BlockState fromNative(IBlockState state) {
+        Block block = state.getBlock();
+        return LegacyMapper.getInstance().getBlockFromLegacy(Block.getIdFromBlock(block), block.getMetaFromState(state));
+    }
+
 }
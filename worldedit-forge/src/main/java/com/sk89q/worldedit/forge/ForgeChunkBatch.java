@@ -0,0 +1,159 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.forge;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sk89q.worldedit.Vector;
+import com.sk89q.worldedit.world.ChunkBatch;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.play.server.SPacketChunkData;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.EnumSkyBlock;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the fast mode changes of an edit session directly into the
+ * section storage of each chunk.
+ *
+ * <p>Writing a chunk skips physics and per-block lighting. Instead the
+ * height map and sky light of the chunk are regenerated once, block light
+ * is rechecked where a change emits or blocks light differently, the
+ * chunk is queued for a gradual light recheck and the whole chunk is
+ * resent to players that are watching it. Tile entities of replaced blocks
+ * are removed and tile entities of blocks with NBT data are created
+ * afterwards; other tile entities are created by the game when they are
+ * first accessed.</p>
+ */
+final class ForgeChunkBatch extends ChunkBatch {
+
+    private final WeakReference<World> worldRef;
+
+    /**
+     * Create a new instance.
+     *
+     * @param world the world
+     */
+    ForgeChunkBatch(World world) {
+        super(world.getHeight());
+        checkNotNull(world);
+        this.worldRef = new WeakReference<>(world);
+    }
+
+    @Override
+    protected void apply(BatchChunk batchChunk) {
+        World world = worldRef.get();
+        if (world == null) {
+            return;
+        }
+
+        Chunk chunk = world.getChunkFromChunkCoords(batchChunk.getX(), batchChunk.getZ());
+        ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+        boolean skyLight = world.provider.hasSkyLight();
+        int baseX = batchChunk.getX() << 4;
+        int baseZ = batchChunk.getZ() << 4;
+        List<BlockPos> lightChanges = new ArrayList<>();
+        List<BaseBlock> tileBlocks = new ArrayList<>();
+        List<BlockPos> tilePositions = new ArrayList<>();
+        boolean changed = false;
+
+        for (int sectionY = 0; sectionY < batchChunk.getSectionCount(); sectionY++) {
+            BlockStateHolder[] blocks = batchChunk.getSection(sectionY);
+            if (blocks == null) {
+                continue;
+            }
+            ExtendedBlockStorage section = storage[sectionY];
+            for (int i = 0; i < blocks.length; i++) {
+                BlockStateHolder block = blocks[i];
+                IBlockState state = block != null ? ForgeAdapter.adapt(block) : null;
+                if (state == null) {
+                    continue;
+                }
+                int x = i & 15;
+                int y = i >> 8;
+                int z = (i >> 4) & 15;
+                BlockPos pos = new BlockPos(baseX | x, sectionY << 4 | y, baseZ | z);
+                if (block instanceof BaseBlock && ((BaseBlock) block).hasNbtData()) {
+                    tileBlocks.add((BaseBlock) block);
+                    tilePositions.add(pos);
+                }
+                if (section == null) {
+                    if (state.getBlock() == Blocks.AIR) {
+                        continue;
+                    }
+                    section = new ExtendedBlockStorage(sectionY << 4, skyLight);
+                    storage[sectionY] = section;
+                }
+                IBlockState old = section.get(x, y, z);
+                if (old == state) {
+                    continue;
+                }
+                int oldLight = old.getLightValue(world, pos);
+                int oldOpacity = old.getLightOpacity(world, pos);
+                if (old.getBlock().hasTileEntity(old)) {
+                    world.removeTileEntity(pos);
+                }
+                section.set(x, y, z, state);
+                if (state.getLightValue(world, pos) != oldLight || state.getLightOpacity(world, pos) != oldOpacity) {
+                    lightChanges.add(pos);
+                }
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            chunk.generateSkylightMap();
+            for (BlockPos pos : lightChanges) {
+                world.checkLightFor(EnumSkyBlock.BLOCK, pos);
+            }
+            chunk.resetRelightChecks();
+            chunk.markDirty();
+        }
+
+        for (int i = 0; i < tileBlocks.size(); i++) {
+            BaseBlock block = tileBlocks.get(i);
+            BlockPos pos = tilePositions.get(i);
+            world.removeTileEntity(pos);
+            NBTTagCompound nativeTag = NBTConverter.toNative(block.getNbtData());
+            nativeTag.setString("id", block.getNbtId());
+            TileEntityUtils.setTileEntity(world, new Vector(pos.getX(), pos.getY(), pos.getZ()), nativeTag);
+        }
+
+        if ((changed || !tileBlocks.isEmpty()) && world instanceof WorldServer) {
+            PlayerChunkMapEntry entry = ((WorldServer) world).getPlayerChunkMap().getEntry(batchChunk.getX(), batchChunk.getZ());
+            if (entry != null) {
+                entry.sendPacket(new SPacketChunkData(chunk, 0xFFFF));
+            }
+        }
+    }
+
+}
@@ -19,6 +19,7 @@
 
 package com.sk89q.worldedit.forge;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.io.Files;
@@ -41,13 +42,12 @@
 import com.sk89q.worldedit.util.Location;
 import com.sk89q.worldedit.util.TreeGenerator.TreeType;
 import com.sk89q.worldedit.world.AbstractWorld;
+import com.sk89q.worldedit.world.ChunkBatch;
 import com.sk89q.worldedit.world.biome.BaseBiome;
 import com.sk89q.worldedit.world.block.BlockState;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 import com.sk89q.worldedit.world.item.ItemTypes;
-import com.sk89q.worldedit.world.registry.LegacyMapper;
 import com.sk89q.worldedit.world.weather.WeatherType;
-import net.minecraft.block.Block;
 import net.minecraft.block.BlockLeaves;
 import net.minecraft.block.BlockOldLeaf;
 import net.minecraft.block.BlockOldLog;
@@ -65,6 +65,7 @@
 import net.minecraft.util.EnumActionResult;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
@@ -165,18 +166,26 @@ public boolean setBlock(Vector position, BlockStateHolder block, boolean notifyA
         int x = position.getBlockX();
         int y = position.getBlockY();
         int z = position.getBlockZ();
+        if (y < 0 || y >= world.getHeight()) {
+            return false;
+        }
+
+        IBlockState newState = ForgeAdapter.adapt(block);
+        if (newState == null) {
+            return false;
+        }
+        boolean hasNbtData = block instanceof BaseBlock && ((BaseBlock) block).hasNbtData();
 
         // First set the block
         Chunk chunk = world.getChunkFromChunkCoords(x >> 4, z >> 4);
         BlockPos pos = new BlockPos(x, y, z);
         IBlockState old = chunk.getBlockState(pos);
-        IBlockState newState = Block.getBlockById(block.getBlockType().getLegacyId()).getDefaultState(); // TODO .getStateFromMeta(block.getData());
         IBlockState successState = chunk.setBlockState(pos, newState);
         boolean successful = successState != null;
 
         // Create the TileEntity
         if (successful) {
-            if (block instanceof BaseBlock && ((BaseBlock) block).hasNbtData()) {
+            if (hasNbtData) {
                 // Kill the old TileEntity
                 world.removeTileEntity(pos);
                 NBTTagCompound nativeTag = NBTConverter.toNative(((BaseBlock) block).getNbtData());
@@ -196,6 +205,11 @@ public boolean setBlock(Vector position, BlockStateHolder block, boolean notifyA
         return successful;
     }
 
+    @Override
+    public ChunkBatch createChunkBatch() {
+        return new ForgeChunkBatch(getWorld());
+    }
+
     @Override
     public int getBlockLightLevel(Vector position) {
         checkNotNull(position);
@@ -237,6 +251,64 @@ public boolean setBiome(Vector2D position, BaseBiome biome) {
         return false;
     }
 
+    @Override
+    public void getBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        checkNotNull(biomes);
+        checkArgument(biomes.length >= width * length, "biomes is too small");
+
+        World world = getWorld();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                int id = Biome.getIdForBiome(world.getBiomeForCoordsBody(pos.setPos(x + dx, 0, z + dz)));
+                // BaseBiome is mutable, so every column gets its own
+                biomes[index++] = new BaseBiome(id);
+            }
+        }
+    }
+
+    @Override
+    public int setBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        checkNotNull(biomes);
+        checkArgument(biomes.length >= width * length, "biomes is too small");
+
+        // Write each chunk's biome array once, rather than looking the
+        // chunk up again for every column
+        World world = getWorld();
+        int changed = 0;
+        for (int chunkX = x >> 4; chunkX <= (x + width - 1) >> 4; chunkX++) {
+            for (int chunkZ = z >> 4; chunkZ <= (z + length - 1) >> 4; chunkZ++) {
+                Chunk chunk = world.getChunkFromChunkCoords(chunkX, chunkZ);
+                if (!chunk.isLoaded()) {
+                    continue;
+                }
+
+                byte[] biomeArray = chunk.getBiomeArray();
+                int minX = Math.max(x, chunkX << 4);
+                int maxX = Math.min(x + width, (chunkX << 4) + 16);
+                int minZ = Math.max(z, chunkZ << 4);
+                int maxZ = Math.min(z + length, (chunkZ << 4) + 16);
+                int chunkChanged = 0;
+                for (int bz = minZ; bz < maxZ; bz++) {
+                    for (int bx = minX; bx < maxX; bx++) {
+                        BaseBiome biome = biomes[(bz - z) * width + (bx - x)];
+                        if (biome != null) {
+                            biomeArray[(bz & 0xF) << 4 | bx & 0xF] = (byte) biome.getId();
+                            chunkChanged++;
+                        }
+                    }
+                }
+
+                if (chunkChanged != 0) {
+                    chunk.markDirty();
+                    changed += chunkChanged;
+                }
+            }
+        }
+        return changed;
+    }
+
     @Override
     public boolean useItem(Vector position, BaseItem item, Direction face) {
         Item nativeItem = Item.getByNameOrId(item.getType().getId());
@@ -378,7 +450,7 @@ public BlockState getBlock(Vector position) {
         BlockPos pos = new BlockPos(position.getBlockX(), position.getBlockY(), position.getBlockZ());
         IBlockState state = world.getBlockState(pos);
 
-        return LegacyMapper.getInstance().getBlockFromLegacy(Block.getIdFromBlock(state.getBlock()), state.getBlock().getMetaFromState(state));
+        return ForgeAdapter.adapt(state);
     }
 
     @Override
@@ -416,8 +488,15 @@ public boolean equals(Object o) {
 
     @Override
     public List<? extends Entity> getEntities(Region region) {
+        // The AABB lookup only visits the chunks it overlaps; pad it by a
+        // block because Region.contains() rounds positions
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        AxisAlignedBB bounds = new AxisAlignedBB(
+                min.getX() - 1, min.getY() - 1, min.getZ() - 1,
+                max.getX() + 2, max.getY() + 2, max.getZ() + 2);
         List<Entity> entities = new ArrayList<>();
-        for (net.minecraft.entity.Entity entity : getWorld().loadedEntityList) {
+        for (net.minecraft.entity.Entity entity : getWorld().getEntitiesWithinAABB(net.minecraft.entity.Entity.class, bounds)) {
             if (region.contains(new Vector(entity.posX, entity.posY, entity.posZ))) {
                 entities.add(new ForgeEntity(entity));
             }
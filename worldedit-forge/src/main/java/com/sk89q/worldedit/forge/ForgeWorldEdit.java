@@ -144,6 +144,9 @@ public void serverStopping(FMLServerStoppingEvent event) {
     @EventHandler
     public void serverStarted(FMLServerStartedEvent event) {
         WorldEdit.getInstance().getEventBus().post(new PlatformReadyEvent());
+
+        // Block types are registered now, so translate their states once up front
+        ForgeAdapter.loadBlockStateTable();
     }
 
     @SubscribeEvent
@@ -19,6 +19,7 @@
 
 package com.sk89q.worldedit.sponge;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.flowpowered.math.vector.Vector3d;
@@ -32,31 +33,36 @@
 import com.sk89q.worldedit.entity.BaseEntity;
 import com.sk89q.worldedit.entity.Entity;
 import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.sponge.adapter.SpongeImplAdapter;
 import com.sk89q.worldedit.registry.state.Property;
 import com.sk89q.worldedit.util.Location;
 import com.sk89q.worldedit.world.AbstractWorld;
 import com.sk89q.worldedit.world.biome.BaseBiome;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 import com.sk89q.worldedit.world.item.ItemTypes;
+import com.sk89q.worldedit.world.registry.BlockStateTranslationTable;
 import com.sk89q.worldedit.world.weather.WeatherType;
 import com.sk89q.worldedit.world.weather.WeatherTypes;
 import org.spongepowered.api.Sponge;
-import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.block.tileentity.TileEntity;
+import org.spongepowered.api.block.trait.BlockTrait;
 import org.spongepowered.api.data.key.Keys;
 import org.spongepowered.api.data.property.block.GroundLuminanceProperty;
 import org.spongepowered.api.data.property.block.SkyLuminanceProperty;
 import org.spongepowered.api.entity.EntityType;
 import org.spongepowered.api.entity.EntityTypes;
+import org.spongepowered.api.util.AABB;
 import org.spongepowered.api.world.BlockChangeFlags;
 import org.spongepowered.api.world.World;
+import org.spongepowered.api.world.biome.BiomeType;
 import org.spongepowered.api.world.weather.Weather;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -68,6 +74,9 @@
  */
 public abstract class SpongeWorld extends AbstractWorld {
 
+    private static final BlockStateTranslationTable<BlockState> blockStateTable =
+            new BlockStateTranslationTable<>(SpongeWorld::toSponge, SpongeWorld::fromSponge);
+
     private final WeakReference<World> worldRef;
 
     /**
@@ -115,24 +124,85 @@ public String getName() {
         return getWorld().getName();
     }
 
+    /**
+     * Translate every known block state ahead of time, so that block
+     * changes do not have to look up types and traits later.
+     */
+    static void loadBlockStateTable() {
+        blockStateTable.populate();
+    }
+
     @SuppressWarnings("WeakerAccess")
     protected BlockState getBlockState(BlockStateHolder<?> block) {
-        if (block instanceof com.sk89q.worldedit.world.block.BlockState) {
-            BlockState state = Sponge.getRegistry().getType(BlockType.class, block.getBlockType().getId()).orElse(BlockTypes.AIR).getDefaultState();
-            for (Map.Entry<Property<?>, Object> entry : block.getStates().entrySet()) {
-                // TODO Convert across states
+        BlockState state = blockStateTable.toPlatform(block);
+        return state != null ? state : BlockTypes.AIR.getDefaultState();
+    }
+
+    /**
+     * Get the WorldEdit state for a Sponge block state.
+     *
+     * @param state the Sponge state
+     * @return the WorldEdit state, or null if the block type is not known to WorldEdit
+     */
+    @Nullable
+    @SuppressWarnings("WeakerAccess")
+    protected static com.sk89q.worldedit.world.block.BlockState getWorldEditState(BlockState state) {
+        return blockStateTable.fromPlatform(state);
+    }
+
+    @Nullable
+    private static BlockState toSponge(com.sk89q.worldedit.world.block.BlockState block) {
+        BlockState state = Sponge.getRegistry().getType(BlockType.class, block.getBlockType().getId()).orElse(BlockTypes.AIR).getDefaultState();
+        for (Map.Entry<Property<?>, Object> entry : block.getStates().entrySet()) {
+            Optional<BlockTrait<?>> trait = state.getTrait(entry.getKey().getName());
+            if (trait.isPresent()) {
+                Object value = findValue(trait.get().getPossibleValues(), entry.getValue());
+                if (value != null) {
+                    state = state.withTrait(trait.get(), value).orElse(state);
+                }
+            }
+        }
+        return state;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static com.sk89q.worldedit.world.block.BlockState fromSponge(BlockState state) {
+        com.sk89q.worldedit.world.block.BlockType type = com.sk89q.worldedit.world.block.BlockTypes.get(state.getType().getId());
+        if (type == null) {
+            return null;
+        }
+        com.sk89q.worldedit.world.block.BlockState block = type.getDefaultState();
+        for (Map.Entry<BlockTrait<?>, ?> entry : state.getTraitMap().entrySet()) {
+            Property<Object> property = type.getPropertyMap().get(entry.getKey().getName());
+            if (property != null) {
+                Object value = findValue(property.getValues(), entry.getValue());
+                if (value != null) {
+                    block = block.with(property, value);
+                }
             }
-            return state;
-        } else {
-            throw new UnsupportedOperationException("Missing Sponge adapter for WorldEdit!");
         }
+        return block;
+    }
+
+    /**
+     * Find the value among the possible values of a property or trait that
+     * matches a value of the other platform. Values are matched by their
+     * string form, ignoring case, because enumerated values differ in type.
+     */
+    @Nullable
+    private static Object findValue(Collection<?> values, Object value) {
+        for (Object candidate : values) {
+            if (candidate.equals(value) || candidate.toString().equalsIgnoreCase(value.toString())) {
+                return candidate;
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("WeakerAccess")
     protected abstract void applyTileEntityData(TileEntity entity, BaseBlock block);
 
-    private static final BlockSnapshot.Builder builder = BlockSnapshot.builder();
-
     @Override
     public boolean setBlock(Vector position, BlockStateHolder block, boolean notifyAndLight) throws WorldEditException {
         checkNotNull(position);
@@ -144,13 +214,7 @@ public boolean setBlock(Vector position, BlockStateHolder block, boolean notifyA
         Vector3i pos = new Vector3i(position.getX(), position.getY(), position.getZ());
         BlockState newState = getBlockState(block);
 
-        BlockSnapshot snapshot = builder.reset()
-                .blockState(newState)
-                .position(pos)
-                .world(world.getProperties())
-                .build();
-
-        snapshot.restore(true, notifyAndLight ? BlockChangeFlags.ALL : BlockChangeFlags.NONE);
+        world.setBlock(pos, newState, notifyAndLight ? BlockChangeFlags.ALL : BlockChangeFlags.NONE);
 
         // Create the TileEntity
         if (block instanceof BaseBlock && ((BaseBlock) block).hasNbtData()) {
@@ -199,6 +263,58 @@ public boolean setBiome(Vector2D position, BaseBiome biome) {
         return true;
     }
 
+    @Override
+    public void getBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        checkNotNull(biomes);
+        checkArgument(biomes.length >= width * length, "biomes is too small");
+
+        World world = getWorld();
+        SpongeImplAdapter adapter = SpongeWorldEdit.inst().getAdapter();
+        BiomeType lastType = null;
+        int lastId = 0;
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                // Neighbouring columns usually share a biome, so only translate changes
+                BiomeType type = world.getBiome(x + dx, 0, z + dz);
+                if (type != lastType) {
+                    lastType = type;
+                    lastId = adapter.resolve(type);
+                }
+                // BaseBiome is mutable, so every column gets its own
+                biomes[index++] = new BaseBiome(lastId);
+            }
+        }
+    }
+
+    @Override
+    public int setBiomes(int x, int z, int width, int length, BaseBiome[] biomes) {
+        checkNotNull(biomes);
+        checkArgument(biomes.length >= width * length, "biomes is too small");
+
+        World world = getWorld();
+        SpongeImplAdapter adapter = SpongeWorldEdit.inst().getAdapter();
+        int lastId = 0;
+        BiomeType lastType = null;
+        int changed = 0;
+        int index = 0;
+        for (int dz = 0; dz < length; ++dz) {
+            for (int dx = 0; dx < width; ++dx) {
+                BaseBiome biome = biomes[index++];
+                if (biome == null) {
+                    continue;
+                }
+                if (lastType == null || biome.getId() != lastId) {
+                    lastId = biome.getId();
+                    lastType = adapter.resolveBiome(lastId);
+                }
+                world.setBiome(x + dx, 0, z + dz, lastType);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
     @Override
     public void dropItem(Vector position, BaseItemStack item) {
         checkNotNull(position);
@@ -244,8 +360,15 @@ public boolean equals(Object o) {
 
     @Override
     public List<? extends Entity> getEntities(Region region) {
+        // The AABB lookup only visits the chunks it overlaps; pad it by a
+        // block because Region.contains() rounds positions
+        Vector min = region.getMinimumPoint();
+        Vector max = region.getMaximumPoint();
+        AABB bounds = new AABB(
+                new Vector3d(min.getX() - 1, min.getY() - 1, min.getZ() - 1),
+                new Vector3d(max.getX() + 2, max.getY() + 2, max.getZ() + 2));
         List<Entity> entities = new ArrayList<>();
-        for (org.spongepowered.api.entity.Entity entity : getWorld().getEntities()) {
+        for (org.spongepowered.api.entity.Entity entity : getWorld().getIntersectingEntities(bounds)) {
             org.spongepowered.api.world.Location<World> loc = entity.getLocation();
             if (region.contains(new Vector(loc.getX(), loc.getY(), loc.getZ()))) {
                 entities.add(new SpongeEntity(entity));
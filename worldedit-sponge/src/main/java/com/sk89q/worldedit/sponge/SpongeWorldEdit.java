@@ -160,6 +160,9 @@ public void serverStopping(GameStoppingServerEvent event) {
     public void serverStarted(GameStartedServerEvent event) {
         WorldEdit.getInstance().getEventBus().post(new PlatformReadyEvent());
 
+        // Block types are registered now, so translate their states once up front
+        SpongeWorld.loadBlockStateTable();
+
         loadAdapter();
     }
 